@@ -0,0 +1,68 @@
+package com.intuit.springwebclient.benchmark;
+
+import com.intuit.springwebclient.client.CommonSpringWebClient;
+import com.intuit.springwebclient.coalescing.CoalescingKeyFunction;
+import com.intuit.springwebclient.config.HttpClientConfig;
+import com.intuit.springwebclient.config.HttpConnectionPoolConfig;
+import com.intuit.springwebclient.config.SpringWebClientConfig;
+import com.intuit.springwebclient.config.WebClientConfiguration;
+import com.intuit.springwebclient.filter.WebClientRequestFilter;
+import com.intuit.springwebclient.metrics.MicrometerWebClientMetrics;
+import com.intuit.springwebclient.metrics.WebClientMetrics;
+import com.intuit.springwebclient.retryHandler.RetryHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+/**
+ * Wires a {@link CommonSpringWebClient} the same way the Spring context does, without starting
+ * one, so benchmarks exercise the production {@link WebClientConfiguration}.
+ */
+public final class BenchmarkClients {
+
+  /**
+   * Large enough for {@link BenchmarkPayloads#LARGE_JSON}.
+   */
+  private static final int MAX_IN_MEMORY_SIZE = 4 * 1024 * 1024;
+
+  private BenchmarkClients() {
+  }
+
+  /**
+   * @return configuration equivalent to the documented defaults.
+   */
+  public static SpringWebClientConfig defaultConfig() {
+    SpringWebClientConfig config = new SpringWebClientConfig();
+    config.setConnectionPool(new HttpConnectionPoolConfig());
+    config.setHttpClientConfig(new HttpClientConfig());
+    config.setMaxInMemorySize(MAX_IN_MEMORY_SIZE);
+    return config;
+  }
+
+  /**
+   * Creates a client from the given configuration. When metrics are enabled they are recorded into
+   * an in-memory registry.
+   *
+   * @param config web client configuration
+   * @return client backed by a dedicated connection pool
+   */
+  public static CommonSpringWebClient create(SpringWebClientConfig config) {
+    WebClientConfiguration configuration = new WebClientConfiguration(config,
+        new WebClientRequestFilter() {
+        });
+    WebClientMetrics webClientMetrics = config.getMetrics().isEnabled()
+        ? new MicrometerWebClientMetrics(new SimpleMeterRegistry(), config.getMetrics())
+        : WebClientMetrics.NOOP;
+    return new CommonSpringWebClient(configuration.createWebClient(), webClientMetrics,
+        configuration.retryBudgetRegistry(), configuration.circuitBreakerRegistry(),
+        configuration.webClientProfiles(),
+        configuration.requestCoalescer(webClientMetrics, new StaticListableBeanFactory()
+            .getBeanProvider(CoalescingKeyFunction.class)),
+        configuration.responseCache(webClientMetrics),
+        configuration.requestHedger(webClientMetrics),
+        configuration.concurrencyLimiterRegistry(webClientMetrics),
+        configuration.rateLimiterRegistry(),
+        configuration.syncExecutor(), configuration.errorLogger(),
+        configuration.retryHandlerRegistry(new StaticListableBeanFactory()
+            .getBeanProvider(RetryHandler.class)));
+  }
+}
@@ -0,0 +1,108 @@
+package com.intuit.springwebclient.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.github.luben.zstd.Zstd;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Deterministic JSON, Smile and CBOR payloads, and the large JSON payload compressed, shared by
+ * the stub server and the benchmarks, so every run exchanges exactly the same bytes.
+ */
+public final class BenchmarkPayloads {
+
+  public static final int SMALL_ITEM_COUNT = 1;
+  public static final int LARGE_ITEM_COUNT = 2_000;
+
+  public static final Payload SMALL = payload("small", SMALL_ITEM_COUNT);
+  public static final Payload LARGE = payload("large", LARGE_ITEM_COUNT);
+
+  public static final byte[] SMALL_JSON = toJson(SMALL);
+  public static final byte[] LARGE_JSON = toJson(LARGE);
+  public static final byte[] SMALL_SMILE = serialize(new ObjectMapper(new SmileFactory()), SMALL);
+  public static final byte[] LARGE_SMILE = serialize(new ObjectMapper(new SmileFactory()), LARGE);
+  public static final byte[] SMALL_CBOR = serialize(new ObjectMapper(new CBORFactory()), SMALL);
+  public static final byte[] LARGE_CBOR = serialize(new ObjectMapper(new CBORFactory()), LARGE);
+  public static final byte[] LARGE_JSON_GZIP = gzip(LARGE_JSON);
+  public static final byte[] LARGE_JSON_DEFLATE = deflate(LARGE_JSON);
+  public static final byte[] LARGE_JSON_ZSTD = Zstd.compress(LARGE_JSON);
+  public static final byte[] ITEMS_JSON_ARRAY = toJson(LARGE.items());
+  public static final byte[] ITEMS_NDJSON = toDelimited(LARGE.items(), "", "\n");
+  public static final byte[] ITEMS_SSE = toDelimited(LARGE.items(), "data:", "\n\n");
+  public static final byte[] ERROR_JSON = "{\"code\":\"DOWNSTREAM_ERROR\",\"message\":\"stubbed failure\"}"
+      .getBytes();
+
+  private BenchmarkPayloads() {
+  }
+
+  private static Payload payload(String requestId, int itemCount) {
+    List<Item> items = new ArrayList<>(itemCount);
+    for (int i = 0; i < itemCount; i++) {
+      items.add(new Item(i, "item-" + i, i % 2 == 0 ? "ACTIVE" : "INACTIVE", i * 1.25d,
+          List.of("tag-" + (i % 7), "tag-" + (i % 11))));
+    }
+    return new Payload(requestId, items);
+  }
+
+  private static byte[] toJson(Object payload) {
+    return serialize(new ObjectMapper(), payload);
+  }
+
+  private static byte[] serialize(ObjectMapper objectMapper, Object payload) {
+    try {
+      return objectMapper.writeValueAsBytes(payload);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Unable to serialize benchmark payload", e);
+    }
+  }
+
+  private static byte[] gzip(byte[] body) {
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+      out.write(body);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return compressed.toByteArray();
+  }
+
+  private static byte[] deflate(byte[] body) {
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    try (DeflaterOutputStream out = new DeflaterOutputStream(compressed)) {
+      out.write(body);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return compressed.toByteArray();
+  }
+
+  private static byte[] toDelimited(List<Item> items, String prefix, String delimiter) {
+    StringBuilder body = new StringBuilder();
+    for (Item item : items) {
+      body.append(prefix).append(new String(toJson(item))).append(delimiter);
+    }
+    return body.toString().getBytes();
+  }
+
+  /**
+   * Request/response body used by the benchmarks.
+   */
+  public record Payload(String requestId, List<Item> items) {
+
+  }
+
+  /**
+   * A single line item, shaped like a typical downstream DTO.
+   */
+  public record Item(long id, String name, String status, double amount, List<String> tags) {
+
+  }
+}
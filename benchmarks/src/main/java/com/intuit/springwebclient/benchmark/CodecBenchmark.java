@@ -0,0 +1,110 @@
+package com.intuit.springwebclient.benchmark;
+
+import com.intuit.springwebclient.benchmark.BenchmarkPayloads.Payload;
+import com.intuit.springwebclient.client.CommonSpringWebClient;
+import com.intuit.springwebclient.config.CodecConfig;
+import com.intuit.springwebclient.config.SpringWebClientConfig;
+import com.intuit.springwebclient.entity.ClientHttpRequest;
+import com.intuit.springwebclient.entity.ClientHttpResponse;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ParameterizedTypeReference;
+
+/**
+ * {@link CommonSpringWebClient#syncHttpResponse} decoding a payload with each codec of
+ * {@code spring-web-client-config.codecs}. The stub server answers with the format the client
+ * requests in its Accept header, so the client measures the decode of the same payload as JSON,
+ * Smile or CBOR. Run with {@code -prof gc} to compare the allocation per call.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@Threads(4)
+public class CodecBenchmark {
+
+  /**
+   * Codec configurations compared.
+   */
+  public enum Codec {
+    JSON(false, false, false),
+    JSON_BLACKBIRD(false, false, true),
+    SMILE(true, false, false),
+    SMILE_BLACKBIRD(true, false, true),
+    CBOR(false, true, false);
+
+    private final boolean smile;
+    private final boolean cbor;
+    private final boolean blackbird;
+
+    Codec(boolean smile, boolean cbor, boolean blackbird) {
+      this.smile = smile;
+      this.cbor = cbor;
+      this.blackbird = blackbird;
+    }
+  }
+
+  /**
+   * Payloads decoded.
+   */
+  public enum Size {
+    SMALL("/negotiated/small"),
+    LARGE("/negotiated/large");
+
+    private final String path;
+
+    Size(String path) {
+      this.path = path;
+    }
+  }
+
+  @Param({"JSON", "JSON_BLACKBIRD", "SMILE", "SMILE_BLACKBIRD", "CBOR"})
+  private Codec codec;
+
+  @Param({"SMALL", "LARGE"})
+  private Size size;
+
+  private StubServer server;
+  private CommonSpringWebClient client;
+  private ClientHttpRequest<Void, Payload> request;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    server = StubServer.start();
+    SpringWebClientConfig config = BenchmarkClients.defaultConfig();
+    CodecConfig codecConfig = config.getCodecs();
+    codecConfig.setSmile(codec.smile);
+    codecConfig.setCbor(codec.cbor);
+    codecConfig.setBlackbird(codec.blackbird);
+    client = BenchmarkClients.create(config);
+    request = ClientHttpRequest.<Void, Payload>builder()
+        .url(server.baseUrl() + size.path)
+        .responseType(ParameterizedTypeReference.forType(Payload.class))
+        .build();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    server.close();
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  public ClientHttpResponse<Payload> toEntity() {
+    return client.syncHttpResponse(request);
+  }
+}
@@ -0,0 +1,168 @@
+package com.intuit.springwebclient.benchmark;
+
+import com.intuit.springwebclient.benchmark.BenchmarkPayloads.Payload;
+import com.intuit.springwebclient.client.CommonSpringWebClient;
+import com.intuit.springwebclient.config.SpringWebClientConfig;
+import com.intuit.springwebclient.config.WebClientRetryConfig;
+import com.intuit.springwebclient.entity.ClientHttpRequest;
+import com.intuit.springwebclient.entity.ClientHttpResponse;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.MDC;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+
+/**
+ * End-to-end cost of {@link CommonSpringWebClient#syncHttpResponse} and
+ * {@link CommonSpringWebClient#asyncHttpResponse} against a loopback {@link StubServer}.
+ *
+ * <p>Run with {@code -prof gc} to get allocations per call (gc.alloc.rate.norm).
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class CommonSpringWebClientBenchmark {
+
+  /**
+   * Number of requests kept in flight by {@link #asyncConcurrentThroughput()}.
+   */
+  private static final int CONCURRENCY = 32;
+
+  private static final Map<String, String> MDC_VALUES = Map.of(
+      "requestId", "5b0c7f4e-3f1c-4c21-9d8a-0c2f7f1a9b11",
+      "tenantId", "benchmark-tenant",
+      "userId", "benchmark-user");
+
+  /**
+   * Request shapes exercised by the benchmarks.
+   */
+  public enum Scenario {
+    GET_SMALL(HttpMethod.GET, "/json/small", null),
+    GET_LARGE(HttpMethod.GET, "/json/large", null),
+    POST_SMALL(HttpMethod.POST, "/echo", BenchmarkPayloads.SMALL),
+    POST_LARGE(HttpMethod.POST, "/echo", BenchmarkPayloads.LARGE),
+    GET_404(HttpMethod.GET, "/status/404", null),
+    GET_503(HttpMethod.GET, "/status/503", null);
+
+    private final HttpMethod method;
+    private final String path;
+    private final Payload body;
+
+    Scenario(HttpMethod method, String path, Payload body) {
+      this.method = method;
+      this.path = path;
+      this.body = body;
+    }
+  }
+
+  @Param({"GET_SMALL", "GET_LARGE", "POST_SMALL", "POST_LARGE", "GET_404", "GET_503"})
+  private Scenario scenario;
+
+  /**
+   * Retries on 5xx; with the stub always failing, GET_503 makes retries + 1 calls.
+   */
+  @Param({"0", "2"})
+  private int retries;
+
+  @Param({"false", "true"})
+  private boolean mdc;
+
+  @Param({"false", "true"})
+  private boolean metrics;
+
+  private StubServer server;
+  private CommonSpringWebClient client;
+  private ClientHttpRequest<Payload, Payload> request;
+  private List<ClientHttpRequest<Payload, Payload>> concurrentRequests;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    server = StubServer.start();
+    SpringWebClientConfig config = BenchmarkClients.defaultConfig();
+    config.getMetrics().setEnabled(metrics);
+    client = BenchmarkClients.create(config);
+
+    HttpHeaders headers = new HttpHeaders();
+    headers.setContentType(MediaType.APPLICATION_JSON);
+    request = ClientHttpRequest.<Payload, Payload>builder()
+        .url(server.baseUrl() + scenario.path)
+        .httpMethod(scenario.method)
+        .requestHeaders(headers)
+        .request(scenario.body)
+        .requestType(ParameterizedTypeReference.forType(Payload.class))
+        .responseType(ParameterizedTypeReference.forType(Payload.class))
+        .clientRetryConfig(WebClientRetryConfig.builder()
+            .maxAttempts(retries)
+            .backOff(0)
+            .retryFilter(ex -> ex instanceof WebClientResponseException
+                && ((WebClientResponseException) ex).getStatusCode().is5xxServerError())
+            .build())
+        .build();
+    concurrentRequests = Collections.nCopies(CONCURRENCY, request);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    server.close();
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  public ClientHttpResponse<Payload> syncThroughput() {
+    populateMdc();
+    return client.syncHttpResponse(request);
+  }
+
+  /**
+   * Sampled per-call latency; JMH reports p50/p90/p99/p99.9 for this mode.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.SampleTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public ClientHttpResponse<Payload> syncLatency() {
+    populateMdc();
+    return client.syncHttpResponse(request);
+  }
+
+  /**
+   * Throughput of {@link #CONCURRENCY} requests in flight on the event loop; one operation is
+   * one batch.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  public List<ClientHttpResponse<Payload>> asyncConcurrentThroughput() {
+    populateMdc();
+    return Flux.fromIterable(concurrentRequests)
+        .flatMap(client::asyncHttpResponse, CONCURRENCY)
+        .collectList()
+        .block();
+  }
+
+  private void populateMdc() {
+    if (mdc) {
+      MDC.setContextMap(MDC_VALUES);
+    }
+  }
+}
@@ -0,0 +1,96 @@
+package com.intuit.springwebclient.benchmark;
+
+import com.intuit.springwebclient.benchmark.BenchmarkPayloads.Payload;
+import com.intuit.springwebclient.client.CommonSpringWebClient;
+import com.intuit.springwebclient.config.CompressionConfig;
+import com.intuit.springwebclient.config.SpringWebClientConfig;
+import com.intuit.springwebclient.entity.ClientHttpRequest;
+import com.intuit.springwebclient.entity.ClientHttpResponse;
+import com.intuit.springwebclient.entity.enums.ContentEncoding;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ParameterizedTypeReference;
+
+/**
+ * {@link CommonSpringWebClient#syncHttpResponse} of the large JSON payload, received as is or
+ * compressed with each encoding of {@code spring-web-client-config.compression}.
+ *
+ * <p>Over loopback the bytes saved cost nothing to send, so this measures what decompression
+ * adds to a call, the price paid for the bandwidth saved between data centers. The compressed
+ * sizes of the payload are printed when the trial starts.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@Threads(4)
+public class CompressionBenchmark {
+
+  /**
+   * Encodings compared, {@code NONE} leaves response compression disabled.
+   */
+  public enum Encoding {
+    NONE(null),
+    GZIP(ContentEncoding.GZIP),
+    DEFLATE(ContentEncoding.DEFLATE),
+    ZSTD(ContentEncoding.ZSTD);
+
+    private final ContentEncoding contentEncoding;
+
+    Encoding(ContentEncoding contentEncoding) {
+      this.contentEncoding = contentEncoding;
+    }
+  }
+
+  @Param({"NONE", "GZIP", "DEFLATE", "ZSTD"})
+  private Encoding encoding;
+
+  private StubServer server;
+  private CommonSpringWebClient client;
+  private ClientHttpRequest<Void, Payload> request;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    server = StubServer.start();
+    SpringWebClientConfig config = BenchmarkClients.defaultConfig();
+    if (encoding.contentEncoding != null) {
+      CompressionConfig compression = config.getCompression();
+      compression.setResponseCompression(true);
+      compression.setAcceptEncodings(List.of(encoding.contentEncoding));
+    }
+    client = BenchmarkClients.create(config);
+    request = ClientHttpRequest.<Void, Payload>builder()
+        .url(server.baseUrl() + "/compressed/large")
+        .responseType(ParameterizedTypeReference.forType(Payload.class))
+        .build();
+    System.out.printf("%nlarge payload: %d bytes, gzip %d, deflate %d, zstd %d%n",
+        BenchmarkPayloads.LARGE_JSON.length, BenchmarkPayloads.LARGE_JSON_GZIP.length,
+        BenchmarkPayloads.LARGE_JSON_DEFLATE.length, BenchmarkPayloads.LARGE_JSON_ZSTD.length);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    server.close();
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  public ClientHttpResponse<Payload> decompressed() {
+    return client.syncHttpResponse(request);
+  }
+}
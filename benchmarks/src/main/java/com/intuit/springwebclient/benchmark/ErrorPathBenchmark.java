@@ -0,0 +1,116 @@
+package com.intuit.springwebclient.benchmark;
+
+import ch.qos.logback.classic.Logger;
+import com.intuit.springwebclient.benchmark.BenchmarkPayloads.Payload;
+import com.intuit.springwebclient.client.CommonSpringWebClient;
+import com.intuit.springwebclient.config.ErrorLoggingConfig;
+import com.intuit.springwebclient.config.SpringWebClientConfig;
+import com.intuit.springwebclient.entity.ClientHttpRequest;
+import com.intuit.springwebclient.entity.ClientHttpResponse;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.ParameterizedTypeReference;
+
+/**
+ * {@link CommonSpringWebClient#syncHttpResponse} against a downstream answering every request with
+ * a 503, measuring what the client spends mapping and logging the failure.
+ *
+ * <p>{@code FULL} logging writes the whole error body and a stack trace for every failure, as the
+ * client did before error logging was configurable. {@code SAMPLED} truncates the body to 1024
+ * characters and logs one stack trace per second. With {@code logged=false} ERROR is disabled for
+ * the client, so no message is formatted at all.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@Threads(4)
+public class ErrorPathBenchmark {
+
+  /**
+   * Error logging configurations compared.
+   */
+  public enum ErrorLogging {
+    FULL,
+    SAMPLED
+  }
+
+  /**
+   * Error bodies returned by the downstream.
+   */
+  public enum ErrorBody {
+    SMALL("/status/503"),
+    LARGE("/status/503/large");
+
+    private final String path;
+
+    ErrorBody(String path) {
+      this.path = path;
+    }
+  }
+
+  @Param({"FULL", "SAMPLED"})
+  private ErrorLogging errorLogging;
+
+  @Param({"SMALL", "LARGE"})
+  private ErrorBody body;
+
+  @Param({"true", "false"})
+  private boolean logged;
+
+  private StubServer server;
+  private CommonSpringWebClient client;
+  private ClientHttpRequest<Void, Payload> request;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    server = StubServer.start();
+    SpringWebClientConfig config = BenchmarkClients.defaultConfig();
+    ErrorLoggingConfig errorLoggingConfig = config.getErrorLogging();
+    if (errorLogging == ErrorLogging.FULL) {
+      errorLoggingConfig.setMaxBodyLength(-1);
+      errorLoggingConfig.setStackTraceIntervalMillis(0);
+    } else {
+      errorLoggingConfig.setMaxBodyLength(1024);
+      errorLoggingConfig.setStackTraceIntervalMillis(1000);
+    }
+    client = BenchmarkClients.create(config);
+    request = ClientHttpRequest.<Void, Payload>builder()
+        .url(server.baseUrl() + body.path)
+        .responseType(ParameterizedTypeReference.forType(Payload.class))
+        .build();
+    clientLogger().setLevel(logged ? ch.qos.logback.classic.Level.ERROR
+        : ch.qos.logback.classic.Level.OFF);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    clientLogger().setLevel(null);
+    server.close();
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  public ClientHttpResponse<Payload> errorResponse() {
+    return client.syncHttpResponse(request);
+  }
+
+  private static Logger clientLogger() {
+    return (Logger) LoggerFactory.getLogger(CommonSpringWebClient.class);
+  }
+}
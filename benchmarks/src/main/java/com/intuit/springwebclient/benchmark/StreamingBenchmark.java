@@ -0,0 +1,105 @@
+package com.intuit.springwebclient.benchmark;
+
+import com.intuit.springwebclient.benchmark.BenchmarkPayloads.Item;
+import com.intuit.springwebclient.client.CommonSpringWebClient;
+import com.intuit.springwebclient.entity.ClientHttpRequest;
+import com.intuit.springwebclient.entity.ClientHttpResponse;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ParameterizedTypeReference;
+
+/**
+ * Cost of reading {@link BenchmarkPayloads#LARGE_ITEM_COUNT} items with
+ * {@link CommonSpringWebClient#streamHttpResponse} compared to buffering them as a list with
+ * {@link CommonSpringWebClient#syncHttpResponse}, and of writing the same body to a file with
+ * {@link CommonSpringWebClient#downloadToFile}.
+ *
+ * <p>Run with {@code -prof gc} to compare allocations per read (gc.alloc.rate.norm).
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class StreamingBenchmark {
+
+  @Param({"json", "ndjson", "sse"})
+  private String format;
+
+  private StubServer server;
+  private CommonSpringWebClient client;
+  private ClientHttpRequest<Void, Item> streamRequest;
+  private ClientHttpRequest<Void, List<Item>> bufferedRequest;
+  private ClientHttpRequest<Void, Path> downloadRequest;
+  private Path downloadPath;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    server = StubServer.start();
+    downloadPath = Files.createTempFile("rwebpulse-benchmark", ".download");
+    client = BenchmarkClients.create(BenchmarkClients.defaultConfig());
+    streamRequest = ClientHttpRequest.<Void, Item>builder()
+        .url(server.baseUrl() + "/stream/" + format)
+        .responseType(ParameterizedTypeReference.forType(Item.class))
+        .build();
+    bufferedRequest = ClientHttpRequest.<Void, List<Item>>builder()
+        .url(server.baseUrl() + "/stream/json")
+        .responseType(new ParameterizedTypeReference<>() {
+        })
+        .build();
+    downloadRequest = ClientHttpRequest.<Void, Path>builder()
+        .url(server.baseUrl() + "/stream/" + format)
+        .build();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    server.close();
+    Files.deleteIfExists(downloadPath);
+  }
+
+  /**
+   * Decodes the items one at a time, keeping only a running count.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  public long streamed() {
+    return client.streamHttpResponse(streamRequest).count().block();
+  }
+
+  /**
+   * Writes the raw body to a file without decoding it.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  public ClientHttpResponse<Path> downloaded() {
+    return client.downloadToFile(downloadRequest, downloadPath).block();
+  }
+
+  /**
+   * Baseline: aggregates the JSON array body and decodes it into a list.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  public ClientHttpResponse<List<Item>> buffered() {
+    return client.syncHttpResponse(bufferedRequest);
+  }
+}
@@ -0,0 +1,146 @@
+package com.intuit.springwebclient.benchmark;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpHeaders;
+import java.time.Duration;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerResponse;
+
+/**
+ * In-process reactor-netty server bound to loopback on an ephemeral port. Every route answers
+ * with a pre-serialized body so that the measured cost is dominated by the client.
+ *
+ * <ul>
+ *   <li>{@code GET /json/small}, {@code GET /json/large} - 200 with a JSON payload</li>
+ *   <li>{@code GET /negotiated/small}, {@code GET /negotiated/large} - 200 with the payload as
+ *   Smile or CBOR when the Accept header lists them, JSON otherwise</li>
+ *   <li>{@code GET /compressed/large} - 200 with the large JSON payload compressed with the first
+ *   of zstd, gzip and deflate the Accept-Encoding header lists, as is otherwise</li>
+ *   <li>{@code GET /stream/json}, {@code GET /stream/ndjson}, {@code GET /stream/sse} - 200 with
+ *   the large payload items as a JSON array, newline delimited JSON or server-sent events</li>
+ *   <li>{@code GET /delay/{millis}} - 200 with the small JSON payload after the given delay</li>
+ *   <li>{@code POST /echo} - 200 echoing the request body</li>
+ *   <li>{@code GET /status/{code}} - the given status with a small JSON error body</li>
+ *   <li>{@code GET /status/{code}/large} - the given status with the large JSON payload as error
+ *   body</li>
+ * </ul>
+ */
+public final class StubServer implements AutoCloseable {
+
+  private static final String SMILE = "application/x-jackson-smile";
+  private static final String CBOR = "application/cbor";
+
+  private final DisposableServer server;
+
+  private StubServer(DisposableServer server) {
+    this.server = server;
+  }
+
+  /**
+   * Starts the stub server.
+   *
+   * @return running server, to be closed once the benchmark trial completes.
+   */
+  public static StubServer start() {
+    DisposableServer server = HttpServer.create()
+        .host("127.0.0.1")
+        .port(0)
+        .route(routes -> routes
+            .get("/json/small", (request, response) -> response
+                .header(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.APPLICATION_JSON)
+                .sendByteArray(Mono.just(BenchmarkPayloads.SMALL_JSON)))
+            .get("/json/large", (request, response) -> response
+                .header(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.APPLICATION_JSON)
+                .sendByteArray(Mono.just(BenchmarkPayloads.LARGE_JSON)))
+            .get("/negotiated/small", (request, response) -> negotiated(request.requestHeaders(),
+                response, BenchmarkPayloads.SMALL_SMILE, BenchmarkPayloads.SMALL_CBOR,
+                BenchmarkPayloads.SMALL_JSON))
+            .get("/negotiated/large", (request, response) -> negotiated(request.requestHeaders(),
+                response, BenchmarkPayloads.LARGE_SMILE, BenchmarkPayloads.LARGE_CBOR,
+                BenchmarkPayloads.LARGE_JSON))
+            .get("/compressed/large", (request, response) -> compressed(request.requestHeaders(),
+                response))
+            .get("/stream/json", (request, response) -> response
+                .header(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.APPLICATION_JSON)
+                .sendByteArray(Mono.just(BenchmarkPayloads.ITEMS_JSON_ARRAY)))
+            .get("/stream/ndjson", (request, response) -> response
+                .header(HttpHeaderNames.CONTENT_TYPE, "application/x-ndjson")
+                .sendByteArray(Mono.just(BenchmarkPayloads.ITEMS_NDJSON)))
+            .get("/stream/sse", (request, response) -> response
+                .header(HttpHeaderNames.CONTENT_TYPE, "text/event-stream")
+                .sendByteArray(Mono.just(BenchmarkPayloads.ITEMS_SSE)))
+            .get("/delay/{millis}", (request, response) -> response
+                .header(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.APPLICATION_JSON)
+                .sendByteArray(Mono.delay(Duration.ofMillis(Long.parseLong(request.param("millis"))))
+                    .thenReturn(BenchmarkPayloads.SMALL_JSON)))
+            .post("/echo", (request, response) -> response
+                .header(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.APPLICATION_JSON)
+                .send(request.receive().retain()))
+            .get("/status/{code}", (request, response) -> response
+                .status(Integer.parseInt(request.param("code")))
+                .header(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.APPLICATION_JSON)
+                .sendByteArray(Mono.just(BenchmarkPayloads.ERROR_JSON)))
+            .get("/status/{code}/large", (request, response) -> response
+                .status(Integer.parseInt(request.param("code")))
+                .header(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.APPLICATION_JSON)
+                .sendByteArray(Mono.just(BenchmarkPayloads.LARGE_JSON))))
+        .bindNow();
+    return new StubServer(server);
+  }
+
+  /**
+   * Answers with the first format of the Accept header the server produces, as a server would.
+   */
+  private static Mono<Void> negotiated(HttpHeaders requestHeaders, HttpServerResponse response,
+      byte[] smile, byte[] cbor, byte[] json) {
+    String accept = requestHeaders.get(HttpHeaderNames.ACCEPT, "");
+    int smileIndex = accept.indexOf(SMILE);
+    int cborIndex = accept.indexOf(CBOR);
+    if (smileIndex >= 0 && (cborIndex < 0 || smileIndex < cborIndex)) {
+      return response.header(HttpHeaderNames.CONTENT_TYPE, SMILE).sendByteArray(Mono.just(smile))
+          .then();
+    }
+    if (cborIndex >= 0) {
+      return response.header(HttpHeaderNames.CONTENT_TYPE, CBOR).sendByteArray(Mono.just(cbor))
+          .then();
+    }
+    return response.header(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.APPLICATION_JSON)
+        .sendByteArray(Mono.just(json)).then();
+  }
+
+  /**
+   * Answers with the large JSON payload, pre-compressed so that the server spends no time on it.
+   */
+  private static Mono<Void> compressed(HttpHeaders requestHeaders, HttpServerResponse response) {
+    String acceptEncoding = requestHeaders.get(HttpHeaderNames.ACCEPT_ENCODING, "");
+    response.header(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.APPLICATION_JSON);
+    if (acceptEncoding.contains("zstd")) {
+      return response.header(HttpHeaderNames.CONTENT_ENCODING, "zstd")
+          .sendByteArray(Mono.just(BenchmarkPayloads.LARGE_JSON_ZSTD)).then();
+    }
+    if (acceptEncoding.contains("gzip")) {
+      return response.header(HttpHeaderNames.CONTENT_ENCODING, "gzip")
+          .sendByteArray(Mono.just(BenchmarkPayloads.LARGE_JSON_GZIP)).then();
+    }
+    if (acceptEncoding.contains("deflate")) {
+      return response.header(HttpHeaderNames.CONTENT_ENCODING, "deflate")
+          .sendByteArray(Mono.just(BenchmarkPayloads.LARGE_JSON_DEFLATE)).then();
+    }
+    return response.sendByteArray(Mono.just(BenchmarkPayloads.LARGE_JSON)).then();
+  }
+
+  /**
+   * @return base url of the server, e.g. {@code http://127.0.0.1:41234}.
+   */
+  public String baseUrl() {
+    return "http://" + server.host() + ":" + server.port();
+  }
+
+  @Override
+  public void close() {
+    server.disposeNow();
+  }
+}
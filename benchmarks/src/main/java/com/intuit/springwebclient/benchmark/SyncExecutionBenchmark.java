@@ -0,0 +1,109 @@
+package com.intuit.springwebclient.benchmark;
+
+import com.intuit.springwebclient.benchmark.BenchmarkPayloads.Payload;
+import com.intuit.springwebclient.client.CommonSpringWebClient;
+import com.intuit.springwebclient.config.SpringWebClientConfig;
+import com.intuit.springwebclient.entity.ClientHttpRequest;
+import com.intuit.springwebclient.entity.ClientHttpResponse;
+import com.intuit.springwebclient.entity.enums.SyncExecutionMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ParameterizedTypeReference;
+
+/**
+ * Blocking callers of {@link CommonSpringWebClient#syncHttpResponse} waiting on a downstream with
+ * {@link #DOWNSTREAM_LATENCY_MILLIS} of latency: {@code callers} threads each send one request,
+ * and one operation completes when all of them got their response.
+ *
+ * <p>Compares {@code Mono.block()} ({@link SyncExecutionMode#BLOCK}) with waiting on a future
+ * ({@link SyncExecutionMode#FUTURE}), from a pool of platform threads or from a virtual thread per
+ * caller. The {@code VIRTUAL} runs require Java 21 and fail on older runtimes.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class SyncExecutionBenchmark {
+
+  private static final int DOWNSTREAM_LATENCY_MILLIS = 20;
+
+  /**
+   * Threads the blocking callers run on.
+   */
+  public enum Callers {
+    PLATFORM,
+    VIRTUAL
+  }
+
+  @Param({"BLOCK", "FUTURE"})
+  private SyncExecutionMode mode;
+
+  @Param({"PLATFORM", "VIRTUAL"})
+  private Callers threads;
+
+  @Param({"200", "2000"})
+  private int callers;
+
+  private StubServer server;
+  private CommonSpringWebClient client;
+  private ClientHttpRequest<Void, Payload> request;
+  private ExecutorService executor;
+
+  @Setup(Level.Trial)
+  public void setUp() throws ReflectiveOperationException {
+    server = StubServer.start();
+    SpringWebClientConfig config = BenchmarkClients.defaultConfig();
+    config.getConnectionPool().setMaxConnections(callers);
+    config.getSyncExecution().setMode(mode);
+    client = BenchmarkClients.create(config);
+    request = ClientHttpRequest.<Void, Payload>builder()
+        .url(server.baseUrl() + "/delay/" + DOWNSTREAM_LATENCY_MILLIS)
+        .responseType(ParameterizedTypeReference.forType(Payload.class))
+        .build();
+    executor = threads == Callers.PLATFORM ? Executors.newFixedThreadPool(callers)
+        // Executors.newVirtualThreadPerTaskExecutor() is not available to Java 17 sources
+        : (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor")
+            .invoke(null);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    executor.shutdownNow();
+    server.close();
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  public int concurrentSyncCalls() throws InterruptedException, ExecutionException {
+    List<Future<ClientHttpResponse<Payload>>> responses = new ArrayList<>(callers);
+    for (int i = 0; i < callers; i++) {
+      responses.add(executor.submit(() -> client.syncHttpResponse(request)));
+    }
+    int succeeded = 0;
+    for (Future<ClientHttpResponse<Payload>> response : responses) {
+      if (response.get().isSuccess2xx()) {
+        succeeded++;
+      }
+    }
+    return succeeded;
+  }
+}
@@ -0,0 +1,220 @@
+package com.intuit.springwebclient.cache;
+
+import com.intuit.springwebclient.entity.ClientHttpRequest;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * A decoded response stored in the {@link ResponseCache}, with the freshness and validators taken
+ * from its Cache-Control, Expires, Age, ETag and Last-Modified headers.
+ */
+public final class CachedResponse {
+
+  private static final long NO_LAST_MODIFIED = -1L;
+
+  private final ResponseEntity<?> responseEntity;
+  private final String host;
+  private final String route;
+  private final long maxAgeSeconds;
+  private final long staleWhileRevalidateSeconds;
+  private final long freshUntilNanos;
+  private final long staleUntilNanos;
+  private final String eTag;
+  private final long lastModified;
+  private final AtomicBoolean revalidating = new AtomicBoolean();
+
+  private CachedResponse(ResponseEntity<?> responseEntity, String host, String route,
+      long maxAgeSeconds, long staleWhileRevalidateSeconds, long nowNanos) {
+    this.responseEntity = responseEntity;
+    this.host = host;
+    this.route = route;
+    this.maxAgeSeconds = maxAgeSeconds;
+    this.staleWhileRevalidateSeconds = staleWhileRevalidateSeconds;
+    this.freshUntilNanos = nowNanos + TimeUnit.SECONDS.toNanos(maxAgeSeconds);
+    this.staleUntilNanos = freshUntilNanos + TimeUnit.SECONDS.toNanos(staleWhileRevalidateSeconds);
+    this.eTag = responseEntity.getHeaders().getETag();
+    this.lastModified = responseEntity.getHeaders().getLastModified();
+  }
+
+  /**
+   * Creates the cache entry of a response.
+   *
+   * @param responseEntity decoded response
+   * @param host           downstream host[:port]
+   * @param route          logical route name, may be null
+   * @param nowNanos       current {@link System#nanoTime()}
+   * @return entry of the response, or null if the response must not be stored
+   */
+  static CachedResponse of(ResponseEntity<?> responseEntity, String host, String route,
+      long nowNanos) {
+    final HttpHeaders headers = responseEntity.getHeaders();
+    if (responseEntity.getStatusCode().value() != HttpStatus.OK.value()
+        || headers.getVary().contains("*")) {
+      return null;
+    }
+    final Freshness freshness = Freshness.of(headers, null);
+    if (freshness == null || (freshness.maxAgeSeconds <= 0
+        && freshness.staleWhileRevalidateSeconds <= 0 && headers.getETag() == null
+        && headers.getLastModified() == NO_LAST_MODIFIED)) {
+      return null;
+    }
+    return freshness.toCachedResponse(responseEntity, host, route, nowNanos);
+  }
+
+  /**
+   * Creates the entry refreshed by a 304 Not Modified revalidation response, keeping the stored
+   * body.
+   *
+   * @param notModified 304 response of the revalidation
+   * @param nowNanos    current {@link System#nanoTime()}
+   * @return refreshed entry, or null if the response must no longer be stored
+   */
+  CachedResponse refresh(ResponseEntity<?> notModified, long nowNanos) {
+    final Freshness freshness = Freshness.of(notModified.getHeaders(), this);
+    if (freshness == null) {
+      return null;
+    }
+    return freshness.toCachedResponse(responseEntity, host, route, nowNanos);
+  }
+
+  /**
+   * @return the stored response.
+   */
+  @SuppressWarnings("unchecked")
+  public <RESPONSE> ResponseEntity<RESPONSE> getResponseEntity() {
+    return (ResponseEntity<RESPONSE>) responseEntity;
+  }
+
+  String getHost() {
+    return host;
+  }
+
+  String getRoute() {
+    return route;
+  }
+
+  /**
+   * @param nowNanos current {@link System#nanoTime()}
+   * @return true if the response can be used without contacting the downstream.
+   */
+  public boolean isFresh(long nowNanos) {
+    return nowNanos - freshUntilNanos < 0;
+  }
+
+  /**
+   * @param nowNanos current {@link System#nanoTime()}
+   * @return true if the response is stale but can still be used while it is revalidated in the
+   * background.
+   */
+  public boolean isStaleWhileRevalidate(long nowNanos) {
+    return !isFresh(nowNanos) && nowNanos - staleUntilNanos < 0;
+  }
+
+  /**
+   * Claims the background revalidation of a stale response, so that only one is in flight.
+   *
+   * @return true if the caller should revalidate the response.
+   */
+  public boolean tryStartRevalidation() {
+    return revalidating.compareAndSet(false, true);
+  }
+
+  /**
+   * Releases the revalidation claimed with {@link #tryStartRevalidation()}.
+   */
+  public void endRevalidation() {
+    revalidating.set(false);
+  }
+
+  /**
+   * Adds If-None-Match and If-Modified-Since to a request, so that the downstream answers 304 Not
+   * Modified when the stored response is still valid.
+   *
+   * @param httpRequest request of the stored response
+   * @return conditional request, or the request itself if the response has no validators
+   */
+  public <REQUEST, RESPONSE> ClientHttpRequest<REQUEST, RESPONSE> toConditionalRequest(
+      ClientHttpRequest<REQUEST, RESPONSE> httpRequest) {
+    if (eTag == null && lastModified == NO_LAST_MODIFIED) {
+      return httpRequest;
+    }
+    final HttpHeaders requestHeaders = new HttpHeaders();
+    requestHeaders.putAll(httpRequest.getRequestHeaders());
+    if (eTag != null) {
+      requestHeaders.setIfNoneMatch(eTag);
+    }
+    if (lastModified != NO_LAST_MODIFIED) {
+      requestHeaders.setIfModifiedSince(lastModified);
+    }
+    return httpRequest.toBuilder().requestHeaders(requestHeaders).build();
+  }
+
+  /**
+   * Lifetimes parsed from the caching headers of a response.
+   */
+  private static final class Freshness {
+
+    private long maxAgeSeconds;
+    private long staleWhileRevalidateSeconds;
+
+    /**
+     * @param previous entry being revalidated, whose lifetimes apply when the headers have none
+     * @return lifetimes, or null if the response must not be stored
+     */
+    private static Freshness of(HttpHeaders headers, CachedResponse previous) {
+      final Freshness freshness = new Freshness();
+      boolean maxAgeFound = false;
+      final String cacheControl = headers.getCacheControl();
+      if (cacheControl != null) {
+        for (String directive : cacheControl.split(",")) {
+          final String trimmed = directive.trim().toLowerCase();
+          if (trimmed.equals("no-store")) {
+            return null;
+          } else if (trimmed.equals("no-cache")) {
+            freshness.maxAgeSeconds = 0;
+            maxAgeFound = true;
+          } else if (trimmed.startsWith("max-age=") && !maxAgeFound) {
+            freshness.maxAgeSeconds = parseSeconds(trimmed.substring("max-age=".length()));
+            maxAgeFound = true;
+          } else if (trimmed.startsWith("stale-while-revalidate=")) {
+            freshness.staleWhileRevalidateSeconds = parseSeconds(
+                trimmed.substring("stale-while-revalidate=".length()));
+          }
+        }
+      }
+      if (!maxAgeFound) {
+        final long expires = headers.getExpires();
+        final long date = headers.getDate();
+        if (expires > 0) {
+          freshness.maxAgeSeconds = Math.max(0, (expires - (date > 0 ? date
+              : System.currentTimeMillis())) / 1000);
+        } else if (previous != null) {
+          freshness.maxAgeSeconds = previous.maxAgeSeconds;
+          freshness.staleWhileRevalidateSeconds = previous.staleWhileRevalidateSeconds;
+        }
+      }
+      final String age = headers.getFirst(HttpHeaders.AGE);
+      if (age != null) {
+        freshness.maxAgeSeconds = Math.max(0, freshness.maxAgeSeconds - parseSeconds(age));
+      }
+      return freshness;
+    }
+
+    private CachedResponse toCachedResponse(ResponseEntity<?> responseEntity, String host,
+        String route, long nowNanos) {
+      return new CachedResponse(responseEntity, host, route, maxAgeSeconds,
+          staleWhileRevalidateSeconds, nowNanos);
+    }
+
+    private static long parseSeconds(String value) {
+      try {
+        return Long.parseLong(value.trim());
+      } catch (NumberFormatException ex) {
+        return 0;
+      }
+    }
+  }
+}
@@ -0,0 +1,208 @@
+package com.intuit.springwebclient.cache;
+
+import com.intuit.springwebclient.config.ResponseCacheConfig;
+import com.intuit.springwebclient.entity.ClientHttpRequest;
+import com.intuit.springwebclient.metrics.WebClientMetrics;
+import com.intuit.springwebclient.util.WebClientUtils;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Bounded in-memory cache of decoded GET responses following their Cache-Control, Expires, ETag and
+ * Last-Modified headers.
+ *
+ * <p>Entries are held in up to 16 segments chosen by the hash of their key, each with its own lock
+ * and an equal share of max-entries, so that lookups of different keys rarely contend. Within a
+ * segment, entries are evicted least recently used first once its share is reached. A fresh entry is
+ * served without contacting the downstream; a stale one within its stale-while-revalidate window is
+ * served while a single background request revalidates it; otherwise it is revalidated with
+ * If-None-Match / If-Modified-Since and kept when the downstream answers 304 Not Modified.
+ *
+ * <p>A response is only stored when the request headers named by its Vary header are part of the
+ * key, so that it is never served to a request with other values of them. Accept-Encoding is the
+ * exception: responses are stored decoded, whatever their content encoding.
+ */
+@Slf4j
+public class ResponseCache {
+
+  private static final int MAX_SEGMENTS = 16;
+  private static final int MIN_SEGMENT_ENTRIES = 64;
+
+  private final boolean enabled;
+  private final List<String> keyHeaders;
+  private final Set<String> lowerCaseKeyHeaders;
+  private final WebClientMetrics webClientMetrics;
+  private final Segment[] segments;
+
+  public ResponseCache(ResponseCacheConfig responseCacheConfig, WebClientMetrics webClientMetrics) {
+    this.enabled = responseCacheConfig != null && responseCacheConfig.isEnabled();
+    this.keyHeaders = enabled && responseCacheConfig.getKeyHeaders() != null
+        ? List.copyOf(responseCacheConfig.getKeyHeaders()) : List.of();
+    this.lowerCaseKeyHeaders = keyHeaders.stream()
+        .map(name -> name.toLowerCase(Locale.ROOT))
+        .collect(Collectors.toUnmodifiableSet());
+    this.webClientMetrics = webClientMetrics;
+    final int maxEntries = enabled ? Math.max(0, responseCacheConfig.getMaxEntries()) : 0;
+    // small caches keep a single segment, so that eviction stays least recently used overall
+    final int segmentCount = Integer.highestOneBit(Math.max(1,
+        Math.min(MAX_SEGMENTS, maxEntries / MIN_SEGMENT_ENTRIES)));
+    this.segments = new Segment[segmentCount];
+    for (int i = 0; i < segmentCount; i++) {
+      segments[i] = new Segment(maxEntries / segmentCount
+          + (i < maxEntries % segmentCount ? 1 : 0));
+    }
+  }
+
+  /**
+   * @param httpRequest The client HTTP request details.
+   * @return key of the cached response of the request, or null if its response is not cached
+   */
+  public String getKey(ClientHttpRequest<?, ?> httpRequest) {
+    if (!enabled || !HttpMethod.GET.equals(httpRequest.getHttpMethod())) {
+      return null;
+    }
+    return WebClientUtils.getRequestKey(httpRequest, keyHeaders);
+  }
+
+  /**
+   * Looks up a stored response. Usable (fresh or stale-while-revalidate) entries are recorded as
+   * hits, anything else as a miss.
+   *
+   * @param key   key from {@link #getKey(ClientHttpRequest)}
+   * @param host  downstream host[:port]
+   * @param route logical route name, may be null
+   * @return stored response, which may need revalidation, or null
+   */
+  public CachedResponse get(String key, String host, String route) {
+    final CachedResponse cachedResponse = segment(key).get(key);
+    final long nowNanos = System.nanoTime();
+    if (cachedResponse != null && (cachedResponse.isFresh(nowNanos)
+        || cachedResponse.isStaleWhileRevalidate(nowNanos))) {
+      webClientMetrics.recordCacheHit(host, route);
+    } else {
+      webClientMetrics.recordCacheMiss(host, route);
+    }
+    return cachedResponse;
+  }
+
+  /**
+   * Stores the response received for a key. A 304 Not Modified revalidation response refreshes
+   * the stored entry and is replaced by its stored response.
+   *
+   * @param key            key from {@link #getKey(ClientHttpRequest)}
+   * @param previous       entry that was revalidated, may be null
+   * @param responseEntity response received from the downstream
+   * @param host           downstream host[:port]
+   * @param route          logical route name, may be null
+   * @return the response to return to the caller
+   */
+  public <RESPONSE> ResponseEntity<RESPONSE> update(String key, CachedResponse previous,
+      ResponseEntity<RESPONSE> responseEntity, String host, String route) {
+    final long nowNanos = System.nanoTime();
+    if (previous != null && responseEntity.getStatusCode().value()
+        == HttpStatus.NOT_MODIFIED.value()) {
+      log.debug("Cached response revalidated key={}", key);
+      replace(key, previous, previous.refresh(responseEntity, nowNanos));
+      return previous.getResponseEntity();
+    }
+    replace(key, previous, isKeyedOnVary(responseEntity.getHeaders())
+        ? CachedResponse.of(responseEntity, host, route, nowNanos) : null);
+    return responseEntity;
+  }
+
+  /**
+   * @param headers headers of a response
+   * @return true if every request header the response varies on is part of its key
+   */
+  private boolean isKeyedOnVary(HttpHeaders headers) {
+    if (keyHeaders.isEmpty()) {
+      // every request header is part of the key
+      return true;
+    }
+    for (String vary : headers.getVary()) {
+      final String name = vary.toLowerCase(Locale.ROOT);
+      if (!lowerCaseKeyHeaders.contains(name) && !name.equals("accept-encoding")) {
+        log.debug("Response not cached, it varies on {} which is not a key header", vary);
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void replace(String key, CachedResponse previous, CachedResponse cachedResponse) {
+    final Segment segment = segment(key);
+    segment.lock();
+    try {
+      if (cachedResponse != null) {
+        segment.entries.put(key, cachedResponse);
+      } else if (previous != null) {
+        segment.entries.remove(key, previous);
+      }
+    } finally {
+      segment.unlock();
+    }
+  }
+
+  private Segment segment(String key) {
+    final int hash = key.hashCode();
+    return segments[(hash ^ (hash >>> 16)) & (segments.length - 1)];
+  }
+
+  /**
+   * @return number of stored responses.
+   */
+  int size() {
+    int size = 0;
+    for (Segment segment : segments) {
+      segment.lock();
+      try {
+        size += segment.entries.size();
+      } finally {
+        segment.unlock();
+      }
+    }
+    return size;
+  }
+
+  /**
+   * Entries of the keys of one hash range, in access order. The access order changes on every
+   * lookup, so lookups take the lock too.
+   */
+  private final class Segment extends ReentrantLock {
+
+    private final Map<String, CachedResponse> entries;
+
+    private Segment(int maxEntries) {
+      this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+          if (size() <= maxEntries) {
+            return false;
+          }
+          webClientMetrics.recordCacheEviction(eldest.getValue().getHost(),
+              eldest.getValue().getRoute());
+          return true;
+        }
+      };
+    }
+
+    private CachedResponse get(String key) {
+      lock();
+      try {
+        return entries.get(key);
+      } finally {
+        unlock();
+      }
+    }
+  }
+}
@@ -0,0 +1,316 @@
+package com.intuit.springwebclient.circuitbreaker;
+
+import com.intuit.springwebclient.config.CircuitBreakerConfig;
+import com.intuit.springwebclient.context.RequestDeadline;
+import com.intuit.springwebclient.exception.CircuitBreakerOpenException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Count based circuit breaker of a single downstream.
+ *
+ * <p>While CLOSED, the outcome of the last {@code slidingWindowSize} calls is kept in a ring
+ * buffer; once the failure or slow call rate reaches its threshold the circuit OPENs and calls fail
+ * fast with a {@link CircuitBreakerOpenException}. After {@code waitDurationInOpenState} the
+ * circuit turns HALF_OPEN and lets {@code permittedCallsInHalfOpenState} calls through, which
+ * either close it again or re-open it.
+ *
+ * <p>Failures are 5xx responses and errors without a response (connect errors, timeouts). A
+ * call cancelled because its {@link RequestDeadline} was exceeded is recorded as a slow call once
+ * it ran for the slow call duration and as a failure otherwise, so that a downstream that hangs
+ * opens the circuit even when calls are timed out on the client. Any other cancel, by a winning
+ * hedge, a fail fast batch or the caller, releases the permission without recording an outcome.
+ * All state is held in atomics, recording a call does not allocate.
+ */
+@Slf4j
+public class CircuitBreaker {
+
+  /**
+   * Circuit breaker that permits every call, used when circuit breakers are disabled.
+   */
+  public static final CircuitBreaker DISABLED = new CircuitBreaker("disabled", null);
+
+  /**
+   * States of the circuit.
+   */
+  public enum State {
+    CLOSED, OPEN, HALF_OPEN
+  }
+
+  private static final int RECORDED = 1;
+  private static final int FAILURE = 2;
+  private static final int SLOW = 4;
+
+  private final String name;
+  private final boolean enabled;
+  private final int failureRateThreshold;
+  private final int slowCallRateThreshold;
+  private final long slowCallDurationNanos;
+  private final int minimumNumberOfCalls;
+  private final long waitDurationInOpenStateNanos;
+  private final int permittedCallsInHalfOpenState;
+
+  private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+  private final AtomicLong openedAtNanos = new AtomicLong();
+
+  // closed state sliding window
+  private final AtomicIntegerArray window;
+  private final AtomicLong windowPosition = new AtomicLong();
+  private final AtomicInteger recordedCalls = new AtomicInteger();
+  private final AtomicInteger failedCalls = new AtomicInteger();
+  private final AtomicInteger slowCalls = new AtomicInteger();
+
+  // half open state trial calls
+  private final AtomicInteger halfOpenPermits = new AtomicInteger();
+  private final AtomicInteger halfOpenCalls = new AtomicInteger();
+  private final AtomicInteger halfOpenFailedCalls = new AtomicInteger();
+  private final AtomicInteger halfOpenSlowCalls = new AtomicInteger();
+
+  public CircuitBreaker(String name, CircuitBreakerConfig circuitBreakerConfig) {
+    this.name = name;
+    this.enabled = circuitBreakerConfig != null && circuitBreakerConfig.isEnabled();
+    final CircuitBreakerConfig config = circuitBreakerConfig != null ? circuitBreakerConfig
+        : new CircuitBreakerConfig();
+    this.failureRateThreshold = config.getFailureRateThreshold();
+    this.slowCallRateThreshold = config.getSlowCallRateThreshold();
+    this.slowCallDurationNanos = TimeUnit.MILLISECONDS.toNanos(
+        config.getSlowCallDurationThreshold());
+    this.minimumNumberOfCalls = Math.max(1, config.getMinimumNumberOfCalls());
+    this.waitDurationInOpenStateNanos = TimeUnit.MILLISECONDS.toNanos(
+        config.getWaitDurationInOpenState());
+    this.permittedCallsInHalfOpenState = Math.max(1, config.getPermittedCallsInHalfOpenState());
+    this.window = new AtomicIntegerArray(enabled ? Math.max(1, config.getSlidingWindowSize()) : 1);
+  }
+
+  /**
+   * Applies the circuit breaker to every subscription of the source, so that each retry of a
+   * request is permitted and recorded on its own.
+   *
+   * @param source call to protect
+   * @param <T>    type of the result
+   * @return source, or a {@link CircuitBreakerOpenException} error if the call is not permitted
+   */
+  public <T> Mono<T> protect(Mono<T> source) {
+    if (!enabled) {
+      return source;
+    }
+    return Mono.deferContextual(contextView -> {
+      final State permittedIn = acquirePermission();
+      if (permittedIn == null) {
+        return Mono.error(new CircuitBreakerOpenException(name));
+      }
+      final long startNanos = System.nanoTime();
+      return source
+          .doOnSuccess(result -> onResult(permittedIn, false, System.nanoTime() - startNanos))
+          .doOnError(ex -> onResult(permittedIn, isFailure(ex), System.nanoTime() - startNanos))
+          .doOnCancel(() -> onCancel(permittedIn, RequestDeadline.isExceeded(contextView),
+              System.nanoTime() - startNanos));
+    });
+  }
+
+  /**
+   * Applies the circuit breaker to every subscription of a streamed call, whose source emits the
+   * response body once the response headers are received. The call is recorded when the body
+   * terminates: a failure of the body is a failure of the call, while a body cancelled by its
+   * consumer only releases the permission. The duration of the call is the time to the response
+   * headers, so that long streams are not slow calls.
+   *
+   * @param source streamed call to protect
+   * @param <T>    type of the elements of the body
+   * @return source, or a {@link CircuitBreakerOpenException} error if the call is not permitted
+   */
+  public <T> Mono<Flux<T>> protectStream(Mono<Flux<T>> source) {
+    if (!enabled) {
+      return source;
+    }
+    return Mono.deferContextual(contextView -> {
+      final State permittedIn = acquirePermission();
+      if (permittedIn == null) {
+        return Mono.error(new CircuitBreakerOpenException(name));
+      }
+      final long startNanos = System.nanoTime();
+      // a consumer cancelling the body cancels the call too, only the first outcome is recorded
+      final AtomicBoolean recorded = new AtomicBoolean();
+      final AtomicBoolean bodyReceived = new AtomicBoolean();
+      return source
+          .map(body -> {
+            bodyReceived.set(true);
+            final long durationNanos = System.nanoTime() - startNanos;
+            return body
+                .doOnComplete(() -> recordOnce(recorded, permittedIn, false, durationNanos))
+                .doOnError(ex -> recordOnce(recorded, permittedIn, isFailure(ex), durationNanos))
+                .doOnCancel(() -> {
+                  if (recorded.compareAndSet(false, true)) {
+                    releasePermission(permittedIn);
+                  }
+                });
+          })
+          .doOnSuccess(body -> {
+            if (body == null) {
+              recordOnce(recorded, permittedIn, false, System.nanoTime() - startNanos);
+            }
+          })
+          .doOnError(ex -> recordOnce(recorded, permittedIn, isFailure(ex),
+              System.nanoTime() - startNanos))
+          .doOnCancel(() -> {
+            if (!bodyReceived.get() && recorded.compareAndSet(false, true)) {
+              onCancel(permittedIn, RequestDeadline.isExceeded(contextView),
+                  System.nanoTime() - startNanos);
+            }
+          });
+    });
+  }
+
+  /**
+   * @return name of the circuit breaker, the client name or host of the downstream.
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * @return current state, OPEN is reported until the next call finds the wait duration elapsed.
+   */
+  public State getState() {
+    return state.get();
+  }
+
+  /**
+   * @return state in which the call was permitted, or null if it is not permitted.
+   */
+  State acquirePermission() {
+    while (true) {
+      final State current = state.get();
+      if (current == State.CLOSED) {
+        return current;
+      }
+      if (current == State.OPEN) {
+        if (System.nanoTime() - openedAtNanos.get() < waitDurationInOpenStateNanos) {
+          return null;
+        }
+        // half open counters are reset when the circuit opens
+        if (state.compareAndSet(State.OPEN, State.HALF_OPEN)) {
+          log.info("Circuit breaker {} transitioned from OPEN to HALF_OPEN", name);
+        }
+        continue;
+      }
+      if (halfOpenPermits.decrementAndGet() >= 0) {
+        return current;
+      }
+      halfOpenPermits.incrementAndGet();
+      return null;
+    }
+  }
+
+  void onResult(State permittedIn, boolean failure, long durationNanos) {
+    final boolean slow = durationNanos >= slowCallDurationNanos;
+    if (permittedIn == State.CLOSED && state.get() == State.CLOSED) {
+      recordInWindow(failure, slow);
+      final int calls = recordedCalls.get();
+      if (calls >= minimumNumberOfCalls && exceedsThresholds(calls, failedCalls.get(),
+          slowCalls.get())) {
+        transitionToOpen(State.CLOSED);
+      }
+    } else if (permittedIn == State.HALF_OPEN && state.get() == State.HALF_OPEN) {
+      if (failure) {
+        halfOpenFailedCalls.incrementAndGet();
+      }
+      if (slow) {
+        halfOpenSlowCalls.incrementAndGet();
+      }
+      final int calls = halfOpenCalls.incrementAndGet();
+      if (calls == permittedCallsInHalfOpenState) {
+        if (exceedsThresholds(calls, halfOpenFailedCalls.get(), halfOpenSlowCalls.get())) {
+          transitionToOpen(State.HALF_OPEN);
+        } else {
+          transitionToClosed();
+        }
+      }
+    }
+  }
+
+  private void recordOnce(AtomicBoolean recorded, State permittedIn, boolean failure,
+      long durationNanos) {
+    if (recorded.compareAndSet(false, true)) {
+      onResult(permittedIn, failure, durationNanos);
+    }
+  }
+
+  /**
+   * Records a call cancelled because its deadline was exceeded, and only releases the permission
+   * of any other cancelled call.
+   */
+  void onCancel(State permittedIn, boolean deadlineExceeded, long durationNanos) {
+    if (deadlineExceeded) {
+      onResult(permittedIn, durationNanos < slowCallDurationNanos, durationNanos);
+    } else {
+      releasePermission(permittedIn);
+    }
+  }
+
+  private void releasePermission(State permittedIn) {
+    if (permittedIn == State.HALF_OPEN) {
+      halfOpenPermits.incrementAndGet();
+    }
+  }
+
+  private void recordInWindow(boolean failure, boolean slow) {
+    final int outcome = RECORDED | (failure ? FAILURE : 0) | (slow ? SLOW : 0);
+    final int index = (int) (windowPosition.getAndIncrement() % window.length());
+    final int previous = window.getAndSet(index, outcome);
+    if ((previous & RECORDED) == 0) {
+      recordedCalls.incrementAndGet();
+    }
+    final int failedDelta = (outcome & FAILURE) - (previous & FAILURE);
+    if (failedDelta != 0) {
+      failedCalls.addAndGet(failedDelta / FAILURE);
+    }
+    final int slowDelta = (outcome & SLOW) - (previous & SLOW);
+    if (slowDelta != 0) {
+      slowCalls.addAndGet(slowDelta / SLOW);
+    }
+  }
+
+  private boolean exceedsThresholds(int calls, int failed, int slow) {
+    return failed * 100L >= (long) failureRateThreshold * calls
+        || slow * 100L >= (long) slowCallRateThreshold * calls;
+  }
+
+  private void transitionToOpen(State from) {
+    halfOpenPermits.set(permittedCallsInHalfOpenState);
+    halfOpenCalls.set(0);
+    halfOpenFailedCalls.set(0);
+    halfOpenSlowCalls.set(0);
+    openedAtNanos.set(System.nanoTime());
+    if (state.compareAndSet(from, State.OPEN)) {
+      log.warn("Circuit breaker {} transitioned from {} to OPEN", name, from);
+    }
+  }
+
+  private void transitionToClosed() {
+    for (int i = 0; i < window.length(); i++) {
+      window.set(i, 0);
+    }
+    recordedCalls.set(0);
+    failedCalls.set(0);
+    slowCalls.set(0);
+    if (state.compareAndSet(State.HALF_OPEN, State.CLOSED)) {
+      log.info("Circuit breaker {} transitioned from HALF_OPEN to CLOSED", name);
+    }
+  }
+
+  private static boolean isFailure(Throwable ex) {
+    if (ex instanceof WebClientResponseException) {
+      return ((WebClientResponseException) ex).getStatusCode().is5xxServerError();
+    }
+    return true;
+  }
+}
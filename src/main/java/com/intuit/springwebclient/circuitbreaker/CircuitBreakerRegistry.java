@@ -0,0 +1,43 @@
+package com.intuit.springwebclient.circuitbreaker;
+
+import com.intuit.springwebclient.config.CircuitBreakerConfig;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Holds one {@link CircuitBreaker} per downstream, keyed by client name or host. A downstream uses
+ * its entry in the circuit breaker instances, falling back to the default circuit breaker
+ * configuration.
+ */
+public class CircuitBreakerRegistry {
+
+  private final CircuitBreakerConfig defaultConfig;
+  private final Map<String, CircuitBreakerConfig> instanceConfigs;
+  private final ConcurrentMap<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+
+  public CircuitBreakerRegistry(CircuitBreakerConfig defaultConfig,
+      Map<String, CircuitBreakerConfig> instanceConfigs) {
+    this.defaultConfig = defaultConfig;
+    this.instanceConfigs = instanceConfigs != null ? instanceConfigs : Collections.emptyMap();
+  }
+
+  /**
+   * Gets the circuit breaker of a downstream, creating it on first use.
+   *
+   * @param name client name or host of the downstream
+   * @return circuit breaker, or {@link CircuitBreaker#DISABLED} if none is configured
+   */
+  public CircuitBreaker getCircuitBreaker(String name) {
+    CircuitBreaker circuitBreaker = circuitBreakers.get(name);
+    if (circuitBreaker == null) {
+      final CircuitBreakerConfig config = instanceConfigs.getOrDefault(name, defaultConfig);
+      if (config == null || !config.isEnabled()) {
+        return CircuitBreaker.DISABLED;
+      }
+      circuitBreaker = circuitBreakers.computeIfAbsent(name, key -> new CircuitBreaker(key, config));
+    }
+    return circuitBreaker;
+  }
+}
@@ -1,24 +1,69 @@
 package com.intuit.springwebclient.client;
 
+import com.intuit.springwebclient.cache.CachedResponse;
+import com.intuit.springwebclient.cache.ResponseCache;
+import com.intuit.springwebclient.circuitbreaker.CircuitBreaker;
+import com.intuit.springwebclient.circuitbreaker.CircuitBreakerRegistry;
+import com.intuit.springwebclient.coalescing.RequestCoalescer;
+import com.intuit.springwebclient.concurrency.AdaptiveConcurrencyLimiter;
+import com.intuit.springwebclient.concurrency.ConcurrencyLimiterRegistry;
+import com.intuit.springwebclient.config.WebClientRetryConfig;
+import com.intuit.springwebclient.context.MdcPropagation;
+import com.intuit.springwebclient.context.RequestDeadline;
+import com.intuit.springwebclient.entity.ClientHttpBatchOptions;
+import com.intuit.springwebclient.entity.ClientHttpBatchResponse;
 import com.intuit.springwebclient.entity.ClientHttpRequest;
 import com.intuit.springwebclient.entity.ClientHttpResponse;
-import com.intuit.springwebclient.retryHandler.RetryHandlerFactory;
+import com.intuit.springwebclient.entity.enums.WebClientErrorType;
+import com.intuit.springwebclient.exception.RequestTimeoutException;
+import com.intuit.springwebclient.execution.SyncExecutor;
+import com.intuit.springwebclient.exception.WebClientRejectedException;
+import com.intuit.springwebclient.hedging.RequestHedger;
+import com.intuit.springwebclient.logging.ErrorLogger;
+import com.intuit.springwebclient.metrics.WebClientMetrics;
+import com.intuit.springwebclient.ratelimit.RateLimiter;
+import com.intuit.springwebclient.ratelimit.RateLimiterRegistry;
+import com.intuit.springwebclient.retry.BackoffRetrySpec;
+import com.intuit.springwebclient.retry.RetryBudget;
+import com.intuit.springwebclient.retry.RetryBudgetRegistry;
+import com.intuit.springwebclient.retryHandler.RetryHandlerChain;
+import com.intuit.springwebclient.retryHandler.RetryHandlerRegistry;
+import com.intuit.springwebclient.util.WebClientConstants;
+import com.intuit.springwebclient.util.WebClientUtils;
+import io.micrometer.context.ContextSnapshot;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.time.Duration;
-import java.util.Map;
+import java.util.Collection;
 import java.util.Objects;
-import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import lombok.extern.slf4j.Slf4j;
-import org.slf4j.MDC;
+import org.reactivestreams.Publisher;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClient.RequestBodySpec;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.concurrent.Queues;
+import reactor.util.function.Tuple2;
 import reactor.util.retry.Retry;
 
 /**
@@ -29,18 +74,52 @@ import reactor.util.retry.Retry;
 public class CommonSpringWebClient {
 
   private final WebClient webClient;
+  private final WebClientMetrics webClientMetrics;
+  private final RetryBudgetRegistry retryBudgetRegistry;
+  private final CircuitBreakerRegistry circuitBreakerRegistry;
+  private final WebClientProfiles webClientProfiles;
+  private final RequestCoalescer requestCoalescer;
+  private final ResponseCache responseCache;
+  private final RequestHedger requestHedger;
+  private final ConcurrencyLimiterRegistry concurrencyLimiterRegistry;
+  private final RateLimiterRegistry rateLimiterRegistry;
+  private final SyncExecutor syncExecutor;
+  private final ErrorLogger errorLogger;
+  private final RetryHandlerRegistry retryHandlerRegistry;
 
-  // --- Constant for MDC Context Key ---
-  // This key is used to store and retrieve the MDC map from Reactor's Context
-  private static final String MDC_CONTEXT_KEY = "mdcContextMap";
+  private static final WebClientRetryConfig NO_RETRY_CONFIG = WebClientRetryConfig.builder()
+      .build();
+  private static final ParameterizedTypeReference<DataBuffer> DATA_BUFFER_TYPE =
+      ParameterizedTypeReference.forType(DataBuffer.class);
+  // suffix of the temporary files downloads are written to before they are moved to their path
+  private static final String DOWNLOAD_SUFFIX = ".part";
 
-  public CommonSpringWebClient(@Qualifier("RWebPulseClient") WebClient webClient) {
+  public CommonSpringWebClient(@Qualifier("RWebPulseClient") WebClient webClient,
+      WebClientMetrics webClientMetrics, RetryBudgetRegistry retryBudgetRegistry,
+      CircuitBreakerRegistry circuitBreakerRegistry, WebClientProfiles webClientProfiles,
+      RequestCoalescer requestCoalescer, ResponseCache responseCache,
+      RequestHedger requestHedger, ConcurrencyLimiterRegistry concurrencyLimiterRegistry,
+      RateLimiterRegistry rateLimiterRegistry, SyncExecutor syncExecutor,
+      ErrorLogger errorLogger, RetryHandlerRegistry retryHandlerRegistry) {
     this.webClient = webClient;
+    this.webClientMetrics = webClientMetrics;
+    this.retryBudgetRegistry = retryBudgetRegistry;
+    this.circuitBreakerRegistry = circuitBreakerRegistry;
+    this.webClientProfiles = webClientProfiles;
+    this.requestCoalescer = requestCoalescer;
+    this.responseCache = responseCache;
+    this.requestHedger = requestHedger;
+    this.concurrencyLimiterRegistry = concurrencyLimiterRegistry;
+    this.rateLimiterRegistry = rateLimiterRegistry;
+    this.syncExecutor = syncExecutor;
+    this.errorLogger = errorLogger;
+    this.retryHandlerRegistry = retryHandlerRegistry;
   }
 
   /**
    * Executes a blocking HTTP request with WebClient, supporting retries and MDC propagation across
-   * thread changes.
+   * thread changes. The calling thread waits as configured by {@link SyncExecutor}, parked without
+   * holding a monitor, so virtual threads are not pinned.
    *
    * @param httpRequest The client HTTP request details.
    * @param <REQUEST>   Type of the request body.
@@ -49,7 +128,7 @@ public class CommonSpringWebClient {
    */
   public <REQUEST, RESPONSE> ClientHttpResponse<RESPONSE> syncHttpResponse(
       ClientHttpRequest<REQUEST, RESPONSE> httpRequest) {
-    return asyncHttpResponse(httpRequest).block();
+    return syncExecutor.await(asyncHttpResponse(httpRequest));
   }
 
   /**
@@ -63,57 +142,440 @@ public class CommonSpringWebClient {
    */
   public <REQUEST, RESPONSE> Mono<ClientHttpResponse<RESPONSE>> asyncHttpResponse(
       ClientHttpRequest<REQUEST, RESPONSE> httpRequest) {
-    final Map<String, String> mdcContextMap = MDC.getCopyOfContextMap();
-    log.debug("asyncHttpResponse initiated. Captured MDC from calling thread: {}", mdcContextMap);
+    // propagated per caller, after coalescing, so that callers joining the call of an identical
+    // request never receive its response with the MDC of that request
+    final ContextSnapshot mdcSnapshot = MdcPropagation.capture();
+    return MdcPropagation.propagate(
+        requestCoalescer.coalesce(httpRequest, () -> cachedExchange(httpRequest)), mdcSnapshot);
+  }
 
-    return generateResponseSpec(httpRequest)
-        .toEntity(httpRequest.getResponseType())
-        .map(this::generateResponse)
-        .retryWhen(generateRetrySpec(httpRequest))
-        .contextWrite(ctx -> {
-          if (mdcContextMap != null) {
-            return ctx.put(MDC_CONTEXT_KEY, mdcContextMap);
+  /**
+   * Executes a batch of non-blocking HTTP requests, at most {@code maxConcurrency} at a time, each
+   * with the retries, MDC propagation and error mapping of
+   * {@link #asyncHttpResponse(ClientHttpRequest)}. Responses are emitted as the requests complete,
+   * or in the order of the requests when {@code ordered} is set.
+   *
+   * <p>With {@code failFast} the batch completes after emitting the first response that is not
+   * 2xx, cancelling the requests in flight; otherwise every request is executed. Exceptions thrown
+   * by retry handlers are signalled after the other requests complete, unless {@code failFast} is
+   * set. The batch {@code timeout} bounds the whole batch: requests in flight when it is exceeded,
+   * and requests not started yet, are answered with a REQUEST_TIMEOUT error response.
+   *
+   * @param httpRequests The client HTTP requests of the batch.
+   * @param options      Concurrency, ordering, deadline and failure mode of the batch.
+   * @param <REQUEST>    Type of the request bodies.
+   * @param <RESPONSE>   Type of the response bodies.
+   * @return Flux of the responses with the request they answer and its index in the batch.
+   */
+  public <REQUEST, RESPONSE> Flux<ClientHttpBatchResponse<REQUEST, RESPONSE>> batchHttpResponse(
+      Publisher<ClientHttpRequest<REQUEST, RESPONSE>> httpRequests,
+      ClientHttpBatchOptions options) {
+    final ContextSnapshot mdcSnapshot = MdcPropagation.capture();
+    return Flux.defer(() -> {
+          final long deadlineNanos = Objects.isNull(options.getTimeout()) ? 0
+              : System.nanoTime() + options.getTimeout().toNanos();
+          final Function<Tuple2<Long, ClientHttpRequest<REQUEST, RESPONSE>>,
+              Mono<ClientHttpBatchResponse<REQUEST, RESPONSE>>> execute = indexedRequest ->
+              batchExchange(indexedRequest.getT2(), options.getTimeout(), deadlineNanos,
+                  mdcSnapshot)
+                  .map(response -> ClientHttpBatchResponse.<REQUEST, RESPONSE>builder()
+                      .index(indexedRequest.getT1().intValue())
+                      .request(indexedRequest.getT2())
+                      .response(response)
+                      .build());
+          final Flux<Tuple2<Long, ClientHttpRequest<REQUEST, RESPONSE>>> indexedRequests =
+              Flux.from(httpRequests).index();
+          final int maxConcurrency = options.getMaxConcurrency();
+          Flux<ClientHttpBatchResponse<REQUEST, RESPONSE>> responses;
+          if (options.isOrdered()) {
+            responses = options.isFailFast()
+                ? indexedRequests.flatMapSequential(execute, maxConcurrency)
+                : indexedRequests.flatMapSequentialDelayError(execute, maxConcurrency,
+                    Queues.XS_BUFFER_SIZE);
+          } else {
+            responses = options.isFailFast()
+                ? indexedRequests.flatMap(execute, maxConcurrency)
+                : indexedRequests.flatMapDelayError(execute, maxConcurrency,
+                    Queues.XS_BUFFER_SIZE);
           }
-          return ctx;
-        })
-        .doOnEach(signal -> {
-          Optional<Map<String, String>> contextFromReactor = signal.getContextView()
-              .getOrEmpty(MDC_CONTEXT_KEY);
-          contextFromReactor.ifPresent(MDC::setContextMap);
+          return options.isFailFast()
+              ? responses.takeUntil(response -> !response.getResponse().isSuccess2xx())
+              : responses;
         })
-        .onErrorResume(WebClientResponseException.class, ex -> {
-          final String errorMessage = String.format(
-              "Error in WebClient call (ResponseException). Error=%s Headers=%s statusCode=%s",
-              ex.getResponseBodyAsString(), ex.getHeaders(), ex.getStatusCode());
-          return Mono.just(handleExceptionInternal(ex, errorMessage, ex.getResponseBodyAsString(),
-              HttpStatus.valueOf(ex.getStatusCode().value()), httpRequest));
-        })
-        .onErrorResume(org.springframework.web.client.HttpStatusCodeException.class, ex -> {
-          final String errorMessage = String.format(
-              "Error in WebClient call (HttpStatusCodeException). Error=%s Headers=%s statusCode=%s",
-              ex.getResponseBodyAsString(), ex.getResponseHeaders(), ex.getStatusCode());
-          return Mono.just(handleExceptionInternal(ex, errorMessage, ex.getResponseBodyAsString(),
-              HttpStatus.valueOf(ex.getStatusCode().value()), httpRequest));
-        })
-        .onErrorResume(org.springframework.web.client.UnknownContentTypeException.class, ex -> {
-          final String errorMessage = String.format(
-              "Error in WebClient call (UnknownContentTypeException). Error=%s Headers=%s",
-              ex.getResponseBodyAsString(), ex.getResponseHeaders());
-          return Mono.just(handleExceptionInternal(ex, errorMessage, ex.getResponseBodyAsString(),
-              HttpStatus.valueOf(ex.getRawStatusCode()), httpRequest));
-        })
-        .onErrorResume(Exception.class, ex -> { // Catch any other unexpected exceptions
-          final String errorMessage = String.format(
-              "Unhandled exception in WebClient call. Error=%s Cause=%s", ex.getMessage(),
-              ex.getCause());
-          return Mono.just(
-              handleExceptionInternal(ex, errorMessage, null, HttpStatus.INTERNAL_SERVER_ERROR,
-                  httpRequest));
+        .transform(responses -> MdcPropagation.propagate(responses, mdcSnapshot));
+  }
+
+  /**
+   * Convenience overload of {@link #batchHttpResponse(Publisher, ClientHttpBatchOptions)} for a
+   * collection of requests.
+   *
+   * @param httpRequests The client HTTP requests of the batch.
+   * @param options      Concurrency, ordering, deadline and failure mode of the batch.
+   * @param <REQUEST>    Type of the request bodies.
+   * @param <RESPONSE>   Type of the response bodies.
+   * @return Flux of the responses with the request they answer and its index in the batch.
+   */
+  public <REQUEST, RESPONSE> Flux<ClientHttpBatchResponse<REQUEST, RESPONSE>> batchHttpResponse(
+      Collection<ClientHttpRequest<REQUEST, RESPONSE>> httpRequests,
+      ClientHttpBatchOptions options) {
+    return batchHttpResponse(Flux.fromIterable(httpRequests), options);
+  }
+
+  /**
+   * Executes a non-blocking HTTP request whose response body is a stream of elements: a JSON
+   * array (application/json), newline delimited JSON (application/x-ndjson) or server-sent events
+   * (text/event-stream), chosen by the Content-Type of the response. Elements are decoded one at a
+   * time as the consumer requests them, so the body is never buffered as a whole and
+   * maxInMemorySize only bounds the size of a single element.
+   *
+   * <p>The request is retried and bounded by its timeout until the response headers are received;
+   * once elements are emitted a failure is not retried, since that would repeat them. The permits
+   * of the concurrency limit and the circuit breaker are held until the body terminates, and a
+   * failure of the body is recorded by the circuit breaker. Failures are logged and recorded, and
+   * the retry handlers of the request run, like for {@link #asyncHttpResponse(ClientHttpRequest)};
+   * they are then signalled as errors with the original exception, or the one thrown by a retry
+   * handler.
+   *
+   * @param httpRequest The client HTTP request details, whose response type is the element type.
+   * @param <REQUEST>   Type of the request body.
+   * @param <RESPONSE>  Type of the elements of the response body.
+   * @return Flux of the decoded elements of the response body.
+   */
+  public <REQUEST, RESPONSE> Flux<RESPONSE> streamHttpResponse(
+      ClientHttpRequest<REQUEST, RESPONSE> httpRequest) {
+    final ContextSnapshot mdcSnapshot = MdcPropagation.capture();
+    final String host = WebClientUtils.getHost(httpRequest.getUrl());
+    final RetryBudget retryBudget = retryBudgetRegistry.getRetryBudget(host);
+    final String downstreamName = Objects.nonNull(httpRequest.getClientName())
+        ? httpRequest.getClientName() : host;
+    final CircuitBreaker circuitBreaker = circuitBreakerRegistry.getCircuitBreaker(downstreamName);
+    final AdaptiveConcurrencyLimiter concurrencyLimiter = concurrencyLimiterRegistry
+        .getConcurrencyLimiter(downstreamName);
+    final RateLimiter rateLimiter = rateLimiterRegistry.getRateLimiter(downstreamName);
+    final RetryHandlerChain retryHandlers = retryHandlerRegistry.chain(httpRequest);
+
+    return Flux.defer(() -> {
+          final long startNanos = System.nanoTime();
+          final AtomicReference<HttpStatusCode> status = new AtomicReference<>();
+          final Mono<Flux<RESPONSE>> bodyMono = rateLimiter.protect(
+                  concurrencyLimiter.protectStream(circuitBreaker.protectStream(
+                      generateResponseSpec(httpRequest)
+                          .toEntityFlux(httpRequest.getResponseType())
+                          .doOnNext(responseEntity -> status.set(responseEntity.getStatusCode()))
+                          .map(HttpEntity::getBody))))
+              .doOnNext(body -> retryBudget.deposit())
+              .retryWhen(generateRetrySpec(httpRequest, host, retryBudget, retryHandlers,
+                  mdcSnapshot));
+          return RequestDeadline.apply(bodyMono, httpRequest.getTimeout())
+              .flatMapMany(Function.identity())
+              .doOnError(WebClientResponseException.class,
+                  ex -> status.set(ex.getStatusCode()))
+              .doFinally(signalType -> webClientMetrics.recordRequest(host,
+                  httpRequest.getRoute(), httpRequest.getHttpMethod(), status.get(),
+                  System.nanoTime() - startNanos));
         })
-        .doFinally(signalType -> {
-          MDC.clear();
-          log.debug("MDC cleared after reactive chain completion (signal type: {}).", signalType);
-        });
+        .onErrorResume(ex -> handleError(retryHandlers, () -> handleStreamError(ex, httpRequest,
+                host, retryHandlers, mdcSnapshot))
+            .flatMapMany(failure -> Flux.<RESPONSE>error(failure)))
+        .transform(elements -> MdcPropagation.propagate(elements, mdcSnapshot));
+  }
+
+  /**
+   * Executes a non-blocking HTTP request whose raw response body is returned as the buffers read
+   * from the connection, without decoding or aggregating them. Retries, circuit breaker, timeout
+   * and error semantics are those of {@link #streamHttpResponse(ClientHttpRequest)}.
+   *
+   * <p>The buffers may be pooled: the consumer owns every emitted buffer and must release it with
+   * {@link DataBufferUtils#release(DataBuffer)} once it is consumed. Buffers not yet emitted when
+   * the Flux is cancelled or fails are released by the client.
+   *
+   * @param httpRequest The client HTTP request details, its response type is ignored.
+   * @param <REQUEST>   Type of the request body.
+   * @return Flux of the buffers of the response body.
+   */
+  public <REQUEST> Flux<DataBuffer> rawHttpResponse(
+      ClientHttpRequest<REQUEST, DataBuffer> httpRequest) {
+    return streamHttpResponse(httpRequest.toBuilder().responseType(DATA_BUFFER_TYPE).build());
+  }
+
+  /**
+   * Executes a non-blocking HTTP request and writes its response body to a file as it is
+   * received, so that the body is never held in memory and maxInMemorySize does not apply.
+   *
+   * <p>The body is written to a temporary file in the directory of {@code path}, truncated on every
+   * attempt so failed attempts can be retried, and moved to {@code path} once it is complete,
+   * replacing the file there if any. When the download fails or is cancelled, only the temporary
+   * file is deleted and a file already at {@code path} is left as is. The circuit breaker only
+   * considers the response headers, so long downloads are not recorded as slow calls, while the
+   * request timeout bounds the whole download.
+   *
+   * @param httpRequest The client HTTP request details, its response type is ignored.
+   * @param path        File to write the response body to.
+   * @param <REQUEST>   Type of the request body.
+   * @return Mono<ClientHttpResponse < Path>> containing the path of the written file or error
+   * details.
+   */
+  public <REQUEST> Mono<ClientHttpResponse<Path>> downloadToFile(
+      ClientHttpRequest<REQUEST, Path> httpRequest, Path path) {
+    final ContextSnapshot mdcSnapshot = MdcPropagation.capture();
+    final String host = WebClientUtils.getHost(httpRequest.getUrl());
+    final RetryBudget retryBudget = retryBudgetRegistry.getRetryBudget(host);
+    final String downstreamName = Objects.nonNull(httpRequest.getClientName())
+        ? httpRequest.getClientName() : host;
+    final CircuitBreaker circuitBreaker = circuitBreakerRegistry.getCircuitBreaker(downstreamName);
+    final AdaptiveConcurrencyLimiter concurrencyLimiter = concurrencyLimiterRegistry
+        .getConcurrencyLimiter(downstreamName);
+    final RateLimiter rateLimiter = rateLimiterRegistry.getRateLimiter(downstreamName);
+    final RetryHandlerChain retryHandlers = retryHandlerRegistry.chain(httpRequest);
+
+    final Path directory = path.toAbsolutePath().getParent();
+    return handleResponse(Mono.usingWhen(
+            Mono.fromCallable(() -> Files.createTempFile(directory, path.getFileName() + ".",
+                DOWNLOAD_SUFFIX)).subscribeOn(Schedulers.boundedElastic()),
+            tempFile -> rateLimiter.protect(concurrencyLimiter.protect(circuitBreaker.protect(
+                    generateResponseSpec(httpRequest).toEntityFlux(DataBuffer.class))))
+                .flatMap(responseEntity -> DataBufferUtils.write(responseEntity.getBody(), tempFile)
+                    .then(Mono.fromCallable(() -> ClientHttpResponse.<Path>builder().response(path)
+                        .status(responseEntity.getStatusCode())
+                        .isSuccess2xx(responseEntity.getStatusCode().is2xxSuccessful()).build())))
+                .doOnNext(response -> retryBudget.deposit())
+                .retryWhen(generateRetrySpec(httpRequest, host, retryBudget, retryHandlers,
+                    mdcSnapshot))
+                .transform(responseMono -> applyTimeout(responseMono, httpRequest.getTimeout()))
+                .flatMap(response -> Mono.fromCallable(() -> Files.move(tempFile, path,
+                        StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING))
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .thenReturn(response)),
+            // a no-op once the temporary file was moved
+            tempFile -> Mono.fromCallable(() -> Files.deleteIfExists(tempFile))
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(deleteFailure -> Mono.just(false))),
+        httpRequest, host, retryHandlers, mdcSnapshot)
+        .transform(responseMono -> MdcPropagation.propagate(responseMono, mdcSnapshot));
+  }
+
+  /**
+   * Executes a request of a batch within what is left of the batch deadline: the request timeout
+   * is narrowed to the remaining time, and a request started after the deadline is not sent.
+   *
+   * @param httpRequest   The client HTTP request details.
+   * @param batchTimeout  Deadline of the batch, none when null.
+   * @param deadlineNanos System.nanoTime() at which the batch deadline is exceeded.
+   * @param mdcSnapshot   MDC of the caller of the batch, may be null.
+   * @return Mono<ClientHttpResponse < RESPONSE>> containing the response or error details.
+   */
+  private <REQUEST, RESPONSE> Mono<ClientHttpResponse<RESPONSE>> batchExchange(
+      ClientHttpRequest<REQUEST, RESPONSE> httpRequest, Duration batchTimeout,
+      long deadlineNanos, ContextSnapshot mdcSnapshot) {
+    // requests are assembled on the thread that emits them, the MDC of the caller is set so that
+    // every request captures it
+    try (ContextSnapshot.Scope scope = MdcPropagation.setMdc(mdcSnapshot)) {
+      if (Objects.isNull(batchTimeout)) {
+        return asyncHttpResponse(httpRequest);
+      }
+      final long remainingNanos = deadlineNanos - System.nanoTime();
+      if (remainingNanos <= 0) {
+        return handleResponse(Mono.error(new RequestTimeoutException(batchTimeout)), httpRequest,
+            WebClientUtils.getHost(httpRequest.getUrl()), retryHandlerRegistry.chain(httpRequest),
+            mdcSnapshot);
+      }
+      final Duration remaining = Duration.ofNanos(remainingNanos);
+      if (Objects.nonNull(httpRequest.getTimeout())
+          && httpRequest.getTimeout().compareTo(remaining) <= 0) {
+        return asyncHttpResponse(httpRequest);
+      }
+      return asyncHttpResponse(httpRequest.toBuilder().timeout(remaining).build());
+    }
+  }
+
+  /**
+   * Answers the request from the response cache when it holds a usable response, and sends it
+   * otherwise, conditionally when a stale response can be revalidated.
+   *
+   * @param httpRequest The client HTTP request details.
+   * @return Mono<ClientHttpResponse < RESPONSE>> containing the response or error details.
+   */
+  private <REQUEST, RESPONSE> Mono<ClientHttpResponse<RESPONSE>> cachedExchange(
+      ClientHttpRequest<REQUEST, RESPONSE> httpRequest) {
+    final String cacheKey = responseCache.getKey(httpRequest);
+    if (Objects.isNull(cacheKey)) {
+      return exchange(httpRequest, null, null);
+    }
+    final CachedResponse cachedResponse = responseCache.get(cacheKey,
+        WebClientUtils.getHost(httpRequest.getUrl()), httpRequest.getRoute());
+    if (Objects.isNull(cachedResponse)) {
+      return exchange(httpRequest, cacheKey, null);
+    }
+    final long nowNanos = System.nanoTime();
+    if (cachedResponse.isFresh(nowNanos)) {
+      return Mono.just(generateResponse(cachedResponse.getResponseEntity()));
+    }
+    if (cachedResponse.isStaleWhileRevalidate(nowNanos)) {
+      if (cachedResponse.tryStartRevalidation()) {
+        // failures are logged and recorded by exchange, only what a retry handler throws, meant
+        // for the caller, is left; it is logged here instead of being dropped by Reactor
+        exchange(cachedResponse.toConditionalRequest(httpRequest), cacheKey, cachedResponse)
+            .subscribe(null, ex -> errorLogger.logError(log,
+                WebClientUtils.getHost(httpRequest.getUrl()), null, ex, () -> String.format(
+                    "Exception while revalidating cached response for requestUrl=%s",
+                    httpRequest.getUrl())));
+      }
+      return Mono.just(generateResponse(cachedResponse.getResponseEntity()));
+    }
+    return exchange(cachedResponse.toConditionalRequest(httpRequest), cacheKey, cachedResponse);
+  }
+
+  /**
+   * Sends the request with retries, circuit breaker and timeout, and maps its outcome to a
+   * ClientHttpResponse.
+   *
+   * @param httpRequest    The client HTTP request details.
+   * @param cacheKey       Key to store the response under, null if it is not cached.
+   * @param cachedResponse Stored response being revalidated, may be null.
+   * @return Mono<ClientHttpResponse < RESPONSE>> containing the response or error details.
+   */
+  private <REQUEST, RESPONSE> Mono<ClientHttpResponse<RESPONSE>> exchange(
+      ClientHttpRequest<REQUEST, RESPONSE> httpRequest, String cacheKey,
+      CachedResponse cachedResponse) {
+    final ContextSnapshot mdcSnapshot = MdcPropagation.capture();
+    log.debug("asyncHttpResponse initiated for requestUrl={}", httpRequest.getUrl());
+    final String host = WebClientUtils.getHost(httpRequest.getUrl());
+    final RetryBudget retryBudget = retryBudgetRegistry.getRetryBudget(host);
+    final String downstreamName = Objects.nonNull(httpRequest.getClientName())
+        ? httpRequest.getClientName() : host;
+    final CircuitBreaker circuitBreaker = circuitBreakerRegistry.getCircuitBreaker(downstreamName);
+    final AdaptiveConcurrencyLimiter concurrencyLimiter = concurrencyLimiterRegistry
+        .getConcurrencyLimiter(downstreamName);
+    final RateLimiter rateLimiter = rateLimiterRegistry.getRateLimiter(downstreamName);
+    final RetryHandlerChain retryHandlers = retryHandlerRegistry.chain(httpRequest);
+
+    // the rate limit is applied first, so that a request delayed by it does not hold a permit of
+    // the concurrency limit or the circuit breaker while it waits
+    Mono<ResponseEntity<RESPONSE>> responseEntityMono = requestHedger.hedge(
+        rateLimiter.protect(concurrencyLimiter.protect(circuitBreaker.protect(
+            generateResponseSpec(httpRequest).toEntity(httpRequest.getResponseType())))),
+        httpRequest, host);
+    if (Objects.nonNull(cacheKey)) {
+      responseEntityMono = responseEntityMono.map(responseEntity -> responseCache.update(cacheKey,
+          cachedResponse, responseEntity, host, httpRequest.getRoute()));
+    }
+    if (Objects.nonNull(cachedResponse)) {
+      responseEntityMono = responseEntityMono.doFinally(signalType ->
+          cachedResponse.endRevalidation());
+    }
+    return handleResponse(responseEntityMono
+        .map(this::generateResponse)
+        .doOnNext(response -> retryBudget.deposit())
+        .retryWhen(generateRetrySpec(httpRequest, host, retryBudget, retryHandlers,
+            mdcSnapshot))
+        .transform(responseMono -> applyTimeout(responseMono, httpRequest.getTimeout())),
+        httpRequest, host, retryHandlers, mdcSnapshot);
+  }
+
+  /**
+   * Maps the failures of a request to error ClientHttpResponses and records its metrics. The MDC
+   * of the caller is set while failures are logged and handled; propagating it to the subscriber
+   * is left to the caller.
+   *
+   * @param responseMono  The retried response of the request.
+   * @param httpRequest   The client HTTP request details.
+   * @param host          Host of the request url, used to tag metrics.
+   * @param retryHandlers Retry handlers of the request, invoked once its retries are exhausted.
+   * @param mdcSnapshot   MDC of the calling thread, may be null.
+   * @return Mono<ClientHttpResponse < RESPONSE>> containing the response or error details.
+   */
+  private <REQUEST, RESPONSE> Mono<ClientHttpResponse<RESPONSE>> handleResponse(
+      Mono<ClientHttpResponse<RESPONSE>> responseMono,
+      ClientHttpRequest<REQUEST, RESPONSE> httpRequest, String host,
+      RetryHandlerChain retryHandlers, ContextSnapshot mdcSnapshot) {
+    return responseMono
+        .onErrorResume(WebClientRejectedException.class, ex -> handleError(retryHandlers,
+            () -> handleExceptionInternal(ex, ex::getMessage, null, ex.getHttpStatus(), httpRequest,
+                host, ex.getErrorType(), retryHandlers, mdcSnapshot)))
+        .onErrorResume(WebClientResponseException.class, ex -> handleError(retryHandlers, () -> {
+          final String responseBody = ex.getResponseBodyAsString();
+          return handleExceptionInternal(ex, () -> String.format(
+                  "Error in WebClient call (ResponseException). Error=%s Headers=%s statusCode=%s",
+                  errorLogger.truncate(responseBody), ex.getHeaders(), ex.getStatusCode()),
+              errorLogger.errorBody(responseBody),
+              HttpStatus.valueOf(ex.getStatusCode().value()), httpRequest, host,
+              WebClientErrorType.RESPONSE_EXCEPTION, retryHandlers, mdcSnapshot);
+        }))
+        .onErrorResume(org.springframework.web.client.HttpStatusCodeException.class,
+            ex -> handleError(retryHandlers, () -> {
+              final String responseBody = ex.getResponseBodyAsString();
+              return handleExceptionInternal(ex, () -> String.format(
+                      "Error in WebClient call (HttpStatusCodeException). Error=%s Headers=%s statusCode=%s",
+                      errorLogger.truncate(responseBody), ex.getResponseHeaders(),
+                      ex.getStatusCode()),
+                  errorLogger.errorBody(responseBody),
+                  HttpStatus.valueOf(ex.getStatusCode().value()), httpRequest, host,
+                  WebClientErrorType.HTTP_STATUS_CODE_EXCEPTION, retryHandlers, mdcSnapshot);
+            }))
+        .onErrorResume(org.springframework.web.client.UnknownContentTypeException.class,
+            ex -> handleError(retryHandlers, () -> {
+              final String responseBody = ex.getResponseBodyAsString();
+              return handleExceptionInternal(ex, () -> String.format(
+                      "Error in WebClient call (UnknownContentTypeException). Error=%s Headers=%s",
+                      errorLogger.truncate(responseBody), ex.getResponseHeaders()),
+                  errorLogger.errorBody(responseBody),
+                  HttpStatus.valueOf(ex.getRawStatusCode()), httpRequest, host,
+                  WebClientErrorType.UNKNOWN_CONTENT_TYPE, retryHandlers, mdcSnapshot);
+            }))
+        .onErrorResume(Exception.class, ex -> // Catch any other unexpected exceptions
+            handleError(retryHandlers, () -> handleExceptionInternal(ex, () -> String.format(
+                    "Unhandled exception in WebClient call. Error=%s Cause=%s", ex.getMessage(),
+                    ex.getCause()), null, HttpStatus.INTERNAL_SERVER_ERROR,
+                httpRequest, host, WebClientErrorType.UNHANDLED, retryHandlers, mdcSnapshot)))
+        .transform(handledMono -> recordRequestMetrics(handledMono, httpRequest, host));
+  }
+
+  /**
+   * Handles a failure, running the retry handlers of the request on the retry handler scheduler of
+   * the sync executor if it has one.
+   *
+   * @param retryHandlers Retry handlers of the request.
+   * @param errorHandler  Logs and records the failure, runs the retry handlers and builds the
+   *                      error response, or the error of a stream.
+   * @return Mono of the error response, failing with the exception thrown by a retry handler.
+   */
+  private <T> Mono<T> handleError(RetryHandlerChain retryHandlers, Supplier<T> errorHandler) {
+    if (retryHandlers.isEmpty()) {
+      return Mono.just(errorHandler.get());
+    }
+    return syncExecutor.runRetryHandlers(errorHandler);
+  }
+
+  /**
+   * Bounds the request including all of its retries, the attempt in flight is cancelled when the
+   * timeout is exceeded and recorded by the circuit breaker.
+   *
+   * @param responseMono The mapped and retried response of the request.
+   * @param timeout      Deadline of the request, none when null.
+   * @return Mono failing with a RequestTimeoutException when the timeout is exceeded.
+   */
+  private <RESPONSE> Mono<ClientHttpResponse<RESPONSE>> applyTimeout(
+      Mono<ClientHttpResponse<RESPONSE>> responseMono, Duration timeout) {
+    return RequestDeadline.apply(responseMono, timeout);
+  }
+
+  /**
+   * Times the request from subscription until its ClientHttpResponse, including all retries.
+   *
+   * @param responseMono The mapped response of the request.
+   * @param httpRequest  The client HTTP request details.
+   * @param host         Host of the request url, used to tag metrics.
+   * @return Mono recording the request metrics when it emits.
+   */
+  private <REQUEST, RESPONSE> Mono<ClientHttpResponse<RESPONSE>> recordRequestMetrics(
+      Mono<ClientHttpResponse<RESPONSE>> responseMono,
+      ClientHttpRequest<REQUEST, RESPONSE> httpRequest, String host) {
+    return Mono.defer(() -> {
+      final long startNanos = System.nanoTime();
+      return responseMono.doOnNext(response -> webClientMetrics.recordRequest(host,
+          httpRequest.getRoute(), httpRequest.getHttpMethod(), response.getStatus(),
+          System.nanoTime() - startNanos));
+    });
   }
 
   /**
@@ -122,16 +584,35 @@ public class CommonSpringWebClient {
    * @param httpRequest The client HTTP request details.
    * @return WebClient.ResponseSpec ready for retrieval.
    */
+  @SuppressWarnings("unchecked")
   private <REQUEST, RESPONSE> WebClient.ResponseSpec generateResponseSpec(
       ClientHttpRequest<REQUEST, RESPONSE> httpRequest) {
 
     Consumer<HttpHeaders> httpHeadersConsumer = (httpHeaders -> httpHeaders
         .putAll(httpRequest.getRequestHeaders()));
-    RequestBodySpec webClientBuilder = webClient.method(httpRequest.getHttpMethod())
+    final WebClient profileWebClient = Objects.isNull(httpRequest.getClientProfile()) ? webClient
+        : webClientProfiles.getWebClient(httpRequest.getClientProfile());
+    RequestBodySpec webClientBuilder = profileWebClient.method(httpRequest.getHttpMethod())
         .uri(httpRequest.getUrl())
         .headers(httpHeadersConsumer);
+    if (Objects.nonNull(httpRequest.getRoute())) {
+      webClientBuilder.attribute(WebClientConstants.ROUTE_ATTRIBUTE, httpRequest.getRoute());
+    }
 
-    if (Objects.nonNull(httpRequest.getRequest()) && Objects.nonNull(
+    if (Objects.nonNull(httpRequest.getRequestFile())) {
+      webClientBuilder.body(BodyInserters.fromResource(
+          new FileSystemResource(httpRequest.getRequestFile())));
+    } else if (Objects.nonNull(httpRequest.getMultipartBody())) {
+      webClientBuilder.body(BodyInserters.fromMultipartData(httpRequest.getMultipartBody()));
+    } else if (Objects.nonNull(httpRequest.getRequestPublisher())) {
+      if (isResolved(httpRequest.getRequestType())) {
+        webClientBuilder.body(httpRequest.getRequestPublisher(), httpRequest.getRequestType());
+      } else {
+        // an element type of Object would select a JSON encoder instead of the DataBuffer encoder
+        webClientBuilder.body(BodyInserters.fromDataBuffers(
+            (Publisher<DataBuffer>) httpRequest.getRequestPublisher()));
+      }
+    } else if (Objects.nonNull(httpRequest.getRequest()) && Objects.nonNull(
         httpRequest.getRequestType())) {
       webClientBuilder.body(Mono.just(httpRequest.getRequest()), httpRequest.getRequestType());
     }
@@ -139,22 +620,43 @@ public class CommonSpringWebClient {
     return webClientBuilder.retrieve();
   }
 
+  /**
+   * @param type request type of a request.
+   * @return false if the type is not set, so that it resolves to Object.
+   */
+  private static boolean isResolved(ParameterizedTypeReference<?> type) {
+    return ResolvableType.forType(type).resolve(Object.class) != Object.class;
+  }
+
   /**
    * Generates retry specification for the request based on config provided.
    *
    * @param httpRequest The client HTTP request details including retry configuration.
+   * @param host        Host of the request url, used to tag metrics.
+   * @param retryBudget Retry budget of the host.
+   * @param retryHandlers Retry handlers of the request, asked whether failures are retried.
+   * @param mdcSnapshot MDC of the calling thread, set while retries are logged.
    * @return Reactor Retry specification.
    */
   private <REQUEST, RESPONSE> Retry generateRetrySpec(
-      ClientHttpRequest<REQUEST, RESPONSE> httpRequest) {
-    return Retry
-        .fixedDelay(httpRequest.getClientRetryConfig().getMaxAttempts(),
-            Duration.ofSeconds(httpRequest.getClientRetryConfig().getBackOff()))
-        .doBeforeRetry(signal -> {
-          log.info("Retrying for requestUrl={}, retryCount={}",
-              httpRequest.getUrl(), signal.totalRetries());
-        })
-        .filter(httpRequest.getClientRetryConfig().getRetryFilter());
+      ClientHttpRequest<REQUEST, RESPONSE> httpRequest, String host, RetryBudget retryBudget,
+      RetryHandlerChain retryHandlers, ContextSnapshot mdcSnapshot) {
+    // a body publisher that cannot be subscribed again would send an empty or partial body
+    final WebClientRetryConfig retryConfig = httpRequest.isRequestBodyReplayable()
+        ? httpRequest.getClientRetryConfig() : NO_RETRY_CONFIG;
+    return new BackoffRetrySpec(retryConfig, retryBudget, signal -> {
+      try (ContextSnapshot.Scope scope = MdcPropagation.setMdc(mdcSnapshot)) {
+        log.info("Retrying for requestUrl={}, retryCount={}",
+            httpRequest.getUrl(), signal.totalRetries());
+      }
+      webClientMetrics.recordRetry(host, httpRequest.getRoute());
+    }, signal -> {
+      try (ContextSnapshot.Scope scope = MdcPropagation.setMdc(mdcSnapshot)) {
+        log.warn("Retry budget exhausted, not retrying requestUrl={}, retryCount={}",
+            httpRequest.getUrl(), signal.totalRetries());
+      }
+      webClientMetrics.recordRetryDenied(host, httpRequest.getRoute());
+    }, retryHandlers);
   }
 
   /**
@@ -171,31 +673,85 @@ public class CommonSpringWebClient {
         .isSuccess2xx(response.getStatusCode().is2xxSuccessful()).build();
   }
 
+  /**
+   * Logs and records the failure of a streamed request and runs its retry handlers.
+   *
+   * @param exception     The failure signalled by the stream.
+   * @param httpRequest   The original HTTP request.
+   * @param host          Host of the request url, used to tag metrics.
+   * @param retryHandlers Retry handlers of the request, invoked in order.
+   * @param mdcSnapshot   MDC of the calling thread, set while the error is logged and handled.
+   * @return the failure to signal to the consumer of the stream.
+   */
+  private <REQUEST, RESPONSE> Throwable handleStreamError(final Throwable exception,
+      final ClientHttpRequest<REQUEST, RESPONSE> httpRequest, final String host,
+      final RetryHandlerChain retryHandlers, final ContextSnapshot mdcSnapshot) {
+    final WebClientErrorType errorType;
+    final HttpStatusCode status;
+    final Supplier<String> errorMessage;
+    if (exception instanceof WebClientRejectedException rejectedException) {
+      errorType = rejectedException.getErrorType();
+      status = rejectedException.getHttpStatus();
+      errorMessage = rejectedException::getMessage;
+    } else if (exception instanceof WebClientResponseException responseException) {
+      errorType = WebClientErrorType.RESPONSE_EXCEPTION;
+      status = responseException.getStatusCode();
+      errorMessage = () -> String.format(
+          "Error in WebClient stream (ResponseException). Error=%s Headers=%s statusCode=%s",
+          errorLogger.truncate(responseException.getResponseBodyAsString()),
+          responseException.getHeaders(), responseException.getStatusCode());
+    } else {
+      errorType = WebClientErrorType.UNHANDLED;
+      status = null;
+      errorMessage = () -> String.format(
+          "Unhandled exception in WebClient stream. Error=%s Cause=%s", exception.getMessage(),
+          exception.getCause());
+    }
+    try (ContextSnapshot.Scope scope = MdcPropagation.setMdc(mdcSnapshot)) {
+      errorLogger.logError(log, host, status, exception, () -> String.format(
+          "Exception while streaming http response for requestUrl=%s, errorMessage=%s",
+          httpRequest.getUrl(), errorMessage.get()));
+      webClientMetrics.recordError(host, httpRequest.getRoute(), errorType);
+      if (exception instanceof Exception failure) {
+        retryHandlers.checkAndThrowRetriableException(failure);
+      }
+    }
+    return exception;
+  }
+
   /**
    * Internal method to handle exceptions and build an error ClientHttpResponse. This is now called
    * from within the `onErrorResume` operators in the reactive chain.
    *
    * @param exception    The exception that occurred.
-   * @param errorMessage Formatted error message.
-   * @param responseBody Raw response body if available.
+   * @param errorMessage Formats the error message, only called when the failure is logged.
+   * @param responseBody Response body returned in the error response, if available.
    * @param httpStatus   HTTP status of the error.
    * @param httpRequest  The original HTTP request.
+   * @param host         Host of the request url, used to tag metrics.
+   * @param errorType    Classification of the error, used to tag metrics.
+   * @param retryHandlers Retry handlers of the request, invoked in order.
+   * @param mdcSnapshot  MDC of the calling thread, set while the error is logged and handled.
    * @param <RESPONSE>   Type of the response body.
    * @return ClientHttpResponse with error details.
    */
   private <REQUEST, RESPONSE> ClientHttpResponse<RESPONSE> handleExceptionInternal(
       final Exception exception,
-      final String errorMessage,
+      final Supplier<String> errorMessage,
       final String responseBody,
       final HttpStatus httpStatus,
-      final ClientHttpRequest<REQUEST, RESPONSE> httpRequest) {
-    log.error(
-        "Exception while executing http request for requestUrl={}, status={}, errorMessage={}",
-        httpRequest.getUrl(), httpStatus, errorMessage,
-        exception); // Include 'exception' for stack trace
-    httpRequest.getRetryHandlers()
-        .forEach(handlerId -> RetryHandlerFactory.getHandler(handlerId.toString())
-            .checkAndThrowRetriableException(exception));
+      final ClientHttpRequest<REQUEST, RESPONSE> httpRequest,
+      final String host,
+      final WebClientErrorType errorType,
+      final RetryHandlerChain retryHandlers,
+      final ContextSnapshot mdcSnapshot) {
+    try (ContextSnapshot.Scope scope = MdcPropagation.setMdc(mdcSnapshot)) {
+      errorLogger.logError(log, host, httpStatus, exception, () -> String.format(
+          "Exception while executing http request for requestUrl=%s, status=%s, errorMessage=%s",
+          httpRequest.getUrl(), httpStatus, errorMessage.get()));
+      webClientMetrics.recordError(host, httpRequest.getRoute(), errorType);
+      retryHandlers.checkAndThrowRetriableException(exception);
+    }
     return ClientHttpResponse.<RESPONSE>builder().error(responseBody).exception(exception).status(httpStatus).build();
   }
 }
\ No newline at end of file
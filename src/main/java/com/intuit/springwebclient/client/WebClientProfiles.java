@@ -0,0 +1,46 @@
+package com.intuit.springwebclient.client;
+
+import java.util.Collection;
+import java.util.Map;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * WebClients of the named client profiles, each with its own connection pool so that a slow
+ * downstream cannot exhaust the connections of the others.
+ */
+public class WebClientProfiles implements DisposableBean {
+
+  private final Map<String, WebClient> webClients;
+  private final Collection<ConnectionProvider> connectionProviders;
+
+  public WebClientProfiles(Map<String, WebClient> webClients,
+      Collection<ConnectionProvider> connectionProviders) {
+    this.webClients = webClients;
+    this.connectionProviders = connectionProviders;
+  }
+
+  /**
+   * Gets the WebClient of a profile.
+   *
+   * @param clientProfile name of the profile
+   * @return WebClient of the profile
+   * @throws IllegalArgumentException if no such profile is configured
+   */
+  public WebClient getWebClient(String clientProfile) {
+    final WebClient webClient = webClients.get(clientProfile);
+    if (webClient == null) {
+      throw new IllegalArgumentException("No client profile configured with name=" + clientProfile);
+    }
+    return webClient;
+  }
+
+  /**
+   * Closes the connection pools of the profiles.
+   */
+  @Override
+  public void destroy() {
+    connectionProviders.forEach(ConnectionProvider::dispose);
+  }
+}
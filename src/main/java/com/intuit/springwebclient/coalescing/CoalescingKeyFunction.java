@@ -0,0 +1,18 @@
+package com.intuit.springwebclient.coalescing;
+
+import com.intuit.springwebclient.entity.ClientHttpRequest;
+
+/**
+ * Computes the key under which identical in-flight requests are coalesced. Requests with equal
+ * keys must be interchangeable, i.e. produce the same response for every caller. Define a bean of
+ * this type to replace {@link DefaultCoalescingKeyFunction}.
+ */
+@FunctionalInterface
+public interface CoalescingKeyFunction {
+
+  /**
+   * @param httpRequest idempotent request about to be sent
+   * @return key of the request, or null if the request must not be coalesced
+   */
+  String coalescingKey(ClientHttpRequest<?, ?> httpRequest);
+}
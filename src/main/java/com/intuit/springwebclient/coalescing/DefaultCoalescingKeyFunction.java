@@ -0,0 +1,24 @@
+package com.intuit.springwebclient.coalescing;
+
+import com.intuit.springwebclient.entity.ClientHttpRequest;
+import com.intuit.springwebclient.util.WebClientUtils;
+import java.util.List;
+
+/**
+ * Keys a request by its method, url, client profile, response type and request headers. Only the
+ * configured headers are part of the key, or all headers when none are configured, so that
+ * per-call headers such as correlation ids can be left out.
+ */
+public class DefaultCoalescingKeyFunction implements CoalescingKeyFunction {
+
+  private final List<String> keyHeaders;
+
+  public DefaultCoalescingKeyFunction(List<String> keyHeaders) {
+    this.keyHeaders = keyHeaders == null ? List.of() : List.copyOf(keyHeaders);
+  }
+
+  @Override
+  public String coalescingKey(ClientHttpRequest<?, ?> httpRequest) {
+    return WebClientUtils.getRequestKey(httpRequest, keyHeaders);
+  }
+}
@@ -0,0 +1,138 @@
+package com.intuit.springwebclient.coalescing;
+
+import com.intuit.springwebclient.config.CoalescingConfig;
+import com.intuit.springwebclient.context.MdcPropagation;
+import com.intuit.springwebclient.entity.ClientHttpRequest;
+import com.intuit.springwebclient.entity.ClientHttpResponse;
+import com.intuit.springwebclient.metrics.WebClientMetrics;
+import com.intuit.springwebclient.util.WebClientUtils;
+import io.micrometer.context.ContextSnapshot;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpMethod;
+import reactor.core.publisher.Mono;
+
+/**
+ * Shares one in-flight call between concurrent identical GET and HEAD requests (single-flight),
+ * so that only one of them reaches the downstream and all callers get its response.
+ *
+ * <p>A call is shared from the first subscription until it completes; callers arriving after
+ * completion, or after all of its callers cancelled it, send a new one. The shared call is only
+ * cancelled once every caller cancelled, and all callers receive the same ClientHttpResponse
+ * instance, whose response body must therefore not be modified.
+ */
+@Slf4j
+public class RequestCoalescer {
+
+  private final boolean enabled;
+  private final int maxSubscribers;
+  private final CoalescingKeyFunction coalescingKeyFunction;
+  private final WebClientMetrics webClientMetrics;
+  private final ConcurrentMap<String, InFlightCall> inFlightCalls = new ConcurrentHashMap<>();
+
+  public RequestCoalescer(CoalescingConfig coalescingConfig,
+      CoalescingKeyFunction coalescingKeyFunction, WebClientMetrics webClientMetrics) {
+    this.enabled = coalescingConfig != null && coalescingConfig.isEnabled();
+    this.maxSubscribers = enabled ? coalescingConfig.getMaxSubscribers() : 0;
+    this.coalescingKeyFunction = coalescingKeyFunction;
+    this.webClientMetrics = webClientMetrics;
+  }
+
+  /**
+   * Sends the request, or joins the in-flight call of an identical request.
+   *
+   * @param httpRequest The client HTTP request details.
+   * @param call        Sends the request, invoked when no identical request is in flight.
+   * @return Mono of the response of the request.
+   */
+  public <REQUEST, RESPONSE> Mono<ClientHttpResponse<RESPONSE>> coalesce(
+      ClientHttpRequest<REQUEST, RESPONSE> httpRequest,
+      Supplier<Mono<ClientHttpResponse<RESPONSE>>> call) {
+    if (!enabled || !isIdempotent(httpRequest.getHttpMethod())) {
+      return call.get();
+    }
+    final String key = coalescingKeyFunction.coalescingKey(httpRequest);
+    if (key == null) {
+      return call.get();
+    }
+    // the call is assembled on the subscribing thread, with the MDC of a batch caller if any
+    return Mono.deferContextual(contextView -> {
+      try (ContextSnapshot.Scope scope = MdcPropagation.setMdc(contextView)) {
+        return join(key, httpRequest, call);
+      }
+    });
+  }
+
+  @SuppressWarnings("unchecked")
+  private <REQUEST, RESPONSE> Mono<ClientHttpResponse<RESPONSE>> join(String key,
+      ClientHttpRequest<REQUEST, RESPONSE> httpRequest,
+      Supplier<Mono<ClientHttpResponse<RESPONSE>>> call) {
+    final InFlightCall inFlightCall = inFlightCalls.get(key);
+    if (inFlightCall != null) {
+      if (inFlightCall.tryJoin()) {
+        log.debug("Coalesced request with in-flight call key={}", key);
+        webClientMetrics.recordCoalesced(WebClientUtils.getHost(httpRequest.getUrl()),
+            httpRequest.getRoute());
+        return (Mono<ClientHttpResponse<RESPONSE>>) inFlightCall.response;
+      }
+      // the in-flight call has as many callers as allowed
+      return call.get();
+    }
+    final InFlightCall newCall = new InFlightCall();
+    final InFlightCall existingCall = inFlightCalls.putIfAbsent(key, newCall);
+    if (existingCall != null) {
+      // an identical request started a call in between
+      return join(key, httpRequest, call);
+    }
+    final Mono<ClientHttpResponse<RESPONSE>> response;
+    try {
+      response = call.get();
+    } catch (RuntimeException ex) {
+      inFlightCalls.remove(key, newCall);
+      throw ex;
+    }
+    newCall.response = response
+        // also on cancel, or callers would keep joining a call that never completes
+        .doFinally(signal -> inFlightCalls.remove(key, newCall))
+        .share();
+    return (Mono<ClientHttpResponse<RESPONSE>>) newCall.response;
+  }
+
+  private static boolean isIdempotent(HttpMethod httpMethod) {
+    return HttpMethod.GET.equals(httpMethod) || HttpMethod.HEAD.equals(httpMethod);
+  }
+
+  /**
+   * @return number of calls currently shared.
+   */
+  int getInFlightCalls() {
+    return inFlightCalls.size();
+  }
+
+  /**
+   * A call shared by the requests of one key.
+   */
+  private final class InFlightCall {
+
+    private final AtomicInteger subscribers = new AtomicInteger(1);
+    private volatile Mono<?> response;
+
+    private boolean tryJoin() {
+      if (response == null) {
+        // still being set up by the first caller, which runs without a lock
+        return false;
+      }
+      int current;
+      do {
+        current = subscribers.get();
+        if (current >= maxSubscribers) {
+          return false;
+        }
+      } while (!subscribers.compareAndSet(current, current + 1));
+      return true;
+    }
+  }
+}
@@ -0,0 +1,159 @@
+package com.intuit.springwebclient.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.intuit.springwebclient.config.CodecConfig;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ClientCodecConfigurer;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.MimeType;
+
+/**
+ * Jackson codecs of the clients, built once and shared by every client profile.
+ *
+ * <p>JSON is (de)serialized with a single {@link ObjectMapper}: the one given, or a default built
+ * with {@link Jackson2ObjectMapperBuilder}. With Smile or CBOR enabled, a copy of that mapper is
+ * used for the binary format, so that modules and features are the same for every format. The
+ * binary formats are requested with the Accept header of every request, ahead of JSON, and the
+ * decoder is selected by the Content-Type of the response, so downstreams that only produce JSON
+ * are unaffected.
+ *
+ * <p>Blackbird replaces the reflective property access of the (de)serializers with generated
+ * lambdas. It is registered on a copy of the mapper given, the mapper itself is never modified.
+ *
+ * <p>The formats are optional dependencies: enabling one without its jar on the classpath fails
+ * at startup.
+ */
+public class JacksonCodecs {
+
+  public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+  // the codecs created with a mapper default to the json media types unless they are given
+  private static final MimeType[] SMILE_MIME_TYPES = {APPLICATION_SMILE,
+      new MimeType("application", "*+x-jackson-smile")};
+
+  private static final String SMILE_CLASS = "com.fasterxml.jackson.dataformat.smile.SmileFactory";
+  private static final String CBOR_CLASS = "com.fasterxml.jackson.dataformat.cbor.CBORFactory";
+  private static final String BLACKBIRD_CLASS = "com.fasterxml.jackson.module.blackbird.BlackbirdModule";
+
+  private final ObjectMapper objectMapper;
+  private final ObjectMapper smileMapper;
+  private final ObjectMapper cborMapper;
+  private final String acceptHeader;
+
+  /**
+   * @param codecConfig  formats and (de)serializers, JSON only when null.
+   * @param objectMapper shared mapper, a default mapper is built when null.
+   */
+  public JacksonCodecs(CodecConfig codecConfig, ObjectMapper objectMapper) {
+    final CodecConfig config = codecConfig != null ? codecConfig : new CodecConfig();
+    ObjectMapper mapper = objectMapper != null ? objectMapper
+        : Jackson2ObjectMapperBuilder.json().build();
+    if (config.isBlackbird()) {
+      requirePresent(BLACKBIRD_CLASS, "blackbird", "com.fasterxml.jackson.module:jackson-module-blackbird");
+      mapper = Blackbird.register(objectMapper != null ? mapper.copy() : mapper);
+    }
+    this.objectMapper = mapper;
+    final List<String> accept = new ArrayList<>();
+    if (config.isSmile()) {
+      requirePresent(SMILE_CLASS, "smile", "com.fasterxml.jackson.dataformat:jackson-dataformat-smile");
+      this.smileMapper = Smile.copy(mapper);
+      accept.add(APPLICATION_SMILE.toString());
+    } else {
+      this.smileMapper = null;
+    }
+    if (config.isCbor()) {
+      requirePresent(CBOR_CLASS, "cbor", "com.fasterxml.jackson.dataformat:jackson-dataformat-cbor");
+      this.cborMapper = Cbor.copy(mapper);
+      accept.add(MediaType.APPLICATION_CBOR_VALUE);
+    } else {
+      this.cborMapper = null;
+    }
+    if (accept.isEmpty()) {
+      this.acceptHeader = null;
+    } else {
+      accept.add(MediaType.APPLICATION_JSON_VALUE + ";q=0.9");
+      accept.add(MediaType.ALL_VALUE + ";q=0.8");
+      this.acceptHeader = String.join(", ", accept);
+    }
+  }
+
+  /**
+   * Registers the codecs, after any max in memory size was set on the default codecs.
+   *
+   * @param configurer codecs of a client.
+   */
+  public void configure(ClientCodecConfigurer configurer) {
+    configurer.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+    configurer.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+    if (smileMapper != null) {
+      configurer.defaultCodecs()
+          .jackson2SmileDecoder(new Jackson2SmileDecoder(smileMapper, SMILE_MIME_TYPES));
+      configurer.defaultCodecs()
+          .jackson2SmileEncoder(new Jackson2SmileEncoder(smileMapper, SMILE_MIME_TYPES));
+    }
+    if (cborMapper != null) {
+      // CBOR is not a default codec, the max in memory size is applied with the default config
+      configurer.customCodecs().registerWithDefaultConfig(
+          new Jackson2CborDecoder(cborMapper, MediaType.APPLICATION_CBOR));
+      configurer.customCodecs().registerWithDefaultConfig(
+          new Jackson2CborEncoder(cborMapper, MediaType.APPLICATION_CBOR));
+    }
+  }
+
+  /**
+   * @return the mapper of JSON bodies.
+   */
+  public ObjectMapper getObjectMapper() {
+    return objectMapper;
+  }
+
+  /**
+   * @return Accept header of the requests, null when only JSON is enabled.
+   */
+  public String getAcceptHeader() {
+    return acceptHeader;
+  }
+
+  private static void requirePresent(String className, String property, String artifact) {
+    if (!ClassUtils.isPresent(className, JacksonCodecs.class.getClassLoader())) {
+      throw new IllegalStateException("spring-web-client-config.codecs." + property
+          + " is enabled but " + artifact + " is not on the classpath");
+    }
+  }
+
+  // the optional classes are only referenced from these holders, loaded once their jar is known
+  // to be present
+
+  private static final class Smile {
+
+    private static ObjectMapper copy(ObjectMapper mapper) {
+      return mapper.copyWith(new SmileFactory());
+    }
+  }
+
+  private static final class Cbor {
+
+    private static ObjectMapper copy(ObjectMapper mapper) {
+      return mapper.copyWith(new CBORFactory());
+    }
+  }
+
+  private static final class Blackbird {
+
+    private static ObjectMapper register(ObjectMapper mapper) {
+      return mapper.registerModule(new BlackbirdModule());
+    }
+  }
+}
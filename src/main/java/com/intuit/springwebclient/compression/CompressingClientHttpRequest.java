@@ -0,0 +1,91 @@
+package com.intuit.springwebclient.compression;
+
+import com.intuit.springwebclient.entity.enums.ContentEncoding;
+import java.nio.file.Path;
+import java.util.function.ObjIntConsumer;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ZeroCopyHttpOutputMessage;
+import org.springframework.http.client.reactive.ClientHttpRequest;
+import org.springframework.http.client.reactive.ClientHttpRequestDecorator;
+import reactor.core.publisher.Mono;
+
+/**
+ * Compresses a request body encoded in a single buffer, e.g. a request object serialized to JSON,
+ * when it is at least {@code minSize} bytes. Streamed bodies, whose size is not known up front,
+ * and files are sent as is.
+ */
+class CompressingClientHttpRequest extends ClientHttpRequestDecorator {
+
+  private final ContentEncoding encoding;
+  private final Integer level;
+  private final int minSize;
+  private final ObjIntConsumer<DataBuffer> onCompressed;
+
+  /**
+   * @param onCompressed called with the compressed body and the size of the body.
+   */
+  private CompressingClientHttpRequest(ClientHttpRequest delegate, ContentEncoding encoding,
+      Integer level, int minSize, ObjIntConsumer<DataBuffer> onCompressed) {
+    super(delegate);
+    this.encoding = encoding;
+    this.level = level;
+    this.minSize = minSize;
+    this.onCompressed = onCompressed;
+  }
+
+  /**
+   * Wraps a request, keeping zero-copy file transfers of the request when it supports them.
+   */
+  static ClientHttpRequest of(ClientHttpRequest delegate, ContentEncoding encoding, Integer level,
+      int minSize, ObjIntConsumer<DataBuffer> onCompressed) {
+    if (delegate instanceof ZeroCopyHttpOutputMessage) {
+      return new ZeroCopy(delegate, encoding, level, minSize, onCompressed);
+    }
+    return new CompressingClientHttpRequest(delegate, encoding, level, minSize, onCompressed);
+  }
+
+  @Override
+  public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+    if (!(body instanceof Mono)) {
+      return super.writeWith(body);
+    }
+    // the headers are written with the body, so the body is compressed before the write starts
+    return Mono.from(body)
+        .map(this::compress)
+        .map(Mono::just)
+        .defaultIfEmpty(Mono.empty())
+        .flatMap(getDelegate()::writeWith);
+  }
+
+  private DataBuffer compress(DataBuffer body) {
+    final int size = body.readableByteCount();
+    if (size < minSize) {
+      return body;
+    }
+    final DataBuffer compressed = ContentCodecs.encode(encoding, level, body);
+    final HttpHeaders headers = getHeaders();
+    headers.set(HttpHeaders.CONTENT_ENCODING, encoding.getHeaderValue());
+    headers.setContentLength(compressed.readableByteCount());
+    onCompressed.accept(compressed, size);
+    return compressed;
+  }
+
+  /**
+   * Request of a connector supporting zero-copy transfers of files.
+   */
+  private static final class ZeroCopy extends CompressingClientHttpRequest
+      implements ZeroCopyHttpOutputMessage {
+
+    private ZeroCopy(ClientHttpRequest delegate, ContentEncoding encoding, Integer level,
+        int minSize, ObjIntConsumer<DataBuffer> onCompressed) {
+      super(delegate, encoding, level, minSize, onCompressed);
+    }
+
+    @Override
+    public Mono<Void> writeWith(Path file, long position, long count) {
+      return ((ZeroCopyHttpOutputMessage) getDelegate()).writeWith(file, position, count);
+    }
+  }
+}
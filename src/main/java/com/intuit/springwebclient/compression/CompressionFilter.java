@@ -0,0 +1,136 @@
+package com.intuit.springwebclient.compression;
+
+import com.intuit.springwebclient.config.CompressionConfig;
+import com.intuit.springwebclient.entity.enums.ContentEncoding;
+import com.intuit.springwebclient.metrics.WebClientMetrics;
+import com.intuit.springwebclient.util.WebClientConstants;
+import com.intuit.springwebclient.util.WebClientUtils;
+import io.netty.handler.codec.compression.Zstd;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Compresses request bodies and decompresses response bodies.
+ *
+ * <p>With response compression enabled, requests advertise the accepted encodings in the
+ * Accept-Encoding header, unless they set one themselves, and responses encoded with one of them
+ * are decompressed as they are received, before they are decoded. Request bodies encoded in a
+ * single buffer are compressed when they are at least {@code requestMinSize} bytes, unless the
+ * request sets its own Content-Encoding.
+ *
+ * <p>The compressed and uncompressed sizes of every compressed body are recorded with
+ * {@link WebClientMetrics}, tagged with the host and the route of the request.
+ */
+public class CompressionFilter implements ExchangeFilterFunction {
+
+  private final String acceptEncoding;
+  private final Set<ContentEncoding> acceptEncodings;
+  private final ContentEncoding requestEncoding;
+  private final int requestMinSize;
+  private final Integer requestLevel;
+  private final WebClientMetrics webClientMetrics;
+
+  public CompressionFilter(CompressionConfig compressionConfig, WebClientMetrics webClientMetrics) {
+    final CompressionConfig config = compressionConfig != null ? compressionConfig
+        : new CompressionConfig();
+    final List<ContentEncoding> accepted = config.isResponseCompression()
+        && config.getAcceptEncodings() != null ? config.getAcceptEncodings() : List.of();
+    accepted.forEach(CompressionFilter::requireAvailable);
+    if (config.getRequestEncoding() != null) {
+      requireAvailable(config.getRequestEncoding());
+    }
+    this.acceptEncoding = accepted.isEmpty() ? null : accepted.stream()
+        .map(ContentEncoding::getHeaderValue)
+        .distinct()
+        .collect(Collectors.joining(", "));
+    this.acceptEncodings = accepted.isEmpty() ? EnumSet.noneOf(ContentEncoding.class)
+        : EnumSet.copyOf(accepted);
+    this.requestEncoding = config.getRequestEncoding();
+    this.requestMinSize = Math.max(0, config.getRequestMinSize());
+    this.requestLevel = config.getRequestLevel();
+    this.webClientMetrics = webClientMetrics;
+  }
+
+  /**
+   * @return whether request or response bodies are compressed.
+   */
+  public boolean isEnabled() {
+    return acceptEncoding != null || requestEncoding != null;
+  }
+
+  @Override
+  public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+    final HttpHeaders headers = request.headers();
+    final boolean acceptsCompression = acceptEncoding != null
+        && !headers.containsKey(HttpHeaders.ACCEPT_ENCODING);
+    final boolean compressesBody = requestEncoding != null
+        && !headers.containsKey(HttpHeaders.CONTENT_ENCODING);
+    if (!acceptsCompression && !compressesBody) {
+      return next.exchange(request);
+    }
+    final ClientRequest.Builder builder = ClientRequest.from(request);
+    if (acceptsCompression) {
+      builder.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+    }
+    if (compressesBody) {
+      builder.body((message, context) -> request.body().insert(CompressingClientHttpRequest.of(
+          message, requestEncoding, requestLevel, requestMinSize,
+          (compressed, size) -> webClientMetrics.recordRequestCompression(host(request),
+              route(request), size, compressed.readableByteCount())), context));
+    }
+    final Mono<ClientResponse> response = next.exchange(builder.build());
+    return acceptsCompression ? response.map(clientResponse -> decompress(request, clientResponse))
+        : response;
+  }
+
+  private ClientResponse decompress(ClientRequest request, ClientResponse response) {
+    final ContentEncoding encoding = ContentEncoding.fromHeaderValue(
+        response.headers().asHttpHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    if (encoding == null || !acceptEncodings.contains(encoding)) {
+      return response;
+    }
+    return response.mutate()
+        .headers(headers -> {
+          headers.remove(HttpHeaders.CONTENT_ENCODING);
+          headers.remove(HttpHeaders.CONTENT_LENGTH);
+        })
+        .body(body -> decode(request, encoding, body))
+        .build();
+  }
+
+  private Flux<DataBuffer> decode(ClientRequest request, ContentEncoding encoding,
+      Flux<DataBuffer> body) {
+    final long[] sizes = new long[2];
+    return ContentCodecs.decode(encoding,
+            body.doOnNext(buffer -> sizes[0] += buffer.readableByteCount()))
+        .doOnNext(buffer -> sizes[1] += buffer.readableByteCount())
+        .doOnComplete(() -> webClientMetrics.recordResponseDecompression(host(request),
+            route(request), sizes[0], sizes[1]));
+  }
+
+  private static void requireAvailable(ContentEncoding encoding) {
+    if (!ContentCodecs.isAvailable(encoding)) {
+      throw new IllegalStateException("spring-web-client-config.compression uses "
+          + encoding.getHeaderValue() + " but com.github.luben:zstd-jni is not on the classpath",
+          Zstd.cause());
+    }
+  }
+
+  private static String host(ClientRequest request) {
+    return WebClientUtils.getHost(request.url().toString());
+  }
+
+  private static String route(ClientRequest request) {
+    return (String) request.attribute(WebClientConstants.ROUTE_ATTRIBUTE).orElse(null);
+  }
+}
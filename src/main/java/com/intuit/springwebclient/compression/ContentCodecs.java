@@ -0,0 +1,114 @@
+package com.intuit.springwebclient.compression;
+
+import com.intuit.springwebclient.entity.enums.ContentEncoding;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.compression.ZlibCodecFactory;
+import io.netty.handler.codec.compression.ZlibWrapper;
+import io.netty.handler.codec.compression.Zstd;
+import io.netty.handler.codec.compression.ZstdDecoder;
+import io.netty.handler.codec.compression.ZstdEncoder;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+/**
+ * Encodes and decodes bodies with the Netty compression codecs, run in an {@link EmbeddedChannel}
+ * so that the buffers read from the connection are processed without copying them to arrays.
+ */
+final class ContentCodecs {
+
+  private static final NettyDataBufferFactory BUFFER_FACTORY =
+      new NettyDataBufferFactory(ByteBufAllocator.DEFAULT);
+
+  private ContentCodecs() {
+  }
+
+  /**
+   * @return whether the native library of the encoding, if it needs one, is on the classpath.
+   */
+  static boolean isAvailable(ContentEncoding encoding) {
+    return encoding != ContentEncoding.ZSTD || Zstd.isAvailable();
+  }
+
+  /**
+   * Compresses a body held in a single buffer.
+   *
+   * @param encoding encoding of the compressed body.
+   * @param level    compression level, the default of the encoding when null.
+   * @param body     the body, released once compressed.
+   * @return the compressed body.
+   */
+  static DataBuffer encode(ContentEncoding encoding, Integer level, DataBuffer body) {
+    final EmbeddedChannel channel = new EmbeddedChannel(newEncoder(encoding, level));
+    try {
+      channel.writeOutbound(NettyDataBufferFactory.toByteBuf(body));
+      channel.finish();
+      final CompositeByteBuf compressed = channel.alloc().compositeBuffer(Integer.MAX_VALUE);
+      for (ByteBuf chunk = channel.readOutbound(); chunk != null; chunk = channel.readOutbound()) {
+        compressed.addComponent(true, chunk);
+      }
+      return BUFFER_FACTORY.wrap(compressed);
+    } finally {
+      channel.finishAndReleaseAll();
+    }
+  }
+
+  /**
+   * Decompresses a body as it is received.
+   *
+   * @param encoding encoding of the body.
+   * @param body     the compressed body.
+   * @return the decompressed body.
+   */
+  static Flux<DataBuffer> decode(ContentEncoding encoding, Flux<DataBuffer> body) {
+    return Flux.using(() -> new EmbeddedChannel(newDecoder(encoding)),
+        channel -> body
+            .concatMapIterable(buffer -> {
+              channel.writeInbound(NettyDataBufferFactory.toByteBuf(buffer));
+              return readInbound(channel);
+            })
+            .concatWith(Flux.defer(() -> {
+              channel.finish();
+              return Flux.fromIterable(readInbound(channel));
+            }))
+            .doOnDiscard(DataBuffer.class, DataBufferUtils::release),
+        EmbeddedChannel::finishAndReleaseAll);
+  }
+
+  private static List<DataBuffer> readInbound(EmbeddedChannel channel) {
+    final List<DataBuffer> buffers = new ArrayList<>(2);
+    for (ByteBuf chunk = channel.readInbound(); chunk != null; chunk = channel.readInbound()) {
+      if (chunk.isReadable()) {
+        buffers.add(BUFFER_FACTORY.wrap(chunk));
+      } else {
+        chunk.release();
+      }
+    }
+    return buffers;
+  }
+
+  private static ChannelHandler newEncoder(ContentEncoding encoding, Integer level) {
+    if (encoding == ContentEncoding.ZSTD) {
+      return level != null ? new ZstdEncoder(level) : new ZstdEncoder();
+    }
+    final ZlibWrapper wrapper = encoding == ContentEncoding.GZIP ? ZlibWrapper.GZIP : ZlibWrapper.ZLIB;
+    return level != null ? ZlibCodecFactory.newZlibEncoder(wrapper, level)
+        : ZlibCodecFactory.newZlibEncoder(wrapper);
+  }
+
+  private static ChannelHandler newDecoder(ContentEncoding encoding) {
+    if (encoding == ContentEncoding.ZSTD) {
+      return new ZstdDecoder();
+    }
+    // some servers send deflate data without the zlib header
+    return ZlibCodecFactory.newZlibDecoder(encoding == ContentEncoding.GZIP ? ZlibWrapper.GZIP
+        : ZlibWrapper.ZLIB_OR_NONE);
+  }
+}
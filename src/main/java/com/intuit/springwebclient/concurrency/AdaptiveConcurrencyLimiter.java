@@ -0,0 +1,345 @@
+package com.intuit.springwebclient.concurrency;
+
+import com.intuit.springwebclient.config.ConcurrencyLimitConfig;
+import com.intuit.springwebclient.exception.ConcurrencyLimitExceededException;
+import com.intuit.springwebclient.exception.WebClientRejectedException;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+/**
+ * Adaptive limit of the requests in flight to a single downstream, adjusted with additive
+ * increase / multiplicative decrease (AIMD) from the outcome of every request.
+ *
+ * <p>A request is a drop when it fails (5xx responses and errors without a response, as for the
+ * circuit breaker) or when its latency exceeds {@code latencyTolerance} times the minimum latency
+ * observed over the last {@code minLatencyWindowMillis}, the Vegas-style signal that requests are
+ * queueing downstream. Drops multiply the limit by {@code backoffRatio}; other requests grow it by
+ * one per limit's worth of requests, as long as at least half of the limit is in use.
+ *
+ * <p>Requests over the limit wait in a queue of {@code maxQueueSize} for up to
+ * {@code maxQueueWaitMillis}, and are rejected with a {@link ConcurrencyLimitExceededException}
+ * otherwise. All state is held in atomics.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+  /**
+   * Limiter that permits every request, used when concurrency limits are disabled.
+   */
+  public static final AdaptiveConcurrencyLimiter DISABLED = new AdaptiveConcurrencyLimiter(
+      "disabled", null);
+
+  private static final Mono<Permit> ACQUIRED = Mono.just(() -> true);
+
+  private final String name;
+  private final boolean enabled;
+  private final double minLimit;
+  private final double maxLimit;
+  private final double backoffRatio;
+  private final double latencyTolerance;
+  private final long minLatencyWindowNanos;
+  private final int maxQueueSize;
+  private final Duration maxQueueWait;
+
+  private final AtomicLong limitBits;
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicLong minLatencyNanos = new AtomicLong(Long.MAX_VALUE);
+  private final AtomicLong windowMinLatencyNanos = new AtomicLong(Long.MAX_VALUE);
+  private final AtomicLong windowStartNanos = new AtomicLong(System.nanoTime());
+  private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger queued = new AtomicInteger();
+
+  public AdaptiveConcurrencyLimiter(String name, ConcurrencyLimitConfig concurrencyLimitConfig) {
+    this.name = name;
+    this.enabled = concurrencyLimitConfig != null && concurrencyLimitConfig.isEnabled();
+    final ConcurrencyLimitConfig config = concurrencyLimitConfig != null ? concurrencyLimitConfig
+        : new ConcurrencyLimitConfig();
+    this.minLimit = Math.max(1, config.getMinLimit());
+    this.maxLimit = Math.max(minLimit, config.getMaxLimit());
+    this.backoffRatio = config.getBackoffRatio();
+    this.latencyTolerance = config.getLatencyTolerance();
+    this.minLatencyWindowNanos = TimeUnit.MILLISECONDS.toNanos(config.getMinLatencyWindowMillis());
+    this.maxQueueSize = Math.max(0, config.getMaxQueueSize());
+    this.maxQueueWait = Duration.ofMillis(config.getMaxQueueWaitMillis());
+    this.limitBits = new AtomicLong(Double.doubleToLongBits(
+        Math.min(maxLimit, Math.max(minLimit, config.getInitialLimit()))));
+  }
+
+  /**
+   * Applies the limit to every subscription of the source, so that each retry or hedge of a
+   * request takes a permit of its own. The permit is held until the source completes, fails or is
+   * cancelled.
+   *
+   * @param source request to limit
+   * @param <T>    type of the result
+   * @return source, or a {@link ConcurrencyLimitExceededException} error if no permit is granted
+   */
+  public <T> Mono<T> protect(Mono<T> source) {
+    if (!enabled) {
+      return source;
+    }
+    return acquire().flatMap(permit -> {
+      if (!permit.claim()) {
+        // cancelled while the permit was handed over, the permit was released on cancel
+        return Mono.empty();
+      }
+      final long startNanos = System.nanoTime();
+      // a cancel may follow the result, e.g. when a hedge completes, the permit is released once
+      final AtomicBoolean released = new AtomicBoolean();
+      return source
+          .doOnSuccess(result -> {
+            if (released.compareAndSet(false, true)) {
+              onResult(false, System.nanoTime() - startNanos);
+            }
+          })
+          .doOnError(ex -> {
+            if (!released.compareAndSet(false, true)) {
+              return;
+            }
+            if (ex instanceof WebClientRejectedException) {
+              release();
+            } else {
+              onResult(isFailure(ex), System.nanoTime() - startNanos);
+            }
+          })
+          .doOnCancel(() -> {
+            if (released.compareAndSet(false, true)) {
+              release();
+            }
+          });
+    });
+  }
+
+  /**
+   * Applies the limit to every subscription of a streamed request, whose source emits the response
+   * body once the response headers are received. The permit is held until the body terminates,
+   * since the body still holds the connection. The limit is adjusted with the latency to the
+   * response headers, so that long streams are not drops, and with the failure of the body if it
+   * fails.
+   *
+   * @param source streamed request to limit
+   * @param <T>    type of the elements of the body
+   * @return source, or a {@link ConcurrencyLimitExceededException} error if no permit is granted
+   */
+  public <T> Mono<Flux<T>> protectStream(Mono<Flux<T>> source) {
+    if (!enabled) {
+      return source;
+    }
+    return acquire().flatMap(permit -> {
+      if (!permit.claim()) {
+        // cancelled while the permit was handed over, the permit was released on cancel
+        return Mono.empty();
+      }
+      final long startNanos = System.nanoTime();
+      // a consumer cancelling the body cancels the request too, the permit is released once
+      final AtomicBoolean released = new AtomicBoolean();
+      final AtomicBoolean bodyReceived = new AtomicBoolean();
+      return source
+          .map(body -> {
+            bodyReceived.set(true);
+            final long latencyNanos = System.nanoTime() - startNanos;
+            return body
+                .doOnComplete(() -> onResultOnce(released, false, latencyNanos))
+                .doOnError(ex -> onResultOnce(released, isFailure(ex), latencyNanos))
+                .doOnCancel(() -> onResultOnce(released, false, latencyNanos));
+          })
+          .doOnSuccess(body -> {
+            if (body == null) {
+              onResultOnce(released, false, System.nanoTime() - startNanos);
+            }
+          })
+          .doOnError(ex -> {
+            if (!released.compareAndSet(false, true)) {
+              return;
+            }
+            if (ex instanceof WebClientRejectedException) {
+              release();
+            } else {
+              onResult(isFailure(ex), System.nanoTime() - startNanos);
+            }
+          })
+          .doOnCancel(() -> {
+            if (!bodyReceived.get() && released.compareAndSet(false, true)) {
+              release();
+            }
+          });
+    });
+  }
+
+  /**
+   * @return name of the limiter, the client name or host of the downstream.
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * @return current limit of the requests in flight.
+   */
+  public int getLimit() {
+    return (int) Double.longBitsToDouble(limitBits.get());
+  }
+
+  /**
+   * @return requests currently in flight.
+   */
+  public int getInFlight() {
+    return inFlight.get();
+  }
+
+  private Mono<Permit> acquire() {
+    return Mono.defer(() -> {
+      if (queued.get() == 0 && tryAcquire()) {
+        return ACQUIRED;
+      }
+      if (queued.incrementAndGet() > maxQueueSize) {
+        queued.decrementAndGet();
+        return Mono.error(new ConcurrencyLimitExceededException(name, getLimit()));
+      }
+      return Mono.<Permit>create(sink -> {
+            final Waiter waiter = new Waiter(sink);
+            sink.onCancel(waiter::cancel);
+            waiters.offer(waiter);
+            // permits released before the waiter was queued are granted now
+            grantWaiters();
+          })
+          .timeout(maxQueueWait, Mono.error(() -> new ConcurrencyLimitExceededException(name,
+              getLimit())));
+    });
+  }
+
+  private boolean tryAcquire() {
+    int current;
+    do {
+      current = inFlight.get();
+      if (current >= getLimit()) {
+        return false;
+      }
+    } while (!inFlight.compareAndSet(current, current + 1));
+    return true;
+  }
+
+  private void release() {
+    inFlight.decrementAndGet();
+    grantWaiters();
+  }
+
+  private void grantWaiters() {
+    while (!waiters.isEmpty() && tryAcquire()) {
+      final Waiter waiter = waiters.poll();
+      if (waiter == null || !waiter.grant()) {
+        inFlight.decrementAndGet();
+      }
+    }
+  }
+
+  /**
+   * Adjusts the limit from the outcome of a request and releases its permit.
+   */
+  void onResult(boolean failure, long latencyNanos) {
+    final boolean drop = failure || isSlow(latencyNanos);
+    final int requestsInFlight = inFlight.get();
+    long current;
+    double updated;
+    do {
+      current = limitBits.get();
+      final double limit = Double.longBitsToDouble(current);
+      if (drop) {
+        updated = Math.max(minLimit, limit * backoffRatio);
+      } else if (requestsInFlight * 2 >= limit) {
+        updated = Math.min(maxLimit, limit + 1 / limit);
+      } else {
+        break;
+      }
+    } while (!limitBits.compareAndSet(current, Double.doubleToLongBits(updated)));
+    release();
+  }
+
+  private void onResultOnce(AtomicBoolean released, boolean failure, long latencyNanos) {
+    if (released.compareAndSet(false, true)) {
+      onResult(failure, latencyNanos);
+    }
+  }
+
+  private boolean isSlow(long latencyNanos) {
+    final long now = System.nanoTime();
+    windowMinLatencyNanos.accumulateAndGet(latencyNanos, Math::min);
+    final long windowStart = windowStartNanos.get();
+    if (now - windowStart >= minLatencyWindowNanos
+        && windowStartNanos.compareAndSet(windowStart, now)) {
+      // only the thread that claims the elapsed window moves its minimum to the baseline
+      minLatencyNanos.set(windowMinLatencyNanos.getAndSet(Long.MAX_VALUE));
+      return false;
+    }
+    final long minLatency = minLatencyNanos.accumulateAndGet(latencyNanos, Math::min);
+    return latencyNanos > minLatency * latencyTolerance;
+  }
+
+  private static boolean isFailure(Throwable ex) {
+    if (ex instanceof WebClientResponseException) {
+      return ((WebClientResponseException) ex).getStatusCode().is5xxServerError();
+    }
+    return true;
+  }
+
+  /**
+   * Permit handed to a request, claimed by the request before it is sent.
+   */
+  private interface Permit {
+
+    /**
+     * @return true if the request holds the permit, false if it was cancelled meanwhile.
+     */
+    boolean claim();
+  }
+
+  /**
+   * Request waiting for a permit. A granted permit is either claimed by the request or released
+   * when the request is cancelled before claiming it.
+   */
+  private final class Waiter implements Permit {
+
+    private static final int WAITING = 0;
+    private static final int GRANTED = 1;
+    private static final int CLAIMED = 2;
+    private static final int CANCELLED = 3;
+
+    private final MonoSink<Permit> sink;
+    private final AtomicInteger state = new AtomicInteger(WAITING);
+
+    private Waiter(MonoSink<Permit> sink) {
+      this.sink = sink;
+    }
+
+    private boolean grant() {
+      if (!state.compareAndSet(WAITING, GRANTED)) {
+        return false;
+      }
+      queued.decrementAndGet();
+      sink.success(this);
+      return true;
+    }
+
+    @Override
+    public boolean claim() {
+      return state.compareAndSet(GRANTED, CLAIMED);
+    }
+
+    private void cancel() {
+      if (state.compareAndSet(WAITING, CANCELLED)) {
+        queued.decrementAndGet();
+        waiters.remove(this);
+      } else if (state.compareAndSet(GRANTED, CANCELLED)) {
+        release();
+      }
+    }
+  }
+}
@@ -0,0 +1,47 @@
+package com.intuit.springwebclient.concurrency;
+
+import com.intuit.springwebclient.config.ConcurrencyLimitConfig;
+import com.intuit.springwebclient.metrics.WebClientMetrics;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Holds one {@link AdaptiveConcurrencyLimiter} per downstream, keyed by client name or host.
+ */
+public class ConcurrencyLimiterRegistry {
+
+  private final ConcurrencyLimitConfig concurrencyLimitConfig;
+  private final WebClientMetrics webClientMetrics;
+  private final ConcurrentMap<String, AdaptiveConcurrencyLimiter> limiters =
+      new ConcurrentHashMap<>();
+
+  public ConcurrencyLimiterRegistry(ConcurrencyLimitConfig concurrencyLimitConfig,
+      WebClientMetrics webClientMetrics) {
+    this.concurrencyLimitConfig = concurrencyLimitConfig;
+    this.webClientMetrics = webClientMetrics;
+  }
+
+  /**
+   * Gets the concurrency limiter of a downstream, creating it and registering its gauges on first
+   * use.
+   *
+   * @param name client name or host of the downstream
+   * @return limiter, or {@link AdaptiveConcurrencyLimiter#DISABLED} if concurrency limits are
+   * disabled
+   */
+  public AdaptiveConcurrencyLimiter getConcurrencyLimiter(String name) {
+    if (concurrencyLimitConfig == null || !concurrencyLimitConfig.isEnabled()) {
+      return AdaptiveConcurrencyLimiter.DISABLED;
+    }
+    AdaptiveConcurrencyLimiter limiter = limiters.get(name);
+    if (limiter == null) {
+      limiter = limiters.computeIfAbsent(name, key -> {
+        final AdaptiveConcurrencyLimiter created = new AdaptiveConcurrencyLimiter(key,
+            concurrencyLimitConfig);
+        webClientMetrics.registerConcurrencyLimiter(created);
+        return created;
+      });
+    }
+    return limiter;
+  }
+}
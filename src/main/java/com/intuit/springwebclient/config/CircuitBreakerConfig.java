@@ -0,0 +1,15 @@
+package com.intuit.springwebclient.config;
+
+import lombok.Data;
+
+@Data
+public class CircuitBreakerConfig {
+    private boolean enabled = true;
+    private int failureRateThreshold = 50; // percent of failed calls in the window that opens the circuit
+    private int slowCallRateThreshold = 100; // percent of slow calls in the window that opens the circuit
+    private Long slowCallDurationThreshold = 10000L; // 10 seconds
+    private int slidingWindowSize = 100; // last calls considered
+    private int minimumNumberOfCalls = 20; // calls required before the rates are evaluated
+    private Long waitDurationInOpenState = 30000L; // 30 seconds
+    private int permittedCallsInHalfOpenState = 5;
+}
@@ -0,0 +1,14 @@
+package com.intuit.springwebclient.config;
+
+import lombok.Data;
+
+/**
+ * Settings of a named client profile. Settings that are not set fall back to the top level
+ * spring-web-client-config.
+ */
+@Data
+public class ClientProfileConfig {
+    private HttpConnectionPoolConfig connectionPool;
+    private HttpClientConfig httpClientConfig;
+    private int maxInMemorySize;
+}
@@ -0,0 +1,12 @@
+package com.intuit.springwebclient.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class CoalescingConfig {
+    private boolean enabled = false;
+    private int maxSubscribers = 1000; // callers sharing one in-flight request, further callers send their own
+    private List<String> keyHeaders = new ArrayList<>(); // request headers that are part of the key, all headers when empty
+}
@@ -0,0 +1,10 @@
+package com.intuit.springwebclient.config;
+
+import lombok.Data;
+
+@Data
+public class CodecConfig {
+    private boolean smile = false; // decode and encode application/x-jackson-smile, requires jackson-dataformat-smile
+    private boolean cbor = false; // decode and encode application/cbor, requires jackson-dataformat-cbor
+    private boolean blackbird = false; // bytecode generated (de)serializers for every format, requires jackson-module-blackbird
+}
@@ -0,0 +1,14 @@
+package com.intuit.springwebclient.config;
+
+import com.intuit.springwebclient.entity.enums.ContentEncoding;
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class CompressionConfig {
+    private boolean responseCompression = false; // sends Accept-Encoding and decompresses the responses encoded with one of accept-encodings
+    private List<ContentEncoding> acceptEncodings = List.of(ContentEncoding.GZIP, ContentEncoding.DEFLATE); // in order of preference, zstd requires com.github.luben:zstd-jni
+    private ContentEncoding requestEncoding; // compresses request bodies, they are sent as is when not set
+    private int requestMinSize = 1024; // bytes, smaller request bodies are sent as is
+    private Integer requestLevel; // compression level of request bodies, the default of the encoding (6 for gzip and deflate, 3 for zstd) when not set
+}
@@ -0,0 +1,16 @@
+package com.intuit.springwebclient.config;
+
+import lombok.Data;
+
+@Data
+public class ConcurrencyLimitConfig {
+    private boolean enabled = false;
+    private int initialLimit = 20; // requests in flight allowed per downstream before any latency is observed
+    private int minLimit = 1;
+    private int maxLimit = 200;
+    private double backoffRatio = 0.9; // the limit is multiplied by this on a failure or slow response
+    private double latencyTolerance = 2.0; // responses slower than this multiple of the minimum latency count as slow
+    private long minLatencyWindowMillis = 60000; // the minimum latency is re-measured over this window
+    private int maxQueueSize = 0; // requests waiting for a permit, further requests are rejected
+    private long maxQueueWaitMillis = 1000; // waiting requests are rejected after this
+}
@@ -0,0 +1,10 @@
+package com.intuit.springwebclient.config;
+
+import lombok.Data;
+
+@Data
+public class ErrorLoggingConfig {
+    private int maxBodyLength = 1024; // characters of an error response body written to the log, negative logs the whole body
+    private boolean fullErrorBody = true; // ClientHttpResponse.error holds the whole body, false truncates it as in the log
+    private long stackTraceIntervalMillis = 0; // per host and status, failures after the first of an interval are logged without a stack trace, 0 logs every stack trace
+}
@@ -0,0 +1,12 @@
+package com.intuit.springwebclient.config;
+
+import lombok.Data;
+
+@Data
+public class HedgingConfig {
+    private double hedgeRatio = 0.1; // hedges allowed per hedgeable request, per host
+    private int minHedgesPerSecond = 1; // hedges always allowed, even with little traffic
+    private int maxHedges = 10; // max hedges that can be saved up
+    private long latencyWindowMillis = 30000; // latencies the hedge delay percentile is computed from
+    private int minLatencySamples = 100; // latencies needed in the window before the percentile replaces the fixed delay
+}
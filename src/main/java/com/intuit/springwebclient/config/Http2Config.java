@@ -0,0 +1,15 @@
+package com.intuit.springwebclient.config;
+
+import lombok.Data;
+
+/**
+ * HTTP/2 settings of a client. HTTP/2 multiplexes concurrent requests as streams over a few
+ * connections, instead of one connection per request in flight.
+ */
+@Data
+public class Http2Config {
+    private boolean enabled; // HTTP/2 for https urls, negotiated with ALPN, HTTP/1.1 when the downstream does not offer it
+    private boolean priorKnowledge; // HTTP/2 without TLS (h2c) for http urls, the downstream must accept it as there is no fallback to HTTP/1.1
+    private long maxConcurrentStreams = 100; // requests in flight per connection before another one is opened, lowered to the limit of the downstream
+    private Integer initialWindowSize; // flow control window of a stream in bytes, 65535 when not set
+}
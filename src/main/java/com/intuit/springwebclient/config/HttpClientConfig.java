@@ -5,5 +5,23 @@ import lombok.Data;
 @Data
 public class HttpClientConfig {
     private Integer connectTimeoutMillis = 30000;
-    private Integer socketTimeoutMillis = 30000;
+    private Integer socketTimeoutMillis; // read timeout when read-timeout-millis is not set
+    private Integer responseTimeoutMillis; // max wait for the response after the request is sent, per attempt, none by default
+    private Integer readTimeoutMillis; // max inactivity while reading a response, none by default so idle streams stay open
+    private Integer writeTimeoutMillis = 30000; // max time to write a chunk of the request, 0 disables it
+    private Http2Config http2 = new Http2Config();
+
+    /**
+     * @return read timeout, socket-timeout-millis when read-timeout-millis is not set, null when neither is set.
+     */
+    public Integer getEffectiveReadTimeoutMillis() {
+        return readTimeoutMillis != null ? readTimeoutMillis : socketTimeoutMillis;
+    }
+
+    /**
+     * @return true if requests may be sent over HTTP/2, with TLS or with prior knowledge.
+     */
+    public boolean isHttp2Enabled() {
+        return http2 != null && (http2.isEnabled() || http2.isPriorKnowledge());
+    }
 }
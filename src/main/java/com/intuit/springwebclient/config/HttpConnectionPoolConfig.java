@@ -1,5 +1,7 @@
 package com.intuit.springwebclient.config;
 
+import java.util.HashMap;
+import java.util.Map;
 import lombok.Data;
 
 @Data
@@ -8,4 +10,5 @@ public class HttpConnectionPoolConfig {
     private Long pendingAcquireTimeout = 31000L;
     private Long maxIdleTime = 31000L;
     private Long maxLifeTime = 300000L;
+    private Map<String, HttpConnectionPoolConfig> remoteHosts = new HashMap<>(); // pool limits per "host:port"
 }
@@ -0,0 +1,11 @@
+package com.intuit.springwebclient.config;
+
+import lombok.Data;
+
+@Data
+public class MetricsConfig {
+    private boolean enabled = false;
+    private String prefix = "rwebpulse";
+    private boolean percentileHistogram = true;
+    private boolean connectionPoolMetrics = true;
+}
@@ -0,0 +1,11 @@
+package com.intuit.springwebclient.config;
+
+import lombok.Data;
+
+@Data
+public class RateLimitConfig {
+    private boolean enabled = true;
+    private double permitsPerSecond = 100; // sustained rate of requests sent to the downstream
+    private int burst = 10; // requests that can be sent at once after an idle period
+    private long maxWaitMillis = 100; // requests are delayed up to this to stay within the rate, rejected beyond it
+}
@@ -0,0 +1,12 @@
+package com.intuit.springwebclient.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class ResponseCacheConfig {
+    private boolean enabled = false;
+    private int maxEntries = 1000; // least recently used responses are evicted beyond this
+    private List<String> keyHeaders = new ArrayList<>(); // request headers that are part of the key, all headers when empty
+}
@@ -0,0 +1,11 @@
+package com.intuit.springwebclient.config;
+
+import lombok.Data;
+
+@Data
+public class RetryBudgetConfig {
+    private boolean enabled = false;
+    private double retryRatio = 0.2; // retries allowed per successful request
+    private int minRetriesPerSecond = 5; // retries always allowed, even without successes
+    private int maxRetries = 100; // max retries that can be saved up
+}
@@ -1,5 +1,7 @@
 package com.intuit.springwebclient.config;
 
+import java.util.HashMap;
+import java.util.Map;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
@@ -10,5 +12,21 @@ import org.springframework.context.annotation.Configuration;
 public class SpringWebClientConfig {
     private HttpConnectionPoolConfig connectionPool;
     private HttpClientConfig httpClientConfig;
+    private TransportConfig transport = new TransportConfig(); // event loops and socket options shared by every client profile
     private int maxInMemorySize;
+    private Map<String, ClientProfileConfig> clientProfiles = new HashMap<>(); // selected with ClientHttpRequest.clientProfile
+    private MetricsConfig metrics = new MetricsConfig();
+    private RetryBudgetConfig retryBudget = new RetryBudgetConfig();
+    private CoalescingConfig coalescing = new CoalescingConfig();
+    private ResponseCacheConfig responseCache = new ResponseCacheConfig();
+    private HedgingConfig hedging = new HedgingConfig();
+    private ConcurrencyLimitConfig concurrencyLimit = new ConcurrencyLimitConfig(); // adaptive limit of requests in flight per client name or host
+    private CircuitBreakerConfig circuitBreaker; // applies to every client, circuit breakers are disabled when not set
+    private Map<String, CircuitBreakerConfig> circuitBreakerInstances = new HashMap<>(); // by client name or host
+    private RateLimitConfig rateLimit; // applies to every client, rate limits are disabled when not set
+    private Map<String, RateLimitConfig> rateLimitInstances = new HashMap<>(); // by client name or host
+    private SyncExecutionConfig syncExecution = new SyncExecutionConfig();
+    private ErrorLoggingConfig errorLogging = new ErrorLoggingConfig();
+    private CompressionConfig compression = new CompressionConfig(); // request and response body compression of every client profile
+    private CodecConfig codecs = new CodecConfig(); // binary formats negotiated with the Accept header and generated (de)serializers
 }
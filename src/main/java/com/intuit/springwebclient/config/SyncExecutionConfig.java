@@ -0,0 +1,10 @@
+package com.intuit.springwebclient.config;
+
+import com.intuit.springwebclient.entity.enums.SyncExecutionMode;
+import lombok.Data;
+
+@Data
+public class SyncExecutionConfig {
+    private SyncExecutionMode mode = SyncExecutionMode.BLOCK; // FUTURE suits callers running on virtual threads
+    private boolean virtualThreadRetryHandlers = false; // run RetryHandler callbacks on virtual threads instead of the event loop, requires Java 21
+}
@@ -0,0 +1,15 @@
+package com.intuit.springwebclient.config;
+
+import com.intuit.springwebclient.entity.enums.BufferAllocator;
+import lombok.Data;
+
+@Data
+public class TransportConfig {
+    private boolean preferNative = true; // epoll on Linux, io_uring when netty-incubator-transport-native-io_uring is on the classpath, NIO otherwise
+    private int eventLoopThreads; // dedicated event loops shared by all clients, 0 uses the reactor-netty global event loops
+    private boolean tcpNoDelay = true; // disables Nagle's algorithm so small requests are sent without delay
+    private boolean keepAlive = true; // TCP keepalive probes on idle pooled connections
+    private Integer receiveBufferSize; // SO_RCVBUF in bytes, the OS default when not set
+    private Integer sendBufferSize; // SO_SNDBUF in bytes, the OS default when not set
+    private BufferAllocator allocator; // the Netty default (io.netty.allocator.type) when not set
+}
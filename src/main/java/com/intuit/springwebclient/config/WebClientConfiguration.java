@@ -1,63 +1,407 @@
 package com.intuit.springwebclient.config;
 
 
+import com.intuit.springwebclient.cache.ResponseCache;
+import com.intuit.springwebclient.circuitbreaker.CircuitBreakerRegistry;
+import com.intuit.springwebclient.codec.JacksonCodecs;
+import com.intuit.springwebclient.client.WebClientProfiles;
+import com.intuit.springwebclient.coalescing.CoalescingKeyFunction;
+import com.intuit.springwebclient.compression.CompressionFilter;
+import com.intuit.springwebclient.concurrency.ConcurrencyLimiterRegistry;
+import com.intuit.springwebclient.execution.SyncExecutor;
+import com.intuit.springwebclient.coalescing.DefaultCoalescingKeyFunction;
+import com.intuit.springwebclient.coalescing.RequestCoalescer;
+import com.intuit.springwebclient.entity.enums.BufferAllocator;
 import com.intuit.springwebclient.filter.WebClientRequestFilter;
+import com.intuit.springwebclient.hedging.RequestHedger;
+import com.intuit.springwebclient.logging.ErrorLogger;
+import com.intuit.springwebclient.metrics.MicrometerWebClientMetrics;
+import com.intuit.springwebclient.metrics.WebClientMetrics;
+import com.intuit.springwebclient.ratelimit.RateLimiterRegistry;
+import com.intuit.springwebclient.retry.RetryBudgetRegistry;
+import com.intuit.springwebclient.retryHandler.RetryHandler;
+import com.intuit.springwebclient.retryHandler.RetryHandlerRegistry;
 import com.intuit.springwebclient.util.WebClientConstants;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.UnpooledByteBufAllocator;
 import io.netty.channel.ChannelOption;
-import lombok.AllArgsConstructor;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import io.netty.handler.timeout.WriteTimeoutHandler;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotationAwareOrderComparator;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.ExchangeStrategies;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.Http2AllocationStrategy;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.HttpResources;
 import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
 
+import java.net.InetSocketAddress;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Define the instance of Spring 5 Web Client interface
  */
 @Configuration
-@AllArgsConstructor
 public class WebClientConfiguration {
     private final SpringWebClientConfig webClientConfiguration;
-    private final WebClientRequestFilter webClientRequestFilter;
+    private final List<WebClientRequestFilter> webClientRequestFilters;
+    private ObjectMapper objectMapper;
+    private JacksonCodecs jacksonCodecs;
+    private ObjectProvider<MeterRegistry> meterRegistry;
+    private CompressionFilter compressionFilter;
+    private LoopResources loopResources;
+    private static final String READ_TIMEOUT_HANDLER = "rwebpulse.readTimeoutHandler";
+    private static final String WRITE_TIMEOUT_HANDLER = "rwebpulse.writeTimeoutHandler";
+    private static final String LOOP_RESOURCES_PREFIX = "rwebpulse";
+
+    public WebClientConfiguration(SpringWebClientConfig webClientConfiguration, WebClientRequestFilter webClientRequestFilter) {
+        this(webClientConfiguration, List.of(webClientRequestFilter));
+    }
+
+    /**
+     * @param webClientRequestFilters filters applied to every request, sorted by {@code @Order} or {@code Ordered}.
+     */
+    @Autowired
+    public WebClientConfiguration(SpringWebClientConfig webClientConfiguration, List<WebClientRequestFilter> webClientRequestFilters) {
+        this.webClientConfiguration = webClientConfiguration;
+        final List<WebClientRequestFilter> filters = new ArrayList<>(webClientRequestFilters);
+        AnnotationAwareOrderComparator.sort(filters);
+        this.webClientRequestFilters = List.copyOf(filters);
+    }
+
+    /**
+     * @param objectMapper mapper shared by the clients for JSON bodies, and copied for the binary formats of spring-web-client-config.codecs.
+     */
+    @Autowired(required = false)
+    public void setObjectMapper(@Qualifier("RWebPulseObjectMapper") ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
 
 
+    /**
+     * @param meterRegistry registry of the metrics recorded by the web clients themselves, e.g. the compressed body sizes.
+     */
+    @Autowired
+    public void setMeterRegistry(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
     @Bean
     public ConnectionProvider webClientConnectionProvider(){
-        return ConnectionProvider.builder(WebClientConstants.CONNECTION_PROVIDER_NAME)
-                        .maxConnections(webClientConfiguration.getConnectionPool().getMaxConnections())
-                        .maxIdleTime(Duration.ofMillis(webClientConfiguration.getConnectionPool().getMaxIdleTime()))
-                        .maxLifeTime(Duration.ofMillis(webClientConfiguration.getConnectionPool().getMaxLifeTime()))
-                        .pendingAcquireTimeout(Duration.ofMillis(webClientConfiguration.getConnectionPool().getPendingAcquireTimeout()))
-                        .build();
+        return createConnectionProvider(WebClientConstants.CONNECTION_PROVIDER_NAME, webClientConfiguration.getConnectionPool(),
+                webClientConfiguration.getHttpClientConfig());
+    }
+
+    /**
+     * Event loops dedicated to the clients when transport.event-loop-threads is set, null when the reactor-netty global event loops are used.
+     * They are created once, so that every http client shares them even when this configuration is not proxied.
+     */
+    @Bean(destroyMethod = "dispose")
+    public LoopResources webClientLoopResources() {
+        final TransportConfig transport = getTransport();
+        if (loopResources == null && transport.getEventLoopThreads() > 0) {
+            loopResources = LoopResources.create(LOOP_RESOURCES_PREFIX, transport.getEventLoopThreads(), true);
+        }
+        return loopResources;
     }
 
     @Bean
     public HttpClient webHttpClient(){
-        return HttpClient.create(webClientConnectionProvider())
-                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, webClientConfiguration.getHttpClientConfig().getConnectTimeoutMillis())
-                .option(ChannelOption.SO_TIMEOUT, webClientConfiguration.getHttpClientConfig().getSocketTimeoutMillis());
+        return createHttpClient(webClientConnectionProvider(), webClientConfiguration.getHttpClientConfig());
+    }
+
+    @Bean
+    public WebClientMetrics webClientMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+        if (!isMetricsEnabled()) {
+            return WebClientMetrics.NOOP;
+        }
+        return new MicrometerWebClientMetrics(meterRegistry != null ? meterRegistry.getIfAvailable(() -> Metrics.globalRegistry)
+                : Metrics.globalRegistry, webClientConfiguration.getMetrics());
+    }
+
+    @Bean
+    public RetryBudgetRegistry retryBudgetRegistry() {
+        return new RetryBudgetRegistry(webClientConfiguration.getRetryBudget());
+    }
+
+    @Bean
+    public CircuitBreakerRegistry circuitBreakerRegistry() {
+        return new CircuitBreakerRegistry(webClientConfiguration.getCircuitBreaker(),
+                webClientConfiguration.getCircuitBreakerInstances());
+    }
+
+    @Bean
+    public RateLimiterRegistry rateLimiterRegistry() {
+        return new RateLimiterRegistry(webClientConfiguration.getRateLimit(),
+                webClientConfiguration.getRateLimitInstances());
+    }
+
+    @Bean
+    public ConcurrencyLimiterRegistry concurrencyLimiterRegistry(WebClientMetrics webClientMetrics) {
+        return new ConcurrencyLimiterRegistry(webClientConfiguration.getConcurrencyLimit(), webClientMetrics);
+    }
+
+    @Bean
+    public RequestCoalescer requestCoalescer(WebClientMetrics webClientMetrics,
+                                             ObjectProvider<CoalescingKeyFunction> coalescingKeyFunction) {
+        final CoalescingConfig coalescingConfig = webClientConfiguration.getCoalescing();
+        return new RequestCoalescer(coalescingConfig, coalescingKeyFunction.getIfAvailable(() -> new DefaultCoalescingKeyFunction(
+                coalescingConfig != null ? coalescingConfig.getKeyHeaders() : null)), webClientMetrics);
+    }
+
+    @Bean
+    public ResponseCache responseCache(WebClientMetrics webClientMetrics) {
+        return new ResponseCache(webClientConfiguration.getResponseCache(), webClientMetrics);
+    }
+
+    @Bean
+    public RequestHedger requestHedger(WebClientMetrics webClientMetrics) {
+        return new RequestHedger(webClientConfiguration.getHedging(), webClientMetrics);
+    }
+
+    @Bean
+    public SyncExecutor syncExecutor() {
+        return new SyncExecutor(webClientConfiguration.getSyncExecution());
+    }
+
+    @Bean
+    public RetryHandlerRegistry retryHandlerRegistry(ObjectProvider<RetryHandler> retryHandlers) {
+        return new RetryHandlerRegistry(retryHandlers.orderedStream().toList());
+    }
+
+    @Bean
+    public ErrorLogger errorLogger() {
+        return new ErrorLogger(webClientConfiguration.getErrorLogging());
     }
 
     @Bean("RWebPulseClient")
     public WebClient createWebClient() {
+        return createWebClient(webHttpClient(), webClientConfiguration.getMaxInMemorySize());
+    }
+
+    /**
+     * Creates a connection pool, http client and web client per client profile. Settings a profile does not define are taken from the top level config.
+     */
+    @Bean
+    public WebClientProfiles webClientProfiles() {
+        Map<String, WebClient> webClients = new HashMap<>();
+        List<ConnectionProvider> connectionProviders = new ArrayList<>();
+        if (webClientConfiguration.getClientProfiles() != null) {
+            webClientConfiguration.getClientProfiles().forEach((profileName, profile) -> {
+                HttpClientConfig httpClientConfig = profile.getHttpClientConfig() != null ? profile.getHttpClientConfig()
+                        : webClientConfiguration.getHttpClientConfig();
+                ConnectionProvider connectionProvider = createConnectionProvider(
+                        WebClientConstants.CONNECTION_PROVIDER_NAME + "-" + profileName,
+                        profile.getConnectionPool() != null ? profile.getConnectionPool() : webClientConfiguration.getConnectionPool(),
+                        httpClientConfig);
+                HttpClient httpClient = createHttpClient(connectionProvider, httpClientConfig);
+                connectionProviders.add(connectionProvider);
+                webClients.put(profileName, createWebClient(httpClient,
+                        profile.getMaxInMemorySize() > 0 ? profile.getMaxInMemorySize() : webClientConfiguration.getMaxInMemorySize()));
+            });
+        }
+        return new WebClientProfiles(webClients, connectionProviders);
+    }
+
+    private ConnectionProvider createConnectionProvider(String name, HttpConnectionPoolConfig connectionPool, HttpClientConfig httpClientConfig) {
+        final Http2Config http2 = httpClientConfig != null && httpClientConfig.isHttp2Enabled() ? httpClientConfig.getHttp2() : null;
+        ConnectionProvider.Builder builder = ConnectionProvider.builder(name)
+                        .maxConnections(connectionPool.getMaxConnections())
+                        .maxIdleTime(Duration.ofMillis(connectionPool.getMaxIdleTime()))
+                        .maxLifeTime(Duration.ofMillis(connectionPool.getMaxLifeTime()))
+                        .pendingAcquireTimeout(Duration.ofMillis(connectionPool.getPendingAcquireTimeout()));
+        if (http2 != null) {
+            builder.allocationStrategy(createHttp2AllocationStrategy(http2, connectionPool.getMaxConnections()));
+        }
+        //a separate pool is kept for every configured remote host, keyed by its unresolved address as used by the http client
+        if (connectionPool.getRemoteHosts() != null) {
+            connectionPool.getRemoteHosts().forEach((remoteHost, hostPool) -> builder.forRemoteHost(toSocketAddress(remoteHost), spec -> {
+                spec.maxConnections(hostPool.getMaxConnections())
+                        .maxIdleTime(Duration.ofMillis(hostPool.getMaxIdleTime()))
+                        .maxLifeTime(Duration.ofMillis(hostPool.getMaxLifeTime()))
+                        .pendingAcquireTimeout(Duration.ofMillis(hostPool.getPendingAcquireTimeout()));
+                if (http2 != null) {
+                    spec.allocationStrategy(createHttp2AllocationStrategy(http2, hostPool.getMaxConnections()));
+                }
+            }));
+        }
+        //pool gauges (active, idle, pending acquire) and the acquire timer are published by reactor-netty to the micrometer global registry
+        if (isMetricsEnabled() && webClientConfiguration.getMetrics().isConnectionPoolMetrics()) {
+            builder.metrics(true);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Streams per connection of the HTTP/2 pool. A new connection is only opened when every connection has as many streams in flight,
+     * up to the max connections of the pool, which also bound the HTTP/1.1 pool used when HTTP/2 is not negotiated.
+     */
+    private static Http2AllocationStrategy createHttp2AllocationStrategy(Http2Config http2, int maxConnections) {
+        return Http2AllocationStrategy.builder()
+                .maxConcurrentStreams(http2.getMaxConcurrentStreams())
+                .maxConnections(maxConnections)
+                .minConnections(1)
+                .build();
+    }
+
+    private HttpClient createHttpClient(ConnectionProvider connectionProvider, HttpClientConfig httpClientConfig) {
+        HttpClient httpClient = applyTransport(HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, httpClientConfig.getConnectTimeoutMillis()));
+        if (httpClientConfig.isHttp2Enabled()) {
+            httpClient = applyHttp2(httpClient, httpClientConfig.getHttp2());
+        }
+        if (isPositive(httpClientConfig.getResponseTimeoutMillis())) {
+            httpClient = httpClient.responseTimeout(Duration.ofMillis(httpClientConfig.getResponseTimeoutMillis()));
+        }
+        //SO_TIMEOUT has no effect on non-blocking channels, read and write timeouts are netty handlers added for the duration of each request
+        //so that connections idle in the pool are not closed by them. The read timeout starts once the request is sent, so that it does not
+        //expire while a long request body is uploaded
+        final Integer readTimeoutMillis = httpClientConfig.getEffectiveReadTimeoutMillis();
+        final Integer writeTimeoutMillis = httpClientConfig.getWriteTimeoutMillis();
+        if (isPositive(writeTimeoutMillis)) {
+            httpClient = httpClient.doOnRequest((request, connection) ->
+                    connection.addHandlerLast(WRITE_TIMEOUT_HANDLER, new WriteTimeoutHandler(writeTimeoutMillis, TimeUnit.MILLISECONDS)));
+        }
+        if (isPositive(readTimeoutMillis)) {
+            httpClient = httpClient.doAfterRequest((request, connection) ->
+                    connection.addHandlerLast(READ_TIMEOUT_HANDLER, new ReadTimeoutHandler(readTimeoutMillis, TimeUnit.MILLISECONDS)));
+        }
+        return httpClient;
+    }
+
+    /**
+     * HTTP/2 with TLS offers h2 and http/1.1 with ALPN, so downstreams without HTTP/2 are called over HTTP/1.1. Prior knowledge sends
+     * HTTP/2 frames on cleartext connections without an upgrade and has no HTTP/1.1 fallback; with both set, https urls use h2 only.
+     */
+    private static HttpClient applyHttp2(HttpClient httpClient, Http2Config http2) {
+        if (http2.isPriorKnowledge()) {
+            httpClient = http2.isEnabled() ? httpClient.protocol(HttpProtocol.H2C, HttpProtocol.H2)
+                    : httpClient.protocol(HttpProtocol.H2C);
+        } else {
+            httpClient = httpClient.protocol(HttpProtocol.HTTP11, HttpProtocol.H2);
+        }
+        if (http2.getInitialWindowSize() != null) {
+            httpClient = httpClient.http2Settings(settings -> settings.initialWindowSize(http2.getInitialWindowSize()));
+        }
+        return httpClient;
+    }
 
+    /**
+     * Selects the event loops and native transport, and sets the socket options and buffer allocator of the connections.
+     */
+    private HttpClient applyTransport(HttpClient httpClient) {
+        final TransportConfig transport = getTransport();
+        final LoopResources loopResources = webClientLoopResources();
+        if (loopResources != null) {
+            httpClient = httpClient.runOn(loopResources, transport.isPreferNative());
+        } else if (!transport.isPreferNative()) {
+            httpClient = httpClient.runOn(HttpResources.get(), false);
+        }
+        httpClient = httpClient
+                .option(ChannelOption.TCP_NODELAY, transport.isTcpNoDelay())
+                .option(ChannelOption.SO_KEEPALIVE, transport.isKeepAlive());
+        if (transport.getReceiveBufferSize() != null) {
+            httpClient = httpClient.option(ChannelOption.SO_RCVBUF, transport.getReceiveBufferSize());
+        }
+        if (transport.getSendBufferSize() != null) {
+            httpClient = httpClient.option(ChannelOption.SO_SNDBUF, transport.getSendBufferSize());
+        }
+        if (transport.getAllocator() == BufferAllocator.POOLED) {
+            httpClient = httpClient.option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT);
+        } else if (transport.getAllocator() == BufferAllocator.UNPOOLED) {
+            httpClient = httpClient.option(ChannelOption.ALLOCATOR, UnpooledByteBufAllocator.DEFAULT);
+        }
+        return httpClient;
+    }
+
+    private WebClient createWebClient(HttpClient httpClient, int maxInMemorySize) {
+        final JacksonCodecs codecs = getJacksonCodecs();
         WebClient.Builder builder = WebClient.builder();
-        builder.clientConnector(new ReactorClientHttpConnector(webHttpClient()))
-                .filter(webClientRequestFilter.getFilter());
-        //if max-in-memory-size is not set in config then the building client with default size else creating client with custom max-in-memory-size
-        if (webClientConfiguration.getMaxInMemorySize() > 0) {
-            builder.exchangeStrategies(
-                            ExchangeStrategies.builder()
-                                    .codecs(configurer -> configurer
-                                            .defaultCodecs()
-                                            .maxInMemorySize(webClientConfiguration.getMaxInMemorySize()))
-                                    .build());
+        builder.clientConnector(new ReactorClientHttpConnector(httpClient))
+                .filters(filters -> webClientRequestFilters.forEach(filter -> filters.add(filter.getFilter())));
+        //added last so that the request filters see uncompressed bodies
+        final CompressionFilter compression = getCompressionFilter();
+        if (compression.isEnabled()) {
+            builder.filter(compression);
+        }
+        //the jackson codecs are always registered, the default max-in-memory-size is kept unless one is set in config
+        builder.exchangeStrategies(
+                        ExchangeStrategies.builder()
+                                .codecs(configurer -> {
+                                    if (maxInMemorySize > 0) {
+                                        configurer.defaultCodecs().maxInMemorySize(maxInMemorySize);
+                                    }
+                                    codecs.configure(configurer);
+                                })
+                                .build());
+        //binary formats are requested ahead of json, a request setting its own Accept header overrides it
+        if (codecs.getAcceptHeader() != null) {
+            builder.defaultHeader(HttpHeaders.ACCEPT, codecs.getAcceptHeader());
         }
         return builder.build();
     }
+
+    /**
+     * The compression filter is shared by every client profile, its metrics are recorded with the webClientMetrics bean.
+     */
+    private CompressionFilter getCompressionFilter() {
+        if (compressionFilter == null) {
+            final CompressionConfig compression = webClientConfiguration.getCompression();
+            final boolean enabled = compression != null && (compression.isResponseCompression() || compression.getRequestEncoding() != null);
+            compressionFilter = new CompressionFilter(compression, enabled ? webClientMetrics(meterRegistry) : WebClientMetrics.NOOP);
+        }
+        return compressionFilter;
+    }
+
+    /**
+     * Codecs are built once, so that every client profile shares the same object mappers and their caches of (de)serializers.
+     */
+    private JacksonCodecs getJacksonCodecs() {
+        if (jacksonCodecs == null) {
+            jacksonCodecs = new JacksonCodecs(webClientConfiguration.getCodecs(), objectMapper);
+        }
+        return jacksonCodecs;
+    }
+
+    /**
+     * @param remoteHost "host:port", the port defaults to 443
+     */
+    private static InetSocketAddress toSocketAddress(String remoteHost) {
+        int portSeparator = remoteHost.lastIndexOf(':');
+        if (portSeparator < 0) {
+            return InetSocketAddress.createUnresolved(remoteHost, 443);
+        }
+        return InetSocketAddress.createUnresolved(remoteHost.substring(0, portSeparator),
+                Integer.parseInt(remoteHost.substring(portSeparator + 1)));
+    }
+
+    private static boolean isPositive(Integer millis) {
+        return millis != null && millis > 0;
+    }
+
+    private TransportConfig getTransport() {
+        return webClientConfiguration.getTransport() != null ? webClientConfiguration.getTransport() : new TransportConfig();
+    }
+
+    private boolean isMetricsEnabled() {
+        return webClientConfiguration.getMetrics() != null && webClientConfiguration.getMetrics().isEnabled();
+    }
 }
@@ -0,0 +1,14 @@
+package com.intuit.springwebclient.config;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Duration;
+
+@Getter
+@Builder(toBuilder = true)
+public class WebClientHedgeConfig {
+    private final Duration delay; // Fixed delay before the hedge, also used until enough latencies of the host are observed
+    @Builder.Default private final double delayPercentile = 0d; // e.g. 0.95 for the p95 latency of the host, 0 to always use delay
+    @Builder.Default private final Duration minDelay = Duration.ZERO; // Lower bound of the delay derived from the percentile
+}
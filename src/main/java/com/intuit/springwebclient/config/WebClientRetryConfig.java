@@ -1,14 +1,29 @@
 package com.intuit.springwebclient.config;
 
+import com.intuit.springwebclient.entity.enums.BackoffStrategy;
 import lombok.Builder;
 import lombok.Getter;
 
+import java.time.Duration;
 import java.util.function.Predicate;
 
 @Getter
 @Builder(toBuilder = true)
 public class WebClientRetryConfig {
     @Builder.Default private final int maxAttempts = 0;
-    @Builder.Default private final int backOff = 0; // Seconds
+    @Builder.Default private final int backOff = 0; // Seconds, used when minBackoff is not set
     @Builder.Default private final Predicate<? super Throwable> retryFilter = (Throwable ex) -> false;
+    @Builder.Default private final BackoffStrategy backoffStrategy = BackoffStrategy.FIXED;
+    private final Duration minBackoff; // Overrides backOff with millisecond granularity
+    @Builder.Default private final Duration maxBackoff = Duration.ofSeconds(30);
+    @Builder.Default private final double jitterFactor = 0.5d; // EXPONENTIAL only, 0 to 1
+    private final Duration retryDeadline; // Total time after which no further retry is attempted
+    @Builder.Default private final boolean honorRetryAfter = false; // Retry-After header on 429 and 503
+
+    /**
+     * @return the delay before the first retry.
+     */
+    public Duration getEffectiveMinBackoff() {
+        return minBackoff != null ? minBackoff : Duration.ofSeconds(backOff);
+    }
 }
@@ -0,0 +1,165 @@
+package com.intuit.springwebclient.context;
+
+import io.micrometer.context.ContextRegistry;
+import io.micrometer.context.ContextSnapshot;
+import io.micrometer.context.ContextSnapshotFactory;
+import java.util.Map;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Operators;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+import reactor.util.context.ReactorContextAccessor;
+
+/**
+ * Propagates the MDC of the thread that sends a request to the threads the request completes on.
+ *
+ * <p>The MDC is captured once, as an immutable snapshot, when the request is assembled, and
+ * written to the Reactor Context under {@link MdcThreadLocalAccessor#KEY}. It is set on a thread
+ * only around the callbacks that log or run user code: retry and error logging, retry handlers,
+ * and the signals delivered to the subscriber of the request. Each scope restores the MDC the
+ * thread had before, so the MDC of Netty event loop threads, or of the caller of a blocking
+ * request, is never replaced or cleared.
+ */
+public final class MdcPropagation {
+
+  private static final ContextSnapshot.Scope NOOP_SCOPE = () -> {
+  };
+
+  private static final MdcThreadLocalAccessor ACCESSOR = new MdcThreadLocalAccessor();
+
+  private static final ContextSnapshotFactory SNAPSHOT_FACTORY = ContextSnapshotFactory.builder()
+      .contextRegistry(new ContextRegistry()
+          .registerContextAccessor(new ReactorContextAccessor())
+          .registerThreadLocalAccessor(ACCESSOR))
+      .build();
+
+  private MdcPropagation() {
+  }
+
+  /**
+   * Captures the MDC of the current thread.
+   *
+   * @return snapshot of the MDC, null when the MDC is empty and there is nothing to propagate.
+   */
+  public static ContextSnapshot capture() {
+    final Map<String, String> contextMap = ACCESSOR.getValue();
+    if (contextMap == null) {
+      return null;
+    }
+    return SNAPSHOT_FACTORY.captureFrom(Context.of(MdcThreadLocalAccessor.KEY, contextMap));
+  }
+
+  /**
+   * Sets the captured MDC on the current thread until the returned scope is closed, which restores
+   * the previous MDC of the thread.
+   *
+   * @param snapshot captured MDC, may be null.
+   * @return scope to close once the callback completes.
+   */
+  public static ContextSnapshot.Scope setMdc(ContextSnapshot snapshot) {
+    if (snapshot == null) {
+      return NOOP_SCOPE;
+    }
+    return snapshot.setThreadLocals();
+  }
+
+  /**
+   * Sets the MDC propagated in a Reactor Context on the current thread until the returned scope is
+   * closed, for requests that are assembled when they are subscribed.
+   *
+   * @param contextView context of the subscriber.
+   * @return scope to close once the callback completes.
+   */
+  public static ContextSnapshot.Scope setMdc(ContextView contextView) {
+    if (!contextView.hasKey(MdcThreadLocalAccessor.KEY)) {
+      return NOOP_SCOPE;
+    }
+    return SNAPSHOT_FACTORY.setThreadLocalsFrom(contextView, MdcThreadLocalAccessor.KEY);
+  }
+
+  /**
+   * Writes the captured MDC to the Reactor Context of the source and sets it around every signal
+   * delivered to its subscriber.
+   *
+   * @param source   response of the request.
+   * @param snapshot captured MDC, the source is returned unchanged when null.
+   * @param <T>      type of the response.
+   * @return source propagating the MDC.
+   */
+  public static <T> Mono<T> propagate(Mono<T> source, ContextSnapshot snapshot) {
+    if (snapshot == null) {
+      return source;
+    }
+    return source
+        .transform(Operators.<T, T>lift((scannable, actual) ->
+            new MdcRestoringSubscriber<>(actual, snapshot)))
+        .contextWrite(snapshot::updateContext);
+  }
+
+  /**
+   * Writes the captured MDC to the Reactor Context of the source and sets it around every signal
+   * delivered to its subscriber.
+   *
+   * @param source   elements of the response.
+   * @param snapshot captured MDC, the source is returned unchanged when null.
+   * @param <T>      type of the elements.
+   * @return source propagating the MDC.
+   */
+  public static <T> Flux<T> propagate(Flux<T> source, ContextSnapshot snapshot) {
+    if (snapshot == null) {
+      return source;
+    }
+    return source
+        .transform(Operators.<T, T>lift((scannable, actual) ->
+            new MdcRestoringSubscriber<>(actual, snapshot)))
+        .contextWrite(snapshot::updateContext);
+  }
+
+  /**
+   * Sets the captured MDC around the signals delivered to the actual subscriber.
+   */
+  private static final class MdcRestoringSubscriber<T> implements CoreSubscriber<T> {
+
+    private final CoreSubscriber<? super T> actual;
+    private final ContextSnapshot snapshot;
+
+    private MdcRestoringSubscriber(CoreSubscriber<? super T> actual, ContextSnapshot snapshot) {
+      this.actual = actual;
+      this.snapshot = snapshot;
+    }
+
+    @Override
+    public Context currentContext() {
+      return actual.currentContext();
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+      actual.onSubscribe(subscription);
+    }
+
+    @Override
+    public void onNext(T value) {
+      try (ContextSnapshot.Scope scope = snapshot.setThreadLocals()) {
+        actual.onNext(value);
+      }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      try (ContextSnapshot.Scope scope = snapshot.setThreadLocals()) {
+        actual.onError(throwable);
+      }
+    }
+
+    @Override
+    public void onComplete() {
+      try (ContextSnapshot.Scope scope = snapshot.setThreadLocals()) {
+        actual.onComplete();
+      }
+    }
+  }
+}
@@ -0,0 +1,51 @@
+package com.intuit.springwebclient.context;
+
+import io.micrometer.context.ThreadLocalAccessor;
+import java.util.Collections;
+import java.util.Map;
+import org.slf4j.MDC;
+
+/**
+ * Exposes the SLF4J MDC to context-propagation, so that the MDC of the thread sending a request
+ * can be captured into the Reactor Context and restored on the threads the request completes on.
+ *
+ * <p>The accessor is registered with the global {@code ContextRegistry} through
+ * {@code META-INF/services}, so applications that enable Reactor's automatic context propagation
+ * ({@code Hooks.enableAutomaticContextPropagation()}) get the MDC of the caller restored in their
+ * own operators as well.
+ */
+public class MdcThreadLocalAccessor implements ThreadLocalAccessor<Map<String, String>> {
+
+  /**
+   * Key of the captured MDC in the Reactor Context.
+   */
+  public static final String KEY = "rwebpulse.mdc";
+
+  @Override
+  public Object key() {
+    return KEY;
+  }
+
+  /**
+   * @return immutable copy of the MDC of the current thread, null when it is empty so that
+   * nothing is captured.
+   */
+  @Override
+  public Map<String, String> getValue() {
+    final Map<String, String> contextMap = MDC.getCopyOfContextMap();
+    if (contextMap == null || contextMap.isEmpty()) {
+      return null;
+    }
+    return Collections.unmodifiableMap(contextMap);
+  }
+
+  @Override
+  public void setValue(Map<String, String> value) {
+    MDC.setContextMap(value);
+  }
+
+  @Override
+  public void reset() {
+    MDC.clear();
+  }
+}
@@ -0,0 +1,56 @@
+package com.intuit.springwebclient.context;
+
+import com.intuit.springwebclient.exception.RequestTimeoutException;
+import java.time.Duration;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+/**
+ * Timeout of a request, including all of its retries, that tells the operators of the request
+ * whether they are cancelled because it was exceeded.
+ *
+ * <p>A timeout cancels the attempt in flight before it signals its error, so a cancelled operator
+ * cannot tell it apart from a cancel by a winning hedge, a fail fast batch or the caller. The
+ * deadline is written to the Reactor Context of the request and marked exceeded just before the
+ * attempt is cancelled.
+ */
+public final class RequestDeadline {
+
+  private static final String KEY = RequestDeadline.class.getName();
+
+  private volatile boolean exceeded;
+
+  private RequestDeadline() {
+  }
+
+  /**
+   * Bounds every subscription of the source by the timeout.
+   *
+   * @param source  request, including all of its retries.
+   * @param timeout timeout of the request, the source is returned unchanged when null.
+   * @param <T>     type of the response.
+   * @return source failing with a {@link RequestTimeoutException} when the timeout is exceeded.
+   */
+  public static <T> Mono<T> apply(Mono<T> source, Duration timeout) {
+    if (timeout == null) {
+      return source;
+    }
+    return Mono.defer(() -> {
+      final RequestDeadline deadline = new RequestDeadline();
+      return source
+          .timeout(Mono.delay(timeout).doOnNext(tick -> deadline.exceeded = true),
+              Mono.error(() -> new RequestTimeoutException(timeout)))
+          .contextWrite(context -> context.put(KEY, deadline));
+    });
+  }
+
+  /**
+   * @param contextView context of a cancelled operator of the request.
+   * @return true if the operator is cancelled because the timeout of its request was exceeded.
+   */
+  public static boolean isExceeded(ContextView contextView) {
+    return contextView.<RequestDeadline>getOrEmpty(KEY)
+        .map(deadline -> deadline.exceeded)
+        .orElse(false);
+  }
+}
@@ -0,0 +1,33 @@
+package com.intuit.springwebclient.entity;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Execution settings of a batch of requests.
+ */
+@Getter
+@Builder
+public final class ClientHttpBatchOptions {
+
+    /**
+     * Maximum number of requests of the batch in flight at a time.
+     */
+    @Builder.Default private final int maxConcurrency = 32;
+    /**
+     * Whether responses are emitted in the order of the requests rather than as they complete.
+     */
+    private final boolean ordered;
+    /**
+     * Deadline of the whole batch, none when null. Requests in flight when it is exceeded are cancelled, and requests
+     * not started yet are not sent; both are answered with a REQUEST_TIMEOUT error response.
+     */
+    private final Duration timeout;
+    /**
+     * Whether the batch stops at the first response that is not 2xx, cancelling the requests in flight, instead of
+     * executing every request.
+     */
+    private final boolean failFast;
+}
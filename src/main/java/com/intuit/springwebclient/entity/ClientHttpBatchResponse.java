@@ -0,0 +1,17 @@
+package com.intuit.springwebclient.entity;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Response of one of the requests of a batch.
+ */
+@Getter
+@Builder
+public final class ClientHttpBatchResponse<REQUEST, RESPONSE> {
+
+    private final int index; // position of the request in the batch
+    private final ClientHttpRequest<REQUEST, RESPONSE> request;
+    private final ClientHttpResponse<RESPONSE> response;
+
+}
@@ -1,12 +1,19 @@
 package com.intuit.springwebclient.entity;
 
+import com.intuit.springwebclient.config.WebClientHedgeConfig;
 import com.intuit.springwebclient.config.WebClientRetryConfig;
+import com.intuit.springwebclient.retryHandler.RetryHandlerChain;
 import lombok.Builder;
 import lombok.Getter;
+import org.reactivestreams.Publisher;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.util.MultiValueMap;
 
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -20,7 +27,42 @@ import java.util.List;
 @Builder(toBuilder = true)
 public final class ClientHttpRequest<REQUEST, RESPONSE> {
     private final String url;
+    /**
+     * Low-cardinality logical name of the called api (e.g. "create-order"), used to tag metrics.
+     */
+    private final String route;
+    /**
+     * Logical name of the downstream (e.g. "payments"), used to select its circuit breaker. Defaults to the url host.
+     */
+    private final String clientName;
+    /**
+     * Name of the client profile (connection pool, timeouts and codecs) to send the request with. Defaults to the top level configuration.
+     */
+    private final String clientProfile;
+    /**
+     * Deadline of the request including all of its retries. The request fails with status 504 when it is exceeded.
+     */
+    private final Duration timeout;
     private final REQUEST request;
+    /**
+     * Request body streamed from a publisher of elements of the request type, e.g. a Flux of records sent as NDJSON or a
+     * Flux of DataBuffers, instead of a materialized request. Without a request type the elements must be DataBuffers.
+     */
+    private final Publisher<REQUEST> requestPublisher;
+    /**
+     * File sent as the request body, with zero-copy file transfer when the connection allows it.
+     */
+    private final Path requestFile;
+    /**
+     * Multipart request body, e.g. built with MultipartBodyBuilder. Parts are written as they are read, so file and
+     * publisher parts are not held in memory.
+     */
+    private final MultiValueMap<String, HttpEntity<?>> multipartBody;
+    /**
+     * Whether requestPublisher and the publisher parts of multipartBody produce the same body when subscribed again, so
+     * that the request can be retried. Retries are disabled for requests with publishers that are not replayable.
+     */
+    private final boolean replayableRequestPublisher;
     @Builder.Default
     private final ParameterizedTypeReference<REQUEST> requestType = new ParameterizedTypeReference<>() {};
     @Builder.Default
@@ -30,5 +72,29 @@ public final class ClientHttpRequest<REQUEST, RESPONSE> {
     @Builder.Default
     private final HttpMethod httpMethod = HttpMethod.GET;
     @Builder.Default private List<String> retryHandlers = new ArrayList<>();
+    /**
+     * Retry handlers resolved ahead of time with RetryHandlerRegistry.chain, used instead of retryHandlers when set.
+     */
+    private final RetryHandlerChain retryHandlerChain;
     @Builder.Default private WebClientRetryConfig clientRetryConfig = WebClientRetryConfig.builder().build();
+    /**
+     * Sends a second identical request when the first one has not completed within the hedge delay, and uses whichever
+     * completes first. Only applied to idempotent methods with a replayable body, none when null.
+     */
+    private final WebClientHedgeConfig hedgeConfig;
+
+    /**
+     * @return true if the request body can be sent again on a retry.
+     */
+    public boolean isRequestBodyReplayable() {
+        if (replayableRequestPublisher) {
+            return true;
+        }
+        if (requestPublisher != null) {
+            return false;
+        }
+        return multipartBody == null || multipartBody.values().stream()
+                .flatMap(List::stream)
+                .noneMatch(part -> part.getBody() instanceof Publisher);
+    }
 }
@@ -0,0 +1,21 @@
+package com.intuit.springwebclient.entity.enums;
+
+/**
+ * Delay strategy between retries.
+ */
+public enum BackoffStrategy {
+  /**
+   * Always waits the minimum backoff.
+   */
+  FIXED,
+  /**
+   * Doubles the minimum backoff on every retry up to the maximum backoff, randomized by the jitter
+   * factor.
+   */
+  EXPONENTIAL,
+  /**
+   * Picks a random delay between the minimum backoff and three times the previous delay, capped at
+   * the maximum backoff, so that clients retrying together spread out quickly.
+   */
+  DECORRELATED_JITTER;
+}
@@ -0,0 +1,15 @@
+package com.intuit.springwebclient.entity.enums;
+
+/**
+ * Netty allocator of the buffers read from and written to connections.
+ */
+public enum BufferAllocator {
+  /**
+   * Pooled, arena based buffers reused across requests; the Netty default.
+   */
+  POOLED,
+  /**
+   * A new buffer per read and write, trading allocation and GC for a smaller resident footprint.
+   */
+  UNPOOLED;
+}
@@ -0,0 +1,53 @@
+package com.intuit.springwebclient.entity.enums;
+
+/**
+ * Content codings of compressed request and response bodies.
+ */
+public enum ContentEncoding {
+  /**
+   * Gzip, supported by virtually every server.
+   */
+  GZIP("gzip"),
+  /**
+   * Zlib wrapped deflate.
+   */
+  DEFLATE("deflate"),
+  /**
+   * Zstandard, faster than gzip at a similar ratio; requires com.github.luben:zstd-jni.
+   */
+  ZSTD("zstd");
+
+  private final String headerValue;
+
+  ContentEncoding(String headerValue) {
+    this.headerValue = headerValue;
+  }
+
+  /**
+   * @return value of the encoding in the Content-Encoding and Accept-Encoding headers.
+   */
+  public String getHeaderValue() {
+    return headerValue;
+  }
+
+  /**
+   * @param headerValue value of a Content-Encoding header, may be null.
+   * @return the encoding, null when the body is not encoded or the encoding is unknown.
+   */
+  public static ContentEncoding fromHeaderValue(String headerValue) {
+    if (headerValue == null) {
+      return null;
+    }
+    final String value = headerValue.trim();
+    if (value.equalsIgnoreCase("gzip") || value.equalsIgnoreCase("x-gzip")) {
+      return GZIP;
+    }
+    if (value.equalsIgnoreCase("deflate") || value.equalsIgnoreCase("x-deflate")) {
+      return DEFLATE;
+    }
+    if (value.equalsIgnoreCase("zstd")) {
+      return ZSTD;
+    }
+    return null;
+  }
+}
@@ -0,0 +1,16 @@
+package com.intuit.springwebclient.entity.enums;
+
+/**
+ * How {@code syncHttpResponse} waits for the response.
+ */
+public enum SyncExecutionMode {
+  /**
+   * Blocks the calling thread with {@code Mono.block()}.
+   */
+  BLOCK,
+  /**
+   * Waits on a {@code CompletableFuture} completed by the event loop, so that interrupting the
+   * caller cancels the request.
+   */
+  FUTURE;
+}
@@ -0,0 +1,26 @@
+package com.intuit.springwebclient.entity.enums;
+
+/**
+ * Classification of the failures handled by CommonSpringWebClient, used as a low-cardinality
+ * metric tag.
+ */
+public enum WebClientErrorType {
+  RESPONSE_EXCEPTION("response"),
+  HTTP_STATUS_CODE_EXCEPTION("http_status_code"),
+  UNKNOWN_CONTENT_TYPE("unknown_content_type"),
+  UNHANDLED("unhandled"),
+  CIRCUIT_BREAKER_OPEN("circuit_breaker_open"),
+  REQUEST_TIMEOUT("request_timeout"),
+  CONCURRENCY_LIMITED("concurrency_limited"),
+  RATE_LIMITED("rate_limited");
+
+  private final String tagValue;
+
+  WebClientErrorType(String tagValue) {
+    this.tagValue = tagValue;
+  }
+
+  public String getTagValue() {
+    return tagValue;
+  }
+}
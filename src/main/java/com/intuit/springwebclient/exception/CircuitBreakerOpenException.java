@@ -0,0 +1,15 @@
+package com.intuit.springwebclient.exception;
+
+import com.intuit.springwebclient.entity.enums.WebClientErrorType;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Raised when a request is not permitted because the circuit breaker of its downstream is open.
+ */
+public class CircuitBreakerOpenException extends WebClientRejectedException {
+
+  public CircuitBreakerOpenException(String circuitBreakerName) {
+    super("Circuit breaker " + circuitBreakerName + " is open", HttpStatus.SERVICE_UNAVAILABLE,
+        WebClientErrorType.CIRCUIT_BREAKER_OPEN);
+  }
+}
@@ -0,0 +1,16 @@
+package com.intuit.springwebclient.exception;
+
+import com.intuit.springwebclient.entity.enums.WebClientErrorType;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Raised when a request is not sent because its downstream already has as many requests in flight
+ * as its adaptive concurrency limit allows.
+ */
+public class ConcurrencyLimitExceededException extends WebClientRejectedException {
+
+  public ConcurrencyLimitExceededException(String limiterName, int limit) {
+    super("Concurrency limit " + limit + " of " + limiterName + " is exceeded",
+        HttpStatus.SERVICE_UNAVAILABLE, WebClientErrorType.CONCURRENCY_LIMITED);
+  }
+}
@@ -0,0 +1,16 @@
+package com.intuit.springwebclient.exception;
+
+import com.intuit.springwebclient.entity.enums.WebClientErrorType;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Raised when a request is not sent because it would exceed the client side rate limit of its
+ * downstream for longer than the allowed wait.
+ */
+public class RateLimitExceededException extends WebClientRejectedException {
+
+  public RateLimitExceededException(String rateLimiterName) {
+    super("Rate limit of " + rateLimiterName + " is exceeded", HttpStatus.TOO_MANY_REQUESTS,
+        WebClientErrorType.RATE_LIMITED);
+  }
+}
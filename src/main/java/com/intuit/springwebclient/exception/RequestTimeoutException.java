@@ -0,0 +1,16 @@
+package com.intuit.springwebclient.exception;
+
+import com.intuit.springwebclient.entity.enums.WebClientErrorType;
+import java.time.Duration;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Raised when a request, including all of its retries, does not complete within its timeout.
+ */
+public class RequestTimeoutException extends WebClientRejectedException {
+
+  public RequestTimeoutException(Duration timeout) {
+    super("Request did not complete within " + timeout.toMillis() + "ms",
+        HttpStatus.GATEWAY_TIMEOUT, WebClientErrorType.REQUEST_TIMEOUT);
+  }
+}
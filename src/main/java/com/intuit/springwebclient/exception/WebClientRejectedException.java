@@ -0,0 +1,36 @@
+package com.intuit.springwebclient.exception;
+
+import com.intuit.springwebclient.entity.enums.WebClientErrorType;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Base class of the failures raised when a request is rejected or given up by the client itself,
+ * rather than failed by the downstream. Rejections are never retried and carry no stack trace, so
+ * that failing fast stays cheap.
+ */
+public abstract class WebClientRejectedException extends RuntimeException {
+
+  private final HttpStatus httpStatus;
+  private final WebClientErrorType errorType;
+
+  protected WebClientRejectedException(String message, HttpStatus httpStatus,
+      WebClientErrorType errorType) {
+    super(message, null, false, false);
+    this.httpStatus = httpStatus;
+    this.errorType = errorType;
+  }
+
+  /**
+   * @return status reported in the ClientHttpResponse of the rejected request.
+   */
+  public HttpStatus getHttpStatus() {
+    return httpStatus;
+  }
+
+  /**
+   * @return classification of the rejection, used to tag metrics.
+   */
+  public WebClientErrorType getErrorType() {
+    return errorType;
+  }
+}
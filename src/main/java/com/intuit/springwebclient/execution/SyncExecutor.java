@@ -0,0 +1,129 @@
+package com.intuit.springwebclient.execution;
+
+import com.intuit.springwebclient.config.SyncExecutionConfig;
+import com.intuit.springwebclient.entity.enums.SyncExecutionMode;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Waits for the response of synchronous requests, and runs the {@code RetryHandler} callbacks of
+ * failed requests.
+ *
+ * <p>In {@link SyncExecutionMode#FUTURE} mode the caller waits on a {@link CompletableFuture}
+ * instead of blocking in {@code Mono.block()}, so that interrupting the caller cancels its
+ * request. Both modes park the caller without holding a monitor, {@code Mono.block()} on a
+ * {@code CountDownLatch}, and both refuse to wait on a non-blocking thread such as a Netty event
+ * loop, where the wait would deadlock.
+ *
+ * <p>Retry handlers are user code that may block; with {@code virtualThreadRetryHandlers} they
+ * run on a virtual thread per call instead of the Netty event loop that received the failure.
+ * Virtual threads require Java 21, on older runtimes the handlers run on the bounded elastic
+ * scheduler.
+ */
+@Slf4j
+public class SyncExecutor implements AutoCloseable {
+
+  /**
+   * Executor blocking with {@code Mono.block()} and running retry handlers on the event loop.
+   */
+  public static final SyncExecutor DEFAULT = new SyncExecutor(null);
+
+  private static final String RETRY_HANDLER_SCHEDULER_NAME = "rwebpulse-retry-handlers";
+
+  private final SyncExecutionMode mode;
+  private final Scheduler retryHandlerScheduler;
+  private final boolean ownsRetryHandlerScheduler;
+
+  public SyncExecutor(SyncExecutionConfig syncExecutionConfig) {
+    final SyncExecutionConfig config = syncExecutionConfig != null ? syncExecutionConfig
+        : new SyncExecutionConfig();
+    this.mode = config.getMode() != null ? config.getMode() : SyncExecutionMode.BLOCK;
+    if (!config.isVirtualThreadRetryHandlers()) {
+      this.retryHandlerScheduler = null;
+      this.ownsRetryHandlerScheduler = false;
+      return;
+    }
+    final ExecutorService virtualThreadExecutor = newVirtualThreadPerTaskExecutor();
+    if (virtualThreadExecutor != null) {
+      this.retryHandlerScheduler = Schedulers.fromExecutorService(virtualThreadExecutor,
+          RETRY_HANDLER_SCHEDULER_NAME);
+      this.ownsRetryHandlerScheduler = true;
+    } else {
+      log.warn("Virtual threads are not available on Java {}, retry handlers run on the bounded "
+          + "elastic scheduler", Runtime.version().feature());
+      this.retryHandlerScheduler = Schedulers.boundedElastic();
+      this.ownsRetryHandlerScheduler = false;
+    }
+  }
+
+  /**
+   * Waits for the response of a request on the calling thread.
+   *
+   * @param response response of the request, subscribed by this method.
+   * @param <T>      type of the response.
+   * @return the response, null if the Mono completes empty.
+   * @throws IllegalStateException if the calling thread is a non-blocking thread.
+   */
+  public <T> T await(Mono<T> response) {
+    if (mode == SyncExecutionMode.BLOCK) {
+      return response.block();
+    }
+    // the check of Mono.block(), waiting on a non-blocking thread would never complete
+    if (Schedulers.isInNonBlockingThread()) {
+      throw new IllegalStateException("block()/blockFirst()/blockLast() are blocking, which is "
+          + "not supported in thread " + Thread.currentThread().getName());
+    }
+    final CompletableFuture<T> future = response.toFuture();
+    try {
+      return future.get();
+    } catch (InterruptedException ex) {
+      // cancels the request in flight
+      future.cancel(true);
+      Thread.currentThread().interrupt();
+      throw Exceptions.propagate(ex);
+    } catch (ExecutionException ex) {
+      throw Exceptions.propagate(ex.getCause());
+    }
+  }
+
+  /**
+   * Runs the retry handlers of a failed request.
+   *
+   * @param retryHandlers invokes the retry handlers and returns the result of the request.
+   * @param <T>           type of the result.
+   * @return Mono of the result, failing with the exception thrown by a retry handler.
+   */
+  public <T> Mono<T> runRetryHandlers(Supplier<T> retryHandlers) {
+    if (retryHandlerScheduler == null) {
+      return Mono.just(retryHandlers.get());
+    }
+    return Mono.fromSupplier(retryHandlers).subscribeOn(retryHandlerScheduler);
+  }
+
+  @Override
+  public void close() {
+    if (ownsRetryHandlerScheduler) {
+      retryHandlerScheduler.dispose();
+    }
+  }
+
+  /**
+   * @return Executors.newVirtualThreadPerTaskExecutor(), null before Java 21.
+   */
+  private static ExecutorService newVirtualThreadPerTaskExecutor() {
+    try {
+      return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor")
+          .invoke(null);
+    } catch (ReflectiveOperationException ex) {
+      return null;
+    }
+  }
+}
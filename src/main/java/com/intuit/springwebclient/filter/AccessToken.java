@@ -0,0 +1,15 @@
+package com.intuit.springwebclient.filter;
+
+import java.time.Instant;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Token fetched by a {@link CachedTokenProvider}, with the instant it expires at.
+ */
+@Getter
+@Builder
+public final class AccessToken {
+    private final String value;
+    private final Instant expiresAt;
+}
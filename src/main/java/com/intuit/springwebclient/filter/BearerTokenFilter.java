@@ -0,0 +1,39 @@
+package com.intuit.springwebclient.filter;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * Sets the token of a {@link CachedTokenProvider} as the bearer Authorization header of every
+ * request. Fetching a token never blocks the event loop, and a token rejected with a 401 is
+ * invalidated so that the next request, or its retry, gets a new one.
+ */
+public class BearerTokenFilter implements WebClientRequestFilter {
+
+  private static final String TOKEN_ATTRIBUTE = BearerTokenFilter.class.getName() + ".token";
+
+  private final CachedTokenProvider tokenProvider;
+
+  public BearerTokenFilter(CachedTokenProvider tokenProvider) {
+    this.tokenProvider = tokenProvider;
+  }
+
+  @Override
+  public Mono<ClientRequest> filter(ClientRequest request) {
+    return tokenProvider.getToken().map(token -> ClientRequest.from(request)
+        .headers(headers -> headers.setBearerAuth(token.getValue()))
+        .attribute(TOKEN_ATTRIBUTE, token)
+        .build());
+  }
+
+  @Override
+  public Mono<ClientResponse> filterResponse(ClientRequest request, ClientResponse response) {
+    if (response.statusCode().value() == HttpStatus.UNAUTHORIZED.value()) {
+      request.attribute(TOKEN_ATTRIBUTE)
+          .ifPresent(token -> tokenProvider.invalidate((AccessToken) token));
+    }
+    return Mono.just(response);
+  }
+}
@@ -0,0 +1,124 @@
+package com.intuit.springwebclient.filter;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Caches the token returned by a token source and refreshes it before it expires, without ever
+ * blocking the caller.
+ *
+ * <p>Requests get the cached token, as an already completed Mono, until {@code refreshBefore} its
+ * expiry. From then on they still get the cached token while a single refresh runs in the
+ * background. Only once the token expired, or before the first token was fetched, do requests wait,
+ * and they all wait for the same fetch: concurrent requests never fetch more than one token.
+ *
+ * <p>A failed background refresh is logged and retried by the next request, the cached token is
+ * used until it expires. A failed fetch the requests wait for fails those requests.
+ */
+@Slf4j
+public class CachedTokenProvider {
+
+  private final Mono<AccessToken> tokenSource;
+  private final Duration refreshBefore;
+  private final Clock clock;
+  private final AtomicReference<CachedToken> cachedToken = new AtomicReference<>();
+  private final AtomicReference<Mono<AccessToken>> inflightFetch = new AtomicReference<>();
+
+  /**
+   * @param tokenSource   fetches a new token, subscribed once per fetch.
+   * @param refreshBefore how long before its expiry a token is refreshed.
+   */
+  public CachedTokenProvider(Mono<AccessToken> tokenSource, Duration refreshBefore) {
+    this(tokenSource, refreshBefore, Clock.systemUTC());
+  }
+
+  CachedTokenProvider(Mono<AccessToken> tokenSource, Duration refreshBefore, Clock clock) {
+    this.tokenSource = tokenSource;
+    this.refreshBefore = refreshBefore;
+    this.clock = clock;
+  }
+
+  /**
+   * @return Mono of a token that has not expired.
+   */
+  public Mono<AccessToken> getToken() {
+    final CachedToken cached = cachedToken.get();
+    if (cached != null) {
+      final Instant now = clock.instant();
+      if (now.isBefore(cached.refreshAt)) {
+        return cached.mono;
+      }
+      if (now.isBefore(cached.token.getExpiresAt())) {
+        fetch().subscribe(token -> {
+        }, ex -> log.warn("Background refresh of the access token failed, the cached token is used "
+            + "until it expires", ex));
+        return cached.mono;
+      }
+    }
+    return fetch();
+  }
+
+  /**
+   * Drops the token if it is still the cached one, e.g. after it was rejected with a 401, so that
+   * the next request fetches a new token.
+   *
+   * @param token the rejected token.
+   */
+  public void invalidate(AccessToken token) {
+    final CachedToken cached = cachedToken.get();
+    if (cached != null && cached.token == token) {
+      cachedToken.compareAndSet(cached, null);
+    }
+  }
+
+  /**
+   * @return the fetch in flight, or a new fetch if there is none.
+   */
+  private Mono<AccessToken> fetch() {
+    for (; ; ) {
+      final Mono<AccessToken> inflight = inflightFetch.get();
+      if (inflight != null) {
+        return inflight;
+      }
+      final Sinks.One<AccessToken> sink = Sinks.one();
+      final Mono<AccessToken> fetch = sink.asMono();
+      if (inflightFetch.compareAndSet(null, fetch)) {
+        // the fetch is not cancelled when the requests waiting for it are
+        tokenSource.subscribe(token -> {
+          cachedToken.set(new CachedToken(token, token.getExpiresAt().minus(refreshBefore)));
+          inflightFetch.compareAndSet(fetch, null);
+          sink.tryEmitValue(token);
+        }, ex -> {
+          inflightFetch.compareAndSet(fetch, null);
+          sink.tryEmitError(ex);
+        }, () -> {
+          if (inflightFetch.compareAndSet(fetch, null)) {
+            sink.tryEmitError(new IllegalStateException("Token source completed without a token"));
+          }
+        });
+        return fetch;
+      }
+    }
+  }
+
+  /**
+   * Cached token with the completed Mono handed to requests.
+   */
+  private static final class CachedToken {
+
+    private final AccessToken token;
+    private final Instant refreshAt;
+    private final Mono<AccessToken> mono;
+
+    private CachedToken(AccessToken token, Instant refreshAt) {
+      this.token = token;
+      this.refreshAt = refreshAt;
+      this.mono = Mono.just(token);
+    }
+  }
+}
@@ -1,16 +1,46 @@
 package com.intuit.springwebclient.filter;
 
 import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import reactor.core.publisher.Mono;
 
 /**
  * Interface to add https request filters (interceptors).
+ *
+ * <p>Every WebClientRequestFilter bean is applied to the clients, in the order given by
+ * {@code @Order} or {@code Ordered}. Filters that need I/O, e.g. to fetch an auth token or a
+ * signing key, implement the reactive {@link #filter(ClientRequest)} hook instead of
+ * {@link #execute(ClientRequest)}, so that they never block the Netty event loop.
  */
 public interface WebClientRequestFilter {
     default ExchangeFilterFunction getFilter() {
-        return (request, next) -> next.exchange(execute(request));
+        return (request, next) -> filter(request)
+                .flatMap(filtered -> next.exchange(filtered)
+                        .flatMap(response -> filterResponse(filtered, response)));
     }
     default ClientRequest execute(ClientRequest request) {
         return request;
     }
+
+    /**
+     * Reactive hook invoked before the request is sent, on every attempt of the request.
+     *
+     * @param request the request.
+     * @return Mono of the request to send, it must not complete empty.
+     */
+    default Mono<ClientRequest> filter(ClientRequest request) {
+        return Mono.just(execute(request));
+    }
+
+    /**
+     * Reactive hook invoked once the response headers are received, before the body is read.
+     *
+     * @param request  the request that was sent.
+     * @param response the response.
+     * @return Mono of the response handed to the client.
+     */
+    default Mono<ClientResponse> filterResponse(ClientRequest request, ClientResponse response) {
+        return Mono.just(response);
+    }
 }
@@ -0,0 +1,123 @@
+package com.intuit.springwebclient.hedging;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free latency histogram over a sliding window, used to derive hedge delays from the observed
+ * latency percentiles of a downstream.
+ *
+ * <p>Latencies are counted in log-linear buckets of microseconds with 16 sub-buckets per power of
+ * two, so percentiles are reported with at most 6.25% error. The window is kept as two halves: the
+ * current half receives latencies and the previous one is still counted, so percentiles cover
+ * between half and all of the window.
+ */
+public class LatencyTracker {
+
+  private static final int SUB_BUCKET_BITS = 4;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int MAX_EXPONENT = 31; // latencies are capped at 2^32 micros, about 71 minutes
+  private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+  private static final long MAX_MICROS = (1L << (MAX_EXPONENT + 1)) - 1;
+
+  private final long halfWindowNanos;
+  private final int minSamples;
+  private final AtomicReference<Window> current;
+  private volatile Window previous;
+
+  /**
+   * @param windowMillis length of the window percentiles are computed over
+   * @param minSamples   latencies needed in the window before a percentile is reported
+   */
+  public LatencyTracker(long windowMillis, int minSamples) {
+    this.halfWindowNanos = Math.max(1L, TimeUnit.MILLISECONDS.toNanos(windowMillis) / 2);
+    this.minSamples = Math.max(1, minSamples);
+    this.current = new AtomicReference<>(new Window(System.nanoTime()));
+  }
+
+  /**
+   * Records a latency.
+   *
+   * @param latencyNanos observed latency
+   */
+  public void record(long latencyNanos) {
+    final Window window = currentWindow(System.nanoTime());
+    window.counts.incrementAndGet(bucket(TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+    window.total.incrementAndGet();
+  }
+
+  /**
+   * @param percentile percentile between 0 and 1, e.g. 0.95
+   * @return latency in nanos below which the given share of the recorded latencies fall, or -1 if
+   * fewer than minSamples latencies were recorded in the window.
+   */
+  public long getPercentileNanos(double percentile) {
+    final long now = System.nanoTime();
+    final Window window = currentWindow(now);
+    final Window previousWindow = previous;
+    final boolean countPrevious = previousWindow != null
+        && now - previousWindow.startNanos < 2 * halfWindowNanos;
+    final long total = window.total.get() + (countPrevious ? previousWindow.total.get() : 0L);
+    if (total < minSamples) {
+      return -1L;
+    }
+    final long rank = Math.max(1L, (long) Math.ceil(total * Math.min(1d, percentile)));
+    long count = 0L;
+    for (int bucket = 0; bucket < BUCKETS; bucket++) {
+      count += window.counts.get(bucket) + (countPrevious ? previousWindow.counts.get(bucket) : 0L);
+      if (count >= rank) {
+        return TimeUnit.MICROSECONDS.toNanos(upperBoundMicros(bucket));
+      }
+    }
+    return TimeUnit.MICROSECONDS.toNanos(MAX_MICROS);
+  }
+
+  private Window currentWindow(long now) {
+    final Window window = current.get();
+    if (now - window.startNanos < halfWindowNanos) {
+      return window;
+    }
+    // only the thread that swaps the window moves it to previous
+    final Window next = new Window(now);
+    if (current.compareAndSet(window, next)) {
+      previous = window;
+      return next;
+    }
+    return current.get();
+  }
+
+  static int bucket(long micros) {
+    final long value = Math.min(Math.max(0L, micros), MAX_MICROS);
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    final int exponent = 63 - Long.numberOfLeadingZeros(value);
+    final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+    return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+  }
+
+  static long upperBoundMicros(int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+    final int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+    final int subBucket = bucket % SUB_BUCKETS;
+    return ((long) (SUB_BUCKETS + subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+  }
+
+  /**
+   * Latency counts of one half of the window.
+   */
+  private static final class Window {
+
+    private final long startNanos;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong total = new AtomicLong();
+
+    private Window(long startNanos) {
+      this.startNanos = startNanos;
+    }
+  }
+}
@@ -0,0 +1,161 @@
+package com.intuit.springwebclient.hedging;
+
+import com.intuit.springwebclient.config.HedgingConfig;
+import com.intuit.springwebclient.config.RetryBudgetConfig;
+import com.intuit.springwebclient.config.WebClientHedgeConfig;
+import com.intuit.springwebclient.entity.ClientHttpRequest;
+import com.intuit.springwebclient.metrics.WebClientMetrics;
+import com.intuit.springwebclient.retry.RetryBudget;
+import com.intuit.springwebclient.retry.TokenBucketRetryBudget;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpMethod;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Sends a second identical request (a hedge) when the first one has not completed within the
+ * hedge delay of the request, and uses whichever completes first, cancelling the other.
+ *
+ * <p>The delay is fixed, or the given percentile of the latencies observed for the host. Hedges
+ * are drawn from a token bucket per host that every hedgeable request credits with
+ * {@code hedgeRatio} of a token, which caps the extra load hedging adds. No hedge is sent once
+ * the first request has failed, so that its failure is retried, or not, by the retry spec; when
+ * both fail the failure of the first one is signalled.
+ */
+@Slf4j
+public class RequestHedger {
+
+  private static final Set<HttpMethod> IDEMPOTENT_METHODS = Set.of(HttpMethod.GET,
+      HttpMethod.HEAD, HttpMethod.OPTIONS, HttpMethod.PUT, HttpMethod.DELETE, HttpMethod.TRACE);
+
+  private final HedgingConfig hedgingConfig;
+  private final RetryBudgetConfig hedgeBudgetConfig;
+  private final WebClientMetrics webClientMetrics;
+  private final ConcurrentMap<String, HostHedging> hosts = new ConcurrentHashMap<>();
+
+  public RequestHedger(HedgingConfig hedgingConfig, WebClientMetrics webClientMetrics) {
+    this.hedgingConfig = hedgingConfig != null ? hedgingConfig : new HedgingConfig();
+    this.hedgeBudgetConfig = new RetryBudgetConfig();
+    this.hedgeBudgetConfig.setRetryRatio(this.hedgingConfig.getHedgeRatio());
+    this.hedgeBudgetConfig.setMinRetriesPerSecond(this.hedgingConfig.getMinHedgesPerSecond());
+    this.hedgeBudgetConfig.setMaxRetries(this.hedgingConfig.getMaxHedges());
+    this.webClientMetrics = webClientMetrics;
+  }
+
+  /**
+   * Hedges an attempt of a request, if the request has a hedge config, an idempotent method and a
+   * replayable body.
+   *
+   * @param attempt     Sends the request once per subscription.
+   * @param httpRequest The client HTTP request details.
+   * @param host        Host of the request url, hedges and latencies are tracked per host.
+   * @return attempt, or the first of the attempt and its hedge to complete.
+   */
+  public <REQUEST, RESPONSE, T> Mono<T> hedge(Mono<T> attempt,
+      ClientHttpRequest<REQUEST, RESPONSE> httpRequest, String host) {
+    final WebClientHedgeConfig hedgeConfig = httpRequest.getHedgeConfig();
+    if (hedgeConfig == null) {
+      return attempt;
+    }
+    if (!IDEMPOTENT_METHODS.contains(httpRequest.getHttpMethod())
+        || !httpRequest.isRequestBodyReplayable()) {
+      log.debug("Request to {} is not hedged, its method or body is not idempotent", host);
+      return attempt;
+    }
+    final HostHedging hostHedging = getHostHedging(host);
+    return Mono.defer(() -> {
+      hostHedging.hedgeBudget.deposit();
+      final Duration delay = hostHedging.getDelay(hedgeConfig);
+      final long startNanos = System.nanoTime();
+      final Sinks.One<Boolean> firstFailed = Sinks.one();
+      final Mono<T> first = attempt
+          .doOnSuccess(result -> hostHedging.recordLatency(hedgeConfig, startNanos))
+          .doOnError(ex -> {
+            hostHedging.recordLatency(hedgeConfig, startNanos);
+            firstFailed.tryEmitValue(Boolean.TRUE);
+          })
+          // cancelled because the hedge won, its latency is at least the time elapsed
+          .doOnCancel(() -> hostHedging.recordLatency(hedgeConfig, startNanos));
+      if (delay == null) {
+        return first;
+      }
+      final Mono<HedgedResult<T>> second = Mono.delay(delay)
+          .takeUntilOther(firstFailed.asMono())
+          .filter(tick -> hostHedging.hedgeBudget.tryWithdraw())
+          .flatMap(tick -> {
+            webClientMetrics.recordHedge(host, httpRequest.getRoute());
+            return attempt.map(result -> new HedgedResult<>(result, true));
+          });
+      return Flux.mergeDelayError(2, first.map(result -> new HedgedResult<>(result, false)),
+              second)
+          .next()
+          .onErrorMap(Exceptions::isMultiple, ex -> Exceptions.unwrapMultiple(ex).get(0))
+          .map(result -> {
+            if (result.hedge) {
+              webClientMetrics.recordHedgeWon(host, httpRequest.getRoute());
+            }
+            return result.result;
+          });
+    });
+  }
+
+  private HostHedging getHostHedging(String host) {
+    HostHedging hostHedging = hosts.get(host);
+    if (hostHedging == null) {
+      hostHedging = hosts.computeIfAbsent(host, key -> new HostHedging());
+    }
+    return hostHedging;
+  }
+
+  /**
+   * Hedge budget and latencies of a host.
+   */
+  private final class HostHedging {
+
+    private final RetryBudget hedgeBudget = new TokenBucketRetryBudget(hedgeBudgetConfig);
+    private final LatencyTracker latencyTracker = new LatencyTracker(
+        hedgingConfig.getLatencyWindowMillis(), hedgingConfig.getMinLatencySamples());
+
+    /**
+     * @return delay before the hedge, null if there is none yet.
+     */
+    private Duration getDelay(WebClientHedgeConfig hedgeConfig) {
+      if (hedgeConfig.getDelayPercentile() > 0d) {
+        final long percentileNanos = latencyTracker.getPercentileNanos(
+            hedgeConfig.getDelayPercentile());
+        if (percentileNanos >= 0L) {
+          final Duration delay = Duration.ofNanos(percentileNanos);
+          final Duration minDelay = hedgeConfig.getMinDelay();
+          return minDelay != null && delay.compareTo(minDelay) < 0 ? minDelay : delay;
+        }
+      }
+      return hedgeConfig.getDelay();
+    }
+
+    private void recordLatency(WebClientHedgeConfig hedgeConfig, long startNanos) {
+      if (hedgeConfig.getDelayPercentile() > 0d) {
+        latencyTracker.record(System.nanoTime() - startNanos);
+      }
+    }
+  }
+
+  /**
+   * Result of the first request or of its hedge.
+   */
+  private static final class HedgedResult<T> {
+
+    private final T result;
+    private final boolean hedge;
+
+    private HedgedResult(T result, boolean hedge) {
+      this.result = result;
+      this.hedge = hedge;
+    }
+  }
+}
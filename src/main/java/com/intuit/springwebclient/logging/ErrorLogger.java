@@ -0,0 +1,128 @@
+package com.intuit.springwebclient.logging;
+
+import com.intuit.springwebclient.config.ErrorLoggingConfig;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.springframework.http.HttpStatusCode;
+
+/**
+ * Logs the failures of requests without making the error path more expensive than the request
+ * itself.
+ *
+ * <p>Messages are only formatted when ERROR is enabled for the logger, and error response bodies
+ * are truncated to {@code maxBodyLength} characters. With a {@code stackTraceIntervalMillis}, a
+ * single stack trace is logged per host and status in each interval: the other failures are logged
+ * on one line, and the next stack trace reports how many were suppressed. A downstream failing
+ * every request then costs one stack trace per interval instead of one per request.
+ */
+public class ErrorLogger {
+
+  /**
+   * Logger truncating bodies to the default length and logging every stack trace.
+   */
+  public static final ErrorLogger DEFAULT = new ErrorLogger(null);
+
+  private static final String TRUNCATED_SUFFIX = "...(%d more characters)";
+
+  private final int maxBodyLength;
+  private final boolean fullErrorBody;
+  private final long stackTraceIntervalNanos;
+  private final ConcurrentMap<String, StackTraceSampler> samplers = new ConcurrentHashMap<>();
+
+  public ErrorLogger(ErrorLoggingConfig errorLoggingConfig) {
+    final ErrorLoggingConfig config = errorLoggingConfig != null ? errorLoggingConfig
+        : new ErrorLoggingConfig();
+    this.maxBodyLength = config.getMaxBodyLength();
+    this.fullErrorBody = config.isFullErrorBody();
+    this.stackTraceIntervalNanos = TimeUnit.MILLISECONDS.toNanos(
+        Math.max(0, config.getStackTraceIntervalMillis()));
+  }
+
+  /**
+   * Logs the failure of a request at ERROR.
+   *
+   * @param log       logger of the client.
+   * @param host      host of the request url, stack traces are sampled per host and status.
+   * @param status    status of the failure, may be null.
+   * @param exception the failure.
+   * @param message   formats the message, only called when ERROR is enabled.
+   */
+  public void logError(Logger log, String host, HttpStatusCode status, Throwable exception,
+      Supplier<String> message) {
+    if (!log.isErrorEnabled()) {
+      return;
+    }
+    final long suppressed = sampleStackTrace(host, status);
+    if (suppressed < 0) {
+      log.error("{} exception={}", message.get(), exception.toString());
+    } else if (suppressed == 0) {
+      log.error("{}", message.get(), exception);
+    } else {
+      log.error("{} ({} stack traces suppressed)", message.get(), suppressed, exception);
+    }
+  }
+
+  /**
+   * @param body error response body, may be null.
+   * @return the body truncated to the length written to the log.
+   */
+  public String truncate(String body) {
+    if (body == null || maxBodyLength < 0 || body.length() <= maxBodyLength) {
+      return body;
+    }
+    int length = maxBodyLength;
+    if (length > 0 && Character.isHighSurrogate(body.charAt(length - 1))) {
+      length--;
+    }
+    return body.substring(0, length) + String.format(TRUNCATED_SUFFIX, body.length() - length);
+  }
+
+  /**
+   * @param body error response body, may be null.
+   * @return the body returned in {@code ClientHttpResponse.error}, whole unless
+   * {@code fullErrorBody} is disabled.
+   */
+  public String errorBody(String body) {
+    return fullErrorBody ? body : truncate(body);
+  }
+
+  /**
+   * @return -1 when the stack trace of this failure is suppressed, otherwise the number of stack
+   * traces suppressed for the host and status since the last one was logged.
+   */
+  private long sampleStackTrace(String host, HttpStatusCode status) {
+    if (stackTraceIntervalNanos == 0) {
+      return 0;
+    }
+    final String key = host + ' ' + (status != null ? status.value() : 0);
+    StackTraceSampler sampler = samplers.get(key);
+    if (sampler == null) {
+      sampler = samplers.computeIfAbsent(key, k -> new StackTraceSampler());
+    }
+    return sampler.sample(System.nanoTime(), stackTraceIntervalNanos);
+  }
+
+  /**
+   * Allows one stack trace per interval and counts the suppressed ones.
+   */
+  private static final class StackTraceSampler {
+
+    private final AtomicLong nextStackTraceNanos = new AtomicLong(System.nanoTime());
+    private final LongAdder suppressed = new LongAdder();
+
+    private long sample(long nowNanos, long intervalNanos) {
+      final long next = nextStackTraceNanos.get();
+      if (nowNanos - next >= 0
+          && nextStackTraceNanos.compareAndSet(next, nowNanos + intervalNanos)) {
+        return suppressed.sumThenReset();
+      }
+      suppressed.increment();
+      return -1;
+    }
+  }
+}
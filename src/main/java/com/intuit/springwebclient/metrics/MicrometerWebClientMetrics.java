@@ -0,0 +1,277 @@
+package com.intuit.springwebclient.metrics;
+
+import com.intuit.springwebclient.concurrency.AdaptiveConcurrencyLimiter;
+import com.intuit.springwebclient.config.MetricsConfig;
+import com.intuit.springwebclient.entity.enums.WebClientErrorType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+
+/**
+ * Micrometer backed {@link WebClientMetrics}.
+ *
+ * <p>Meters are tagged with host, route, method and status only, and are resolved once per tag
+ * combination and cached, so that recording does not allocate tags on every call. The request
+ * timer count per status doubles as the status-code counter.
+ *
+ * <ul>
+ *   <li>{@code <prefix>.client.requests} - timer, tags host, route, method, status, outcome</li>
+ *   <li>{@code <prefix>.client.retries} - counter, tags host, route</li>
+ *   <li>{@code <prefix>.client.retries.denied} - counter of retries denied by the retry budget,
+ *   tags host, route</li>
+ *   <li>{@code <prefix>.client.requests.coalesced} - counter of requests that shared the
+ *   in-flight call of an identical request, tags host, route</li>
+ *   <li>{@code <prefix>.client.cache.requests} - counter of response cache lookups, tags host,
+ *   route, result (hit, miss)</li>
+ *   <li>{@code <prefix>.client.cache.evictions} - counter, tags host, route</li>
+ *   <li>{@code <prefix>.client.hedges} - counter of hedges sent, tags host, route</li>
+ *   <li>{@code <prefix>.client.hedges.won} - counter of hedges that completed first, tags host,
+ *   route</li>
+ *   <li>{@code <prefix>.client.concurrency.limit} - gauge of the adaptive concurrency limit, tag
+ *   name (client name or host)</li>
+ *   <li>{@code <prefix>.client.concurrency.in.flight} - gauge of the requests in flight counted by
+ *   the concurrency limiter, tag name</li>
+ *   <li>{@code <prefix>.client.compression.bytes} - counter of the bytes of compressed bodies,
+ *   tags host, route, direction (request, response), form (compressed, uncompressed)</li>
+ *   <li>{@code <prefix>.client.errors} - counter, tags host, route, type</li>
+ * </ul>
+ */
+public class MicrometerWebClientMetrics implements WebClientMetrics {
+
+  static final String NO_ROUTE = "none";
+  private static final int STATUS_CODES = 600;
+  private static final int NO_STATUS = 0;
+
+  private final MeterRegistry meterRegistry;
+  private final boolean percentileHistogram;
+  private final String requestsMetricName;
+  private final String retriesMetricName;
+  private final String retriesDeniedMetricName;
+  private final String coalescedMetricName;
+  private final String cacheRequestsMetricName;
+  private final String cacheEvictionsMetricName;
+  private final String hedgesMetricName;
+  private final String hedgesWonMetricName;
+  private final String concurrencyLimitMetricName;
+  private final String concurrencyInFlightMetricName;
+  private final String compressionBytesMetricName;
+  private final String errorsMetricName;
+  private final ConcurrentMap<String, ConcurrentMap<String, RouteMeters>> meters =
+      new ConcurrentHashMap<>();
+
+  public MicrometerWebClientMetrics(MeterRegistry meterRegistry, MetricsConfig metricsConfig) {
+    this.meterRegistry = meterRegistry;
+    this.percentileHistogram = metricsConfig.isPercentileHistogram();
+    this.requestsMetricName = metricsConfig.getPrefix() + ".client.requests";
+    this.retriesMetricName = metricsConfig.getPrefix() + ".client.retries";
+    this.retriesDeniedMetricName = metricsConfig.getPrefix() + ".client.retries.denied";
+    this.coalescedMetricName = metricsConfig.getPrefix() + ".client.requests.coalesced";
+    this.cacheRequestsMetricName = metricsConfig.getPrefix() + ".client.cache.requests";
+    this.cacheEvictionsMetricName = metricsConfig.getPrefix() + ".client.cache.evictions";
+    this.hedgesMetricName = metricsConfig.getPrefix() + ".client.hedges";
+    this.hedgesWonMetricName = metricsConfig.getPrefix() + ".client.hedges.won";
+    this.concurrencyLimitMetricName = metricsConfig.getPrefix() + ".client.concurrency.limit";
+    this.concurrencyInFlightMetricName = metricsConfig.getPrefix()
+        + ".client.concurrency.in.flight";
+    this.compressionBytesMetricName = metricsConfig.getPrefix() + ".client.compression.bytes";
+    this.errorsMetricName = metricsConfig.getPrefix() + ".client.errors";
+  }
+
+  @Override
+  public void recordRequest(String host, String route, HttpMethod method, HttpStatusCode status,
+      long durationNanos) {
+    routeMeters(host, route).timer(method, status).record(durationNanos, TimeUnit.NANOSECONDS);
+  }
+
+  @Override
+  public void recordRetry(String host, String route) {
+    routeMeters(host, route).retries.increment();
+  }
+
+  @Override
+  public void recordRetryDenied(String host, String route) {
+    routeMeters(host, route).retriesDenied.increment();
+  }
+
+  @Override
+  public void recordCoalesced(String host, String route) {
+    routeMeters(host, route).coalesced.increment();
+  }
+
+  @Override
+  public void recordCacheHit(String host, String route) {
+    routeMeters(host, route).cacheHits.increment();
+  }
+
+  @Override
+  public void recordCacheMiss(String host, String route) {
+    routeMeters(host, route).cacheMisses.increment();
+  }
+
+  @Override
+  public void recordCacheEviction(String host, String route) {
+    routeMeters(host, route).cacheEvictions.increment();
+  }
+
+  @Override
+  public void recordHedge(String host, String route) {
+    routeMeters(host, route).hedges.increment();
+  }
+
+  @Override
+  public void recordHedgeWon(String host, String route) {
+    routeMeters(host, route).hedgesWon.increment();
+  }
+
+  @Override
+  public void registerConcurrencyLimiter(AdaptiveConcurrencyLimiter concurrencyLimiter) {
+    Gauge.builder(concurrencyLimitMetricName, concurrencyLimiter,
+            AdaptiveConcurrencyLimiter::getLimit)
+        .tag("name", concurrencyLimiter.getName())
+        .register(meterRegistry);
+    Gauge.builder(concurrencyInFlightMetricName, concurrencyLimiter,
+            AdaptiveConcurrencyLimiter::getInFlight)
+        .tag("name", concurrencyLimiter.getName())
+        .register(meterRegistry);
+  }
+
+  @Override
+  public void recordRequestCompression(String host, String route, long uncompressedBytes,
+      long compressedBytes) {
+    final RouteMeters routeMeters = routeMeters(host, route);
+    routeMeters.requestUncompressedBytes.increment(uncompressedBytes);
+    routeMeters.requestCompressedBytes.increment(compressedBytes);
+  }
+
+  @Override
+  public void recordResponseDecompression(String host, String route, long compressedBytes,
+      long uncompressedBytes) {
+    final RouteMeters routeMeters = routeMeters(host, route);
+    routeMeters.responseCompressedBytes.increment(compressedBytes);
+    routeMeters.responseUncompressedBytes.increment(uncompressedBytes);
+  }
+
+  @Override
+  public void recordError(String host, String route, WebClientErrorType errorType) {
+    routeMeters(host, route).errors[errorType.ordinal()].increment();
+  }
+
+  /**
+   * Looks up the meters of a host and route, creating them on first use.
+   */
+  RouteMeters routeMeters(String host, String route) {
+    final String routeTag = route == null ? NO_ROUTE : route;
+    ConcurrentMap<String, RouteMeters> routes = meters.get(host);
+    if (routes == null) {
+      routes = meters.computeIfAbsent(host, key -> new ConcurrentHashMap<>());
+    }
+    RouteMeters routeMeters = routes.get(routeTag);
+    if (routeMeters == null) {
+      routeMeters = routes.computeIfAbsent(routeTag, key -> new RouteMeters(Tags.of("host", host,
+          "route", key)));
+    }
+    return routeMeters;
+  }
+
+  private static String outcome(int statusCode) {
+    if (statusCode >= 500) {
+      return "SERVER_ERROR";
+    }
+    if (statusCode >= 400) {
+      return "CLIENT_ERROR";
+    }
+    if (statusCode >= 300) {
+      return "REDIRECTION";
+    }
+    if (statusCode >= 200) {
+      return "SUCCESS";
+    }
+    if (statusCode >= 100) {
+      return "INFORMATIONAL";
+    }
+    return "UNKNOWN";
+  }
+
+  /**
+   * Meters of a single host and route.
+   */
+  final class RouteMeters {
+
+    private final Tags tags;
+    private final ConcurrentMap<HttpMethod, AtomicReferenceArray<Timer>> timers =
+        new ConcurrentHashMap<>();
+    private final Counter retries;
+    private final Counter retriesDenied;
+    private final Counter coalesced;
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+    private final Counter cacheEvictions;
+    private final Counter hedges;
+    private final Counter hedgesWon;
+    private final Counter requestCompressedBytes;
+    private final Counter requestUncompressedBytes;
+    private final Counter responseCompressedBytes;
+    private final Counter responseUncompressedBytes;
+    private final Counter[] errors;
+
+    private RouteMeters(Tags tags) {
+      this.tags = tags;
+      this.retries = Counter.builder(retriesMetricName).tags(tags).register(meterRegistry);
+      this.retriesDenied = Counter.builder(retriesDeniedMetricName).tags(tags)
+          .register(meterRegistry);
+      this.coalesced = Counter.builder(coalescedMetricName).tags(tags).register(meterRegistry);
+      this.cacheHits = Counter.builder(cacheRequestsMetricName).tags(tags).tag("result", "hit")
+          .register(meterRegistry);
+      this.cacheMisses = Counter.builder(cacheRequestsMetricName).tags(tags).tag("result", "miss")
+          .register(meterRegistry);
+      this.cacheEvictions = Counter.builder(cacheEvictionsMetricName).tags(tags)
+          .register(meterRegistry);
+      this.hedges = Counter.builder(hedgesMetricName).tags(tags).register(meterRegistry);
+      this.hedgesWon = Counter.builder(hedgesWonMetricName).tags(tags).register(meterRegistry);
+      this.requestCompressedBytes = compressionBytes("request", "compressed");
+      this.requestUncompressedBytes = compressionBytes("request", "uncompressed");
+      this.responseCompressedBytes = compressionBytes("response", "compressed");
+      this.responseUncompressedBytes = compressionBytes("response", "uncompressed");
+      this.errors = new Counter[WebClientErrorType.values().length];
+      for (WebClientErrorType errorType : WebClientErrorType.values()) {
+        errors[errorType.ordinal()] = Counter.builder(errorsMetricName).tags(tags)
+            .tag("type", errorType.getTagValue()).register(meterRegistry);
+      }
+    }
+
+    private Counter compressionBytes(String direction, String form) {
+      return Counter.builder(compressionBytesMetricName).tags(tags).tag("direction", direction)
+          .tag("form", form).baseUnit("bytes").register(meterRegistry);
+    }
+
+    Timer timer(HttpMethod method, HttpStatusCode status) {
+      final int statusCode = status == null || status.value() >= STATUS_CODES || status.value() < 0
+          ? NO_STATUS : status.value();
+      AtomicReferenceArray<Timer> byStatus = timers.get(method);
+      if (byStatus == null) {
+        byStatus = timers.computeIfAbsent(method,
+            key -> new AtomicReferenceArray<>(STATUS_CODES));
+      }
+      Timer timer = byStatus.get(statusCode);
+      if (timer == null) {
+        // registration is idempotent, so a racing registration resolves to the same timer
+        timer = Timer.builder(requestsMetricName).tags(tags)
+            .tag("method", method.name())
+            .tag("status", statusCode == NO_STATUS ? "NONE" : String.valueOf(statusCode))
+            .tag("outcome", outcome(statusCode))
+            .publishPercentileHistogram(percentileHistogram)
+            .register(meterRegistry);
+        byStatus.set(statusCode, timer);
+      }
+      return timer;
+    }
+  }
+}
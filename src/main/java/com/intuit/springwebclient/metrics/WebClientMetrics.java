@@ -0,0 +1,149 @@
+package com.intuit.springwebclient.metrics;
+
+import com.intuit.springwebclient.concurrency.AdaptiveConcurrencyLimiter;
+import com.intuit.springwebclient.entity.enums.WebClientErrorType;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+
+/**
+ * Instrumentation hooks invoked by CommonSpringWebClient on the request path. Every hook defaults
+ * to a no-op, so implementations only override what they record.
+ */
+public interface WebClientMetrics {
+
+  /**
+   * Used when metrics are disabled.
+   */
+  WebClientMetrics NOOP = new WebClientMetrics() {
+  };
+
+  /**
+   * Records the outcome of a call, including all of its retries.
+   *
+   * @param host          downstream host[:port]
+   * @param route         logical route name, may be null
+   * @param method        http method
+   * @param status        final http status, may be null if none was received
+   * @param durationNanos elapsed time from subscription to the response
+   */
+  default void recordRequest(String host, String route, HttpMethod method, HttpStatusCode status,
+      long durationNanos) {
+  }
+
+  /**
+   * Records a retry attempt.
+   *
+   * @param host  downstream host[:port]
+   * @param route logical route name, may be null
+   */
+  default void recordRetry(String host, String route) {
+  }
+
+  /**
+   * Records a retry denied by the retry budget.
+   *
+   * @param host  downstream host[:port]
+   * @param route logical route name, may be null
+   */
+  default void recordRetryDenied(String host, String route) {
+  }
+
+  /**
+   * Records a request that joined the in-flight call of an identical request instead of being
+   * sent.
+   *
+   * @param host  downstream host[:port]
+   * @param route logical route name, may be null
+   */
+  default void recordCoalesced(String host, String route) {
+  }
+
+  /**
+   * Records a request answered from the response cache without contacting the downstream.
+   *
+   * @param host  downstream host[:port]
+   * @param route logical route name, may be null
+   */
+  default void recordCacheHit(String host, String route) {
+  }
+
+  /**
+   * Records a cacheable request that had no usable response in the response cache.
+   *
+   * @param host  downstream host[:port]
+   * @param route logical route name, may be null
+   */
+  default void recordCacheMiss(String host, String route) {
+  }
+
+  /**
+   * Records a response evicted from the full response cache.
+   *
+   * @param host  downstream host[:port] of the evicted response
+   * @param route logical route name of the evicted response, may be null
+   */
+  default void recordCacheEviction(String host, String route) {
+  }
+
+  /**
+   * Records a hedge, a second identical request sent because the first one did not complete
+   * within the hedge delay.
+   *
+   * @param host  downstream host[:port]
+   * @param route logical route name, may be null
+   */
+  default void recordHedge(String host, String route) {
+  }
+
+  /**
+   * Records a hedge that completed before the request it was sent for.
+   *
+   * @param host  downstream host[:port]
+   * @param route logical route name, may be null
+   */
+  default void recordHedgeWon(String host, String route) {
+  }
+
+  /**
+   * Registers the gauges of the concurrency limiter of a downstream, called once when it is
+   * created.
+   *
+   * @param concurrencyLimiter limiter whose limit and requests in flight are published
+   */
+  default void registerConcurrencyLimiter(AdaptiveConcurrencyLimiter concurrencyLimiter) {
+  }
+
+  /**
+   * Records a request body compressed before it was sent.
+   *
+   * @param host              downstream host[:port]
+   * @param route             logical route name, may be null
+   * @param uncompressedBytes size of the body
+   * @param compressedBytes   size of the body sent
+   */
+  default void recordRequestCompression(String host, String route, long uncompressedBytes,
+      long compressedBytes) {
+  }
+
+  /**
+   * Records a compressed response body once it was received and decompressed.
+   *
+   * @param host              downstream host[:port]
+   * @param route             logical route name, may be null
+   * @param compressedBytes   size of the body received
+   * @param uncompressedBytes size of the decompressed body
+   */
+  default void recordResponseDecompression(String host, String route, long compressedBytes,
+      long uncompressedBytes) {
+  }
+
+  /**
+   * Records a failed call by its error classification.
+   *
+   * @param host      downstream host[:port]
+   * @param route     logical route name, may be null
+   * @param errorType classification of the failure
+   */
+  default void recordError(String host, String route, WebClientErrorType errorType) {
+  }
+}
@@ -0,0 +1,102 @@
+package com.intuit.springwebclient.ratelimit;
+
+import com.intuit.springwebclient.config.RateLimitConfig;
+import com.intuit.springwebclient.exception.RateLimitExceededException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import reactor.core.publisher.Mono;
+
+/**
+ * Client side token bucket rate limiter of a single downstream.
+ *
+ * <p>The bucket refills at {@code permitsPerSecond} and holds up to {@code burst} permits. It is
+ * implemented as the generic cell rate algorithm: the only state is the theoretical arrival time
+ * of the next request, updated with CAS, so acquiring a permit is lock-free and never blocks. A
+ * request over the rate is delayed until its permit is available if that is within
+ * {@code maxWaitMillis}, and rejected with a {@link RateLimitExceededException} otherwise.
+ */
+public class RateLimiter {
+
+  /**
+   * Rate limiter that permits every request at once, used when rate limits are disabled.
+   */
+  public static final RateLimiter DISABLED = new RateLimiter("disabled", null);
+
+  private static final long REJECTED = -1L;
+
+  private final String name;
+  private final boolean enabled;
+  private final long intervalNanos;
+  private final long burstToleranceNanos;
+  private final long maxWaitNanos;
+  private final AtomicLong theoreticalArrivalNanos;
+
+  public RateLimiter(String name, RateLimitConfig rateLimitConfig) {
+    this.name = name;
+    this.enabled = rateLimitConfig != null && rateLimitConfig.isEnabled()
+        && rateLimitConfig.getPermitsPerSecond() > 0;
+    final RateLimitConfig config = rateLimitConfig != null ? rateLimitConfig
+        : new RateLimitConfig();
+    this.intervalNanos = enabled ? Math.max(1L,
+        Math.round(TimeUnit.SECONDS.toNanos(1) / config.getPermitsPerSecond())) : 0L;
+    this.burstToleranceNanos = intervalNanos * (Math.max(1, config.getBurst()) - 1);
+    this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0L, config.getMaxWaitMillis()));
+    this.theoreticalArrivalNanos = new AtomicLong(System.nanoTime());
+  }
+
+  /**
+   * Applies the rate limit to every subscription of the source, so that each retry or hedge of a
+   * request takes a permit of its own. A permit reserved for a delayed request is not returned if
+   * the request is cancelled while it waits.
+   *
+   * @param source request to limit
+   * @param <T>    type of the result
+   * @return source, subscribed once a permit is available, or a
+   * {@link RateLimitExceededException} error if the permit is not available within the max wait
+   */
+  public <T> Mono<T> protect(Mono<T> source) {
+    if (!enabled) {
+      return source;
+    }
+    return Mono.defer(() -> {
+      final long waitNanos = reservePermit(System.nanoTime());
+      if (waitNanos == REJECTED) {
+        return Mono.error(new RateLimitExceededException(name));
+      }
+      if (waitNanos == 0L) {
+        return source;
+      }
+      return Mono.delay(Duration.ofNanos(waitNanos)).then(source);
+    });
+  }
+
+  /**
+   * @return name of the rate limiter, the client name or host of the downstream.
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Reserves the next permit.
+   *
+   * @param nowNanos current System.nanoTime()
+   * @return nanos to wait until the permit is available, or -1 if that exceeds the max wait
+   */
+  long reservePermit(long nowNanos) {
+    long current;
+    long arrival;
+    do {
+      current = theoreticalArrivalNanos.get();
+      arrival = current - nowNanos > 0 ? current : nowNanos;
+      final long waitNanos = arrival - burstToleranceNanos - nowNanos;
+      if (waitNanos > maxWaitNanos) {
+        return REJECTED;
+      }
+      if (theoreticalArrivalNanos.compareAndSet(current, arrival + intervalNanos)) {
+        return Math.max(0L, waitNanos);
+      }
+    } while (true);
+  }
+}
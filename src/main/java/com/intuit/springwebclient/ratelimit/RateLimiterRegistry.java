@@ -0,0 +1,42 @@
+package com.intuit.springwebclient.ratelimit;
+
+import com.intuit.springwebclient.config.RateLimitConfig;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Holds one {@link RateLimiter} per downstream, keyed by client name or host. A downstream uses
+ * its entry in the rate limit instances, falling back to the default rate limit configuration.
+ */
+public class RateLimiterRegistry {
+
+  private final RateLimitConfig defaultConfig;
+  private final Map<String, RateLimitConfig> instanceConfigs;
+  private final ConcurrentMap<String, RateLimiter> rateLimiters = new ConcurrentHashMap<>();
+
+  public RateLimiterRegistry(RateLimitConfig defaultConfig,
+      Map<String, RateLimitConfig> instanceConfigs) {
+    this.defaultConfig = defaultConfig;
+    this.instanceConfigs = instanceConfigs != null ? instanceConfigs : Collections.emptyMap();
+  }
+
+  /**
+   * Gets the rate limiter of a downstream, creating it on first use.
+   *
+   * @param name client name or host of the downstream
+   * @return rate limiter, or {@link RateLimiter#DISABLED} if none is configured
+   */
+  public RateLimiter getRateLimiter(String name) {
+    RateLimiter rateLimiter = rateLimiters.get(name);
+    if (rateLimiter == null) {
+      final RateLimitConfig config = instanceConfigs.getOrDefault(name, defaultConfig);
+      if (config == null || !config.isEnabled()) {
+        return RateLimiter.DISABLED;
+      }
+      rateLimiter = rateLimiters.computeIfAbsent(name, key -> new RateLimiter(key, config));
+    }
+    return rateLimiter;
+  }
+}
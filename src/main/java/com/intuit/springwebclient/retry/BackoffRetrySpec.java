@@ -0,0 +1,226 @@
+package com.intuit.springwebclient.retry;
+
+import com.intuit.springwebclient.config.WebClientRetryConfig;
+import com.intuit.springwebclient.entity.enums.BackoffStrategy;
+import com.intuit.springwebclient.exception.WebClientRejectedException;
+import com.intuit.springwebclient.retryHandler.RetryHandler;
+import com.intuit.springwebclient.retryHandler.RetryHandlerChain;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+/**
+ * Retry specification built from a {@link WebClientRetryConfig}. Supports fixed, exponential and
+ * decorrelated jitter backoff, a total retry deadline and the Retry-After header on 429 and 503
+ * responses. Every retry is withdrawn from the {@link RetryBudget} of the downstream; once it is
+ * exhausted the failure is no longer retried.
+ *
+ * <p>Retry handlers of the request overriding {@link RetryHandler#isRetriable(Throwable)} decide
+ * whether a failure is retried before the retry filter is consulted, the max attempts, deadline
+ * and budget still apply.
+ *
+ * <p>Like Reactor's own backoff spec, failures rejected by the retry filter are propagated as is
+ * and exhausted retries fail with {@link Exceptions#retryExhausted(String, Throwable)}. Requests
+ * rejected by the client itself ({@link WebClientRejectedException}) are never retried.
+ */
+@Slf4j
+public class BackoffRetrySpec extends Retry {
+
+  private final WebClientRetryConfig retryConfig;
+  private final RetryBudget retryBudget;
+  private final Consumer<RetrySignal> doBeforeRetry;
+  private final Consumer<RetrySignal> doOnRetryDenied;
+  private final RetryHandlerChain retryHandlerChain;
+
+  public BackoffRetrySpec(WebClientRetryConfig retryConfig, Consumer<RetrySignal> doBeforeRetry) {
+    this(retryConfig, RetryBudget.UNLIMITED, doBeforeRetry, signal -> {
+    });
+  }
+
+  public BackoffRetrySpec(WebClientRetryConfig retryConfig, RetryBudget retryBudget,
+      Consumer<RetrySignal> doBeforeRetry, Consumer<RetrySignal> doOnRetryDenied) {
+    this(retryConfig, retryBudget, doBeforeRetry, doOnRetryDenied, RetryHandlerChain.EMPTY);
+  }
+
+  /**
+   * @param retryConfig     retry configuration of the request
+   * @param retryBudget     budget the retries are withdrawn from
+   * @param doBeforeRetry   invoked before each retry is scheduled
+   * @param doOnRetryDenied invoked when a retry is denied by the retry budget
+   * @param retryHandlerChain retry handlers of the request, asked whether failures are retried
+   */
+  public BackoffRetrySpec(WebClientRetryConfig retryConfig, RetryBudget retryBudget,
+      Consumer<RetrySignal> doBeforeRetry, Consumer<RetrySignal> doOnRetryDenied,
+      RetryHandlerChain retryHandlerChain) {
+    this.retryConfig = retryConfig;
+    this.retryBudget = retryBudget;
+    this.doBeforeRetry = doBeforeRetry;
+    this.doOnRetryDenied = doOnRetryDenied;
+    this.retryHandlerChain = retryHandlerChain;
+  }
+
+  @Override
+  public Flux<Long> generateCompanion(Flux<RetrySignal> retrySignals) {
+    return Flux.defer(() -> {
+      // per subscription state, signals are delivered serially by concatMap
+      final long startNanos = System.nanoTime();
+      final long[] previousDelayNanos = {retryConfig.getEffectiveMinBackoff().toNanos()};
+
+      return retrySignals.concatMap(retryWhenState -> {
+        final RetrySignal signal = retryWhenState.copy();
+        final Throwable failure = signal.failure();
+
+        if (failure instanceof WebClientRejectedException) {
+          return Mono.error(failure);
+        }
+        if (!retryHandlerChain.decidesRetries()) {
+          return retryConfig.getRetryFilter().test(failure)
+              ? scheduleRetry(signal, startNanos, previousDelayNanos) : Mono.error(failure);
+        }
+        return retryHandlerChain.isRetriable(failure)
+            .switchIfEmpty(Mono.fromSupplier(() -> retryConfig.getRetryFilter().test(failure)))
+            .flatMap(retriable -> retriable
+                ? scheduleRetry(signal, startNanos, previousDelayNanos) : Mono.error(failure));
+      });
+    });
+  }
+
+  /**
+   * Schedules the retry of a failure accepted by the retry filter, unless the max attempts, the
+   * retry deadline, the Retry-After of the response or the retry budget forbid it.
+   *
+   * @param signal             the failed attempt
+   * @param startNanos         System.nanoTime() of the first failure of the subscription
+   * @param previousDelayNanos delay before the previous retry, updated when a retry is scheduled
+   * @return Mono emitting when the retry is to be subscribed, or the failure to propagate
+   */
+  private Mono<Long> scheduleRetry(RetrySignal signal, long startNanos,
+      long[] previousDelayNanos) {
+    final Throwable failure = signal.failure();
+    final long iteration = signal.totalRetries();
+    if (iteration >= retryConfig.getMaxAttempts()) {
+      return Mono.error(Exceptions.retryExhausted(
+          "Retries exhausted: " + iteration + "/" + retryConfig.getMaxAttempts(), failure));
+    }
+
+    long delayNanos = computeDelayNanos(iteration, previousDelayNanos[0]);
+    if (retryConfig.isHonorRetryAfter()) {
+      final Duration retryAfter = retryAfter(failure);
+      if (retryAfter != null) {
+        if (retryAfter.compareTo(retryConfig.getMaxBackoff()) > 0) {
+          return Mono.error(Exceptions.retryExhausted("Retry-After of " + retryAfter
+              + " exceeds the max backoff after " + iteration + " retries", failure));
+        }
+        delayNanos = Math.max(delayNanos, retryAfter.toNanos());
+      }
+    }
+    if (retryConfig.getRetryDeadline() != null) {
+      final long remainingNanos = retryConfig.getRetryDeadline().toNanos()
+          - (System.nanoTime() - startNanos);
+      if (delayNanos >= remainingNanos) {
+        return Mono.error(Exceptions.retryExhausted("Retry deadline of "
+            + retryConfig.getRetryDeadline() + " exceeded after " + iteration + " retries",
+            failure));
+      }
+    }
+    if (!retryBudget.tryWithdraw()) {
+      doOnRetryDenied.accept(signal);
+      return Mono.error(Exceptions.retryExhausted(
+          "Retry budget exhausted after " + iteration + " retries", failure));
+    }
+    previousDelayNanos[0] = delayNanos;
+
+    doBeforeRetry.accept(signal);
+    if (delayNanos <= 0) {
+      return Mono.just(iteration);
+    }
+    return Mono.delay(Duration.ofNanos(delayNanos), Schedulers.parallel())
+        .thenReturn(iteration);
+  }
+
+  /**
+   * Computes the delay before a retry from the configured strategy.
+   *
+   * @param iteration          zero based index of the retry
+   * @param previousDelayNanos delay before the previous retry, or the minimum backoff for the first
+   * @return delay in nanoseconds
+   */
+  long computeDelayNanos(long iteration, long previousDelayNanos) {
+    final long minNanos = retryConfig.getEffectiveMinBackoff().toNanos();
+    final long maxNanos = Math.max(minNanos, retryConfig.getMaxBackoff().toNanos());
+    final BackoffStrategy strategy = retryConfig.getBackoffStrategy();
+
+    if (strategy == BackoffStrategy.EXPONENTIAL) {
+      long baseNanos = maxNanos;
+      if (iteration < Long.SIZE - 2 && minNanos <= (maxNanos >> iteration)) {
+        baseNanos = minNanos << iteration;
+      }
+      final double jitterFactor = Math.min(1d, Math.max(0d, retryConfig.getJitterFactor()));
+      final long jitterNanos = (long) (baseNanos * jitterFactor);
+      if (jitterNanos == 0) {
+        return baseNanos;
+      }
+      final long lowNanos = Math.max(minNanos, baseNanos - jitterNanos);
+      final long highNanos = Math.min(maxNanos, baseNanos + jitterNanos);
+      return lowNanos >= highNanos ? lowNanos
+          : ThreadLocalRandom.current().nextLong(lowNanos, highNanos + 1);
+    }
+    if (strategy == BackoffStrategy.DECORRELATED_JITTER) {
+      final long highNanos = Math.min(maxNanos, saturatedMultiply(previousDelayNanos, 3));
+      return minNanos >= highNanos ? minNanos
+          : ThreadLocalRandom.current().nextLong(minNanos, highNanos + 1);
+    }
+    return minNanos;
+  }
+
+  /**
+   * Reads the Retry-After header of 429 and 503 responses, either as delay-seconds or as an
+   * http-date.
+   *
+   * @param failure failure of the last attempt
+   * @return requested delay, or null if the failure does not carry one
+   */
+  static Duration retryAfter(Throwable failure) {
+    if (!(failure instanceof WebClientResponseException)) {
+      return null;
+    }
+    final WebClientResponseException ex = (WebClientResponseException) failure;
+    final int status = ex.getStatusCode().value();
+    if (status != HttpStatus.TOO_MANY_REQUESTS.value()
+        && status != HttpStatus.SERVICE_UNAVAILABLE.value()) {
+      return null;
+    }
+    final String value = ex.getHeaders().getFirst(HttpHeaders.RETRY_AFTER);
+    if (value == null || value.isBlank()) {
+      return null;
+    }
+    try {
+      return Duration.ofSeconds(Math.max(0, Long.parseLong(value.trim())));
+    } catch (NumberFormatException e) {
+      try {
+        final Duration delay = Duration.between(ZonedDateTime.now(),
+            ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME));
+        return delay.isNegative() ? Duration.ZERO : delay;
+      } catch (DateTimeParseException dateTimeParseException) {
+        log.debug("Ignoring unparseable Retry-After header value={}", value);
+        return null;
+      }
+    }
+  }
+
+  private static long saturatedMultiply(long value, int multiplier) {
+    return value > Long.MAX_VALUE / multiplier ? Long.MAX_VALUE : value * multiplier;
+  }
+}
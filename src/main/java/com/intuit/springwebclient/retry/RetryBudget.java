@@ -0,0 +1,34 @@
+package com.intuit.springwebclient.retry;
+
+/**
+ * Shared allowance of retries towards a downstream, bounding the extra load retries add when it
+ * degrades.
+ */
+public interface RetryBudget {
+
+  /**
+   * Budget that never denies a retry, used when retry budgets are disabled.
+   */
+  RetryBudget UNLIMITED = new RetryBudget() {
+    @Override
+    public void deposit() {
+    }
+
+    @Override
+    public boolean tryWithdraw() {
+      return true;
+    }
+  };
+
+  /**
+   * Credits the budget for a successful request.
+   */
+  void deposit();
+
+  /**
+   * Takes one retry from the budget.
+   *
+   * @return true if the retry may be attempted
+   */
+  boolean tryWithdraw();
+}
@@ -0,0 +1,36 @@
+package com.intuit.springwebclient.retry;
+
+import com.intuit.springwebclient.config.RetryBudgetConfig;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Holds one {@link RetryBudget} per downstream host, shared by all requests to that host.
+ */
+public class RetryBudgetRegistry {
+
+  private final RetryBudgetConfig retryBudgetConfig;
+  private final ConcurrentMap<String, RetryBudget> retryBudgets = new ConcurrentHashMap<>();
+
+  public RetryBudgetRegistry(RetryBudgetConfig retryBudgetConfig) {
+    this.retryBudgetConfig = retryBudgetConfig;
+  }
+
+  /**
+   * Gets the retry budget of a host, creating it on first use.
+   *
+   * @param host downstream host[:port]
+   * @return budget of the host, or {@link RetryBudget#UNLIMITED} if retry budgets are disabled
+   */
+  public RetryBudget getRetryBudget(String host) {
+    if (retryBudgetConfig == null || !retryBudgetConfig.isEnabled()) {
+      return RetryBudget.UNLIMITED;
+    }
+    RetryBudget retryBudget = retryBudgets.get(host);
+    if (retryBudget == null) {
+      retryBudget = retryBudgets.computeIfAbsent(host,
+          key -> new TokenBucketRetryBudget(retryBudgetConfig));
+    }
+    return retryBudget;
+  }
+}
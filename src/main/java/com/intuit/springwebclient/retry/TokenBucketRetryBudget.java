@@ -0,0 +1,103 @@
+package com.intuit.springwebclient.retry;
+
+import com.intuit.springwebclient.config.RetryBudgetConfig;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token bucket {@link RetryBudget}. Every successful request deposits
+ * {@code retryRatio} of a token, every retry withdraws a whole one, and
+ * {@code minRetriesPerSecond} tokens are added over time so that low traffic can still retry. The
+ * balance is capped at {@code maxRetries}, which keeps the budget tied to recent traffic.
+ *
+ * <p>Tokens are kept as fixed point milli-tokens in an {@link AtomicLong} and updated with CAS.
+ */
+public class TokenBucketRetryBudget implements RetryBudget {
+
+  private static final long SCALE = 1000L;
+
+  private final long depositPerSuccess;
+  private final long maxBalance;
+  private final long refillNanosPerToken;
+  private final long fullRefillNanos;
+  private final LongSupplier nanoTime;
+  private final AtomicLong balance;
+  private final AtomicLong lastRefillNanos;
+
+  public TokenBucketRetryBudget(RetryBudgetConfig retryBudgetConfig) {
+    this(retryBudgetConfig, System::nanoTime);
+  }
+
+  TokenBucketRetryBudget(RetryBudgetConfig retryBudgetConfig, LongSupplier nanoTime) {
+    this.nanoTime = nanoTime;
+    this.depositPerSuccess = Math.max(0L, Math.round(retryBudgetConfig.getRetryRatio() * SCALE));
+    this.maxBalance = Math.max(SCALE, retryBudgetConfig.getMaxRetries() * SCALE);
+    this.refillNanosPerToken = retryBudgetConfig.getMinRetriesPerSecond() > 0
+        ? TimeUnit.SECONDS.toNanos(1) / retryBudgetConfig.getMinRetriesPerSecond() : 0L;
+    // time to refill an empty balance, bounded so that elapsed * SCALE cannot overflow
+    final long maxElapsedNanos = Long.MAX_VALUE / SCALE;
+    this.fullRefillNanos = refillNanosPerToken == 0L
+        || maxBalance / SCALE > maxElapsedNanos / refillNanosPerToken
+        ? maxElapsedNanos : maxBalance / SCALE * refillNanosPerToken;
+    // start with one second worth of reserve so a cold client can retry
+    this.balance = new AtomicLong(Math.min(maxBalance,
+        retryBudgetConfig.getMinRetriesPerSecond() * SCALE));
+    this.lastRefillNanos = new AtomicLong(nanoTime.getAsLong());
+  }
+
+  @Override
+  public void deposit() {
+    add(depositPerSuccess);
+  }
+
+  @Override
+  public boolean tryWithdraw() {
+    refill();
+    long current;
+    do {
+      current = balance.get();
+      if (current < SCALE) {
+        return false;
+      }
+    } while (!balance.compareAndSet(current, current - SCALE));
+    return true;
+  }
+
+  /**
+   * @return whole retries currently available.
+   */
+  public long getAvailableRetries() {
+    refill();
+    return balance.get() / SCALE;
+  }
+
+  private void refill() {
+    if (refillNanosPerToken == 0L) {
+      return;
+    }
+    final long now = nanoTime.getAsLong();
+    final long last = lastRefillNanos.get();
+    final long elapsed = now - last;
+    if (elapsed < refillNanosPerToken / SCALE) {
+      return;
+    }
+    // only the thread that claims the elapsed interval credits it
+    if (lastRefillNanos.compareAndSet(last, now)) {
+      // a longer interval cannot add more than a full balance
+      add(Math.min(elapsed, fullRefillNanos) * SCALE / refillNanosPerToken);
+    }
+  }
+
+  private void add(long milliTokens) {
+    if (milliTokens <= 0L) {
+      return;
+    }
+    long current;
+    long updated;
+    do {
+      current = balance.get();
+      updated = Math.min(maxBalance, current + milliTokens);
+    } while (updated != current && !balance.compareAndSet(current, updated));
+  }
+}
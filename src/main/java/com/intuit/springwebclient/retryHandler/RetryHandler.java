@@ -1,5 +1,7 @@
 package com.intuit.springwebclient.retryHandler;
 
+import reactor.core.publisher.Mono;
+
 /**
  * Interface for handling retries
  */
@@ -11,4 +13,17 @@ public interface RetryHandler {
    */
   void checkAndThrowRetriableException(Exception ex);
   String getName();
+
+  /**
+   * Decides whether a failed attempt is retried, before the retry filter of the request is
+   * consulted. Called for every failed attempt of a request with retry handlers, and may complete
+   * asynchronously, e.g. after looking up the state of the downstream.
+   *
+   * @param ex failure of the attempt.
+   * @return true to retry, false to give up, empty to leave the decision to the next handler of
+   * the chain and then to the retry filter.
+   */
+  default Mono<Boolean> isRetriable(Throwable ex) {
+    return Mono.empty();
+  }
 }
@@ -0,0 +1,95 @@
+package com.intuit.springwebclient.retryHandler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Retry handlers of a request, resolved once by the {@link RetryHandlerRegistry} so that a failed
+ * call invokes them without looking them up by name.
+ *
+ * <p>The handlers overriding {@link RetryHandler#isRetriable(Throwable)} are found when the chain
+ * is built: a chain without any skips the retry decision entirely.
+ */
+public final class RetryHandlerChain {
+
+  /**
+   * Chain of a request without retry handlers.
+   */
+  public static final RetryHandlerChain EMPTY = new RetryHandlerChain(List.of());
+
+  private final RetryHandler[] handlers;
+  private final RetryHandler[] retryDeciders;
+
+  RetryHandlerChain(List<RetryHandler> handlers) {
+    this.handlers = handlers.toArray(new RetryHandler[0]);
+    final List<RetryHandler> deciders = new ArrayList<>();
+    for (RetryHandler handler : this.handlers) {
+      if (decidesRetries(handler)) {
+        deciders.add(handler);
+      }
+    }
+    this.retryDeciders = deciders.toArray(new RetryHandler[0]);
+  }
+
+  /**
+   * @return true if the chain has no handler.
+   */
+  public boolean isEmpty() {
+    return handlers.length == 0;
+  }
+
+  /**
+   * @return true if a handler of the chain takes part in retry decisions.
+   */
+  public boolean decidesRetries() {
+    return retryDeciders.length > 0;
+  }
+
+  /**
+   * Invokes every handler, in order, once the retries of a request are exhausted.
+   *
+   * @param ex final failure of the request.
+   */
+  public void checkAndThrowRetriableException(Exception ex) {
+    for (RetryHandler handler : handlers) {
+      handler.checkAndThrowRetriableException(ex);
+    }
+  }
+
+  /**
+   * Asks the handlers, in order, whether a failed attempt is retried. The first decision wins.
+   *
+   * @param ex failure of the attempt.
+   * @return decision of the first handler that makes one, empty if none does.
+   */
+  public Mono<Boolean> isRetriable(Throwable ex) {
+    if (retryDeciders.length == 1) {
+      return decision(retryDeciders[0], ex);
+    }
+    return Flux.fromArray(retryDeciders)
+        .concatMap(handler -> decision(handler, ex))
+        .next();
+  }
+
+  @Override
+  public String toString() {
+    return Arrays.stream(handlers).map(RetryHandler::getName).toList().toString();
+  }
+
+  private static Mono<Boolean> decision(RetryHandler handler, Throwable ex) {
+    final Mono<Boolean> decision = handler.isRetriable(ex);
+    return decision != null ? decision : Mono.empty();
+  }
+
+  private static boolean decidesRetries(RetryHandler handler) {
+    try {
+      return handler.getClass().getMethod("isRetriable", Throwable.class).getDeclaringClass()
+          != RetryHandler.class;
+    } catch (NoSuchMethodException ex) {
+      return false;
+    }
+  }
+}
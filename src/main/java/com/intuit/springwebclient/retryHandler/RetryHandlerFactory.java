@@ -3,16 +3,20 @@ package com.intuit.springwebclient.retryHandler;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This class has the utility to get the retry handler implementation based on the name
+ *
+ * @deprecated RetryHandler beans are registered in the {@link RetryHandlerRegistry} on startup.
+ * Handlers added here are still resolved for names the registry does not know.
  */
+@Deprecated
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class RetryHandlerFactory {
 
-  private static final Map<String, RetryHandler> RETRY_HANDLER_MAP = new HashMap<>();
+  private static final Map<String, RetryHandler> RETRY_HANDLER_MAP = new ConcurrentHashMap<>();
 
   /**
    * Adds a retry handler.
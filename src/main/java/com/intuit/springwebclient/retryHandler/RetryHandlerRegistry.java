@@ -0,0 +1,116 @@
+package com.intuit.springwebclient.retryHandler;
+
+import com.intuit.springwebclient.entity.ClientHttpRequest;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Retry handlers by name, built once from the RetryHandler beans of the application context and
+ * never modified afterwards, so that request threads read it without synchronization.
+ *
+ * <p>The handler names of a request are resolved into a {@link RetryHandlerChain} once per distinct
+ * list of names, and the chain is reused by every request naming the same handlers. Requests can
+ * also carry a chain resolved ahead of time with {@link #chain(List)}. Names unknown to the
+ * registry are looked up in the deprecated {@link RetryHandlerFactory}, and a name found in
+ * neither fails the request when its handlers are invoked, as before.
+ */
+public class RetryHandlerRegistry {
+
+  private final Map<String, RetryHandler> handlers;
+  private final ConcurrentMap<List<String>, RetryHandlerChain> chains = new ConcurrentHashMap<>();
+
+  public RetryHandlerRegistry(Collection<? extends RetryHandler> retryHandlers) {
+    final Map<String, RetryHandler> handlersByName = new HashMap<>();
+    if (retryHandlers != null) {
+      for (RetryHandler handler : retryHandlers) {
+        final RetryHandler duplicate = handlersByName.putIfAbsent(handler.getName(), handler);
+        if (duplicate != null && duplicate != handler) {
+          throw new IllegalStateException("Duplicate RetryHandler name " + handler.getName());
+        }
+      }
+    }
+    this.handlers = Map.copyOf(handlersByName);
+  }
+
+  /**
+   * @param handlerName name of the handler.
+   * @return the handler registered with the name, null if there is none.
+   */
+  @SuppressWarnings("deprecation")
+  public RetryHandler getHandler(String handlerName) {
+    final RetryHandler handler = handlers.get(handlerName);
+    return handler != null ? handler : RetryHandlerFactory.getHandler(handlerName);
+  }
+
+  /**
+   * Resolves retry handlers ahead of time, to be set as the
+   * {@link ClientHttpRequest#getRetryHandlerChain() retryHandlerChain} of requests.
+   *
+   * @param handlerNames names of the handlers, in the order they are invoked.
+   * @return chain of the handlers.
+   */
+  public RetryHandlerChain chain(List<String> handlerNames) {
+    if (handlerNames == null || handlerNames.isEmpty()) {
+      return RetryHandlerChain.EMPTY;
+    }
+    RetryHandlerChain chain = chains.get(handlerNames);
+    if (chain != null) {
+      return chain;
+    }
+    final List<RetryHandler> resolved = new ArrayList<>(handlerNames.size());
+    boolean complete = true;
+    for (String handlerName : handlerNames) {
+      final RetryHandler handler = getHandler(handlerName);
+      if (handler == null) {
+        complete = false;
+        resolved.add(new MissingRetryHandler(handlerName));
+      } else {
+        resolved.add(handler);
+      }
+    }
+    chain = new RetryHandlerChain(resolved);
+    if (complete) {
+      // a missing handler may still be added to the RetryHandlerFactory, those chains are not kept
+      chains.putIfAbsent(List.copyOf(handlerNames), chain);
+    }
+    return chain;
+  }
+
+  /**
+   * @param httpRequest the request.
+   * @return the retry handler chain of the request, or the chain of its retry handler names.
+   */
+  public RetryHandlerChain chain(ClientHttpRequest<?, ?> httpRequest) {
+    if (httpRequest.getRetryHandlerChain() != null) {
+      return httpRequest.getRetryHandlerChain();
+    }
+    return chain(httpRequest.getRetryHandlers());
+  }
+
+  /**
+   * Stands for a handler name that was not registered, failing the request when it is invoked.
+   */
+  private static final class MissingRetryHandler implements RetryHandler {
+
+    private final String name;
+
+    private MissingRetryHandler(String name) {
+      this.name = name;
+    }
+
+    @Override
+    public void checkAndThrowRetriableException(Exception ex) {
+      throw new IllegalStateException("No RetryHandler registered with name " + name);
+    }
+
+    @Override
+    public String getName() {
+      return name;
+    }
+  }
+}
@@ -2,4 +2,5 @@ package com.intuit.springwebclient.util;
 
 public final class WebClientConstants {
     public static final String CONNECTION_PROVIDER_NAME = "CustomConnectionProvider";
+    public static final String ROUTE_ATTRIBUTE = "rwebpulse.route"; // ClientHttpRequest.route as a request attribute, for filters recording metrics
 }
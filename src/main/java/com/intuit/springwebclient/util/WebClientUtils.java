@@ -0,0 +1,75 @@
+package com.intuit.springwebclient.util;
+
+import com.intuit.springwebclient.entity.ClientHttpRequest;
+import java.util.List;
+import java.util.TreeMap;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Allocation-light helpers used on the request path.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class WebClientUtils {
+
+  public static final String UNKNOWN_HOST = "unknown";
+
+  /**
+   * Extracts the authority (host and port, without user info) of a url without parsing it into a
+   * {@link java.net.URI}.
+   *
+   * @param url absolute request url
+   * @return host[:port] of the url, or {@link #UNKNOWN_HOST} if it has none
+   */
+  public static String getHost(String url) {
+    if (url == null) {
+      return UNKNOWN_HOST;
+    }
+    int schemeEnd = url.indexOf("://");
+    if (schemeEnd < 0) {
+      return UNKNOWN_HOST;
+    }
+    int start = schemeEnd + 3;
+    int end = url.length();
+    for (int i = start; i < url.length(); i++) {
+      char c = url.charAt(i);
+      if (c == '/' || c == '?' || c == '#') {
+        end = i;
+        break;
+      }
+      if (c == '@') {
+        start = i + 1;
+      }
+    }
+    return end > start ? url.substring(start, end) : UNKNOWN_HOST;
+  }
+
+  /**
+   * Builds a key identifying the response of a request: its method, url, client profile, response
+   * type and request headers.
+   *
+   * @param httpRequest request to key
+   * @param keyHeaders  request headers that are part of the key, all headers when empty
+   * @return key of the request
+   */
+  public static String getRequestKey(ClientHttpRequest<?, ?> httpRequest, List<String> keyHeaders) {
+    final StringBuilder key = new StringBuilder(128)
+        .append(httpRequest.getHttpMethod().name()).append(' ')
+        .append(httpRequest.getUrl()).append(' ')
+        .append(httpRequest.getClientProfile()).append(' ')
+        .append(httpRequest.getResponseType().getType().getTypeName());
+    final HttpHeaders requestHeaders = httpRequest.getRequestHeaders();
+    if (keyHeaders.isEmpty()) {
+      // sorted, so that the header order of the caller does not matter
+      new TreeMap<>(requestHeaders).forEach((name, values) -> appendHeader(key, name, values));
+    } else {
+      keyHeaders.forEach(name -> appendHeader(key, name, requestHeaders.get(name)));
+    }
+    return key.toString();
+  }
+
+  private static void appendHeader(StringBuilder key, String name, List<String> values) {
+    key.append('\n').append(name.toLowerCase()).append(':').append(values);
+  }
+}
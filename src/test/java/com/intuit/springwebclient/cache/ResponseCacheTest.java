@@ -0,0 +1,159 @@
+package com.intuit.springwebclient.cache;
+
+import com.intuit.springwebclient.config.ResponseCacheConfig;
+import com.intuit.springwebclient.entity.ClientHttpRequest;
+import com.intuit.springwebclient.metrics.WebClientMetrics;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+public class ResponseCacheTest {
+
+    private static final ClientHttpRequest<Void, String> GET_REQUEST = ClientHttpRequest.<Void, String>builder()
+            .url("https://abc.com/countries")
+            .route("countries")
+            .build();
+
+    private WebClientMetrics webClientMetrics;
+    private ResponseCache responseCache;
+
+    @BeforeEach
+    void setUp() {
+        webClientMetrics = Mockito.mock(WebClientMetrics.class);
+        responseCache = new ResponseCache(config(2), webClientMetrics);
+    }
+
+    @Test
+    public void testFreshResponseIsServed() {
+        String key = responseCache.getKey(GET_REQUEST);
+        Assertions.assertNull(responseCache.get(key, "abc.com", "countries"));
+
+        ResponseEntity<String> responseEntity = ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5))).body("countries");
+        Assertions.assertSame(responseEntity, responseCache.update(key, null, responseEntity, "abc.com", "countries"));
+
+        CachedResponse cachedResponse = responseCache.get(key, "abc.com", "countries");
+        Assertions.assertTrue(cachedResponse.isFresh(System.nanoTime()));
+        Assertions.assertEquals("countries", cachedResponse.getResponseEntity().getBody());
+        Mockito.verify(webClientMetrics).recordCacheMiss("abc.com", "countries");
+        Mockito.verify(webClientMetrics).recordCacheHit("abc.com", "countries");
+    }
+
+    @Test
+    public void testNotCacheable() {
+        Assertions.assertNull(responseCache.getKey(GET_REQUEST.toBuilder().httpMethod(HttpMethod.POST).build()));
+        Assertions.assertNull(new ResponseCache(new ResponseCacheConfig(), webClientMetrics).getKey(GET_REQUEST));
+
+        String key = responseCache.getKey(GET_REQUEST);
+        responseCache.update(key, null, ResponseEntity.ok().cacheControl(CacheControl.noStore()).body("a"), "abc.com", null);
+        responseCache.update(key, null, ResponseEntity.ok().body("b"), "abc.com", null);
+        responseCache.update(key, null, ResponseEntity.status(HttpStatus.CREATED)
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5))).body("c"), "abc.com", null);
+        Assertions.assertEquals(0, responseCache.size());
+    }
+
+    @Test
+    public void testVaryOnHeaderOutsideKeyIsNotCached() {
+        ResponseCacheConfig responseCacheConfig = config(2);
+        responseCacheConfig.setKeyHeaders(List.of("Authorization"));
+        ResponseCache keyedCache = new ResponseCache(responseCacheConfig, webClientMetrics);
+        String key = keyedCache.getKey(GET_REQUEST);
+
+        keyedCache.update(key, null, ResponseEntity.ok().varyBy("Accept-Language")
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5))).body("pays"), "abc.com", null);
+        Assertions.assertEquals(0, keyedCache.size());
+
+        keyedCache.update(key, null, ResponseEntity.ok().varyBy("authorization", "Accept-Encoding")
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5))).body("countries"), "abc.com", null);
+        Assertions.assertEquals(1, keyedCache.size());
+        responseCache.update(key, null, ResponseEntity.ok().varyBy("Accept-Language")
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5))).body("pays"), "abc.com", null);
+        Assertions.assertEquals(1, responseCache.size(), "every request header is part of the key");
+    }
+
+    @Test
+    public void testRevalidation() {
+        String key = responseCache.getKey(GET_REQUEST);
+        ResponseEntity<String> responseEntity = ResponseEntity.ok().eTag("\"v1\"").lastModified(1_000_000L)
+                .cacheControl(CacheControl.noCache()).body("countries");
+        responseCache.update(key, null, responseEntity, "abc.com", null);
+        CachedResponse stale = responseCache.get(key, "abc.com", null);
+        Assertions.assertFalse(stale.isFresh(System.nanoTime()));
+        Assertions.assertFalse(stale.isStaleWhileRevalidate(System.nanoTime()));
+
+        HttpHeaders conditionalHeaders = stale.toConditionalRequest(GET_REQUEST).getRequestHeaders();
+        Assertions.assertEquals("\"v1\"", conditionalHeaders.getIfNoneMatch().get(0));
+        Assertions.assertEquals(1_000_000L, conditionalHeaders.getIfModifiedSince());
+        Assertions.assertTrue(GET_REQUEST.getRequestHeaders().isEmpty(), "the caller's headers should not change");
+
+        ResponseEntity<String> notModified = ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(1))).build();
+        Assertions.assertSame(responseEntity, responseCache.update(key, stale, notModified, "abc.com", null));
+        Assertions.assertTrue(responseCache.get(key, "abc.com", null).isFresh(System.nanoTime()));
+    }
+
+    @Test
+    public void testStaleWhileRevalidate() {
+        String key = responseCache.getKey(GET_REQUEST);
+        responseCache.update(key, null, ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ZERO).staleWhileRevalidate(Duration.ofMinutes(1)))
+                .body("countries"), "abc.com", null);
+
+        CachedResponse cachedResponse = responseCache.get(key, "abc.com", null);
+        Assertions.assertTrue(cachedResponse.isStaleWhileRevalidate(System.nanoTime()));
+        Assertions.assertTrue(cachedResponse.tryStartRevalidation());
+        Assertions.assertFalse(cachedResponse.tryStartRevalidation(), "a single revalidation should be in flight");
+        cachedResponse.endRevalidation();
+        Assertions.assertTrue(cachedResponse.tryStartRevalidation());
+        Mockito.verify(webClientMetrics).recordCacheHit("abc.com", null);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEviction() {
+        ResponseEntity<String> responseEntity = ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5))).body("x");
+        String first = responseCache.getKey(GET_REQUEST.toBuilder().url("https://abc.com/1").build());
+        String second = responseCache.getKey(GET_REQUEST.toBuilder().url("https://abc.com/2").build());
+        String third = responseCache.getKey(GET_REQUEST.toBuilder().url("https://abc.com/3").build());
+        responseCache.update(first, null, responseEntity, "abc.com", "first");
+        responseCache.update(second, null, responseEntity, "abc.com", "second");
+        responseCache.get(first, "abc.com", "first");
+        responseCache.update(third, null, responseEntity, "abc.com", "third");
+
+        Assertions.assertEquals(2, responseCache.size());
+        Assertions.assertNotNull(responseCache.get(first, "abc.com", "first"));
+        Mockito.verify(webClientMetrics).recordCacheEviction("abc.com", "second");
+    }
+
+    @Test
+    public void testSegmentsShareMaxEntries() {
+        ResponseCache segmentedCache = new ResponseCache(config(1000), webClientMetrics);
+        ResponseEntity<String> responseEntity = ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5))).body("x");
+
+        for (int i = 0; i < 3000; i++) {
+            segmentedCache.update(segmentedCache.getKey(GET_REQUEST.toBuilder().url("https://abc.com/" + i).build()),
+                    null, responseEntity, "abc.com", null);
+        }
+
+        Assertions.assertTrue(segmentedCache.size() <= 1000, "size " + segmentedCache.size());
+        Assertions.assertTrue(segmentedCache.size() > 900, "size " + segmentedCache.size());
+        String last = segmentedCache.getKey(GET_REQUEST.toBuilder().url("https://abc.com/2999").build());
+        Assertions.assertNotNull(segmentedCache.get(last, "abc.com", null), "most recent entry is kept");
+    }
+
+    private static ResponseCacheConfig config(int maxEntries) {
+        ResponseCacheConfig responseCacheConfig = new ResponseCacheConfig();
+        responseCacheConfig.setEnabled(true);
+        responseCacheConfig.setMaxEntries(maxEntries);
+        return responseCacheConfig;
+    }
+}
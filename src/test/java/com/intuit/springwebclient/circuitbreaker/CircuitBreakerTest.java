@@ -0,0 +1,187 @@
+package com.intuit.springwebclient.circuitbreaker;
+
+import com.intuit.springwebclient.config.CircuitBreakerConfig;
+import com.intuit.springwebclient.context.RequestDeadline;
+import com.intuit.springwebclient.exception.CircuitBreakerOpenException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+public class CircuitBreakerTest {
+
+    @Test
+    public void testOpensOnFailureRate() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("abc.com", config(10, 50, 60000L, 2));
+
+        for (int i = 0; i < 5; i++) {
+            circuitBreaker.protect(Mono.just("ok")).block();
+        }
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        for (int i = 0; i < 4; i++) {
+            callFailing(circuitBreaker, 503);
+        }
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState(), "4 of 9 calls failed");
+        callFailing(circuitBreaker, 500);
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState(), "5 of 10 calls failed");
+
+        StepVerifier.create(circuitBreaker.protect(Mono.just("ok")))
+                .expectError(CircuitBreakerOpenException.class)
+                .verify();
+    }
+
+    @Test
+    public void testClientErrorsAreNotFailures() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("abc.com", config(4, 50, 60000L, 2));
+
+        for (int i = 0; i < 10; i++) {
+            callFailing(circuitBreaker, 404);
+        }
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    public void testSlidingWindowForgetsOldFailures() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("abc.com", config(4, 75, 60000L, 2));
+
+        callFailing(circuitBreaker, 500);
+        callFailing(circuitBreaker, 500);
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.protect(Mono.just("ok")).block();
+        }
+        callFailing(circuitBreaker, 500);
+        callFailing(circuitBreaker, 500);
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState(), "2 of the last 4 calls failed");
+        callFailing(circuitBreaker, 500);
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState(), "3 of the last 4 calls failed");
+    }
+
+    @Test
+    public void testHalfOpenClosesAfterSuccessfulTrialCalls() throws InterruptedException {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("abc.com", config(2, 50, 20L, 2));
+        callFailing(circuitBreaker, 500);
+        callFailing(circuitBreaker, 500);
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+        Thread.sleep(40);
+        Assertions.assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.acquirePermission());
+        Assertions.assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.acquirePermission());
+        Assertions.assertNull(circuitBreaker.acquirePermission(), "only 2 trial calls are permitted");
+        circuitBreaker.onResult(CircuitBreaker.State.HALF_OPEN, false, 0);
+        circuitBreaker.onResult(CircuitBreaker.State.HALF_OPEN, false, 0);
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    public void testHalfOpenReopensOnFailedTrialCalls() throws InterruptedException {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("abc.com", config(2, 50, 20L, 2));
+        callFailing(circuitBreaker, 500);
+        callFailing(circuitBreaker, 500);
+
+        Thread.sleep(40);
+        callFailing(circuitBreaker, 500);
+        circuitBreaker.protect(Mono.just("ok")).block();
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    public void testSlowCallsOpenCircuit() {
+        CircuitBreakerConfig config = config(2, 100, 60000L, 2);
+        config.setSlowCallRateThreshold(50);
+        config.setSlowCallDurationThreshold(10L);
+        CircuitBreaker circuitBreaker = new CircuitBreaker("abc.com", config);
+
+        circuitBreaker.protect(Mono.just("ok").delayElement(Duration.ofMillis(30))).block();
+        circuitBreaker.protect(Mono.just("ok")).block();
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    public void testCallsCancelledByDeadlineAreRecorded() {
+        CircuitBreaker failing = new CircuitBreaker("abc.com", config(2, 50, 60000L, 2));
+        CircuitBreakerConfig slowConfig = config(2, 100, 60000L, 2);
+        slowConfig.setSlowCallRateThreshold(50);
+        slowConfig.setSlowCallDurationThreshold(10L);
+        CircuitBreaker slow = new CircuitBreaker("abc.com", slowConfig);
+
+        for (int i = 0; i < 2; i++) {
+            callTimingOut(failing, Duration.ofMillis(20));
+        }
+        callTimingOut(slow, Duration.ofMillis(30));
+        slow.protect(Mono.just("ok")).block();
+
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, failing.getState(), "cancelled calls are failures");
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, slow.getState(), "cancelled after the slow call duration");
+    }
+
+    @Test
+    public void testOtherCancelsOnlyReleasePermission() throws InterruptedException {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("abc.com", config(2, 50, 20L, 1));
+
+        for (int i = 0; i < 2; i++) {
+            // cancelled like a losing hedge or the siblings of a fail fast batch
+            circuitBreaker.protect(Mono.never()).subscribe().dispose();
+            circuitBreaker.protect(Mono.never()).timeout(Duration.ofMillis(10)).onErrorResume(ex -> Mono.empty()).block();
+        }
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState(), "no outcome recorded");
+
+        callFailing(circuitBreaker, 500);
+        callFailing(circuitBreaker, 500);
+        Thread.sleep(40);
+        circuitBreaker.protect(Mono.never()).subscribe().dispose();
+        Assertions.assertEquals("ok", circuitBreaker.protect(Mono.just("ok")).block(), "the trial permit is restored");
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    public void testStreamRecordsBodyOutcome() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("abc.com", config(2, 50, 60000L, 2));
+
+        circuitBreaker.protectStream(Mono.just(Flux.range(1, 100))).flatMapMany(body -> body).take(1).blockLast();
+        circuitBreaker.protectStream(Mono.just(Flux.range(1, 100))).flatMapMany(body -> body).blockLast();
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState(), "cancelled by the consumer");
+
+        circuitBreaker.protectStream(Mono.just(Flux.error(new IllegalStateException("connection reset"))))
+                .flatMapMany(body -> body).onErrorResume(ex -> Mono.empty()).blockLast();
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState(), "the body failed");
+    }
+
+    @Test
+    public void testRegistry() {
+        CircuitBreakerConfig disabled = new CircuitBreakerConfig();
+        disabled.setEnabled(false);
+        CircuitBreakerRegistry registry = new CircuitBreakerRegistry(new CircuitBreakerConfig(),
+                Map.of("payments", disabled));
+
+        Assertions.assertSame(registry.getCircuitBreaker("abc.com"), registry.getCircuitBreaker("abc.com"));
+        Assertions.assertEquals("abc.com", registry.getCircuitBreaker("abc.com").getName());
+        Assertions.assertSame(CircuitBreaker.DISABLED, registry.getCircuitBreaker("payments"));
+        Assertions.assertSame(CircuitBreaker.DISABLED, new CircuitBreakerRegistry(null, null).getCircuitBreaker("abc.com"));
+    }
+
+    private static void callTimingOut(CircuitBreaker circuitBreaker, Duration timeout) {
+        RequestDeadline.apply(circuitBreaker.protect(Mono.never()), timeout).onErrorResume(ex -> Mono.empty()).block();
+    }
+
+    private static void callFailing(CircuitBreaker circuitBreaker, int status) {
+        circuitBreaker.protect(Mono.error(WebClientResponseException.create(status, "error",
+                new HttpHeaders(), new byte[0], StandardCharsets.UTF_8))).onErrorResume(ex -> Mono.empty()).block();
+    }
+
+    private static CircuitBreakerConfig config(int windowSize, int failureRateThreshold, Long waitDurationInOpenState,
+            int permittedCallsInHalfOpenState) {
+        CircuitBreakerConfig config = new CircuitBreakerConfig();
+        config.setSlidingWindowSize(windowSize);
+        config.setMinimumNumberOfCalls(windowSize);
+        config.setFailureRateThreshold(failureRateThreshold);
+        config.setWaitDurationInOpenState(waitDurationInOpenState);
+        config.setPermittedCallsInHalfOpenState(permittedCallsInHalfOpenState);
+        return config;
+    }
+}
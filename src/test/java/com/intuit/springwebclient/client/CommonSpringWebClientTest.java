@@ -1,40 +1,104 @@
 package com.intuit.springwebclient.client;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.anyString;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.intuit.springwebclient.cache.ResponseCache;
+import com.intuit.springwebclient.circuitbreaker.CircuitBreaker;
+import com.intuit.springwebclient.circuitbreaker.CircuitBreakerRegistry;
+import com.intuit.springwebclient.coalescing.DefaultCoalescingKeyFunction;
+import com.intuit.springwebclient.coalescing.RequestCoalescer;
+import com.intuit.springwebclient.concurrency.ConcurrencyLimiterRegistry;
+import com.intuit.springwebclient.config.CircuitBreakerConfig;
+import com.intuit.springwebclient.config.CoalescingConfig;
+import com.intuit.springwebclient.config.ErrorLoggingConfig;
+import com.intuit.springwebclient.config.ConcurrencyLimitConfig;
+import com.intuit.springwebclient.config.HedgingConfig;
+import com.intuit.springwebclient.config.RateLimitConfig;
+import com.intuit.springwebclient.config.ResponseCacheConfig;
+import com.intuit.springwebclient.config.RetryBudgetConfig;
+import com.intuit.springwebclient.config.SyncExecutionConfig;
+import com.intuit.springwebclient.config.WebClientHedgeConfig;
 import com.intuit.springwebclient.config.WebClientRetryConfig;
+import com.intuit.springwebclient.entity.ClientHttpBatchOptions;
+import com.intuit.springwebclient.entity.ClientHttpBatchResponse;
 import com.intuit.springwebclient.entity.ClientHttpRequest;
 import com.intuit.springwebclient.entity.ClientHttpResponse;
+import com.intuit.springwebclient.entity.enums.WebClientErrorType;
+import com.intuit.springwebclient.exception.CircuitBreakerOpenException;
+import com.intuit.springwebclient.exception.ConcurrencyLimitExceededException;
+import com.intuit.springwebclient.exception.RateLimitExceededException;
+import com.intuit.springwebclient.exception.RequestTimeoutException;
+import com.intuit.springwebclient.execution.SyncExecutor;
+import com.intuit.springwebclient.hedging.RequestHedger;
+import com.intuit.springwebclient.logging.ErrorLogger;
+import com.intuit.springwebclient.metrics.WebClientMetrics;
+import com.intuit.springwebclient.ratelimit.RateLimiterRegistry;
+import com.intuit.springwebclient.retry.RetryBudgetRegistry;
 import com.intuit.springwebclient.retryHandler.RetryHandler;
 import com.intuit.springwebclient.retryHandler.RetryHandlerFactory;
+import com.intuit.springwebclient.retryHandler.RetryHandlerRegistry;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.slf4j.MDC;
+import org.slf4j.helpers.BasicMDCAdapter;
+import org.slf4j.helpers.NOPMDCAdapter;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.MultipartBodyBuilder;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.mock.http.client.reactive.MockClientHttpRequest;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.UnknownContentTypeException;
+import org.springframework.web.reactive.function.BodyInserter;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 import reactor.test.StepVerifier;
 
 @ExtendWith(MockitoExtension.class)
@@ -52,10 +116,49 @@ public class CommonSpringWebClientTest {
   private WebClient.ResponseSpec responseSpec;
   @Mock
   private RetryHandler retryHandler;
+  @Mock
+  private WebClientMetrics webClientMetrics;
+  @Spy
+  private RetryBudgetRegistry retryBudgetRegistry = new RetryBudgetRegistry(
+      new RetryBudgetConfig());
+  @Spy
+  private CircuitBreakerRegistry circuitBreakerRegistry = new CircuitBreakerRegistry(null, null);
+  @Spy
+  private WebClientProfiles webClientProfiles = new WebClientProfiles(Map.of(), List.of());
+  @Spy
+  private RequestCoalescer requestCoalescer = new RequestCoalescer(new CoalescingConfig(), null,
+      WebClientMetrics.NOOP);
+  @Spy
+  private ResponseCache responseCache = new ResponseCache(new ResponseCacheConfig(),
+      WebClientMetrics.NOOP);
+  @Spy
+  private RequestHedger requestHedger = new RequestHedger(new HedgingConfig(),
+      WebClientMetrics.NOOP);
+  @Spy
+  private ConcurrencyLimiterRegistry concurrencyLimiterRegistry = new ConcurrencyLimiterRegistry(
+      new ConcurrencyLimitConfig(), WebClientMetrics.NOOP);
+  @Spy
+  private RateLimiterRegistry rateLimiterRegistry = new RateLimiterRegistry(null, null);
+  @Spy
+  private SyncExecutor syncExecutor = new SyncExecutor(new SyncExecutionConfig());
+  @Spy
+  private ErrorLogger errorLogger = new ErrorLogger(new ErrorLoggingConfig());
+  @Spy
+  private RetryHandlerRegistry retryHandlerRegistry = new RetryHandlerRegistry(List.of());
 
   @InjectMocks
   private CommonSpringWebClient commonSpringWebClient;
 
+  @BeforeAll
+  static void setUpMdc() throws ReflectiveOperationException {
+    // no SLF4J 1.7 binding is on the test classpath, MDC would silently discard every value
+    if (MDC.getMDCAdapter() instanceof NOPMDCAdapter) {
+      Field mdcAdapter = MDC.class.getDeclaredField("mdcAdapter");
+      mdcAdapter.setAccessible(true);
+      mdcAdapter.set(null, new BasicMDCAdapter());
+    }
+  }
+
   @BeforeEach
   void setUp() {
     // Clear MDC before each test
@@ -140,8 +243,8 @@ public class CommonSpringWebClientTest {
     // Then
     assertNotNull(response);
     assertTrue(response.isSuccess2xx());
-    // MDC should be cleared after the operation
-    assertTrue(MDC.get("test-key") == null);
+    // MDC of the calling thread should be left untouched
+    assertEquals("test-value", MDC.get("test-key"));
   }
 
   @Test
@@ -157,8 +260,71 @@ public class CommonSpringWebClientTest {
         .expectNextMatches(response -> response.isSuccess2xx())
         .verifyComplete();
 
-    // MDC should be cleared after the operation
-    assertTrue(MDC.get("test-key") == null);
+    // MDC of the calling thread should be left untouched
+    assertEquals("test-value", MDC.get("test-key"));
+  }
+
+  @Test
+  public void testAsyncHttpResponseRestoresMdcOnlyAroundDelivery() {
+    // Given
+    Scheduler scheduler = Schedulers.newSingle("mdc-test");
+    // start the thread before the MDC is set, so that it does not inherit it
+    Mono.empty().subscribeOn(scheduler).block();
+    MDC.put("test-key", "test-value");
+    ClientHttpRequest<String, String> clientHttpRequest = createClientHttpRequest().build();
+    setupWebClientMock();
+    mockSuccessfulResponse();
+
+    try {
+      // When
+      String mdcOnDelivery = commonSpringWebClient.asyncHttpResponse(clientHttpRequest)
+          .subscribeOn(scheduler)
+          .map(response -> String.valueOf(MDC.get("test-key")))
+          .block();
+      String mdcAfterDelivery = Mono.fromCallable(() -> String.valueOf(MDC.get("test-key")))
+          .subscribeOn(scheduler)
+          .block();
+
+      // Then
+      assertEquals("test-value", mdcOnDelivery);
+      assertEquals("null", mdcAfterDelivery);
+    } finally {
+      scheduler.dispose();
+    }
+  }
+
+  @Test
+  public void testCoalescedCallersReceiveTheirOwnMdc() {
+    // Given
+    CoalescingConfig coalescingConfig = new CoalescingConfig();
+    coalescingConfig.setEnabled(true);
+    CommonSpringWebClient coalescingClient = new CommonSpringWebClient(webClient,
+        webClientMetrics, retryBudgetRegistry, circuitBreakerRegistry, webClientProfiles,
+        new RequestCoalescer(coalescingConfig, new DefaultCoalescingKeyFunction(null),
+            WebClientMetrics.NOOP),
+        responseCache, requestHedger, concurrencyLimiterRegistry, rateLimiterRegistry,
+        syncExecutor, errorLogger, retryHandlerRegistry);
+    ClientHttpRequest<String, String> clientHttpRequest = createClientHttpRequest().build();
+    setupWebClientMock();
+    Sinks.One<ResponseEntity<String>> downstream = Sinks.one();
+    when(responseSpec.toEntity(any(ParameterizedTypeReference.class)))
+        .thenReturn(downstream.asMono());
+    String[] mdcOnDelivery = new String[2];
+
+    // When
+    MDC.put("test-key", "leader");
+    coalescingClient.asyncHttpResponse(clientHttpRequest)
+        .subscribe(response -> mdcOnDelivery[0] = MDC.get("test-key"));
+    MDC.put("test-key", "follower");
+    coalescingClient.asyncHttpResponse(clientHttpRequest)
+        .subscribe(response -> mdcOnDelivery[1] = MDC.get("test-key"));
+    MDC.clear();
+    downstream.tryEmitValue(ResponseEntity.ok("test-response"));
+
+    // Then
+    assertEquals("leader", mdcOnDelivery[0]);
+    assertEquals("follower", mdcOnDelivery[1]);
+    assertEquals(null, MDC.get("test-key"));
   }
 
   @Test
@@ -470,11 +636,710 @@ public class CommonSpringWebClientTest {
     }
   }
 
+  @Test
+  public void testRetryHandlerBeanInvokedOnFailure() {
+    // Given: the handler is registered as a bean, not in the RetryHandlerFactory
+    CommonSpringWebClient handlingClient = new CommonSpringWebClient(webClient, webClientMetrics,
+        retryBudgetRegistry, circuitBreakerRegistry, webClientProfiles, requestCoalescer,
+        responseCache, requestHedger, concurrencyLimiterRegistry, rateLimiterRegistry,
+        syncExecutor, errorLogger, new RetryHandlerRegistry(List.of(retryHandler)));
+    ClientHttpRequest<String, String> clientHttpRequest = createClientHttpRequest()
+        .retryHandlers(Arrays.asList("testHandler"))
+        .build();
+    setupWebClientMock();
+    mockWebClientResponseException();
+
+    // When
+    ClientHttpResponse<String> response = handlingClient.syncHttpResponse(clientHttpRequest);
+
+    // Then
+    assertEquals(HttpStatus.NOT_FOUND, response.getStatus());
+    verify(retryHandler).checkAndThrowRetriableException(any(WebClientResponseException.class));
+  }
+
+  @Test
+  public void testMetricsRecordedOnSuccess() {
+    // Given
+    ClientHttpRequest<String, String> clientHttpRequest = createClientHttpRequest()
+        .url("https://abc.com/v1/orders")
+        .route("get-orders")
+        .build();
+    setupWebClientMock("https://abc.com/v1/orders");
+    mockSuccessfulResponse();
+
+    // When
+    commonSpringWebClient.syncHttpResponse(clientHttpRequest);
+
+    // Then
+    verify(webClientMetrics).recordRequest(eq("abc.com"), eq("get-orders"), eq(HttpMethod.GET),
+        eq(HttpStatus.OK), anyLong());
+  }
+
+  @Test
+  public void testMetricsRecordedOnError() {
+    // Given
+    ClientHttpRequest<String, String> clientHttpRequest = createClientHttpRequest().build();
+    setupWebClientMock();
+    mockGenericException();
+
+    // When
+    ClientHttpResponse<String> response = commonSpringWebClient.syncHttpResponse(
+        clientHttpRequest);
+
+    // Then
+    assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatus());
+    verify(webClientMetrics).recordError("unknown", null, WebClientErrorType.UNHANDLED);
+    verify(webClientMetrics).recordRequest(eq("unknown"), eq(null), eq(HttpMethod.GET),
+        eq(HttpStatus.INTERNAL_SERVER_ERROR), anyLong());
+  }
+
+  @Test
+  public void testErrorBodyTruncatedWhenFullErrorBodyDisabled() {
+    // Given
+    ErrorLoggingConfig errorLoggingConfig = new ErrorLoggingConfig();
+    errorLoggingConfig.setMaxBodyLength(3);
+    errorLoggingConfig.setFullErrorBody(false);
+    CommonSpringWebClient truncatingClient = new CommonSpringWebClient(webClient,
+        webClientMetrics, retryBudgetRegistry, circuitBreakerRegistry, webClientProfiles,
+        requestCoalescer, responseCache, requestHedger, concurrencyLimiterRegistry,
+        rateLimiterRegistry, syncExecutor, new ErrorLogger(errorLoggingConfig),
+        retryHandlerRegistry);
+    ClientHttpRequest<String, String> clientHttpRequest = createClientHttpRequest().build();
+    setupWebClientMock();
+    mockWebClientResponseException();
+
+    // When
+    ClientHttpResponse<String> truncated = truncatingClient.syncHttpResponse(clientHttpRequest);
+    ClientHttpResponse<String> full = commonSpringWebClient.syncHttpResponse(clientHttpRequest);
+
+    // Then
+    assertEquals("Not...(6 more characters)", truncated.getError());
+    assertEquals("Not Found", full.getError());
+    assertEquals(HttpStatus.NOT_FOUND, truncated.getStatus());
+  }
+
+  @Test
+  public void testRetryDeniedByRetryBudget() {
+    // Given: an empty budget that does not refill
+    RetryBudgetConfig retryBudgetConfig = new RetryBudgetConfig();
+    retryBudgetConfig.setEnabled(true);
+    retryBudgetConfig.setMinRetriesPerSecond(0);
+    CommonSpringWebClient budgetedClient = new CommonSpringWebClient(webClient, webClientMetrics,
+        new RetryBudgetRegistry(retryBudgetConfig), circuitBreakerRegistry,
+        webClientProfiles, requestCoalescer,
+        responseCache, requestHedger, concurrencyLimiterRegistry, rateLimiterRegistry,
+        syncExecutor, errorLogger, retryHandlerRegistry);
+    ClientHttpRequest<String, String> clientHttpRequest = createClientHttpRequest()
+        .clientRetryConfig(WebClientRetryConfig.builder()
+            .maxAttempts(3)
+            .retryFilter(ex -> true)
+            .build())
+        .build();
+    setupWebClientMock();
+    mockGenericException();
+
+    // When
+    ClientHttpResponse<String> response = budgetedClient.syncHttpResponse(clientHttpRequest);
+
+    // Then
+    assertTrue(!response.isSuccess2xx());
+    verify(webClientMetrics).recordRetryDenied("unknown", null);
+    verify(webClientMetrics, Mockito.never()).recordRetry(anyString(), any());
+  }
+
+  @Test
+  public void testCircuitBreakerFailsFastWhenOpen() {
+    // Given: a circuit breaker that opens after a single failure
+    CircuitBreakerConfig circuitBreakerConfig = new CircuitBreakerConfig();
+    circuitBreakerConfig.setSlidingWindowSize(1);
+    circuitBreakerConfig.setMinimumNumberOfCalls(1);
+    CommonSpringWebClient protectedClient = new CommonSpringWebClient(webClient, webClientMetrics,
+        retryBudgetRegistry, new CircuitBreakerRegistry(null,
+        Map.of("payments", circuitBreakerConfig)), webClientProfiles, requestCoalescer,
+        responseCache, requestHedger, concurrencyLimiterRegistry, rateLimiterRegistry,
+        syncExecutor, errorLogger, retryHandlerRegistry);
+    ClientHttpRequest<String, String> clientHttpRequest = createClientHttpRequest()
+        .clientName("payments")
+        .build();
+    setupWebClientMock();
+    mockGenericException();
+
+    // When
+    ClientHttpResponse<String> failed = protectedClient.syncHttpResponse(clientHttpRequest);
+    ClientHttpResponse<String> rejected = protectedClient.syncHttpResponse(clientHttpRequest);
+
+    // Then
+    assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, failed.getStatus());
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rejected.getStatus());
+    assertTrue(rejected.getException() instanceof CircuitBreakerOpenException);
+    verify(webClientMetrics).recordError("unknown", null,
+        WebClientErrorType.CIRCUIT_BREAKER_OPEN);
+  }
+
+  @Test
+  public void testClientProfileSelectsProfileWebClient() {
+    // Given: the default client is not wired, only the "slow" profile is
+    CommonSpringWebClient profiledClient = new CommonSpringWebClient(mock(WebClient.class),
+        webClientMetrics, retryBudgetRegistry, circuitBreakerRegistry,
+        new WebClientProfiles(Map.of("slow", webClient), List.of()), requestCoalescer,
+        responseCache, requestHedger, concurrencyLimiterRegistry, rateLimiterRegistry,
+        syncExecutor, errorLogger, retryHandlerRegistry);
+    ClientHttpRequest<String, String> clientHttpRequest = createClientHttpRequest()
+        .clientProfile("slow")
+        .build();
+    setupWebClientMock();
+    mockSuccessfulResponse();
+
+    // When
+    ClientHttpResponse<String> response = profiledClient.syncHttpResponse(clientHttpRequest);
+
+    // Then
+    assertTrue(response.isSuccess2xx());
+    verify(webClient).method(HttpMethod.GET);
+  }
+
+  @Test
+  public void testUnknownClientProfile() {
+    ClientHttpRequest<String, String> clientHttpRequest = createClientHttpRequest()
+        .clientProfile("missing")
+        .build();
+
+    assertThrows(IllegalArgumentException.class,
+        () -> commonSpringWebClient.asyncHttpResponse(clientHttpRequest));
+  }
+
+  @Test
+  public void testRequestTimeoutSpansRetries() {
+    // Given: a downstream that never answers
+    ClientHttpRequest<String, String> clientHttpRequest = createClientHttpRequest()
+        .timeout(Duration.ofMillis(200))
+        .build();
+    setupWebClientMock();
+    when(responseSpec.toEntity(any(ParameterizedTypeReference.class))).thenReturn(Mono.never());
+
+    // When
+    ClientHttpResponse<String> response = commonSpringWebClient.syncHttpResponse(clientHttpRequest);
+
+    // Then
+    assertEquals(HttpStatus.GATEWAY_TIMEOUT, response.getStatus());
+    assertTrue(response.getException() instanceof RequestTimeoutException);
+    verify(webClientMetrics).recordError("unknown", null, WebClientErrorType.REQUEST_TIMEOUT);
+  }
+
+  @Test
+  public void testResponseCacheServesFreshAndRevalidatesStaleResponses() {
+    // Given: a cacheable response followed by a 304 Not Modified
+    ResponseCacheConfig responseCacheConfig = new ResponseCacheConfig();
+    responseCacheConfig.setEnabled(true);
+    CommonSpringWebClient cachingClient = new CommonSpringWebClient(webClient, webClientMetrics,
+        retryBudgetRegistry, circuitBreakerRegistry, webClientProfiles, requestCoalescer,
+        new ResponseCache(responseCacheConfig, webClientMetrics), requestHedger,
+        concurrencyLimiterRegistry, rateLimiterRegistry,
+        syncExecutor, errorLogger, retryHandlerRegistry);
+    ClientHttpRequest<String, String> clientHttpRequest = createClientHttpRequest().build();
+    setupWebClientMock();
+    when(responseSpec.toEntity(any(ParameterizedTypeReference.class)))
+        .thenReturn(Mono.just(ResponseEntity.ok().eTag("\"v1\"").cacheControl(
+            CacheControl.noCache()).body("cached-response")))
+        .thenReturn(Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).build()));
+
+    // When
+    ClientHttpResponse<String> first = cachingClient.syncHttpResponse(clientHttpRequest);
+    ClientHttpResponse<String> revalidated = cachingClient.syncHttpResponse(clientHttpRequest);
+
+    // Then: the stale response was revalidated with its ETag and served from the cache
+    assertEquals("cached-response", first.getResponse());
+    assertEquals(HttpStatus.OK, revalidated.getStatus());
+    assertEquals("cached-response", revalidated.getResponse());
+    ArgumentCaptor<Consumer<HttpHeaders>> headersCaptor = ArgumentCaptor.forClass(Consumer.class);
+    verify(requestBodyUriSpec, Mockito.times(2)).headers(headersCaptor.capture());
+    HttpHeaders conditionalHeaders = new HttpHeaders();
+    headersCaptor.getValue().accept(conditionalHeaders);
+    assertEquals("\"v1\"", conditionalHeaders.getIfNoneMatch().get(0));
+    verify(webClientMetrics, Mockito.times(2)).recordCacheMiss("unknown", null);
+  }
+
+  @Test
+  public void testStreamHttpResponse() {
+    // Given
+    ClientHttpRequest<String, String> clientHttpRequest = createClientHttpRequest().build();
+    setupWebClientMock();
+    when(responseSpec.toEntityFlux(any(ParameterizedTypeReference.class)))
+        .thenReturn(Mono.just(ResponseEntity.ok(Flux.just("first", "second"))));
+
+    // When / Then
+    StepVerifier.create(commonSpringWebClient.streamHttpResponse(clientHttpRequest), 1)
+        .expectNext("first")
+        .thenRequest(1)
+        .expectNext("second")
+        .verifyComplete();
+    verify(webClientMetrics).recordRequest(eq("unknown"), eq(null), eq(HttpMethod.GET),
+        eq(HttpStatus.OK), anyLong());
+  }
+
+  @Test
+  public void testStreamHttpResponseRetriesUntilHeadersAreReceived() {
+    // Given: a 503 on the first attempt
+    ClientHttpRequest<String, String> clientHttpRequest = createClientHttpRequest()
+        .clientRetryConfig(WebClientRetryConfig.builder()
+            .maxAttempts(2)
+            .backOff(0)
+            .retryFilter(ex -> ex instanceof WebClientResponseException)
+            .build())
+        .build();
+    setupWebClientMock();
+    AtomicInteger attempts = new AtomicInteger();
+    when(responseSpec.toEntityFlux(any(ParameterizedTypeReference.class)))
+        .thenReturn(Mono.defer(() -> attempts.incrementAndGet() == 1
+            ? Mono.error(WebClientResponseException.create(503, "Service Unavailable",
+                new HttpHeaders(), new byte[0], null))
+            : Mono.just(ResponseEntity.ok(Flux.just("first")))));
+
+    // When / Then
+    StepVerifier.create(commonSpringWebClient.streamHttpResponse(clientHttpRequest))
+        .expectNext("first")
+        .verifyComplete();
+    assertEquals(2, attempts.get());
+  }
+
+  @Test
+  public void testStreamHttpResponseError() {
+    // Given
+    ClientHttpRequest<String, String> clientHttpRequest = createClientHttpRequest().build();
+    setupWebClientMock();
+    when(responseSpec.toEntityFlux(any(ParameterizedTypeReference.class)))
+        .thenReturn(Mono.just(ResponseEntity.ok(Flux.concat(Flux.just("first"),
+            Flux.error(new IllegalStateException("connection reset"))))));
+
+    // When / Then: elements already emitted are not repeated
+    StepVerifier.create(commonSpringWebClient.streamHttpResponse(clientHttpRequest))
+        .expectNext("first")
+        .verifyError(IllegalStateException.class);
+    verify(webClientMetrics).recordError("unknown", null, WebClientErrorType.UNHANDLED);
+  }
+
+  @Test
+  public void testStreamHttpResponseBodyErrorRecordedAndHandled() {
+    // Given: a circuit breaker that opens after a single failure and a retry handler that throws
+    CircuitBreakerConfig circuitBreakerConfig = new CircuitBreakerConfig();
+    circuitBreakerConfig.setSlidingWindowSize(1);
+    circuitBreakerConfig.setMinimumNumberOfCalls(1);
+    CircuitBreakerRegistry breakers = new CircuitBreakerRegistry(null,
+        Map.of("payments", circuitBreakerConfig));
+    CommonSpringWebClient protectedClient = new CommonSpringWebClient(webClient, webClientMetrics,
+        retryBudgetRegistry, breakers, webClientProfiles, requestCoalescer, responseCache,
+        requestHedger, concurrencyLimiterRegistry, rateLimiterRegistry, syncExecutor, errorLogger,
+        new RetryHandlerRegistry(List.of(retryHandler)));
+    ClientHttpRequest<String, String> clientHttpRequest = createClientHttpRequest()
+        .clientName("payments")
+        .retryHandlers(Arrays.asList("testHandler"))
+        .build();
+    setupWebClientMock();
+    when(responseSpec.toEntityFlux(any(ParameterizedTypeReference.class)))
+        .thenReturn(Mono.just(ResponseEntity.ok(Flux.concat(Flux.just("first"),
+            Flux.error(new IllegalStateException("connection reset"))))));
+    Mockito.doThrow(new UnsupportedOperationException("retriable")).when(retryHandler)
+        .checkAndThrowRetriableException(any(IllegalStateException.class));
+
+    // When / Then: the failure of the body opens the circuit, the retry handler decides the error
+    StepVerifier.create(protectedClient.streamHttpResponse(clientHttpRequest))
+        .expectNext("first")
+        .verifyError(UnsupportedOperationException.class);
+    assertEquals(CircuitBreaker.State.OPEN, breakers.getCircuitBreaker("payments").getState());
+  }
+
+  @Test
+  public void testDownloadToFile(@TempDir Path tempDir) throws IOException {
+    // Given
+    Path path = tempDir.resolve("report.csv");
+    ClientHttpRequest<String, Path> clientHttpRequest = ClientHttpRequest.<String, Path>builder()
+        .url("test-url")
+        .build();
+    setupWebClientMock();
+    DefaultDataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+    when(responseSpec.toEntityFlux(DataBuffer.class)).thenReturn(Mono.just(ResponseEntity.ok(
+        Flux.just(bufferFactory.wrap("id,name\n".getBytes()),
+            bufferFactory.wrap("1,first\n".getBytes())))));
+
+    // When
+    ClientHttpResponse<Path> response = commonSpringWebClient.downloadToFile(clientHttpRequest,
+        path).block();
+
+    // Then
+    assertTrue(response.isSuccess2xx());
+    assertEquals(path, response.getResponse());
+    assertEquals("id,name\n1,first\n", Files.readString(path));
+  }
+
+  @Test
+  public void testDownloadToFileFailureDeletesFile(@TempDir Path tempDir) throws IOException {
+    // Given: the body fails after the first buffer was written
+    Path path = tempDir.resolve("report.csv");
+    ClientHttpRequest<String, Path> clientHttpRequest = ClientHttpRequest.<String, Path>builder()
+        .url("test-url")
+        .build();
+    setupWebClientMock();
+    when(responseSpec.toEntityFlux(DataBuffer.class)).thenReturn(Mono.just(ResponseEntity.ok(
+        Flux.concat(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap("id".getBytes())),
+            Flux.error(new IllegalStateException("connection reset"))))));
+
+    // When
+    ClientHttpResponse<Path> response = commonSpringWebClient.downloadToFile(clientHttpRequest,
+        path).block();
+
+    // Then
+    assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatus());
+    assertTrue(Files.notExists(path));
+    try (Stream<Path> files = Files.list(tempDir)) {
+      assertEquals(0, files.count(), "the temporary file is deleted");
+    }
+  }
+
+  @Test
+  public void testDownloadToFileKeepsExistingFileUntilComplete(@TempDir Path tempDir)
+      throws IOException {
+    // Given: a previous download, a failed request and then a successful one
+    Path path = Files.writeString(tempDir.resolve("report.csv"), "previous");
+    ClientHttpRequest<String, Path> clientHttpRequest = ClientHttpRequest.<String, Path>builder()
+        .url("test-url")
+        .build();
+    setupWebClientMock();
+    when(responseSpec.toEntityFlux(DataBuffer.class))
+        .thenReturn(Mono.error(WebClientResponseException.create(404, "Not Found", null, null,
+            null)))
+        .thenReturn(Mono.just(ResponseEntity.ok(
+            Flux.just(DefaultDataBufferFactory.sharedInstance.wrap("id,name\n".getBytes())))));
+
+    // When
+    ClientHttpResponse<Path> failed = commonSpringWebClient.downloadToFile(clientHttpRequest,
+        path).block();
+    String afterFailure = Files.readString(path);
+    ClientHttpResponse<Path> response = commonSpringWebClient.downloadToFile(clientHttpRequest,
+        path).block();
+
+    // Then
+    assertEquals(HttpStatus.NOT_FOUND, failed.getStatus());
+    assertEquals("previous", afterFailure);
+    assertTrue(response.isSuccess2xx());
+    assertEquals("id,name\n", Files.readString(path));
+    try (Stream<Path> files = Files.list(tempDir)) {
+      assertEquals(1, files.count(), "no temporary file is left");
+    }
+  }
+
+  @Test
+  public void testRawHttpResponse() {
+    // Given
+    ClientHttpRequest<String, DataBuffer> clientHttpRequest = ClientHttpRequest
+        .<String, DataBuffer>builder()
+        .url("test-url")
+        .build();
+    setupWebClientMock();
+    DataBuffer buffer = DefaultDataBufferFactory.sharedInstance.wrap("raw".getBytes());
+    when(responseSpec.toEntityFlux(ParameterizedTypeReference.forType(DataBuffer.class)))
+        .thenReturn(Mono.just(ResponseEntity.ok(Flux.just(buffer))));
+
+    // When / Then
+    StepVerifier.create(commonSpringWebClient.rawHttpResponse(clientHttpRequest))
+        .expectNext(buffer)
+        .verifyComplete();
+  }
+
+  @Test
+  public void testFileRequestBody(@TempDir Path tempDir) throws IOException {
+    // Given
+    Path path = Files.writeString(tempDir.resolve("upload.csv"), "id,name\n");
+    ClientHttpRequest<String, String> clientHttpRequest = createClientHttpRequest()
+        .request(null)
+        .requestFile(path)
+        .build();
+    setupWebClientMock();
+    mockSuccessfulResponse();
+
+    // When
+    ClientHttpResponse<String> response = commonSpringWebClient.syncHttpResponse(clientHttpRequest);
+
+    // Then
+    assertTrue(response.isSuccess2xx());
+    verify(requestBodySpec).body(any(BodyInserter.class));
+    verify(requestBodySpec, Mockito.never()).body(any(Mono.class),
+        any(ParameterizedTypeReference.class));
+  }
+
+  @Test
+  public void testDataBufferPublisherRequestBodyWithoutRequestType() {
+    // Given: a Flux of DataBuffers without a request type
+    ClientHttpRequest<DataBuffer, String> clientHttpRequest = ClientHttpRequest.<DataBuffer, String>builder()
+        .url("test-url")
+        .requestPublisher(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap("raw".getBytes())))
+        .build();
+    setupWebClientMock();
+    mockSuccessfulResponse();
+
+    // When
+    commonSpringWebClient.syncHttpResponse(clientHttpRequest);
+
+    // Then: the buffers are written as is, not encoded as JSON
+    ArgumentCaptor<BodyInserter<?, ? super org.springframework.http.client.reactive.ClientHttpRequest>> inserter =
+        ArgumentCaptor.forClass(BodyInserter.class);
+    verify(requestBodySpec).body(inserter.capture());
+    MockClientHttpRequest request = new MockClientHttpRequest(HttpMethod.POST, "/");
+    inserter.getValue().insert(request, new BodyInserter.Context() {
+      @Override
+      public List<HttpMessageWriter<?>> messageWriters() {
+        return ExchangeStrategies.withDefaults().messageWriters();
+      }
+
+      @Override
+      public Optional<ServerHttpRequest> serverRequest() {
+        return Optional.empty();
+      }
+
+      @Override
+      public Map<String, Object> hints() {
+        return Map.of();
+      }
+    }).block();
+    assertEquals("raw", request.getBodyAsString().block());
+  }
+
+  @Test
+  public void testPublisherRequestBodyIsNotRetried() {
+    // Given: retries on 503, with a body publisher that cannot be replayed
+    Flux<String> requestPublisher = Flux.just("first", "second");
+    ClientHttpRequest<String, String> clientHttpRequest = createClientHttpRequest()
+        .request(null)
+        .requestPublisher(requestPublisher)
+        .clientRetryConfig(WebClientRetryConfig.builder()
+            .maxAttempts(3)
+            .backOff(0)
+            .retryFilter(ex -> ex instanceof WebClientResponseException)
+            .build())
+        .build();
+    setupWebClientMock();
+    AtomicInteger attempts = mockServiceUnavailableResponses();
+
+    // When
+    ClientHttpResponse<String> response = commonSpringWebClient.syncHttpResponse(clientHttpRequest);
+
+    // Then
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatus());
+    assertEquals(1, attempts.get());
+    verify(requestBodySpec).body(requestPublisher, ParameterizedTypeReference.forType(String.class));
+  }
+
+  @Test
+  public void testReplayablePublisherRequestBodyIsRetried() {
+    // Given
+    ClientHttpRequest<String, String> clientHttpRequest = createClientHttpRequest()
+        .request(null)
+        .requestPublisher(Flux.just("first", "second"))
+        .replayableRequestPublisher(true)
+        .clientRetryConfig(WebClientRetryConfig.builder()
+            .maxAttempts(2)
+            .backOff(0)
+            .retryFilter(ex -> ex instanceof WebClientResponseException)
+            .build())
+        .build();
+    setupWebClientMock();
+    AtomicInteger attempts = mockServiceUnavailableResponses();
+
+    // When
+    commonSpringWebClient.syncHttpResponse(clientHttpRequest);
+
+    // Then
+    assertEquals(3, attempts.get());
+  }
+
+  @Test
+  public void testMultipartRequestBodyReplayable() {
+    MultipartBodyBuilder multipartBodyBuilder = new MultipartBodyBuilder();
+    multipartBodyBuilder.part("name", "report");
+    assertTrue(createClientHttpRequest().multipartBody(multipartBodyBuilder.build()).build()
+        .isRequestBodyReplayable());
+
+    multipartBodyBuilder.asyncPart("rows", Flux.just("first", "second"), String.class);
+    assertFalse(createClientHttpRequest().multipartBody(multipartBodyBuilder.build()).build()
+        .isRequestBodyReplayable());
+  }
+
+  @Test
+  public void testBatchHttpResponseBoundsConcurrencyAndKeepsOrder() {
+    // Given: responses completing in reverse order of the requests
+    setupWebClientMock();
+    AtomicInteger attempts = new AtomicInteger();
+    AtomicInteger inFlight = new AtomicInteger();
+    AtomicInteger maxInFlight = new AtomicInteger();
+    when(responseSpec.toEntity(any(ParameterizedTypeReference.class)))
+        .thenReturn(Mono.defer(() -> Mono.delay(
+                Duration.ofMillis(50 - 10L * attempts.getAndIncrement()))
+            .doOnSubscribe(subscription -> maxInFlight.accumulateAndGet(inFlight.incrementAndGet(),
+                Math::max))
+            .doOnTerminate(inFlight::decrementAndGet)
+            .thenReturn(ResponseEntity.ok("test-response"))));
+    List<ClientHttpRequest<String, String>> httpRequests = List.of(
+        createClientHttpRequest().build(), createClientHttpRequest().build(),
+        createClientHttpRequest().build(), createClientHttpRequest().build());
+
+    // When
+    List<ClientHttpBatchResponse<String, String>> responses = commonSpringWebClient
+        .batchHttpResponse(httpRequests, ClientHttpBatchOptions.builder()
+            .maxConcurrency(2)
+            .ordered(true)
+            .build())
+        .collectList().block();
+
+    // Then
+    assertEquals(List.of(0, 1, 2, 3), responses.stream().map(ClientHttpBatchResponse::getIndex)
+        .toList());
+    assertTrue(responses.stream().allMatch(response -> response.getResponse().isSuccess2xx()));
+    assertEquals(httpRequests.get(2), responses.get(2).getRequest());
+    assertEquals(2, maxInFlight.get());
+  }
+
+  @Test
+  public void testBatchHttpResponseFailFast() {
+    // Given: the second request fails
+    setupWebClientMock();
+    AtomicInteger attempts = new AtomicInteger();
+    when(responseSpec.toEntity(any(ParameterizedTypeReference.class)))
+        .thenReturn(Mono.defer(() -> attempts.incrementAndGet() == 2
+            ? Mono.error(WebClientResponseException.create(503, "Service Unavailable",
+                new HttpHeaders(), new byte[0], null))
+            : Mono.just(ResponseEntity.ok("test-response"))));
+
+    // When
+    List<ClientHttpBatchResponse<String, String>> responses = commonSpringWebClient
+        .batchHttpResponse(Flux.range(0, 5).map(i -> createClientHttpRequest().build()),
+            ClientHttpBatchOptions.builder()
+                .maxConcurrency(1)
+                .failFast(true)
+                .build())
+        .collectList().block();
+
+    // Then: the batch stops at the failed response
+    assertEquals(2, responses.size());
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE, responses.get(1).getResponse().getStatus());
+    assertEquals(2, attempts.get());
+  }
+
+  @Test
+  public void testBatchHttpResponseTimeout() {
+    // Given: a downstream that never answers
+    setupWebClientMock();
+    when(responseSpec.toEntity(any(ParameterizedTypeReference.class))).thenReturn(Mono.never());
+
+    // When
+    List<ClientHttpBatchResponse<String, String>> responses = commonSpringWebClient
+        .batchHttpResponse(List.of(createClientHttpRequest().build(),
+            createClientHttpRequest().build(), createClientHttpRequest().build()),
+            ClientHttpBatchOptions.builder()
+                .maxConcurrency(1)
+                .timeout(Duration.ofMillis(100))
+                .build())
+        .collectList().block(Duration.ofSeconds(5));
+
+    // Then: the request in flight is cancelled and the others are not sent
+    assertEquals(3, responses.size());
+    assertTrue(responses.stream().allMatch(response ->
+        response.getResponse().getStatus() == HttpStatus.GATEWAY_TIMEOUT));
+    verify(responseSpec).toEntity(any(ParameterizedTypeReference.class));
+    verify(webClientMetrics, Mockito.times(3)).recordError("unknown", null,
+        WebClientErrorType.REQUEST_TIMEOUT);
+  }
+
+  @Test
+  public void testHedgedRequestWinsOverSlowResponse() {
+    // Given: the first request never answers, the hedge answers at once
+    CommonSpringWebClient hedgingClient = new CommonSpringWebClient(webClient, webClientMetrics,
+        retryBudgetRegistry, circuitBreakerRegistry, webClientProfiles, requestCoalescer,
+        responseCache, new RequestHedger(new HedgingConfig(), webClientMetrics),
+        concurrencyLimiterRegistry, rateLimiterRegistry,
+        syncExecutor, errorLogger, retryHandlerRegistry);
+    ClientHttpRequest<String, String> clientHttpRequest = createClientHttpRequest()
+        .hedgeConfig(WebClientHedgeConfig.builder()
+            .delay(Duration.ofMillis(20))
+            .build())
+        .build();
+    setupWebClientMock();
+    AtomicInteger attempts = new AtomicInteger();
+    when(responseSpec.toEntity(any(ParameterizedTypeReference.class)))
+        .thenReturn(Mono.defer(() -> attempts.incrementAndGet() == 1
+            ? Mono.never() : Mono.just(ResponseEntity.ok("hedge-response"))));
+
+    // When
+    ClientHttpResponse<String> response = hedgingClient.asyncHttpResponse(clientHttpRequest)
+        .block(Duration.ofSeconds(5));
+
+    // Then
+    assertEquals("hedge-response", response.getResponse());
+    assertEquals(2, attempts.get());
+    verify(webClientMetrics).recordHedge("unknown", null);
+    verify(webClientMetrics).recordHedgeWon("unknown", null);
+  }
+
+  @Test
+  public void testConcurrencyLimitRejectsExcessRequests() {
+    // Given: a limit of one request in flight and a downstream that never answers
+    ConcurrencyLimitConfig concurrencyLimitConfig = new ConcurrencyLimitConfig();
+    concurrencyLimitConfig.setEnabled(true);
+    concurrencyLimitConfig.setInitialLimit(1);
+    CommonSpringWebClient limitedClient = new CommonSpringWebClient(webClient, webClientMetrics,
+        retryBudgetRegistry, circuitBreakerRegistry, webClientProfiles, requestCoalescer,
+        responseCache, requestHedger,
+        new ConcurrencyLimiterRegistry(concurrencyLimitConfig, webClientMetrics),
+        rateLimiterRegistry, syncExecutor, errorLogger, retryHandlerRegistry);
+    ClientHttpRequest<String, String> clientHttpRequest = createClientHttpRequest().build();
+    setupWebClientMock();
+    when(responseSpec.toEntity(any(ParameterizedTypeReference.class))).thenReturn(Mono.never());
+    limitedClient.asyncHttpResponse(clientHttpRequest).subscribe();
+
+    // When
+    ClientHttpResponse<String> response = limitedClient.syncHttpResponse(clientHttpRequest);
+
+    // Then
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatus());
+    assertTrue(response.getException() instanceof ConcurrencyLimitExceededException);
+    verify(webClientMetrics).recordError("unknown", null, WebClientErrorType.CONCURRENCY_LIMITED);
+  }
+
+  @Test
+  public void testRateLimitRejectsRequestsOverQuota() {
+    // Given: one request per minute, without waiting
+    RateLimitConfig rateLimitConfig = new RateLimitConfig();
+    rateLimitConfig.setPermitsPerSecond(1d / 60);
+    rateLimitConfig.setBurst(1);
+    rateLimitConfig.setMaxWaitMillis(0);
+    CommonSpringWebClient limitedClient = new CommonSpringWebClient(webClient, webClientMetrics,
+        retryBudgetRegistry, circuitBreakerRegistry, webClientProfiles, requestCoalescer,
+        responseCache, requestHedger, concurrencyLimiterRegistry,
+        new RateLimiterRegistry(null, Map.of("quota", rateLimitConfig)), syncExecutor, errorLogger, retryHandlerRegistry);
+    ClientHttpRequest<String, String> clientHttpRequest = createClientHttpRequest()
+        .clientName("quota")
+        .build();
+    setupWebClientMock();
+    mockSuccessfulResponse();
+
+    // When
+    ClientHttpResponse<String> first = limitedClient.syncHttpResponse(clientHttpRequest);
+    ClientHttpResponse<String> second = limitedClient.syncHttpResponse(clientHttpRequest);
+
+    // Then
+    assertTrue(first.isSuccess2xx());
+    assertEquals(HttpStatus.TOO_MANY_REQUESTS, second.getStatus());
+    assertTrue(second.getException() instanceof RateLimitExceededException);
+    verify(webClientMetrics).recordError("unknown", null, WebClientErrorType.RATE_LIMITED);
+  }
+
   // Helper methods for mocking
   private void setupWebClientMock() {
+    setupWebClientMock("test-url");
+  }
+
+  private void setupWebClientMock(String url) {
     // Mock the complete WebClient chain with body
     lenient().when(webClient.method(HttpMethod.GET)).thenReturn(requestBodyUriSpec);
-    lenient().when(requestBodyUriSpec.uri("test-url")).thenReturn(requestBodyUriSpec);
+    lenient().when(requestBodyUriSpec.uri(url)).thenReturn(requestBodyUriSpec);
     lenient().when(requestBodyUriSpec.headers(any())).thenReturn(requestBodySpec);
     lenient().when(requestBodySpec.body(any(Mono.class), any(ParameterizedTypeReference.class)))
         .thenReturn(headersSpec);
@@ -497,10 +1362,22 @@ public class CommonSpringWebClientTest {
         .thenReturn(Mono.just(responseEntity));
   }
 
+  private AtomicInteger mockServiceUnavailableResponses() {
+    AtomicInteger attempts = new AtomicInteger();
+    when(responseSpec.toEntity(any(ParameterizedTypeReference.class)))
+        .thenReturn(Mono.defer(() -> {
+          attempts.incrementAndGet();
+          return Mono.error(WebClientResponseException.create(503, "Service Unavailable",
+              new HttpHeaders(), new byte[0], null));
+        }));
+    return attempts;
+  }
+
   private void mockWebClientResponseException() {
     WebClientResponseException exception = mock(WebClientResponseException.class);
     when(exception.getResponseBodyAsString()).thenReturn("Not Found");
-    when(exception.getHeaders()).thenReturn(new HttpHeaders());
+    // headers are only read when the error message is logged
+    lenient().when(exception.getHeaders()).thenReturn(new HttpHeaders());
     when(exception.getStatusCode()).thenReturn(HttpStatus.NOT_FOUND);
 
     when(responseSpec.toEntity(ParameterizedTypeReference.forType(String.class)))
@@ -510,7 +1387,8 @@ public class CommonSpringWebClientTest {
   private void mockHttpStatusCodeException() {
     HttpClientErrorException exception = mock(HttpClientErrorException.class);
     when(exception.getResponseBodyAsString()).thenReturn("Not Found");
-    when(exception.getResponseHeaders()).thenReturn(new HttpHeaders());
+    // headers are only read when the error message is logged
+    lenient().when(exception.getResponseHeaders()).thenReturn(new HttpHeaders());
     when(exception.getStatusCode()).thenReturn(HttpStatus.NOT_FOUND);
 
     when(responseSpec.toEntity(ParameterizedTypeReference.forType(String.class)))
@@ -520,7 +1398,8 @@ public class CommonSpringWebClientTest {
   private void mockUnknownContentTypeException() {
     UnknownContentTypeException exception = mock(UnknownContentTypeException.class);
     when(exception.getResponseBodyAsString()).thenReturn("Unsupported Media Type");
-    when(exception.getResponseHeaders()).thenReturn(new HttpHeaders());
+    // headers are only read when the error message is logged
+    lenient().when(exception.getResponseHeaders()).thenReturn(new HttpHeaders());
     when(exception.getRawStatusCode()).thenReturn(415);
 
     when(responseSpec.toEntity(ParameterizedTypeReference.forType(String.class)))
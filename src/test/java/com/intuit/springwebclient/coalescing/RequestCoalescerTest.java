@@ -0,0 +1,141 @@
+package com.intuit.springwebclient.coalescing;
+
+import com.intuit.springwebclient.config.CoalescingConfig;
+import com.intuit.springwebclient.entity.ClientHttpRequest;
+import com.intuit.springwebclient.entity.ClientHttpResponse;
+import com.intuit.springwebclient.metrics.WebClientMetrics;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+public class RequestCoalescerTest {
+
+    private static final ClientHttpRequest<Void, String> GET_REQUEST = ClientHttpRequest.<Void, String>builder()
+            .url("https://abc.com/orders/1")
+            .route("get-order")
+            .build();
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private Sinks.One<ClientHttpResponse<String>> downstream;
+    private WebClientMetrics webClientMetrics;
+
+    @BeforeEach
+    void setUp() {
+        downstream = Sinks.one();
+        webClientMetrics = Mockito.mock(WebClientMetrics.class);
+    }
+
+    @Test
+    public void testIdenticalRequestsShareOneCall() {
+        RequestCoalescer requestCoalescer = coalescer(10);
+
+        Mono<ClientHttpResponse<String>> first = requestCoalescer.coalesce(GET_REQUEST, this::call);
+        Mono<ClientHttpResponse<String>> second = requestCoalescer.coalesce(GET_REQUEST, this::call);
+        ClientHttpResponse<String>[] responses = new ClientHttpResponse[2];
+        first.subscribe(response -> responses[0] = response);
+        second.subscribe(response -> responses[1] = response);
+        Assertions.assertEquals(1, requestCoalescer.getInFlightCalls());
+
+        downstream.tryEmitValue(ClientHttpResponse.<String>builder().response("order").status(HttpStatus.OK).build());
+
+        Assertions.assertEquals(1, calls.get());
+        Assertions.assertSame(responses[0], responses[1]);
+        Assertions.assertEquals(0, requestCoalescer.getInFlightCalls());
+        Mockito.verify(webClientMetrics).recordCoalesced("abc.com", "get-order");
+    }
+
+    @Test
+    public void testMaxSubscribers() {
+        RequestCoalescer requestCoalescer = coalescer(2);
+
+        for (int i = 0; i < 3; i++) {
+            requestCoalescer.coalesce(GET_REQUEST, this::call).subscribe();
+        }
+
+        Assertions.assertEquals(2, calls.get(), "the third caller should send its own request");
+    }
+
+    @Test
+    public void testNewCallAfterCompletion() {
+        RequestCoalescer requestCoalescer = coalescer(10);
+        Supplier<Mono<ClientHttpResponse<String>>> call = () -> {
+            calls.incrementAndGet();
+            return Mono.just(ClientHttpResponse.<String>builder().status(HttpStatus.OK).build());
+        };
+
+        requestCoalescer.coalesce(GET_REQUEST, call).block();
+        requestCoalescer.coalesce(GET_REQUEST, call).block();
+
+        Assertions.assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testNewCallAfterCallersCancelled() {
+        RequestCoalescer requestCoalescer = coalescer(10);
+
+        Assertions.assertThrows(RuntimeException.class, () -> requestCoalescer.coalesce(GET_REQUEST, this::call)
+                .timeout(Duration.ofMillis(50))
+                .block(), "the leader times out");
+        Assertions.assertEquals(0, requestCoalescer.getInFlightCalls());
+        downstream = Sinks.one();
+        downstream.tryEmitValue(ClientHttpResponse.<String>builder().response("order").status(HttpStatus.OK).build());
+        ClientHttpResponse<String> response = requestCoalescer.coalesce(GET_REQUEST, this::call)
+                .block(Duration.ofSeconds(1));
+
+        Assertions.assertEquals("order", response.getResponse());
+        Assertions.assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testNonIdempotentAndDisabled() {
+        coalescer(10).coalesce(GET_REQUEST.toBuilder().httpMethod(HttpMethod.POST).build(), this::call).subscribe();
+        coalescer(10).coalesce(GET_REQUEST.toBuilder().httpMethod(HttpMethod.POST).build(), this::call).subscribe();
+        RequestCoalescer disabled = new RequestCoalescer(new CoalescingConfig(), null, webClientMetrics);
+        disabled.coalesce(GET_REQUEST, this::call).subscribe();
+        disabled.coalesce(GET_REQUEST, this::call).subscribe();
+
+        Assertions.assertEquals(4, calls.get());
+    }
+
+    @Test
+    public void testDefaultCoalescingKey() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("Authorization", "Bearer abc");
+        headers.add("X-Correlation-Id", "1");
+        ClientHttpRequest<Void, String> request = GET_REQUEST.toBuilder().requestHeaders(headers).build();
+        HttpHeaders otherHeaders = new HttpHeaders();
+        otherHeaders.add("X-Correlation-Id", "2");
+        otherHeaders.add("Authorization", "Bearer abc");
+        ClientHttpRequest<Void, String> otherRequest = GET_REQUEST.toBuilder().requestHeaders(otherHeaders).build();
+
+        CoalescingKeyFunction allHeaders = new DefaultCoalescingKeyFunction(null);
+        Assertions.assertNotEquals(allHeaders.coalescingKey(request), allHeaders.coalescingKey(otherRequest));
+
+        CoalescingKeyFunction authorizationOnly = new DefaultCoalescingKeyFunction(List.of("Authorization"));
+        Assertions.assertEquals(authorizationOnly.coalescingKey(request), authorizationOnly.coalescingKey(otherRequest));
+        Assertions.assertNotEquals(authorizationOnly.coalescingKey(request),
+                authorizationOnly.coalescingKey(request.toBuilder().url("https://abc.com/orders/2").build()));
+    }
+
+    private RequestCoalescer coalescer(int maxSubscribers) {
+        CoalescingConfig coalescingConfig = new CoalescingConfig();
+        coalescingConfig.setEnabled(true);
+        coalescingConfig.setMaxSubscribers(maxSubscribers);
+        return new RequestCoalescer(coalescingConfig, new DefaultCoalescingKeyFunction(null), webClientMetrics);
+    }
+
+    private Mono<ClientHttpResponse<String>> call() {
+        calls.incrementAndGet();
+        return downstream.asMono();
+    }
+}
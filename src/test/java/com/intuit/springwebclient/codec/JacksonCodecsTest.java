@@ -0,0 +1,57 @@
+package com.intuit.springwebclient.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.intuit.springwebclient.config.CodecConfig;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class JacksonCodecsTest {
+
+    @Test
+    public void testJsonOnlyByDefault() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        JacksonCodecs codecs = new JacksonCodecs(null, objectMapper);
+
+        Assertions.assertSame(objectMapper, codecs.getObjectMapper());
+        Assertions.assertNull(codecs.getAcceptHeader());
+    }
+
+    @Test
+    public void testDefaultMapperIsBuiltOnce() {
+        JacksonCodecs codecs = new JacksonCodecs(new CodecConfig(), null);
+
+        Assertions.assertNotNull(codecs.getObjectMapper());
+        Assertions.assertSame(codecs.getObjectMapper(), codecs.getObjectMapper());
+    }
+
+    @Test
+    public void testBlackbirdIsRegisteredOnACopy() throws Exception {
+        CodecConfig config = new CodecConfig();
+        config.setBlackbird(true);
+        config.setSmile(true);
+        ObjectMapper objectMapper = new ObjectMapper().setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE);
+
+        JacksonCodecs codecs = new JacksonCodecs(config, objectMapper);
+
+        Assertions.assertNotSame(objectMapper, codecs.getObjectMapper());
+        Assertions.assertTrue(objectMapper.getRegisteredModuleIds().isEmpty());
+        Assertions.assertFalse(codecs.getObjectMapper().getRegisteredModuleIds().isEmpty());
+        Assertions.assertEquals("{\"first_name\":\"Jane\"}",
+                codecs.getObjectMapper().writeValueAsString(new Person("Jane")));
+        Assertions.assertEquals("application/x-jackson-smile, application/json;q=0.9, */*;q=0.8",
+                codecs.getAcceptHeader());
+    }
+
+    public static class Person {
+        private final String firstName;
+
+        public Person(String firstName) {
+            this.firstName = firstName;
+        }
+
+        public String getFirstName() {
+            return firstName;
+        }
+    }
+}
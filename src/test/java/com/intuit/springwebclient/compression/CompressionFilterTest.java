@@ -0,0 +1,185 @@
+package com.intuit.springwebclient.compression;
+
+import com.github.luben.zstd.ZstdInputStream;
+import com.intuit.springwebclient.config.CompressionConfig;
+import com.intuit.springwebclient.entity.enums.ContentEncoding;
+import com.intuit.springwebclient.metrics.WebClientMetrics;
+import com.intuit.springwebclient.util.WebClientConstants;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+
+public class CompressionFilterTest {
+
+    private static final String PAYLOAD = "{\"items\":[" + "{\"name\":\"item\",\"status\":\"ACTIVE\"},".repeat(200) + "{}]}";
+
+    private final List<String> recorded = new ArrayList<>();
+    private final WebClientMetrics webClientMetrics = new WebClientMetrics() {
+        @Override
+        public void recordRequestCompression(String host, String route, long uncompressedBytes, long compressedBytes) {
+            recorded.add("request " + host + " " + route + " " + uncompressedBytes + " " + compressedBytes);
+        }
+
+        @Override
+        public void recordResponseDecompression(String host, String route, long compressedBytes, long uncompressedBytes) {
+            recorded.add("response " + host + " " + route + " " + compressedBytes + " " + uncompressedBytes);
+        }
+    };
+    private DisposableServer server;
+
+    @BeforeEach
+    void setUp() {
+        server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .compress(true)
+                .route(routes -> routes
+                        .get("/payload", (request, response) -> response.sendString(Mono.just(PAYLOAD)))
+                        //answers with the encoding and the decompressed request body, never compressed
+                        .post("/echo", (request, response) -> response
+                                .header("x-request-encoding", String.valueOf(request.requestHeaders().get(HttpHeaders.CONTENT_ENCODING)))
+                                .header(HttpHeaders.CONTENT_ENCODING, "identity")
+                                .sendString(request.receive().aggregate().asByteArray()
+                                        .map(body -> decompress(request.requestHeaders().get(HttpHeaders.CONTENT_ENCODING), body)))))
+                .bindNow();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.disposeNow();
+    }
+
+    @Test
+    public void testDecompressesResponses() {
+        for (ContentEncoding encoding : ContentEncoding.values()) {
+            CompressionConfig config = new CompressionConfig();
+            config.setResponseCompression(true);
+            config.setAcceptEncodings(List.of(encoding));
+            recorded.clear();
+
+            ResponseEntity<String> response = webClient(config).get()
+                    .uri(baseUrl() + "/payload")
+                    .attribute(WebClientConstants.ROUTE_ATTRIBUTE, "payload")
+                    .retrieve()
+                    .toEntity(String.class)
+                    .block(Duration.ofSeconds(5));
+
+            Assertions.assertEquals(PAYLOAD, response.getBody(), encoding.name());
+            Assertions.assertFalse(response.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING));
+            Assertions.assertEquals(1, recorded.size(), encoding.name());
+            String[] sizes = recorded.get(0).split(" ");
+            Assertions.assertEquals("response", sizes[0]);
+            Assertions.assertEquals("127.0.0.1:" + server.port(), sizes[1]);
+            Assertions.assertEquals("payload", sizes[2]);
+            Assertions.assertTrue(Long.parseLong(sizes[3]) < PAYLOAD.length() / 4, recorded.get(0));
+            Assertions.assertEquals(PAYLOAD.length(), Long.parseLong(sizes[4]));
+        }
+    }
+
+    @Test
+    public void testRequestAcceptEncodingIsKept() {
+        CompressionConfig config = new CompressionConfig();
+        config.setResponseCompression(true);
+
+        String body = webClient(config).get()
+                .uri(baseUrl() + "/payload")
+                .header(HttpHeaders.ACCEPT_ENCODING, "identity")
+                .retrieve()
+                .bodyToMono(String.class)
+                .block(Duration.ofSeconds(5));
+
+        Assertions.assertEquals(PAYLOAD, body);
+        Assertions.assertTrue(recorded.isEmpty(), "the response was not compressed");
+    }
+
+    @Test
+    public void testCompressesRequestBodiesAboveMinSize() {
+        for (ContentEncoding encoding : ContentEncoding.values()) {
+            CompressionConfig config = new CompressionConfig();
+            config.setRequestEncoding(encoding);
+            config.setRequestMinSize(1024);
+            recorded.clear();
+
+            ResponseEntity<String> large = echo(config, PAYLOAD);
+            ResponseEntity<String> small = echo(config, "{}");
+
+            Assertions.assertEquals(PAYLOAD, large.getBody());
+            Assertions.assertEquals(encoding.getHeaderValue(), large.getHeaders().getFirst("x-request-encoding"));
+            Assertions.assertEquals("{}", small.getBody());
+            Assertions.assertEquals("null", small.getHeaders().getFirst("x-request-encoding"));
+            Assertions.assertEquals(1, recorded.size(), encoding.name());
+            String[] sizes = recorded.get(0).split(" ");
+            Assertions.assertEquals("request", sizes[0]);
+            Assertions.assertEquals("null", sizes[2]);
+            Assertions.assertEquals(PAYLOAD.length(), Long.parseLong(sizes[3]));
+            Assertions.assertTrue(Long.parseLong(sizes[4]) < PAYLOAD.length() / 4, recorded.get(0));
+        }
+    }
+
+    @Test
+    public void testDisabledByDefault() {
+        Assertions.assertFalse(new CompressionFilter(new CompressionConfig(), webClientMetrics).isEnabled());
+        Assertions.assertFalse(new CompressionFilter(null, webClientMetrics).isEnabled());
+    }
+
+    private ResponseEntity<String> echo(CompressionConfig config, String body) {
+        return webClient(config).post()
+                .uri(baseUrl() + "/echo")
+                .header(HttpHeaders.CONTENT_TYPE, "application/json")
+                .bodyValue(body)
+                .retrieve()
+                .toEntity(String.class)
+                .block(Duration.ofSeconds(5));
+    }
+
+    private WebClient webClient(CompressionConfig config) {
+        //the default connector of WebClient decompresses gzip itself, the clients use HttpClient without compression
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create()))
+                .filter(new CompressionFilter(config, webClientMetrics))
+                .build();
+    }
+
+    private String baseUrl() {
+        return "http://127.0.0.1:" + server.port();
+    }
+
+    private static String decompress(String encoding, byte[] body) {
+        try (InputStream in = decompressing(encoding, new ByteArrayInputStream(body))) {
+            return new String(in.readAllBytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static InputStream decompressing(String encoding, InputStream body) throws IOException {
+        if (encoding == null) {
+            return body;
+        }
+        if (encoding.equals("gzip")) {
+            return new GZIPInputStream(body);
+        }
+        if (encoding.equals("deflate")) {
+            return new InflaterInputStream(body);
+        }
+        return new ZstdInputStream(body);
+    }
+}
@@ -0,0 +1,129 @@
+package com.intuit.springwebclient.concurrency;
+
+import com.intuit.springwebclient.config.ConcurrencyLimitConfig;
+import com.intuit.springwebclient.exception.ConcurrencyLimitExceededException;
+import com.intuit.springwebclient.metrics.WebClientMetrics;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    @Test
+    public void testRejectsRequestsOverTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("orders", config(2, 0));
+        Sinks.One<String> downstream = Sinks.one();
+
+        limiter.protect(downstream.asMono()).subscribe();
+        limiter.protect(downstream.asMono()).subscribe();
+        Assertions.assertEquals(2, limiter.getInFlight());
+        Assertions.assertThrows(ConcurrencyLimitExceededException.class,
+                () -> limiter.protect(Mono.just("order")).block());
+
+        downstream.tryEmitValue("order");
+        Assertions.assertEquals(0, limiter.getInFlight());
+        Assertions.assertEquals("order", limiter.protect(Mono.just("order")).block());
+    }
+
+    @Test
+    public void testStreamHoldsPermitUntilBodyTerminates() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("orders", config(2, 0));
+        Sinks.Many<String> completedBody = Sinks.many().unicast().onBackpressureBuffer();
+        Sinks.Many<String> cancelledBody = Sinks.many().unicast().onBackpressureBuffer();
+
+        limiter.protectStream(Mono.just(completedBody.asFlux())).flatMapMany(body -> body).subscribe();
+        Disposable cancelled = limiter.protectStream(Mono.just(cancelledBody.asFlux()))
+                .flatMapMany(body -> body).subscribe();
+        Assertions.assertEquals(2, limiter.getInFlight(), "the headers were received");
+
+        completedBody.tryEmitComplete();
+        Assertions.assertEquals(1, limiter.getInFlight());
+        cancelled.dispose();
+        Assertions.assertEquals(0, limiter.getInFlight());
+        Assertions.assertEquals(2, limiter.getLimit(), "cancelling a stream is not a drop");
+    }
+
+    @Test
+    public void testQueuedRequestGetsReleasedPermit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("orders", config(1, 1));
+        Sinks.One<String> downstream = Sinks.one();
+        limiter.protect(downstream.asMono()).subscribe();
+
+        String[] queuedResult = new String[1];
+        limiter.protect(Mono.just("queued")).subscribe(result -> queuedResult[0] = result);
+        Assertions.assertNull(queuedResult[0]);
+        Assertions.assertThrows(ConcurrencyLimitExceededException.class,
+                () -> limiter.protect(Mono.just("order")).block(), "the queue is full");
+
+        downstream.tryEmitValue("order");
+        Assertions.assertEquals("queued", queuedResult[0]);
+        Assertions.assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void testQueuedRequestRejectedAfterMaxWait() {
+        ConcurrencyLimitConfig config = config(1, 1);
+        config.setMaxQueueWaitMillis(50);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("orders", config);
+        Disposable inFlight = limiter.protect(Mono.never()).subscribe();
+
+        Assertions.assertThrows(ConcurrencyLimitExceededException.class,
+                () -> limiter.protect(Mono.just("queued")).block(Duration.ofSeconds(5)));
+
+        inFlight.dispose();
+        Assertions.assertEquals(0, limiter.getInFlight(), "cancelled requests release their permit");
+    }
+
+    @Test
+    public void testLimitDecreasesOnFailures() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("orders", config(10, 0));
+
+        for (int i = 0; i < 10; i++) {
+            limiter.protect(Mono.error(new IllegalStateException("connection reset")))
+                    .onErrorResume(ex -> Mono.empty()).block();
+        }
+
+        Assertions.assertEquals(3, limiter.getLimit(), "10 * 0.9^10");
+        Assertions.assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void testLimitAdaptsToLatency() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("orders", config(1, 0));
+
+        // a request using the whole limit grows it
+        limiter.protect(Mono.never()).subscribe();
+        limiter.onResult(false, TimeUnit.MILLISECONDS.toNanos(10));
+        Assertions.assertEquals(2, limiter.getLimit());
+
+        // a latency far above the minimum observed is a drop
+        limiter.protect(Mono.never()).subscribe();
+        limiter.onResult(false, TimeUnit.MILLISECONDS.toNanos(100));
+        Assertions.assertEquals(1, limiter.getLimit());
+    }
+
+    @Test
+    public void testRegistry() {
+        ConcurrencyLimitConfig enabled = config(10, 0);
+        WebClientMetrics webClientMetrics = Mockito.mock(WebClientMetrics.class);
+        ConcurrencyLimiterRegistry registry = new ConcurrencyLimiterRegistry(enabled, webClientMetrics);
+
+        Assertions.assertSame(registry.getConcurrencyLimiter("orders"), registry.getConcurrencyLimiter("orders"));
+        Mockito.verify(webClientMetrics).registerConcurrencyLimiter(registry.getConcurrencyLimiter("orders"));
+        Assertions.assertSame(AdaptiveConcurrencyLimiter.DISABLED,
+                new ConcurrencyLimiterRegistry(new ConcurrencyLimitConfig(), webClientMetrics).getConcurrencyLimiter("orders"));
+    }
+
+    private static ConcurrencyLimitConfig config(int initialLimit, int maxQueueSize) {
+        ConcurrencyLimitConfig concurrencyLimitConfig = new ConcurrencyLimitConfig();
+        concurrencyLimitConfig.setEnabled(true);
+        concurrencyLimitConfig.setInitialLimit(initialLimit);
+        concurrencyLimitConfig.setMaxQueueSize(maxQueueSize);
+        return concurrencyLimitConfig;
+    }
+}
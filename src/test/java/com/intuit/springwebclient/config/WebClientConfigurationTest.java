@@ -1,6 +1,17 @@
 package com.intuit.springwebclient.config;
 
+import com.intuit.springwebclient.client.WebClientProfiles;
+import com.intuit.springwebclient.entity.enums.BufferAllocator;
 import com.intuit.springwebclient.filter.WebClientRequestFilter;
+import com.intuit.springwebclient.metrics.MicrometerWebClientMetrics;
+import com.intuit.springwebclient.metrics.WebClientMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.intuit.springwebclient.codec.JacksonCodecs;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -8,10 +19,30 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.reactive.function.client.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.HttpResources;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
 import reactor.netty.resources.ConnectionProvider;
 
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.channel.ChannelOption;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import lombok.Data;
+
 
 @ExtendWith(MockitoExtension.class)
 public class WebClientConfigurationTest {
@@ -87,4 +118,386 @@ public class WebClientConfigurationTest {
         WebClient webClient = webClientConfiguration.createWebClient();
 
     }
+
+    @Test
+    public void testWebClientMetrics_disabledByDefault() {
+        Mockito.when(springWebClientConfig.getMetrics()).thenReturn(new MetricsConfig());
+
+        WebClientMetrics webClientMetrics = webClientConfiguration.webClientMetrics(Mockito.mock(ObjectProvider.class));
+        Assertions.assertSame(WebClientMetrics.NOOP, webClientMetrics);
+    }
+
+    @Test
+    public void testWebClientMetrics_enabled() {
+        MetricsConfig metricsConfig = new MetricsConfig();
+        metricsConfig.setEnabled(true);
+        Mockito.when(springWebClientConfig.getMetrics()).thenReturn(metricsConfig);
+        ObjectProvider<MeterRegistry> meterRegistryProvider = Mockito.mock(ObjectProvider.class);
+        Mockito.when(meterRegistryProvider.getIfAvailable(Mockito.any())).thenReturn(new SimpleMeterRegistry());
+
+        WebClientMetrics webClientMetrics = webClientConfiguration.webClientMetrics(meterRegistryProvider);
+        Assertions.assertTrue(webClientMetrics instanceof MicrometerWebClientMetrics);
+    }
+
+    @Test
+    public void testWebClientConnectionProvider_withPoolMetrics() {
+        HttpConnectionPoolConfig poolConfig = new HttpConnectionPoolConfig();
+        MetricsConfig metricsConfig = new MetricsConfig();
+        metricsConfig.setEnabled(true);
+        Mockito.when(springWebClientConfig.getConnectionPool()).thenReturn(poolConfig);
+        Mockito.when(springWebClientConfig.getMetrics()).thenReturn(metricsConfig);
+
+        ConnectionProvider connectionProvider = webClientConfiguration.webClientConnectionProvider();
+        Assertions.assertEquals(400, connectionProvider.maxConnections());
+    }
+
+    @Test
+    public void testWebClientConnectionProvider_withRemoteHostPool() {
+        HttpConnectionPoolConfig hostPoolConfig = new HttpConnectionPoolConfig();
+        hostPoolConfig.setMaxConnections(20);
+        HttpConnectionPoolConfig poolConfig = new HttpConnectionPoolConfig();
+        poolConfig.setRemoteHosts(Map.of("slow.example.com:8443", hostPoolConfig));
+        Mockito.when(springWebClientConfig.getConnectionPool()).thenReturn(poolConfig);
+
+        ConnectionProvider connectionProvider = webClientConfiguration.webClientConnectionProvider();
+        Assertions.assertEquals(400, connectionProvider.maxConnections());
+        Assertions.assertEquals(20, connectionProvider.maxConnectionsPerHost()
+                .get(InetSocketAddress.createUnresolved("slow.example.com", 8443)));
+    }
+
+    @Test
+    public void testWebClientProfiles() {
+        ClientProfileConfig profileConfig = new ClientProfileConfig();
+        HttpConnectionPoolConfig profilePoolConfig = new HttpConnectionPoolConfig();
+        profilePoolConfig.setMaxConnections(10);
+        profileConfig.setConnectionPool(profilePoolConfig);
+        Mockito.when(springWebClientConfig.getClientProfiles()).thenReturn(Map.of("slow", profileConfig));
+        Mockito.when(springWebClientConfig.getHttpClientConfig()).thenReturn(new HttpClientConfig());
+        Mockito.when(webClientRequestFilter.getFilter()).thenReturn((request, next) -> next.exchange(request));
+
+        WebClientProfiles webClientProfiles = webClientConfiguration.webClientProfiles();
+        Assertions.assertNotNull(webClientProfiles.getWebClient("slow"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> webClientProfiles.getWebClient("fast"));
+        webClientProfiles.destroy();
+    }
+
+    @Test
+    public void testHttpClientConfig_readTimeoutFallsBackToSocketTimeout() {
+        HttpClientConfig httpClientConfig = new HttpClientConfig();
+        Assertions.assertNull(httpClientConfig.getEffectiveReadTimeoutMillis());
+
+        httpClientConfig.setSocketTimeoutMillis(5000);
+        Assertions.assertEquals(5000, httpClientConfig.getEffectiveReadTimeoutMillis());
+
+        httpClientConfig.setReadTimeoutMillis(0);
+        Assertions.assertEquals(0, httpClientConfig.getEffectiveReadTimeoutMillis());
+    }
+
+    @Test
+    public void testWebHttpClient_noResponseTimeoutByDefault() {
+        Mockito.when(springWebClientConfig.getConnectionPool()).thenReturn(new HttpConnectionPoolConfig());
+        Mockito.when(springWebClientConfig.getHttpClientConfig()).thenReturn(new HttpClientConfig());
+
+        HttpClient httpClient = webClientConfiguration.webHttpClient();
+        Assertions.assertNull(httpClient.configuration().responseTimeout());
+    }
+
+    @Test
+    public void testWebHttpClient_responseTimeout() {
+        HttpClientConfig httpClientConfig = new HttpClientConfig();
+        httpClientConfig.setResponseTimeoutMillis(1500);
+        Mockito.when(springWebClientConfig.getConnectionPool()).thenReturn(new HttpConnectionPoolConfig());
+        Mockito.when(springWebClientConfig.getHttpClientConfig()).thenReturn(httpClientConfig);
+
+        HttpClient httpClient = webClientConfiguration.webHttpClient();
+        Assertions.assertEquals(Duration.ofMillis(1500), httpClient.configuration().responseTimeout());
+        Assertions.assertEquals(30000, httpClient.configuration().options().get(ChannelOption.CONNECT_TIMEOUT_MILLIS));
+        Assertions.assertNull(httpClient.configuration().options().get(ChannelOption.SO_TIMEOUT));
+    }
+
+    @Test
+    public void testWebHttpClient_transport() {
+        TransportConfig transport = new TransportConfig();
+        transport.setEventLoopThreads(2);
+        transport.setReceiveBufferSize(65536);
+        transport.setSendBufferSize(32768);
+        transport.setAllocator(BufferAllocator.UNPOOLED);
+        Mockito.when(springWebClientConfig.getConnectionPool()).thenReturn(new HttpConnectionPoolConfig());
+        Mockito.when(springWebClientConfig.getHttpClientConfig()).thenReturn(new HttpClientConfig());
+        Mockito.when(springWebClientConfig.getTransport()).thenReturn(transport);
+
+        HttpClient httpClient = webClientConfiguration.webHttpClient();
+        Map<ChannelOption<?>, ?> options = httpClient.configuration().options();
+        Assertions.assertEquals(true, options.get(ChannelOption.TCP_NODELAY));
+        Assertions.assertEquals(true, options.get(ChannelOption.SO_KEEPALIVE));
+        Assertions.assertEquals(65536, options.get(ChannelOption.SO_RCVBUF));
+        Assertions.assertEquals(32768, options.get(ChannelOption.SO_SNDBUF));
+        Assertions.assertSame(UnpooledByteBufAllocator.DEFAULT, options.get(ChannelOption.ALLOCATOR));
+        Assertions.assertNotSame(HttpResources.get(), httpClient.configuration().loopResources());
+        Assertions.assertSame(httpClient.configuration().loopResources(),
+                webClientConfiguration.webHttpClient().configuration().loopResources(), "event loops are created once");
+        httpClient.configuration().loopResources().dispose();
+    }
+
+    @Test
+    public void testWebHttpClient_globalEventLoopsByDefault() {
+        Mockito.when(springWebClientConfig.getConnectionPool()).thenReturn(new HttpConnectionPoolConfig());
+        Mockito.when(springWebClientConfig.getHttpClientConfig()).thenReturn(new HttpClientConfig());
+
+        Assertions.assertNull(webClientConfiguration.webClientLoopResources());
+        HttpClient httpClient = webClientConfiguration.webHttpClient();
+        Assertions.assertSame(HttpResources.get(), httpClient.configuration().loopResources());
+        Assertions.assertNull(httpClient.configuration().options().get(ChannelOption.ALLOCATOR));
+    }
+
+    @Test
+    public void testWebHttpClient_http2PriorKnowledge() {
+        HttpClientConfig httpClientConfig = new HttpClientConfig();
+        httpClientConfig.getHttp2().setPriorKnowledge(true);
+
+        Assertions.assertEquals("h2c", requestProtocol(httpClientConfig));
+    }
+
+    @Test
+    public void testWebHttpClient_http2FallsBackToHttp11WithoutTls() {
+        HttpClientConfig httpClientConfig = new HttpClientConfig();
+        httpClientConfig.getHttp2().setEnabled(true);
+
+        Assertions.assertEquals("http/1.1", requestProtocol(httpClientConfig));
+    }
+
+    @Test
+    public void testCreateWebClient_appliesFiltersInOrder() {
+        SpringWebClientConfig config = new SpringWebClientConfig();
+        config.setConnectionPool(new HttpConnectionPoolConfig());
+        config.setHttpClientConfig(new HttpClientConfig());
+        List<String> responses = new ArrayList<>();
+        WebClientConfiguration configuration = new WebClientConfiguration(config, List.of(
+                new OrderedFilter("second", 2, responses), new OrderedFilter("first", 1, responses)));
+        DisposableServer server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .handle((request, response) -> response.sendString(Mono.just(
+                        String.join(",", request.requestHeaders().getAll("x-filter")))))
+                .bindNow();
+        try {
+            String filters = configuration.createWebClient().get()
+                    .uri("http://127.0.0.1:" + server.port() + "/")
+                    .retrieve()
+                    .bodyToMono(String.class)
+                    .block(Duration.ofSeconds(5));
+
+            Assertions.assertEquals("first,second", filters);
+            Assertions.assertEquals(List.of("second", "first"), responses,
+                    "responses are seen in the reverse order");
+        } finally {
+            server.disposeNow();
+            configuration.webClientConnectionProvider().dispose();
+        }
+    }
+
+    @Test
+    public void testCreateWebClient_readTimeoutStartsOnceTheRequestIsSent() {
+        SpringWebClientConfig config = new SpringWebClientConfig();
+        config.setConnectionPool(new HttpConnectionPoolConfig());
+        HttpClientConfig httpClientConfig = new HttpClientConfig();
+        httpClientConfig.setReadTimeoutMillis(200);
+        config.setHttpClientConfig(httpClientConfig);
+        WebClientConfiguration configuration = new WebClientConfiguration(config, List.of());
+        DisposableServer server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .route(routes -> routes
+                        .post("/upload", (request, response) -> response.sendString(request.receive().aggregate().asString()
+                                .map(body -> String.valueOf(body.length()))))
+                        .get("/slow", (request, response) -> response.sendString(
+                                Mono.just("late").delayElement(Duration.ofSeconds(1)))))
+                .bindNow();
+        try {
+            WebClient webClient = configuration.createWebClient();
+            String uploaded = webClient.post()
+                    .uri("http://127.0.0.1:" + server.port() + "/upload")
+                    .body(Flux.interval(Duration.ofMillis(100)).take(5).map(tick -> "chunk"), String.class)
+                    .retrieve()
+                    .bodyToMono(String.class)
+                    .block(Duration.ofSeconds(5));
+            Assertions.assertEquals("25", uploaded, "an upload longer than the read timeout completes");
+
+            Assertions.assertThrows(RuntimeException.class, () -> webClient.get()
+                    .uri("http://127.0.0.1:" + server.port() + "/slow")
+                    .retrieve()
+                    .bodyToMono(String.class)
+                    .block(Duration.ofSeconds(5)), "a response slower than the read timeout fails");
+        } finally {
+            server.disposeNow();
+            configuration.webClientConnectionProvider().dispose();
+        }
+    }
+
+    /**
+     * Adds its name to the x-filter header after an asynchronous delay, and records the responses it sees.
+     */
+    @Test
+    public void testCreateWebClient_negotiatesBinaryFormats() throws Exception {
+        SpringWebClientConfig config = new SpringWebClientConfig();
+        config.setConnectionPool(new HttpConnectionPoolConfig());
+        config.setHttpClientConfig(new HttpClientConfig());
+        config.getCodecs().setSmile(true);
+        config.getCodecs().setCbor(true);
+        WebClientConfiguration configuration = new WebClientConfiguration(config, List.of());
+        Map<String, String> body = Map.of("name", "rwebpulse");
+        byte[] smile = new ObjectMapper(new SmileFactory()).writeValueAsBytes(body);
+        byte[] cbor = new ObjectMapper(new CBORFactory()).writeValueAsBytes(body);
+        List<String> accepted = new ArrayList<>();
+        DisposableServer server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .route(routes -> routes
+                        .get("/smile", (request, response) -> {
+                            accepted.add(request.requestHeaders().get(HttpHeaders.ACCEPT));
+                            return response.header(HttpHeaders.CONTENT_TYPE, JacksonCodecs.APPLICATION_SMILE.toString())
+                                    .sendByteArray(Mono.just(smile));
+                        })
+                        .get("/cbor", (request, response) -> response
+                                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_CBOR_VALUE)
+                                .sendByteArray(Mono.just(cbor))))
+                .bindNow();
+        try {
+            WebClient webClient = configuration.createWebClient();
+            String baseUrl = "http://127.0.0.1:" + server.port();
+
+            Assertions.assertEquals(body, webClient.get().uri(baseUrl + "/smile").retrieve()
+                    .toEntity(Map.class).block(Duration.ofSeconds(5)).getBody());
+            Assertions.assertEquals(body, webClient.get().uri(baseUrl + "/cbor").retrieve()
+                    .toEntity(Map.class).block(Duration.ofSeconds(5)).getBody());
+            Assertions.assertEquals(List.of("application/x-jackson-smile, application/cbor, application/json;q=0.9, */*;q=0.8"),
+                    accepted);
+        } finally {
+            server.disposeNow();
+            configuration.webClientConnectionProvider().dispose();
+        }
+    }
+
+    @Test
+    public void testCreateWebClient_usesSharedObjectMapper() {
+        SpringWebClientConfig config = new SpringWebClientConfig();
+        config.setConnectionPool(new HttpConnectionPoolConfig());
+        config.setHttpClientConfig(new HttpClientConfig());
+        config.getCodecs().setBlackbird(true);
+        WebClientConfiguration configuration = new WebClientConfiguration(config, List.of());
+        ObjectMapper objectMapper = new ObjectMapper().setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE);
+        configuration.setObjectMapper(objectMapper);
+        DisposableServer server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .handle((request, response) -> response.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .sendString(Mono.just("{\"first_name\":\"Jane\"}")))
+                .bindNow();
+        try {
+            Person person = configuration.createWebClient().get()
+                    .uri("http://127.0.0.1:" + server.port() + "/")
+                    .retrieve()
+                    .bodyToMono(Person.class)
+                    .block(Duration.ofSeconds(5));
+
+            Assertions.assertEquals("Jane", person.getFirstName());
+            Assertions.assertTrue(objectMapper.getRegisteredModuleIds().isEmpty(), "the shared mapper is not modified");
+        } finally {
+            server.disposeNow();
+            configuration.webClientConnectionProvider().dispose();
+        }
+    }
+
+    @Test
+    public void testCreateWebClient_decompressesResponses() {
+        SpringWebClientConfig config = new SpringWebClientConfig();
+        config.setConnectionPool(new HttpConnectionPoolConfig());
+        config.setHttpClientConfig(new HttpClientConfig());
+        config.getCompression().setResponseCompression(true);
+        WebClientConfiguration configuration = new WebClientConfiguration(config, List.of());
+        String payload = "{\"name\":\"rwebpulse\"}".repeat(100);
+        DisposableServer server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .compress(true)
+                .handle((request, response) -> response
+                        .header("x-accept-encoding", request.requestHeaders().get(HttpHeaders.ACCEPT_ENCODING))
+                        .sendString(Mono.just(payload)))
+                .bindNow();
+        try {
+            ResponseEntity<String> response = configuration.createWebClient().get()
+                    .uri("http://127.0.0.1:" + server.port() + "/")
+                    .retrieve()
+                    .toEntity(String.class)
+                    .block(Duration.ofSeconds(5));
+
+            Assertions.assertEquals(payload, response.getBody());
+            Assertions.assertEquals("gzip, deflate", response.getHeaders().getFirst("x-accept-encoding"));
+        } finally {
+            server.disposeNow();
+            configuration.webClientConnectionProvider().dispose();
+        }
+    }
+
+    @Data
+    public static class Person {
+        private String firstName;
+    }
+
+    private static final class OrderedFilter implements WebClientRequestFilter, Ordered {
+        private final String name;
+        private final int order;
+        private final List<String> responses;
+
+        private OrderedFilter(String name, int order, List<String> responses) {
+            this.name = name;
+            this.order = order;
+            this.responses = responses;
+        }
+
+        @Override
+        public Mono<ClientRequest> filter(ClientRequest request) {
+            return Mono.delay(Duration.ofMillis(1)).map(tick -> ClientRequest.from(request)
+                    .headers(headers -> headers.add("x-filter", name))
+                    .build());
+        }
+
+        @Override
+        public Mono<ClientResponse> filterResponse(ClientRequest request, ClientResponse response) {
+            responses.add(name);
+            return Mono.just(response);
+        }
+
+        @Override
+        public int getOrder() {
+            return order;
+        }
+    }
+
+    /**
+     * @return protocol of a request sent to a cleartext server accepting HTTP/1.1 and h2c.
+     */
+    private String requestProtocol(HttpClientConfig httpClientConfig) {
+        Mockito.when(springWebClientConfig.getConnectionPool()).thenReturn(new HttpConnectionPoolConfig());
+        Mockito.when(springWebClientConfig.getHttpClientConfig()).thenReturn(httpClientConfig);
+        DisposableServer server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .protocol(HttpProtocol.HTTP11, HttpProtocol.H2C)
+                //requests received over HTTP/2 are converted to HTTP/1.1 messages carrying the id of their stream
+                .handle((request, response) -> response.sendString(Mono.just(
+                        request.requestHeaders().contains("x-http2-stream-id") ? "h2c" : "http/1.1")))
+                .bindNow();
+        try {
+            return webClientConfiguration.webHttpClient().get()
+                    .uri("http://127.0.0.1:" + server.port() + "/")
+                    .responseContent()
+                    .aggregate()
+                    .asString()
+                    .block(Duration.ofSeconds(5));
+        } finally {
+            server.disposeNow();
+            webClientConfiguration.webClientConnectionProvider().dispose();
+        }
+    }
 }
@@ -0,0 +1,99 @@
+package com.intuit.springwebclient.execution;
+
+import com.intuit.springwebclient.config.SyncExecutionConfig;
+import com.intuit.springwebclient.entity.enums.SyncExecutionMode;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+public class SyncExecutorTest {
+
+    @Test
+    public void testFutureModeReturnsResponse() {
+        SyncExecutor syncExecutor = new SyncExecutor(config(SyncExecutionMode.FUTURE, false));
+
+        Assertions.assertEquals("ok", syncExecutor.await(Mono.just("ok")));
+        Assertions.assertNull(syncExecutor.await(Mono.empty()));
+    }
+
+    @Test
+    public void testFutureModeRethrowsFailure() {
+        SyncExecutor syncExecutor = new SyncExecutor(config(SyncExecutionMode.FUTURE, false));
+        IllegalStateException failure = new IllegalStateException("retriable");
+
+        IllegalStateException thrown = Assertions.assertThrows(IllegalStateException.class,
+                () -> syncExecutor.await(Mono.error(failure)));
+        Assertions.assertSame(failure, thrown, "the failure is not wrapped, as with block()");
+    }
+
+    @Test
+    public void testFutureModeCancelsRequestWhenInterrupted() throws InterruptedException {
+        SyncExecutor syncExecutor = new SyncExecutor(config(SyncExecutionMode.FUTURE, false));
+        CountDownLatch subscribed = new CountDownLatch(1);
+        CountDownLatch cancelled = new CountDownLatch(1);
+        AtomicReference<Throwable> thrown = new AtomicReference<>();
+        Thread caller = new Thread(() -> {
+            try {
+                syncExecutor.await(Mono.never()
+                        .doOnSubscribe(subscription -> subscribed.countDown())
+                        .doOnCancel(cancelled::countDown));
+            } catch (RuntimeException ex) {
+                thrown.set(ex);
+            }
+        });
+
+        caller.start();
+        Assertions.assertTrue(subscribed.await(1, TimeUnit.SECONDS));
+        caller.interrupt();
+        caller.join(1000);
+
+        Assertions.assertTrue(cancelled.await(1, TimeUnit.SECONDS), "request cancelled");
+        Assertions.assertTrue(thrown.get().getCause() instanceof InterruptedException);
+    }
+
+    @Test
+    public void testFutureModeRejectsNonBlockingThreads() {
+        SyncExecutor syncExecutor = new SyncExecutor(config(SyncExecutionMode.FUTURE, false));
+
+        Mono<String> awaitedOnParallelThread = Mono.fromCallable(() -> syncExecutor.await(Mono.just("ok")))
+                .subscribeOn(Schedulers.parallel());
+
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> awaitedOnParallelThread.block(Duration.ofSeconds(1)));
+    }
+
+    @Test
+    public void testRetryHandlersRunOnCallingThreadByDefault() {
+        Thread caller = Thread.currentThread();
+
+        Assertions.assertEquals(caller, SyncExecutor.DEFAULT.runRetryHandlers(Thread::currentThread)
+                .block());
+    }
+
+    @Test
+    public void testRetryHandlersRunOffCallingThread() {
+        try (SyncExecutor syncExecutor = new SyncExecutor(config(SyncExecutionMode.BLOCK, true))) {
+            Thread caller = Thread.currentThread();
+
+            Assertions.assertNotEquals(caller, syncExecutor.runRetryHandlers(Thread::currentThread)
+                    .block());
+            Assertions.assertThrows(IllegalStateException.class,
+                    () -> syncExecutor.runRetryHandlers(() -> {
+                        throw new IllegalStateException("retriable");
+                    }).block());
+        }
+    }
+
+    private static SyncExecutionConfig config(SyncExecutionMode mode,
+            boolean virtualThreadRetryHandlers) {
+        SyncExecutionConfig config = new SyncExecutionConfig();
+        config.setMode(mode);
+        config.setVirtualThreadRetryHandlers(virtualThreadRetryHandlers);
+        return config;
+    }
+}
@@ -0,0 +1,57 @@
+package com.intuit.springwebclient.filter;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+public class BearerTokenFilterTest {
+
+    private final AtomicInteger fetches = new AtomicInteger();
+    private final BearerTokenFilter filter = new BearerTokenFilter(new CachedTokenProvider(
+            Mono.fromSupplier(() -> AccessToken.builder()
+                    .value("token-" + fetches.incrementAndGet())
+                    .expiresAt(Instant.now().plusSeconds(300))
+                    .build()), Duration.ofSeconds(60)));
+    private final List<String> authorizations = new ArrayList<>();
+
+    @Test
+    public void testSetsCachedBearerToken() {
+        ExchangeFunction exchange = respondingWith(HttpStatus.OK);
+
+        filter.getFilter().filter(request(), exchange).block();
+        filter.getFilter().filter(request(), exchange).block();
+
+        Assertions.assertEquals(List.of("Bearer token-1", "Bearer token-1"), authorizations);
+    }
+
+    @Test
+    public void testRejectedTokenIsReplaced() {
+        filter.getFilter().filter(request(), respondingWith(HttpStatus.UNAUTHORIZED)).block();
+        filter.getFilter().filter(request(), respondingWith(HttpStatus.OK)).block();
+
+        Assertions.assertEquals(List.of("Bearer token-1", "Bearer token-2"), authorizations);
+    }
+
+    private ExchangeFunction respondingWith(HttpStatus status) {
+        return request -> {
+            authorizations.add(request.headers().getFirst(HttpHeaders.AUTHORIZATION));
+            return Mono.just(ClientResponse.create(status).build());
+        };
+    }
+
+    private static ClientRequest request() {
+        return ClientRequest.create(HttpMethod.GET, URI.create("http://abc.com/v1/orders")).build();
+    }
+}
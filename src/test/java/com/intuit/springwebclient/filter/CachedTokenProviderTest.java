@@ -0,0 +1,133 @@
+package com.intuit.springwebclient.filter;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+public class CachedTokenProviderTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final MutableClock clock = new MutableClock();
+    private final AtomicInteger fetches = new AtomicInteger();
+
+    @Test
+    public void testCachesTokenUntilRefreshWindow() {
+        CachedTokenProvider tokenProvider = new CachedTokenProvider(tokenSource(),
+                Duration.ofSeconds(60), clock);
+
+        AccessToken token = tokenProvider.getToken().block();
+        clock.advance(Duration.ofSeconds(239));
+
+        Assertions.assertSame(token, tokenProvider.getToken().block());
+        Assertions.assertEquals(1, fetches.get());
+    }
+
+    @Test
+    public void testRefreshesInBackgroundBeforeExpiry() {
+        Sinks.One<AccessToken> pendingRefresh = Sinks.one();
+        AtomicInteger subscriptions = new AtomicInteger();
+        CachedTokenProvider tokenProvider = new CachedTokenProvider(Mono.defer(() ->
+                subscriptions.incrementAndGet() == 1 ? Mono.just(token("first", 300))
+                        : pendingRefresh.asMono()), Duration.ofSeconds(60), clock);
+        AccessToken first = tokenProvider.getToken().block();
+        clock.advance(Duration.ofSeconds(250));
+
+        Assertions.assertSame(first, tokenProvider.getToken().block(), "not waiting for the refresh");
+        Assertions.assertSame(first, tokenProvider.getToken().block());
+        Assertions.assertEquals(2, subscriptions.get(), "a single refresh in flight");
+
+        AccessToken second = token("second", 600);
+        pendingRefresh.tryEmitValue(second);
+        Assertions.assertSame(second, tokenProvider.getToken().block());
+    }
+
+    @Test
+    public void testConcurrentRequestsShareOneFetch() {
+        Sinks.One<AccessToken> pendingFetch = Sinks.one();
+        AtomicInteger subscriptions = new AtomicInteger();
+        CachedTokenProvider tokenProvider = new CachedTokenProvider(Mono.defer(() -> {
+            subscriptions.incrementAndGet();
+            return pendingFetch.asMono();
+        }), Duration.ofSeconds(60), clock);
+
+        Mono<AccessToken> first = tokenProvider.getToken();
+        Mono<AccessToken> second = tokenProvider.getToken();
+        AccessToken token = token("token", 300);
+        pendingFetch.tryEmitValue(token);
+
+        Assertions.assertSame(token, first.block());
+        Assertions.assertSame(token, second.block());
+        Assertions.assertEquals(1, subscriptions.get());
+    }
+
+    @Test
+    public void testFetchesAgainOnceExpiredOrInvalidated() {
+        CachedTokenProvider tokenProvider = new CachedTokenProvider(tokenSource(),
+                Duration.ofSeconds(60), clock);
+
+        AccessToken first = tokenProvider.getToken().block();
+        clock.advance(Duration.ofSeconds(300));
+        AccessToken second = tokenProvider.getToken().block();
+        tokenProvider.invalidate(first);
+        Assertions.assertSame(second, tokenProvider.getToken().block(), "stale invalidation ignored");
+        tokenProvider.invalidate(second);
+        AccessToken third = tokenProvider.getToken().block();
+
+        Assertions.assertNotSame(first, second);
+        Assertions.assertNotSame(second, third);
+        Assertions.assertEquals(3, fetches.get());
+    }
+
+    @Test
+    public void testFailedFetchIsRetriedByNextRequest() {
+        AtomicInteger subscriptions = new AtomicInteger();
+        CachedTokenProvider tokenProvider = new CachedTokenProvider(Mono.defer(() ->
+                subscriptions.incrementAndGet() == 1 ? Mono.error(new IllegalStateException("down"))
+                        : Mono.just(token("token", 300))), Duration.ofSeconds(60), clock);
+
+        Assertions.assertThrows(IllegalStateException.class, () -> tokenProvider.getToken().block());
+        Assertions.assertEquals("token", tokenProvider.getToken().block().getValue());
+    }
+
+    private Mono<AccessToken> tokenSource() {
+        return Mono.fromSupplier(() -> token("token-" + fetches.incrementAndGet(), 300));
+    }
+
+    private AccessToken token(String value, long lifetimeSeconds) {
+        return AccessToken.builder()
+                .value(value)
+                .expiresAt(clock.instant().plusSeconds(lifetimeSeconds))
+                .build();
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant = NOW;
+
+        private void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.intuit.springwebclient.hedging;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class LatencyTrackerTest {
+
+    @Test
+    public void testPercentiles() {
+        LatencyTracker latencyTracker = new LatencyTracker(60000, 100);
+        for (int millis = 1; millis <= 100; millis++) {
+            latencyTracker.record(TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+
+        assertWithinBucketError(50, latencyTracker.getPercentileNanos(0.5));
+        assertWithinBucketError(95, latencyTracker.getPercentileNanos(0.95));
+        assertWithinBucketError(100, latencyTracker.getPercentileNanos(1));
+    }
+
+    @Test
+    public void testNoPercentileBelowMinSamples() {
+        LatencyTracker latencyTracker = new LatencyTracker(60000, 100);
+        latencyTracker.record(TimeUnit.MILLISECONDS.toNanos(10));
+
+        Assertions.assertEquals(-1L, latencyTracker.getPercentileNanos(0.95));
+    }
+
+    @Test
+    public void testBuckets() {
+        for (long micros : new long[] {0, 1, 15, 16, 17, 31, 32, 33, 1000, 123456789}) {
+            int bucket = LatencyTracker.bucket(micros);
+            Assertions.assertTrue(LatencyTracker.upperBoundMicros(bucket) >= micros);
+            Assertions.assertTrue(bucket == 0 || LatencyTracker.upperBoundMicros(bucket - 1) < micros);
+        }
+    }
+
+    private static void assertWithinBucketError(long expectedMillis, long actualNanos) {
+        double actualMillis = actualNanos / 1_000_000d;
+        Assertions.assertTrue(actualMillis >= expectedMillis && actualMillis <= expectedMillis * 1.0625,
+                "expected about " + expectedMillis + "ms but was " + actualMillis + "ms");
+    }
+}
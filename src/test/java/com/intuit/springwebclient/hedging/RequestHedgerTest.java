@@ -0,0 +1,150 @@
+package com.intuit.springwebclient.hedging;
+
+import com.intuit.springwebclient.config.HedgingConfig;
+import com.intuit.springwebclient.config.WebClientHedgeConfig;
+import com.intuit.springwebclient.entity.ClientHttpRequest;
+import com.intuit.springwebclient.metrics.WebClientMetrics;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpMethod;
+import reactor.core.publisher.Mono;
+
+public class RequestHedgerTest {
+
+    private static final String HOST = "abc.com";
+
+    private final AtomicInteger attempts = new AtomicInteger();
+    private final AtomicInteger firstCancelled = new AtomicInteger();
+    private WebClientMetrics webClientMetrics;
+
+    @BeforeEach
+    void setUp() {
+        webClientMetrics = Mockito.mock(WebClientMetrics.class);
+    }
+
+    @Test
+    public void testFastResponseIsNotHedged() {
+        RequestHedger requestHedger = new RequestHedger(new HedgingConfig(), webClientMetrics);
+
+        String result = requestHedger.hedge(attempt(Duration.ZERO, Duration.ZERO), request(HttpMethod.GET), HOST)
+                .block(Duration.ofSeconds(5));
+
+        Assertions.assertEquals("attempt-1", result);
+        Assertions.assertEquals(1, attempts.get());
+        Mockito.verify(webClientMetrics, Mockito.never()).recordHedge(HOST, "get-order");
+    }
+
+    @Test
+    public void testHedgeWinsAndCancelsSlowRequest() throws InterruptedException {
+        RequestHedger requestHedger = new RequestHedger(new HedgingConfig(), webClientMetrics);
+
+        String result = requestHedger.hedge(attempt(Duration.ofSeconds(10), Duration.ZERO), request(HttpMethod.GET), HOST)
+                .block(Duration.ofSeconds(5));
+
+        Assertions.assertEquals("attempt-2", result);
+        // the loser is cancelled once the winning response has been handed over
+        for (int i = 0; i < 100 && firstCancelled.get() == 0; i++) {
+            Thread.sleep(10);
+        }
+        Assertions.assertEquals(1, firstCancelled.get());
+        Mockito.verify(webClientMetrics).recordHedge(HOST, "get-order");
+        Mockito.verify(webClientMetrics).recordHedgeWon(HOST, "get-order");
+    }
+
+    @Test
+    public void testHedgesBoundedByBudget() {
+        HedgingConfig hedgingConfig = new HedgingConfig();
+        hedgingConfig.setHedgeRatio(0);
+        hedgingConfig.setMinHedgesPerSecond(1);
+        hedgingConfig.setMaxHedges(1);
+        RequestHedger requestHedger = new RequestHedger(hedgingConfig, webClientMetrics);
+
+        requestHedger.hedge(attempt(Duration.ofMillis(200), Duration.ZERO), request(HttpMethod.GET), HOST)
+                .block(Duration.ofSeconds(5));
+        attempts.set(0);
+        String result = requestHedger.hedge(attempt(Duration.ofMillis(200), Duration.ZERO), request(HttpMethod.GET), HOST)
+                .block(Duration.ofSeconds(5));
+
+        Assertions.assertEquals("attempt-1", result, "the budget only held one hedge");
+        Mockito.verify(webClientMetrics).recordHedge(HOST, "get-order");
+    }
+
+    @Test
+    public void testNonIdempotentRequestIsNotHedged() {
+        RequestHedger requestHedger = new RequestHedger(new HedgingConfig(), webClientMetrics);
+
+        String result = requestHedger.hedge(attempt(Duration.ofMillis(200), Duration.ZERO), request(HttpMethod.POST), HOST)
+                .block(Duration.ofSeconds(5));
+
+        Assertions.assertEquals("attempt-1", result);
+        Assertions.assertEquals(1, attempts.get());
+    }
+
+    @Test
+    public void testFailureIsNotHedged() {
+        RequestHedger requestHedger = new RequestHedger(new HedgingConfig(), webClientMetrics);
+        Mono<String> failing = Mono.defer(() -> {
+            attempts.incrementAndGet();
+            return Mono.error(new IllegalStateException("connection reset"));
+        });
+
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> requestHedger.hedge(failing, request(HttpMethod.GET), HOST).block(Duration.ofSeconds(5)));
+        Assertions.assertEquals(1, attempts.get());
+    }
+
+    @Test
+    public void testDelayFromObservedPercentile() {
+        HedgingConfig hedgingConfig = new HedgingConfig();
+        hedgingConfig.setMinLatencySamples(5);
+        RequestHedger requestHedger = new RequestHedger(hedgingConfig, webClientMetrics);
+        ClientHttpRequest<Void, String> request = ClientHttpRequest.<Void, String>builder()
+                .url("https://abc.com/orders/1")
+                .route("get-order")
+                .httpMethod(HttpMethod.GET)
+                .hedgeConfig(WebClientHedgeConfig.builder()
+                        .delayPercentile(0.95)
+                        .build())
+                .build();
+
+        // no fixed delay: nothing is hedged until enough latencies are observed
+        for (int i = 0; i < 5; i++) {
+            requestHedger.hedge(attempt(Duration.ofMillis(10), Duration.ZERO), request, HOST).block(Duration.ofSeconds(5));
+        }
+        Mockito.verify(webClientMetrics, Mockito.never()).recordHedge(HOST, "get-order");
+        attempts.set(0);
+
+        String result = requestHedger.hedge(attempt(Duration.ofSeconds(10), Duration.ZERO), request, HOST)
+                .block(Duration.ofSeconds(5));
+
+        Assertions.assertEquals("attempt-2", result, "hedged after about the p95 of 10ms");
+    }
+
+    private Mono<String> attempt(Duration firstLatency, Duration nextLatency) {
+        return Mono.defer(() -> {
+            final int attempt = attempts.incrementAndGet();
+            return Mono.delay(attempt == 1 ? firstLatency : nextLatency)
+                    .thenReturn("attempt-" + attempt)
+                    .doOnCancel(() -> {
+                        if (attempt == 1) {
+                            firstCancelled.incrementAndGet();
+                        }
+                    });
+        });
+    }
+
+    private static ClientHttpRequest<Void, String> request(HttpMethod httpMethod) {
+        return ClientHttpRequest.<Void, String>builder()
+                .url("https://abc.com/orders/1")
+                .route("get-order")
+                .httpMethod(httpMethod)
+                .hedgeConfig(WebClientHedgeConfig.builder()
+                        .delay(Duration.ofMillis(50))
+                        .build())
+                .build();
+    }
+}
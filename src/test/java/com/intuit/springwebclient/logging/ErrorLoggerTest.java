@@ -0,0 +1,118 @@
+package com.intuit.springwebclient.logging;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.intuit.springwebclient.config.ErrorLoggingConfig;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.springframework.http.HttpStatus;
+
+public class ErrorLoggerTest {
+
+    private final IllegalStateException failure = new IllegalStateException("downstream failed");
+
+    @Test
+    public void testTruncatesBodies() {
+        ErrorLogger errorLogger = new ErrorLogger(config(5, true, 0));
+
+        Assertions.assertNull(errorLogger.truncate(null));
+        Assertions.assertEquals("short", errorLogger.truncate("short"));
+        Assertions.assertEquals("01234...(5 more characters)",
+                errorLogger.truncate("0123456789"));
+        Assertions.assertEquals("0123...(3 more characters)",
+                errorLogger.truncate("0123\uD83D\uDE00x"), "surrogate pairs are not split");
+        Assertions.assertEquals("0123456789",
+                new ErrorLogger(config(-1, true, 0)).truncate("0123456789"));
+    }
+
+    @Test
+    public void testErrorBodyIsFullUnlessDisabled() {
+        Assertions.assertEquals("0123456789",
+                new ErrorLogger(config(5, true, 0)).errorBody("0123456789"));
+        Assertions.assertEquals("01234...(5 more characters)",
+                new ErrorLogger(config(5, false, 0)).errorBody("0123456789"));
+    }
+
+    @Test
+    public void testMessageNotFormattedWhenErrorDisabled() {
+        Logger log = mock(Logger.class);
+        @SuppressWarnings("unchecked")
+        Supplier<String> message = mock(Supplier.class);
+
+        ErrorLogger.DEFAULT.logError(log, "abc.com", HttpStatus.SERVICE_UNAVAILABLE, failure,
+                message);
+
+        verify(message, never()).get();
+        verify(log, never()).error(anyString(), any(Object.class), any(Object.class));
+    }
+
+    @Test
+    public void testLogsEveryStackTraceByDefault() {
+        Logger log = errorEnabledLogger();
+
+        ErrorLogger.DEFAULT.logError(log, "abc.com", HttpStatus.SERVICE_UNAVAILABLE, failure,
+                () -> "failed");
+        ErrorLogger.DEFAULT.logError(log, "abc.com", HttpStatus.SERVICE_UNAVAILABLE, failure,
+                () -> "failed");
+
+        verify(log, times(2)).error("{}", "failed", failure);
+    }
+
+    @Test
+    public void testSamplesStackTracesPerHostAndStatus() {
+        Logger log = errorEnabledLogger();
+        ErrorLogger errorLogger = new ErrorLogger(config(1024, true, 60000));
+
+        errorLogger.logError(log, "abc.com", HttpStatus.SERVICE_UNAVAILABLE, failure,
+                () -> "failed");
+        errorLogger.logError(log, "abc.com", HttpStatus.SERVICE_UNAVAILABLE, failure,
+                () -> "failed");
+        errorLogger.logError(log, "abc.com", HttpStatus.SERVICE_UNAVAILABLE, failure,
+                () -> "failed");
+        errorLogger.logError(log, "abc.com", HttpStatus.BAD_GATEWAY, failure, () -> "failed");
+        errorLogger.logError(log, "xyz.com", HttpStatus.SERVICE_UNAVAILABLE, failure,
+                () -> "failed");
+
+        verify(log, times(3)).error("{}", "failed", failure);
+        verify(log, times(2)).error("{} exception={}", "failed", failure.toString());
+    }
+
+    @Test
+    public void testReportsSuppressedStackTracesWhenIntervalElapses() throws InterruptedException {
+        Logger log = errorEnabledLogger();
+        ErrorLogger errorLogger = new ErrorLogger(config(1024, true, 50));
+
+        errorLogger.logError(log, "abc.com", null, failure, () -> "failed");
+        errorLogger.logError(log, "abc.com", null, failure, () -> "failed");
+        errorLogger.logError(log, "abc.com", null, failure, () -> "failed");
+        Thread.sleep(100);
+        errorLogger.logError(log, "abc.com", null, failure, () -> "failed");
+
+        verify(log).error("{}", "failed", failure);
+        verify(log).error(eq("{} ({} stack traces suppressed)"), eq("failed"), eq(2L), eq(failure));
+    }
+
+    private static Logger errorEnabledLogger() {
+        Logger log = mock(Logger.class);
+        when(log.isErrorEnabled()).thenReturn(true);
+        return log;
+    }
+
+    private static ErrorLoggingConfig config(int maxBodyLength, boolean fullErrorBody,
+            long stackTraceIntervalMillis) {
+        ErrorLoggingConfig config = new ErrorLoggingConfig();
+        config.setMaxBodyLength(maxBodyLength);
+        config.setFullErrorBody(fullErrorBody);
+        config.setStackTraceIntervalMillis(stackTraceIntervalMillis);
+        return config;
+    }
+}
@@ -0,0 +1,114 @@
+package com.intuit.springwebclient.metrics;
+
+import com.intuit.springwebclient.concurrency.AdaptiveConcurrencyLimiter;
+import com.intuit.springwebclient.config.ConcurrencyLimitConfig;
+import com.intuit.springwebclient.config.MetricsConfig;
+import com.intuit.springwebclient.entity.enums.WebClientErrorType;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+
+public class MicrometerWebClientMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private MicrometerWebClientMetrics webClientMetrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        webClientMetrics = new MicrometerWebClientMetrics(meterRegistry, new MetricsConfig());
+    }
+
+    @Test
+    public void testRecordRequest() {
+        webClientMetrics.recordRequest("abc.com", "create", HttpMethod.POST, HttpStatus.CREATED, 1_000_000L);
+        webClientMetrics.recordRequest("abc.com", "create", HttpMethod.POST, HttpStatus.CREATED, 3_000_000L);
+        webClientMetrics.recordRequest("abc.com", null, HttpMethod.GET, null, 1_000_000L);
+
+        Timer created = meterRegistry.get("rwebpulse.client.requests")
+                .tags("host", "abc.com", "route", "create", "method", "POST", "status", "201", "outcome", "SUCCESS")
+                .timer();
+        Assertions.assertEquals(2, created.count(), "timer should be reused for the same tags");
+
+        Timer noStatus = meterRegistry.get("rwebpulse.client.requests")
+                .tags("route", MicrometerWebClientMetrics.NO_ROUTE, "status", "NONE", "outcome", "UNKNOWN")
+                .timer();
+        Assertions.assertEquals(1, noStatus.count());
+    }
+
+    @Test
+    public void testRecordCompression() {
+        webClientMetrics.recordRequestCompression("abc.com", "create", 4_000, 1_000);
+        webClientMetrics.recordResponseDecompression("abc.com", "create", 2_000, 10_000);
+        webClientMetrics.recordResponseDecompression("abc.com", "create", 2_000, 10_000);
+
+        Assertions.assertEquals(1_000, meterRegistry.get("rwebpulse.client.compression.bytes")
+                .tags("host", "abc.com", "route", "create", "direction", "request", "form", "compressed").counter().count());
+        Assertions.assertEquals(4_000, meterRegistry.get("rwebpulse.client.compression.bytes")
+                .tags("direction", "request", "form", "uncompressed").counter().count());
+        Assertions.assertEquals(4_000, meterRegistry.get("rwebpulse.client.compression.bytes")
+                .tags("direction", "response", "form", "compressed").counter().count());
+        Assertions.assertEquals(20_000, meterRegistry.get("rwebpulse.client.compression.bytes")
+                .tags("direction", "response", "form", "uncompressed").counter().count());
+    }
+
+    @Test
+    public void testRecordRetryAndError() {
+        webClientMetrics.recordRetry("abc.com", "create");
+        webClientMetrics.recordRetry("abc.com", "create");
+        webClientMetrics.recordError("abc.com", "create", WebClientErrorType.RESPONSE_EXCEPTION);
+        webClientMetrics.recordCoalesced("abc.com", "create");
+
+        Assertions.assertEquals(2, meterRegistry.get("rwebpulse.client.retries")
+                .tags("host", "abc.com", "route", "create").counter().count());
+        Assertions.assertEquals(1, meterRegistry.get("rwebpulse.client.errors")
+                .tags("type", "response").counter().count());
+        Assertions.assertEquals(1, meterRegistry.get("rwebpulse.client.requests.coalesced")
+                .tags("host", "abc.com", "route", "create").counter().count());
+        Assertions.assertEquals(0, meterRegistry.get("rwebpulse.client.errors")
+                .tags("type", "unhandled").counter().count());
+    }
+
+    @Test
+    public void testConcurrencyLimiterGauges() {
+        ConcurrencyLimitConfig concurrencyLimitConfig = new ConcurrencyLimitConfig();
+        concurrencyLimitConfig.setEnabled(true);
+        concurrencyLimitConfig.setInitialLimit(15);
+        AdaptiveConcurrencyLimiter concurrencyLimiter = new AdaptiveConcurrencyLimiter("orders", concurrencyLimitConfig);
+        webClientMetrics.registerConcurrencyLimiter(concurrencyLimiter);
+
+        Assertions.assertEquals(15, meterRegistry.get("rwebpulse.client.concurrency.limit")
+                .tags("name", "orders").gauge().value());
+        Assertions.assertEquals(concurrencyLimiter.getInFlight(), meterRegistry.get("rwebpulse.client.concurrency.in.flight")
+                .tags("name", "orders").gauge().value());
+    }
+
+    @Test
+    public void testRecordCache() {
+        webClientMetrics.recordCacheHit("abc.com", "countries");
+        webClientMetrics.recordCacheHit("abc.com", "countries");
+        webClientMetrics.recordCacheMiss("abc.com", "countries");
+        webClientMetrics.recordCacheEviction("abc.com", "countries");
+
+        Assertions.assertEquals(2, meterRegistry.get("rwebpulse.client.cache.requests")
+                .tags("route", "countries", "result", "hit").counter().count());
+        Assertions.assertEquals(1, meterRegistry.get("rwebpulse.client.cache.requests")
+                .tags("route", "countries", "result", "miss").counter().count());
+        Assertions.assertEquals(1, meterRegistry.get("rwebpulse.client.cache.evictions")
+                .tags("route", "countries").counter().count());
+    }
+
+    @Test
+    public void testCustomPrefix() {
+        MetricsConfig metricsConfig = new MetricsConfig();
+        metricsConfig.setPrefix("orders");
+        webClientMetrics = new MicrometerWebClientMetrics(meterRegistry, metricsConfig);
+
+        webClientMetrics.recordRetry("abc.com", null);
+        Assertions.assertNotNull(meterRegistry.find("orders.client.retries").counter());
+    }
+}
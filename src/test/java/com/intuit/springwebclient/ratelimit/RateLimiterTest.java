@@ -0,0 +1,76 @@
+package com.intuit.springwebclient.ratelimit;
+
+import com.intuit.springwebclient.config.RateLimitConfig;
+import com.intuit.springwebclient.exception.RateLimitExceededException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+public class RateLimiterTest {
+
+    @Test
+    public void testBurstThenSustainedRate() {
+        RateLimiter rateLimiter = new RateLimiter("orders", config(10, 3, 1000));
+        long now = System.nanoTime();
+
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertEquals(0L, rateLimiter.reservePermit(now), "burst is sent at once");
+        }
+        Assertions.assertEquals(TimeUnit.MILLISECONDS.toNanos(100), rateLimiter.reservePermit(now));
+        Assertions.assertEquals(TimeUnit.MILLISECONDS.toNanos(200), rateLimiter.reservePermit(now));
+        Assertions.assertEquals(0L, rateLimiter.reservePermit(now + TimeUnit.SECONDS.toNanos(10)),
+                "permits refill while idle");
+    }
+
+    @Test
+    public void testRejectsBeyondMaxWait() {
+        RateLimiter rateLimiter = new RateLimiter("orders", config(10, 1, 150));
+        long now = System.nanoTime();
+
+        Assertions.assertEquals(0L, rateLimiter.reservePermit(now));
+        Assertions.assertEquals(TimeUnit.MILLISECONDS.toNanos(100), rateLimiter.reservePermit(now));
+        Assertions.assertEquals(-1L, rateLimiter.reservePermit(now), "would wait 200ms");
+        Assertions.assertEquals(-1L, rateLimiter.reservePermit(now), "rejections do not take a permit");
+    }
+
+    @Test
+    public void testProtectDelaysRequestOverRate() {
+        RateLimiter rateLimiter = new RateLimiter("orders", config(20, 1, 1000));
+        rateLimiter.reservePermit(System.nanoTime());
+
+        long startNanos = System.nanoTime();
+        Assertions.assertEquals("second", rateLimiter.protect(Mono.just("second")).block(Duration.ofSeconds(5)));
+        Assertions.assertTrue(System.nanoTime() - startNanos >= TimeUnit.MILLISECONDS.toNanos(40),
+                "the request waits for its permit");
+    }
+
+    @Test
+    public void testProtectRejectsRequestOverQuota() {
+        RateLimiter rateLimiter = new RateLimiter("orders", config(1d / 60, 1, 0));
+
+        Assertions.assertEquals("first", rateLimiter.protect(Mono.just("first")).block());
+        Assertions.assertThrows(RateLimitExceededException.class,
+                () -> rateLimiter.protect(Mono.just("second")).block());
+    }
+
+    @Test
+    public void testRegistry() {
+        RateLimiterRegistry registry = new RateLimiterRegistry(null, Map.of("orders", config(10, 1, 0)));
+
+        Assertions.assertSame(registry.getRateLimiter("orders"), registry.getRateLimiter("orders"));
+        Assertions.assertSame(RateLimiter.DISABLED, registry.getRateLimiter("abc.com"));
+        Assertions.assertNotSame(RateLimiter.DISABLED,
+                new RateLimiterRegistry(config(10, 1, 0), null).getRateLimiter("abc.com"));
+    }
+
+    private static RateLimitConfig config(double permitsPerSecond, int burst, long maxWaitMillis) {
+        RateLimitConfig rateLimitConfig = new RateLimitConfig();
+        rateLimitConfig.setPermitsPerSecond(permitsPerSecond);
+        rateLimitConfig.setBurst(burst);
+        rateLimitConfig.setMaxWaitMillis(maxWaitMillis);
+        return rateLimitConfig;
+    }
+}
@@ -0,0 +1,219 @@
+package com.intuit.springwebclient.retry;
+
+import com.intuit.springwebclient.config.WebClientRetryConfig;
+import com.intuit.springwebclient.entity.enums.BackoffStrategy;
+import com.intuit.springwebclient.retryHandler.RetryHandler;
+import com.intuit.springwebclient.retryHandler.RetryHandlerChain;
+import com.intuit.springwebclient.retryHandler.RetryHandlerRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+public class BackoffRetrySpecTest {
+
+    @Test
+    public void testRetriesUntilExhausted() {
+        AtomicInteger subscriptions = new AtomicInteger();
+        AtomicInteger retries = new AtomicInteger();
+        WebClientRetryConfig retryConfig = WebClientRetryConfig.builder()
+                .maxAttempts(2)
+                .minBackoff(Duration.ofMillis(1))
+                .retryFilter(ex -> true)
+                .build();
+
+        StepVerifier.create(Mono.defer(() -> {
+                    subscriptions.incrementAndGet();
+                    return Mono.error(new IllegalStateException("boom"));
+                }).retryWhen(new BackoffRetrySpec(retryConfig, signal -> retries.incrementAndGet())))
+                .expectErrorMatches(Exceptions::isRetryExhausted)
+                .verify(Duration.ofSeconds(5));
+
+        Assertions.assertEquals(3, subscriptions.get(), "initial call plus two retries");
+        Assertions.assertEquals(2, retries.get());
+    }
+
+    @Test
+    public void testFilterRejectsFailure() {
+        WebClientRetryConfig retryConfig = WebClientRetryConfig.builder()
+                .maxAttempts(2)
+                .retryFilter(ex -> false)
+                .build();
+
+        StepVerifier.create(Mono.error(new IllegalStateException("boom"))
+                        .retryWhen(new BackoffRetrySpec(retryConfig, signal -> { })))
+                .expectError(IllegalStateException.class)
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void testRetryHandlerDecidesBeforeFilter() {
+        AtomicInteger subscriptions = new AtomicInteger();
+        WebClientRetryConfig retryConfig = WebClientRetryConfig.builder()
+                .maxAttempts(2)
+                .retryFilter(ex -> false)
+                .build();
+        RetryHandlerChain retryHandlers = new RetryHandlerRegistry(List.of(
+                decidingHandler("undecided", Mono.empty()),
+                decidingHandler("retrying", Mono.delay(Duration.ofMillis(1)).thenReturn(true))))
+                .chain(List.of("undecided", "retrying"));
+
+        StepVerifier.create(Mono.defer(() -> {
+                    subscriptions.incrementAndGet();
+                    return Mono.error(new IllegalStateException("boom"));
+                }).retryWhen(new BackoffRetrySpec(retryConfig, RetryBudget.UNLIMITED, signal -> { },
+                        signal -> { }, retryHandlers)))
+                .expectErrorMatches(Exceptions::isRetryExhausted)
+                .verify(Duration.ofSeconds(5));
+
+        Assertions.assertEquals(3, subscriptions.get(), "retried although the filter rejects it");
+    }
+
+    @Test
+    public void testRetryHandlerVetoesRetry() {
+        WebClientRetryConfig retryConfig = WebClientRetryConfig.builder()
+                .maxAttempts(2)
+                .retryFilter(ex -> true)
+                .build();
+        RetryHandlerChain retryHandlers = new RetryHandlerRegistry(List.of(
+                decidingHandler("vetoing", Mono.just(false))))
+                .chain(List.of("vetoing"));
+
+        StepVerifier.create(Mono.error(new IllegalStateException("boom"))
+                        .retryWhen(new BackoffRetrySpec(retryConfig, RetryBudget.UNLIMITED,
+                                signal -> { }, signal -> { }, retryHandlers)))
+                .expectError(IllegalStateException.class)
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void testFixedDelayUsesBackOffSeconds() {
+        WebClientRetryConfig retryConfig = WebClientRetryConfig.builder().backOff(2).build();
+
+        BackoffRetrySpec retrySpec = new BackoffRetrySpec(retryConfig, signal -> { });
+        Assertions.assertEquals(Duration.ofSeconds(2).toNanos(), retrySpec.computeDelayNanos(3, 0));
+    }
+
+    @Test
+    public void testExponentialDelayIsBounded() {
+        WebClientRetryConfig retryConfig = WebClientRetryConfig.builder()
+                .backoffStrategy(BackoffStrategy.EXPONENTIAL)
+                .minBackoff(Duration.ofMillis(100))
+                .maxBackoff(Duration.ofSeconds(1))
+                .jitterFactor(0.5d)
+                .build();
+        BackoffRetrySpec retrySpec = new BackoffRetrySpec(retryConfig, signal -> { });
+
+        for (int i = 0; i < 100; i++) {
+            long first = retrySpec.computeDelayNanos(0, 0);
+            Assertions.assertTrue(first >= Duration.ofMillis(100).toNanos() && first <= Duration.ofMillis(150).toNanos());
+            long third = retrySpec.computeDelayNanos(2, 0);
+            Assertions.assertTrue(third >= Duration.ofMillis(200).toNanos() && third <= Duration.ofMillis(600).toNanos());
+            long capped = retrySpec.computeDelayNanos(70, 0);
+            Assertions.assertTrue(capped >= Duration.ofMillis(500).toNanos() && capped <= Duration.ofSeconds(1).toNanos());
+        }
+    }
+
+    @Test
+    public void testDecorrelatedJitterDelayIsBounded() {
+        WebClientRetryConfig retryConfig = WebClientRetryConfig.builder()
+                .backoffStrategy(BackoffStrategy.DECORRELATED_JITTER)
+                .minBackoff(Duration.ofMillis(10))
+                .maxBackoff(Duration.ofMillis(200))
+                .build();
+        BackoffRetrySpec retrySpec = new BackoffRetrySpec(retryConfig, signal -> { });
+
+        for (int i = 0; i < 100; i++) {
+            long delay = retrySpec.computeDelayNanos(1, Duration.ofMillis(50).toNanos());
+            Assertions.assertTrue(delay >= Duration.ofMillis(10).toNanos() && delay <= Duration.ofMillis(150).toNanos());
+            long capped = retrySpec.computeDelayNanos(1, Duration.ofSeconds(1).toNanos());
+            Assertions.assertTrue(capped <= Duration.ofMillis(200).toNanos());
+        }
+    }
+
+    @Test
+    public void testRetryAfterHeader() {
+        Assertions.assertEquals(Duration.ofSeconds(3),
+                BackoffRetrySpec.retryAfter(responseException(HttpStatus.TOO_MANY_REQUESTS, "3")));
+        Assertions.assertNull(BackoffRetrySpec.retryAfter(responseException(HttpStatus.BAD_REQUEST, "3")));
+        Assertions.assertNull(BackoffRetrySpec.retryAfter(responseException(HttpStatus.SERVICE_UNAVAILABLE, "soon")));
+        Assertions.assertNull(BackoffRetrySpec.retryAfter(new IllegalStateException()));
+
+        String httpDate = ZonedDateTime.now().plusSeconds(30).format(DateTimeFormatter.RFC_1123_DATE_TIME);
+        Duration fromDate = BackoffRetrySpec.retryAfter(responseException(HttpStatus.SERVICE_UNAVAILABLE, httpDate));
+        Assertions.assertTrue(fromDate.getSeconds() > 20 && fromDate.getSeconds() <= 30);
+    }
+
+    @Test
+    public void testRetryAfterBeyondMaxBackoffStopsRetrying() {
+        AtomicInteger subscriptions = new AtomicInteger();
+        WebClientRetryConfig retryConfig = WebClientRetryConfig.builder()
+                .maxAttempts(3)
+                .maxBackoff(Duration.ofSeconds(1))
+                .honorRetryAfter(true)
+                .retryFilter(ex -> true)
+                .build();
+
+        StepVerifier.create(Mono.defer(() -> {
+                    subscriptions.incrementAndGet();
+                    return Mono.error(responseException(HttpStatus.TOO_MANY_REQUESTS, "60"));
+                }).retryWhen(new BackoffRetrySpec(retryConfig, signal -> { })))
+                .expectErrorMatches(Exceptions::isRetryExhausted)
+                .verify(Duration.ofSeconds(5));
+        Assertions.assertEquals(1, subscriptions.get());
+    }
+
+    @Test
+    public void testRetryDeadline() {
+        AtomicInteger subscriptions = new AtomicInteger();
+        WebClientRetryConfig retryConfig = WebClientRetryConfig.builder()
+                .maxAttempts(10)
+                .minBackoff(Duration.ofMillis(40))
+                .retryDeadline(Duration.ofMillis(100))
+                .retryFilter(ex -> true)
+                .build();
+
+        StepVerifier.create(Mono.defer(() -> {
+                    subscriptions.incrementAndGet();
+                    return Mono.error(new IllegalStateException("boom"));
+                }).retryWhen(new BackoffRetrySpec(retryConfig, signal -> { })))
+                .expectErrorMatches(Exceptions::isRetryExhausted)
+                .verify(Duration.ofSeconds(5));
+        Assertions.assertTrue(subscriptions.get() <= 3, "deadline should stop retries early");
+    }
+
+    private static WebClientResponseException responseException(HttpStatus status, String retryAfter) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, retryAfter);
+        return WebClientResponseException.create(status.value(), status.getReasonPhrase(), headers,
+                new byte[0], StandardCharsets.UTF_8);
+    }
+
+    private static RetryHandler decidingHandler(String name, Mono<Boolean> decision) {
+        return new RetryHandler() {
+            @Override
+            public void checkAndThrowRetriableException(Exception ex) {
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public Mono<Boolean> isRetriable(Throwable ex) {
+                return decision;
+            }
+        };
+    }
+}
@@ -0,0 +1,77 @@
+package com.intuit.springwebclient.retry;
+
+import com.intuit.springwebclient.config.RetryBudgetConfig;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class TokenBucketRetryBudgetTest {
+
+    @Test
+    public void testRetriesBoundedBySuccesses() {
+        TokenBucketRetryBudget retryBudget = new TokenBucketRetryBudget(config(0.5, 0, 100));
+
+        Assertions.assertFalse(retryBudget.tryWithdraw(), "no successes, no reserve");
+        for (int i = 0; i < 10; i++) {
+            retryBudget.deposit();
+        }
+        Assertions.assertEquals(5, retryBudget.getAvailableRetries());
+        for (int i = 0; i < 5; i++) {
+            Assertions.assertTrue(retryBudget.tryWithdraw());
+        }
+        Assertions.assertFalse(retryBudget.tryWithdraw());
+    }
+
+    @Test
+    public void testBalanceIsCapped() {
+        TokenBucketRetryBudget retryBudget = new TokenBucketRetryBudget(config(1, 0, 3));
+
+        for (int i = 0; i < 10; i++) {
+            retryBudget.deposit();
+        }
+        Assertions.assertEquals(3, retryBudget.getAvailableRetries());
+    }
+
+    @Test
+    public void testReserveRefillsOverTime() throws InterruptedException {
+        TokenBucketRetryBudget retryBudget = new TokenBucketRetryBudget(config(0, 100, 100));
+
+        Assertions.assertEquals(100, retryBudget.getAvailableRetries(), "starts with one second of reserve");
+        while (retryBudget.tryWithdraw()) {
+            // drain
+        }
+        Thread.sleep(50);
+        Assertions.assertTrue(retryBudget.tryWithdraw(), "reserve should refill at 100 per second");
+    }
+
+    @Test
+    public void testReserveRefillsAfterLongIdlePeriods() {
+        AtomicLong nanoTime = new AtomicLong();
+        TokenBucketRetryBudget retryBudget = new TokenBucketRetryBudget(config(0, 1, 100), nanoTime::get);
+
+        Assertions.assertTrue(retryBudget.tryWithdraw());
+        nanoTime.addAndGet(TimeUnit.DAYS.toNanos(200));
+        Assertions.assertEquals(100, retryBudget.getAvailableRetries(), "refilled to the cap without overflowing");
+    }
+
+    @Test
+    public void testRegistry() {
+        RetryBudgetConfig enabled = config(0.2, 5, 100);
+        RetryBudgetRegistry registry = new RetryBudgetRegistry(enabled);
+        Assertions.assertSame(registry.getRetryBudget("abc.com"), registry.getRetryBudget("abc.com"));
+        Assertions.assertNotSame(registry.getRetryBudget("abc.com"), registry.getRetryBudget("xyz.com"));
+
+        Assertions.assertSame(RetryBudget.UNLIMITED, new RetryBudgetRegistry(new RetryBudgetConfig()).getRetryBudget("abc.com"));
+        Assertions.assertSame(RetryBudget.UNLIMITED, new RetryBudgetRegistry(null).getRetryBudget("abc.com"));
+    }
+
+    private static RetryBudgetConfig config(double retryRatio, int minRetriesPerSecond, int maxRetries) {
+        RetryBudgetConfig retryBudgetConfig = new RetryBudgetConfig();
+        retryBudgetConfig.setEnabled(true);
+        retryBudgetConfig.setRetryRatio(retryRatio);
+        retryBudgetConfig.setMinRetriesPerSecond(minRetriesPerSecond);
+        retryBudgetConfig.setMaxRetries(maxRetries);
+        return retryBudgetConfig;
+    }
+}
@@ -0,0 +1,127 @@
+package com.intuit.springwebclient.retryHandler;
+
+import com.intuit.springwebclient.entity.ClientHttpRequest;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+public class RetryHandlerRegistryTest {
+
+    @Test
+    public void testResolvesChainOncePerHandlerNames() {
+        List<String> invoked = new ArrayList<>();
+        RetryHandlerRegistry registry = new RetryHandlerRegistry(List.of(
+                recordingHandler("first", invoked), recordingHandler("second", invoked)));
+
+        RetryHandlerChain chain = registry.chain(new ArrayList<>(List.of("second", "first")));
+        chain.checkAndThrowRetriableException(new IllegalStateException("boom"));
+
+        Assertions.assertSame(chain, registry.chain(List.of("second", "first")));
+        Assertions.assertEquals(List.of("second", "first"), invoked);
+        Assertions.assertFalse(chain.decidesRetries());
+        Assertions.assertSame(RetryHandlerChain.EMPTY, registry.chain(List.of()));
+    }
+
+    @Test
+    public void testRequestChainTakesPrecedence() {
+        RetryHandlerRegistry registry = new RetryHandlerRegistry(List.of(
+                recordingHandler("first", new ArrayList<>())));
+        RetryHandlerChain chain = registry.chain(List.of("first"));
+
+        ClientHttpRequest<Void, Void> precompiled = ClientHttpRequest.<Void, Void>builder()
+                .retryHandlerChain(chain)
+                .build();
+        ClientHttpRequest<Void, Void> named = ClientHttpRequest.<Void, Void>builder()
+                .retryHandlers(List.of("first"))
+                .build();
+
+        Assertions.assertSame(chain, registry.chain(precompiled));
+        Assertions.assertSame(chain, registry.chain(named));
+        Assertions.assertTrue(registry.chain(ClientHttpRequest.<Void, Void>builder().build())
+                .isEmpty());
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testFallsBackToRetryHandlerFactory() {
+        List<String> invoked = new ArrayList<>();
+        RetryHandlerFactory.addHandler("registryFallbackHandler",
+                recordingHandler("registryFallbackHandler", invoked));
+
+        new RetryHandlerRegistry(List.of()).chain(List.of("registryFallbackHandler"))
+                .checkAndThrowRetriableException(new IllegalStateException("boom"));
+
+        Assertions.assertEquals(List.of("registryFallbackHandler"), invoked);
+    }
+
+    @Test
+    public void testMissingHandlerFailsWhenInvoked() {
+        RetryHandlerRegistry registry = new RetryHandlerRegistry(List.of());
+
+        RetryHandlerChain chain = registry.chain(List.of("missingHandler"));
+
+        Assertions.assertNotSame(chain, registry.chain(List.of("missingHandler")),
+                "not cached, the handler may still be added");
+        IllegalStateException thrown = Assertions.assertThrows(IllegalStateException.class,
+                () -> chain.checkAndThrowRetriableException(new IllegalStateException("boom")));
+        Assertions.assertEquals("No RetryHandler registered with name missingHandler",
+                thrown.getMessage());
+    }
+
+    @Test
+    public void testDuplicateNamesRejected() {
+        Assertions.assertThrows(IllegalStateException.class, () -> new RetryHandlerRegistry(
+                List.of(recordingHandler("first", new ArrayList<>()),
+                        recordingHandler("first", new ArrayList<>()))));
+    }
+
+    @Test
+    public void testFirstRetryDecisionWins() {
+        RetryHandlerRegistry registry = new RetryHandlerRegistry(List.of(
+                decidingHandler("undecided", Mono.empty()),
+                decidingHandler("retrying", Mono.just(true)),
+                decidingHandler("vetoing", Mono.just(false))));
+
+        RetryHandlerChain chain = registry.chain(List.of("undecided", "retrying", "vetoing"));
+
+        Assertions.assertTrue(chain.decidesRetries());
+        Assertions.assertEquals(Boolean.TRUE, chain.isRetriable(new IllegalStateException("boom"))
+                .block());
+        Assertions.assertNull(registry.chain(List.of("undecided"))
+                .isRetriable(new IllegalStateException("boom")).block());
+    }
+
+    private static RetryHandler recordingHandler(String name, List<String> invoked) {
+        return new RetryHandler() {
+            @Override
+            public void checkAndThrowRetriableException(Exception ex) {
+                invoked.add(name);
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+        };
+    }
+
+    private static RetryHandler decidingHandler(String name, Mono<Boolean> decision) {
+        return new RetryHandler() {
+            @Override
+            public void checkAndThrowRetriableException(Exception ex) {
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public Mono<Boolean> isRetriable(Throwable ex) {
+                return decision;
+            }
+        };
+    }
+}